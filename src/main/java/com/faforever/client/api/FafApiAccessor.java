@@ -30,9 +30,11 @@ import com.faforever.client.util.Tuple;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
 import com.faforever.commons.io.ByteCountListener;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -61,12 +63,16 @@ public interface FafApiAccessor {
 
   List<Leaderboard> getLeaderboards();
 
-  List<LeaderboardEntry> getAllLeaderboardEntries(String leaderboardTechnicalName);
-
   Tuple<List<LeaderboardEntry>, java.util.Map<String, ?>> getLeaderboardEntriesWithMeta(String leaderboardTechnicalName, int count, int page);
 
   List<LeaderboardEntry> getLeaderboardEntriesForPlayer(int playerId);
 
+  /**
+   * Returns the entries of the leaderboard that have been updated at or after {@code updatedSince}, or all entries if
+   * it is {@code null}.
+   */
+  List<LeaderboardEntry> getLeaderboardEntriesUpdatedSince(String leaderboardTechnicalName, @Nullable OffsetDateTime updatedSince);
+
   List<LeaderboardRatingJournal> getRatingJournal(int playerId, int leaderboardId);
 
   Tuple<List<Map>, java.util.Map<String, ?>> getMapsByIdWithMeta(List<Integer> mapIdList, int count, int page);
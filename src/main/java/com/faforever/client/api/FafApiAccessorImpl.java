@@ -32,6 +32,9 @@ import com.faforever.client.config.ClientProperties;
 import com.faforever.client.config.ClientProperties.Api;
 import com.faforever.client.io.CountingFileSystemResource;
 import com.faforever.client.mod.FeaturedMod;
+import com.faforever.client.task.CompletableTask.Lane;
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.PrioritizedTaskExecutor;
 import com.faforever.client.user.event.LoggedOutEvent;
 import com.faforever.client.user.event.LoginSuccessEvent;
 import com.faforever.client.util.Tuple;
@@ -49,6 +52,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cache.annotation.Cacheable;
@@ -71,18 +75,19 @@ import java.io.Serializable;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -133,6 +138,7 @@ public class FafApiAccessorImpl implements FafApiAccessor, InitializingBean {
   private final ClientProperties clientProperties;
   private final JsonApiMessageConverter jsonApiMessageConverter;
   private final JsonApiErrorHandler jsonApiErrorHandler;
+  private final PrioritizedTaskExecutor taskExecutor;
   private final HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
 
   private RestTemplateBuilder templateBuilder;
@@ -234,27 +240,18 @@ public class FafApiAccessorImpl implements FafApiAccessor, InitializingBean {
   }
 
   @Override
-  @Cacheable(value = CacheNames.LEADERBOARD, sync = true)
-  public List<LeaderboardEntry> getAllLeaderboardEntries(String leaderboardTechnicalName) {
-    List<LeaderboardEntry> allResults = getAll(LEADERBOARD_ENTRY_ENDPOINT, java.util.Map.of(
-        FILTER, rsql(qBuilder().string("leaderboard.technicalName").eq(leaderboardTechnicalName)),
+  public List<LeaderboardEntry> getLeaderboardEntriesUpdatedSince(String leaderboardTechnicalName, @Nullable OffsetDateTime updatedSince) {
+    String filter = updatedSince == null
+        ? rsql(qBuilder().string("leaderboard.technicalName").eq(leaderboardTechnicalName))
+        : rsql(qBuilder()
+            .string("leaderboard.technicalName").eq(leaderboardTechnicalName)
+            .and()
+            .instant("updateTime").after(updatedSince.toInstant(), false));
+    // Pages are fetched concurrently by offset, so they need a stable order
+    return getAll(LEADERBOARD_ENTRY_ENDPOINT, java.util.Map.of(
+        FILTER, filter,
         INCLUDE, LEADERBOARD_ENTRY_INCLUDES,
-        SORT, "-rating"));
-
-    OffsetDateTime tCutOff = OffsetDateTime.now(ZoneOffset.UTC).minusMonths(1);
-    List<LeaderboardEntry> recentResults = allResults.stream()
-        .filter(le -> le.getUpdateTime().compareTo(tCutOff) >= 0)
-        .collect(Collectors.toList());
-
-    if (recentResults.size() >= 10) {
-      return recentResults;
-    }
-
-    return allResults.stream()
-        .sorted((a,b) -> b.getUpdateTime().compareTo(a.getUpdateTime()))
-        .limit(10)
-        .sorted((a,b) -> b.getRating().compareTo(a.getRating()))
-        .collect(Collectors.toList());
+        SORT, "id"));
   }
 
   @Override
@@ -757,22 +754,85 @@ public class FafApiAccessorImpl implements FafApiAccessor, InitializingBean {
   }
 
   private <T> List<T> getAll(String endpointPath, java.util.Map<String, Serializable> params) {
-    return getMany(endpointPath, clientProperties.getApi().getMaxPageSize(), params);
+    return getMany(endpointPath, Integer.MAX_VALUE, params);
   }
 
+  /**
+   * Fetches up to {@code count} elements in pages of at most the maximum page size. Most results fit into the first
+   * page, which is therefore requested without the total. If it is full, the second page is requested along with the
+   * total number of pages, and the remaining pages are fetched concurrently. Each page is deserialized by the thread
+   * that fetched it, and the pages are concatenated in order.
+   */
   @SneakyThrows
   private <T> List<T> getMany(String endpointPath, int count, java.util.Map<String, Serializable> params) {
-    List<T> result = new LinkedList<>();
-    List<T> current = null;
-    int page = 1;
-    int maxPageSize = clientProperties.getApi().getMaxPageSize();
-    while ((current == null || current.size() >= maxPageSize) && result.size() < count) {
-      current = getPage(endpointPath, count, page++, params);
-      result.addAll(current);
+    int pageSize = Math.min(count, clientProperties.getApi().getMaxPageSize());
+    List<T> firstPage = getPage(endpointPath, pageSize, 1, params);
+    if (firstPage.size() < pageSize || pageSize >= count) {
+      return firstPage;
+    }
+
+    JSONAPIDocument<List<T>> secondPage = getPageWithMeta(endpointPath, pageSize, 2, params);
+    List<T> result = new ArrayList<>(firstPage);
+    result.addAll(secondPage.get());
+    int totalPages = getTotalPages(secondPage);
+    if (totalPages < 0) {
+      // Without a total, the pages can only be fetched one after another until one isn't full
+      List<T> current = secondPage.get();
+      for (int page = 3; current.size() >= pageSize && result.size() < count; page++) {
+        current = getPage(endpointPath, pageSize, page, params);
+        result.addAll(current);
+      }
+    } else {
+      int lastPage = (int) Math.min(totalPages, ((long) count + pageSize - 1) / pageSize);
+      result.addAll(getPagesConcurrently(endpointPath, pageSize, 3, lastPage, params));
+    }
+    return result.size() > count ? new ArrayList<>(result.subList(0, count)) : result;
+  }
+
+  /**
+   * Fetches the pages on the network lane. Pages that no worker has started yet when their turn comes are fetched by
+   * the calling thread, so that callers running on the network lane themselves can't wait for pages queued behind them.
+   */
+  @SneakyThrows
+  private <T> List<T> getPagesConcurrently(String endpointPath, int pageSize, int firstPage, int lastPage, java.util.Map<String, Serializable> params) {
+    Executor executor = taskExecutor.getExecutor(Lane.NETWORK, Priority.HIGH);
+    List<FutureTask<List<T>>> pages = new ArrayList<>();
+    for (int page = firstPage; page <= lastPage; page++) {
+      int pageNumber = page;
+      FutureTask<List<T>> pageTask = new FutureTask<>(() -> getPage(endpointPath, pageSize, pageNumber, params));
+      executor.execute(pageTask);
+      pages.add(pageTask);
+    }
+
+    List<T> result = new ArrayList<>();
+    try {
+      for (FutureTask<List<T>> page : pages) {
+        // Does nothing if a worker has already started the page
+        page.run();
+        result.addAll(page.get());
+      }
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    } finally {
+      // Pages that haven't been requested yet won't be
+      pages.forEach(page -> page.cancel(false));
     }
     return result;
   }
 
+  /**
+   * Returns the total number of pages from the {@code page[totals]} metadata, or {@code -1} if it's missing.
+   */
+  private static int getTotalPages(JSONAPIDocument<?> document) {
+    java.util.Map<String, ?> meta = document.getMeta();
+    Object page = meta == null ? null : meta.get("page");
+    if (!(page instanceof java.util.Map)) {
+      return -1;
+    }
+    Object totalPages = ((java.util.Map<?, ?>) page).get("totalPages");
+    return totalPages instanceof Number ? ((Number) totalPages).intValue() : -1;
+  }
+
   private <T> List<T> getPage(String endpointPath, int pageSize, int page, java.util.Map<String, Serializable> params) {
     java.util.Map<String, List<String>> multiValues = params.entrySet().stream()
         .collect(Collectors.toMap(Entry::getKey, entry -> Collections.singletonList(String.valueOf(entry.getValue()))));
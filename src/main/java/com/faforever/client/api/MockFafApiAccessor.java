@@ -34,6 +34,7 @@ import com.faforever.client.util.Tuple;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
 import com.faforever.commons.io.ByteCountListener;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
@@ -104,7 +105,7 @@ public class MockFafApiAccessor implements FafApiAccessor {
   }
 
   @Override
-  public List<LeaderboardEntry> getAllLeaderboardEntries(String leaderboardTechnicalName) {
+  public List<LeaderboardEntry> getLeaderboardEntriesUpdatedSince(String leaderboardTechnicalName, @Nullable OffsetDateTime updatedSince) {
     return Collections.emptyList();
   }
 
@@ -13,6 +13,7 @@ import com.faforever.client.player.Player;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.reporting.ReportingService;
+import com.faforever.client.theme.Theme;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.ui.StageHolder;
 import com.faforever.client.uploader.ImageUploadService;
@@ -24,6 +25,8 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.eventbus.EventBus;
 import com.google.common.io.CharStreams;
+import com.google.gson.Gson;
+import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ChangeListener;
@@ -59,9 +62,14 @@ import java.io.Reader;
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -72,7 +80,6 @@ import static com.faforever.client.theme.UiService.CHAT_SECTION_EXTENDED;
 import static com.faforever.client.theme.UiService.CHAT_TEXT_COMPACT;
 import static com.faforever.client.theme.UiService.CHAT_TEXT_EXTENDED;
 import static com.github.nocatch.NoCatch.noCatch;
-import static com.google.common.html.HtmlEscapers.htmlEscaper;
 import static java.time.temporal.ChronoUnit.MINUTES;
 import static java.util.regex.Pattern.CASE_INSENSITIVE;
 import static javafx.scene.AccessibleAttribute.ITEM_AT_INDEX;
@@ -91,7 +98,6 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   private static final PseudoClass UNREAD_PSEUDO_STATE = PseudoClass.getPseudoClass("unread");
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private static final org.springframework.core.io.Resource CHAT_JS_RESOURCE = new ClassPathResource("/js/chat_container.js");
-  private static final org.springframework.core.io.Resource AUTOLINKER_JS_RESOURCE = new ClassPathResource("/js/Autolinker.min.js");
   private static final org.springframework.core.io.Resource JQUERY_JS_RESOURCE = new ClassPathResource("js/jquery-2.1.4.min.js");
   private static final org.springframework.core.io.Resource JQUERY_HIGHLIGHT_JS_RESOURCE = new ClassPathResource("js/jquery.highlight-5.closure.js");
 
@@ -112,6 +118,7 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
    */
   private static final String ACTION_CSS_CLASS = "action";
   private static final String MESSAGE_CSS_CLASS = "message";
+  private static final Gson gson = new Gson();
   protected final UserService userService;
   protected final ChatService chatService;
   protected final PreferencesService preferencesService;
@@ -129,9 +136,25 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   private final CountryFlagService countryFlagService;
 
   /**
-   * Messages that arrived before the web view was ready. Those are appended as soon as it is ready.
+   * Messages that arrived before the web view was ready. Those are appended as soon as it is ready. Only the most
+   * recent messages that fit into the chat history are kept.
    */
-  private final List<ChatMessage> waitingMessages;
+  private final Deque<ChatMessage> waitingMessages;
+  /**
+   * Messages that arrived since the last pulse. Those are appended together, in a single call into the web view. Just
+   * like {@link #waitingMessages}, bounded by the size of the chat history.
+   */
+  private final Deque<ChatMessage> pendingMessages;
+  /**
+   * Messages mentioning the user that arrived since the last pulse. Unlike the messages to render, none of these are
+   * dropped, so that every mention is notified even if its message never makes it into the web view.
+   */
+  private final List<ChatMessage> pendingMentions;
+  /**
+   * Compiled chat templates of {@link #templatesTheme}, by their path in the theme. Only accessed on the application
+   * thread.
+   */
+  private final Map<String, ChatMessageTemplate> templatesByPath;
   private final IntegerProperty unreadMessagesCount;
   private final ChangeListener<Boolean> resetUnreadMessagesListener;
   private final ChangeListener<Number> unreadMessagesCountListener;
@@ -141,6 +164,11 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   private final ChangeListener<Boolean> stageFocusedListener;
   private MapChangeListener<String, ChatChannelUser> usersChangeListener;
   private int lastEntryId;
+  /**
+   * Number of sections that have been removed from the top of the web view. Since section IDs are consecutive, the
+   * sections in the web view are the ones after this number up to {@link #lastEntryId}.
+   */
+  private int removedEntries;
   private boolean isChatReady;
   /**
    * Either a channel like "#coreprime" or a user like "Visionik".
@@ -148,6 +176,16 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   private String receiver;
   private Pattern mentionPattern;
   private ChatMessage lastMessage;
+  private boolean flushScheduled;
+  /**
+   * Number of messages by other users that arrived since the last pulse, including those dropped before rendering.
+   */
+  private int pendingUnreadMessages;
+  private Theme templatesTheme;
+  /**
+   * The HTML of the messages that are currently being appended, {@code null} if no messages are being appended.
+   */
+  private MessageBatch messageBatch;
   WebEngine engine;
 
   @Inject
@@ -175,13 +213,21 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     this.countryFlagService = countryFlagService;
     this.chatUserService = chatUserService;
 
-    waitingMessages = new ArrayList<>();
+    waitingMessages = new ArrayDeque<>();
+    pendingMessages = new ArrayDeque<>();
+    pendingMentions = new ArrayList<>();
+    templatesByPath = new HashMap<>();
     unreadMessagesCount = new SimpleIntegerProperty();
     resetUnreadMessagesListener = (observable, oldValue, newValue) -> setUnread(false);
     unreadMessagesCountListener = (observable, oldValue, newValue) -> {
       if (lastEntryId > 0 && oldValue.intValue()==0 && newValue.intValue()>0) {
         removeMessageId(LAST_READ_DELIMITER_ID);
-        insertIntoContainer(String.format("<hr id='%s'>", LAST_READ_DELIMITER_ID), "chat-section-" + lastEntryId);
+        String delimiterHtml = String.format("<hr id='%s'>", LAST_READ_DELIMITER_ID);
+        if (messageBatch != null) {
+          messageBatch.appendToSection("chat-section-" + lastEntryId, delimiterHtml);
+        } else {
+          insertIntoContainer(delimiterHtml, "chat-section-" + lastEntryId);
+        }
       }
       chatService.incrementUnreadMessagesCount(newValue.intValue() - oldValue.intValue());
     };
@@ -414,7 +460,6 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     try (Reader reader = new InputStreamReader(uiService.getThemeFileUrl(CHAT_CONTAINER).openStream())) {
       String chatContainerHtml = CharStreams.toString(reader)
           .replace("{chat-container-js}", CHAT_JS_RESOURCE.getURL().toExternalForm())
-          .replace("{auto-linker-js}", AUTOLINKER_JS_RESOURCE.getURL().toExternalForm())
           .replace("{jquery-js}", JQUERY_JS_RESOURCE.getURL().toExternalForm())
           .replace("{jquery-highlight-js}", JQUERY_HIGHLIGHT_JS_RESOURCE.getURL().toExternalForm());
 
@@ -444,8 +489,9 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
         return;
       }
       synchronized (waitingMessages) {
-        waitingMessages.forEach(AbstractChatTabController.this::addMessage);
+        appendMessages(waitingMessages);
         waitingMessages.clear();
+        removeTopmostMessages();
         isChatReady = true;
         onWebViewLoaded();
       }
@@ -525,34 +571,87 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
         });
   }
 
+  /**
+   * Counts the message as unread and notices mentions right away, so that they are notified on the next pulse even if
+   * the message itself is dropped before it is rendered.
+   */
   protected void onChatMessage(ChatMessage chatMessage) {
     synchronized (waitingMessages) {
-      if (!isChatReady) {
-        waitingMessages.add(chatMessage);
-      } else {
-        JavaFxUtil.runLater(() -> {
-          addMessage(chatMessage);
-          removeTopmostMessages();
-          scrollToBottomIfDesired();
-        });
+      if (!playerService.isCurrentPlayer(chatMessage.getSubject())) {
+        pendingUnreadMessages++;
+      }
+      if (mentionPattern.matcher(chatMessage.getMessage()).find()) {
+        pendingMentions.add(chatMessage);
+      }
+      addBounded(isChatReady ? pendingMessages : waitingMessages, chatMessage);
+      if (!flushScheduled) {
+        flushScheduled = true;
+        // Not JavaFxUtil.runLater, which would flush every message on its own when called on the application thread
+        Platform.runLater(this::flushPendingMessages);
       }
     }
   }
 
+  /**
+   * Adds the message to the queue, dropping the oldest message if the queue holds more messages than the chat history
+   * would display anyway. Each message takes at most one section, so no message that would be displayed is dropped.
+   * Only rendering is skipped for dropped messages, they have been counted and checked for mentions already.
+   */
+  private void addBounded(Deque<ChatMessage> messages, ChatMessage chatMessage) {
+    messages.addLast(chatMessage);
+    int maxMessageItems = preferencesService.getPreferences().getChat().getMaxMessages();
+    while (messages.size() > Math.max(maxMessageItems, 0)) {
+      messages.removeFirst();
+    }
+  }
+
+  private void flushPendingMessages() {
+    List<ChatMessage> messages;
+    List<ChatMessage> mentions;
+    int unreadMessages;
+    synchronized (waitingMessages) {
+      messages = new ArrayList<>(pendingMessages);
+      pendingMessages.clear();
+      mentions = new ArrayList<>(pendingMentions);
+      pendingMentions.clear();
+      unreadMessages = pendingUnreadMessages;
+      pendingUnreadMessages = 0;
+      flushScheduled = false;
+    }
+
+    if (unreadMessages > 0 && !hasFocus()) {
+      setUnread(true);
+      incrementUnreadMessagesCount(unreadMessages);
+    }
+    mentions.forEach(this::onMention);
+
+    // Messages that arrive before the web view is ready are appended once it is
+    if (messages.isEmpty()) {
+      return;
+    }
+    appendMessages(messages);
+    removeTopmostMessages();
+    scrollToBottomIfDesired();
+  }
+
   private void scrollToBottomIfDesired() {
     JavaFxUtil.assertApplicationThread();
     engine.executeScript("scrollToBottomIfDesired()");
   }
 
+  /**
+   * Removes the oldest sections exceeding the chat history, all at once.
+   */
   private void removeTopmostMessages() {
     JavaFxUtil.assertApplicationThread();
     int maxMessageItems = preferencesService.getPreferences().getChat().getMaxMessages();
 
-    int numberOfMessages = (int) engine.executeScript("document.getElementsByClassName('" + MESSAGE_ITEM_CLASS + "').length");
-    while (numberOfMessages > maxMessageItems) {
-      engine.executeScript("document.getElementsByClassName('" + MESSAGE_ITEM_CLASS + "')[0].remove()");
-      numberOfMessages--;
+    int excessMessageItems = lastEntryId - removedEntries - Math.max(maxMessageItems, 0);
+    if (excessMessageItems <= 0) {
+      return;
     }
+    getJsObject().call("removeTopmostElements", MESSAGE_ITEM_CLASS, excessMessageItems);
+    removedEntries += excessMessageItems;
   }
 
   private void removeMessageId(String id) {
@@ -575,24 +674,40 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   }
 
   /**
-   * Either inserts a new chat entry or, if the same user as before sent another message, appends it do the previous
-   * entry.
+   * Renders the messages and inserts all of them into the web view at once.
    */
-  private void addMessage(ChatMessage chatMessage) {
+  private void appendMessages(Collection<ChatMessage> chatMessages) {
     JavaFxUtil.assertApplicationThread();
-    noCatch(() -> {
-      if (!hasFocus() && !playerService.isCurrentPlayer(chatMessage.getSubject())) {
-        setUnread(true);
-        incrementUnreadMessagesCount(1);
-      }
+    if (chatMessages.isEmpty()) {
+      return;
+    }
 
-      if (requiresNewChatSection(chatMessage)) {
-        appendChatMessageSection(chatMessage);
-      } else {
-        appendMessage(chatMessage);
-      }
-      lastMessage = chatMessage;
-    });
+    messageBatch = new MessageBatch();
+    try {
+      noCatch(() -> {
+        for (ChatMessage chatMessage : chatMessages) {
+          addMessage(chatMessage);
+        }
+      });
+      getJsObject().call("appendChatMessages", messageBatch.sectionsHtml.toString(),
+          gson.toJson(messageBatch.htmlBySectionId));
+      getMessagesWebView().requestLayout();
+    } finally {
+      messageBatch = null;
+    }
+  }
+
+  /**
+   * Either adds a new chat entry or, if the same user as before sent another message, appends it do the previous
+   * entry.
+   */
+  private void addMessage(ChatMessage chatMessage) throws IOException {
+    if (requiresNewChatSection(chatMessage)) {
+      appendChatMessageSection(chatMessage);
+    } else {
+      appendMessage(chatMessage);
+    }
+    lastMessage = chatMessage;
   }
 
   private boolean requiresNewChatSection(ChatMessage chatMessage) {
@@ -603,37 +718,47 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
   }
 
   private void appendMessage(ChatMessage chatMessage) throws IOException {
-    URL themeFileUrl;
+    ChatMessageTemplate template;
     if (preferencesService.getPreferences().getChat().getChatFormat() == ChatFormat.COMPACT) {
-      themeFileUrl = uiService.getThemeFileUrl(CHAT_TEXT_COMPACT);
+      template = getTemplate(CHAT_TEXT_COMPACT);
     } else {
-      themeFileUrl = uiService.getThemeFileUrl(CHAT_TEXT_EXTENDED);
+      template = getTemplate(CHAT_TEXT_EXTENDED);
     }
 
-    String html = renderHtml(chatMessage, themeFileUrl, null);
-
-    insertIntoContainer(html, "chat-section-" + lastEntryId);
+    messageBatch.appendToSection("chat-section-" + lastEntryId, renderHtml(chatMessage, template, null));
   }
 
   private void appendChatMessageSection(ChatMessage chatMessage) throws IOException {
-    URL themeFileURL;
+    ChatMessageTemplate template;
     if (preferencesService.getPreferences().getChat().getChatFormat() == ChatFormat.COMPACT) {
-      themeFileURL = uiService.getThemeFileUrl(CHAT_SECTION_COMPACT);
+      template = getTemplate(CHAT_SECTION_COMPACT);
     } else {
-      themeFileURL = uiService.getThemeFileUrl(CHAT_SECTION_EXTENDED);
+      template = getTemplate(CHAT_SECTION_EXTENDED);
     }
 
-    String html = renderHtml(chatMessage, themeFileURL, ++lastEntryId);
-    insertIntoContainer(html, MESSAGE_CONTAINER_ID);
+    messageBatch.sectionsHtml.append(renderHtml(chatMessage, template, ++lastEntryId));
     appendMessage(chatMessage);
   }
 
-  private String renderHtml(ChatMessage chatMessage, URL themeFileUrl, @Nullable Integer sectionId) throws IOException {
-    String html;
-    try (Reader reader = new InputStreamReader(themeFileUrl.openStream())) {
-      html = CharStreams.toString(reader);
+  /**
+   * Returns the compiled template of the current theme, which is only read from the theme once.
+   */
+  private ChatMessageTemplate getTemplate(String relativePath) throws IOException {
+    Theme currentTheme = uiService.getCurrentTheme();
+    if (currentTheme != templatesTheme) {
+      templatesByPath.clear();
+      templatesTheme = currentTheme;
     }
 
+    ChatMessageTemplate template = templatesByPath.get(relativePath);
+    if (template == null) {
+      template = ChatMessageTemplate.load(uiService.getThemeFileUrl(relativePath));
+      templatesByPath.put(relativePath, template);
+    }
+    return template;
+  }
+
+  private String renderHtml(ChatMessage chatMessage, ChatMessageTemplate template, @Nullable Integer sectionId) {
     String login = chatMessage.getUsername();
     String avatarUrl = "";
     String clanTag = "";
@@ -654,15 +779,6 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
       }
     }
 
-    String timeString = timeService.asShortTime(chatMessage.getTime());
-    html = html.replace("{time}", timeString)
-        .replace("{avatar}", StringUtils.defaultString(avatarUrl))
-        .replace("{username}", login)
-        .replace("{clan-tag}", clanTag)
-        .replace("{decorated-clan-tag}", decoratedClanTag)
-        .replace("{country-flag}", StringUtils.defaultString(countryFlagUrl))
-        .replace("{section-id}", String.valueOf(sectionId));
-
     Collection<String> cssClasses = new ArrayList<>();
     cssClasses.add(String.format("user-%s", chatMessage.getUsername()));
     if (chatMessage.isAction()) {
@@ -671,25 +787,27 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
       cssClasses.add(MESSAGE_CSS_CLASS);
     }
 
-    html = html.replace("{css-classes}", Joiner.on(' ').join(cssClasses));
-
-    Optional.ofNullable(getMessageCssClass(login)).ifPresent(cssClasses::add);
-
-    String text = htmlEscaper().escape(chatMessage.getMessage()).replace("\\", "\\\\");
-    text = convertUrlsToHyperlinks(text);
+    String text = UrlHyperlinkUtil.escapeAndLinkUrls(chatMessage.getMessage());
     text = replaceChannelNamesWithHyperlinks(text);
 
     Matcher matcher = mentionPattern.matcher(text);
     if (matcher.find()) {
       text = matcher.replaceAll("<span class='self'>" + matcher.group(1) + "</span>");
-      onMention(chatMessage);
     }
 
-    return html
-        .replace("{css-classes}", Joiner.on(' ').join(cssClasses))
-        .replace("{inline-style}", getInlineStyle(login))
-        // Always replace text last in case the message contains one of the placeholders.
-        .replace("{text}", text);
+    Map<String, String> values = new HashMap<>();
+    values.put("time", timeService.asShortTime(chatMessage.getTime()));
+    values.put("avatar", StringUtils.defaultString(avatarUrl));
+    values.put("username", login);
+    values.put("clan-tag", clanTag);
+    values.put("decorated-clan-tag", decoratedClanTag);
+    values.put("country-flag", StringUtils.defaultString(countryFlagUrl));
+    values.put("section-id", String.valueOf(sectionId));
+    values.put("css-classes", Joiner.on(' ').join(cssClasses));
+    values.put("inline-style", getInlineStyle(login));
+    // The template never searches values for placeholders, so the text may safely contain them.
+    values.put("text", text);
+    return template.render(values);
   }
 
   @VisibleForTesting
@@ -748,11 +866,6 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     return String.format("color: %s;", JavaFxUtil.toRgbCode(messageColor));
   }
 
-  protected String convertUrlsToHyperlinks(String text) {
-    JavaFxUtil.assertApplicationThread();
-    return (String) engine.executeScript("link('" + text.replace("'", "\\'") + "')");
-  }
-
   private void insertIntoContainer(String html, String containerId) {
     ((JSObject) engine.executeScript("document.getElementById('" + containerId + "')"))
         .call("insertAdjacentHTML", "beforeend", html);
@@ -805,4 +918,18 @@ public abstract class AbstractChatTabController implements Controller<Tab> {
     onSelectedListener = listener;
     getRoot().selectedProperty().addListener(new WeakChangeListener<>(listener));
   }
+
+  /**
+   * The HTML of messages that are inserted into the web view together.
+   */
+  private static class MessageBatch {
+    /** New sections, to be appended to the message container. */
+    private final StringBuilder sectionsHtml = new StringBuilder();
+    /** Texts to be appended to the section with the respective ID, which may be one of the new sections. */
+    private final Map<String, StringBuilder> htmlBySectionId = new LinkedHashMap<>();
+
+    void appendToSection(String sectionId, String html) {
+      htmlBySectionId.computeIfAbsent(sectionId, id -> new StringBuilder()).append(html);
+    }
+  }
 }
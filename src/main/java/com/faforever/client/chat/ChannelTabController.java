@@ -21,10 +21,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
+import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
 import javafx.beans.WeakInvalidationListener;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.event.ActionEvent;
 import javafx.geometry.Bounds;
@@ -49,22 +48,15 @@ import javafx.stage.PopupWindow;
 import lombok.extern.slf4j.Slf4j;
 import org.fxmisc.flowless.VirtualFlow;
 import org.fxmisc.flowless.VirtualizedScrollPane;
-import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -94,19 +86,12 @@ public class ChannelTabController extends AbstractChatTabController {
     }
     return right.getUsername().compareToIgnoreCase(left.getUsername());
   };
+  /** The chat user (or category) items that back the chat user list view. */
   @VisibleForTesting
-  /** Maps a chat user category to a list of all user items that belong to it. */
-  final Map<ChatUserCategory, List<CategoryOrChatUserListItem>> categoriesToUserListItems;
-  /** Maps a chat user category to the list items that represent the respective category within the chat user list. */
-  private final Map<ChatUserCategory, CategoryOrChatUserListItem> categoriesToCategoryListItems;
-  /** Maps usernames to all chat user list items that belong to that user. */
-  private final Map<String, List<CategoryOrChatUserListItem>> userNamesToListItems;
+  final ChatUserListModel chatUserListModel;
 
   private final FilteredList<CategoryOrChatUserListItem> filteredChatUserList;
 
-  /** The list of chat user (or category) items that backs the chat user list view. */
-  private final ObservableList<CategoryOrChatUserListItem> chatUserListItems;
-
   private final AutoCompletionHelper autoCompletionHelper;
   private final PlatformService platformService;
   public SplitPane splitPane;
@@ -151,25 +136,15 @@ public class ChannelTabController extends AbstractChatTabController {
         eventBus, countryFlagService, chatUserService);
     this.platformService = platformService;
 
-    categoriesToUserListItems = new HashMap<>();
-    categoriesToCategoryListItems = new HashMap<>();
-    userNamesToListItems = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-    chatUserListItems = FXCollections.observableArrayList();
-    filteredChatUserList = new FilteredList<>(chatUserListItems);
+    chatUserListModel = new ChatUserListModel(CHAT_USER_ITEM_COMPARATOR.reversed(), Platform::runLater);
+    filteredChatUserList = new FilteredList<>(chatUserListModel.getItems());
 
     autoCompletionHelper = new AutoCompletionHelper(
-        currentWord -> userNamesToListItems.keySet().stream()
+        currentWord -> chatUserListModel.getUsernames().stream()
             .filter(playerName -> playerName.toLowerCase(US).startsWith(currentWord.toLowerCase()))
             .sorted()
             .collect(Collectors.toList())
     );
-
-    List<CategoryOrChatUserListItem> categoryObjects = createCategoryTreeObjects();
-    categoryObjects.forEach(categoryItem -> {
-      categoriesToCategoryListItems.put(categoryItem.getCategory(), categoryItem);
-      categoriesToUserListItems.put(categoryItem.getCategory(), new ArrayList<>());
-    });
-    chatUserListItems.addAll(categoryObjects);
   }
 
   private static boolean isSelf(ChatChannelUser chatUser) {
@@ -280,13 +255,6 @@ public class ChannelTabController extends AbstractChatTabController {
     });
   }
 
-  @NotNull
-  private List<CategoryOrChatUserListItem> createCategoryTreeObjects() {
-    return Arrays.stream(ChatUserCategory.values())
-        .map(CategoryOrChatUserListItem::new)
-        .collect(Collectors.toList());
-  }
-
   @VisibleForTesting
   boolean isUsernameMatch(ChatChannelUser user) {
     String lowerCaseSearchString = user.getUsername().toLowerCase(US);
@@ -415,48 +383,10 @@ public class ChannelTabController extends AbstractChatTabController {
   /**
    * Adds and removes chat user items from the chat user list depending on the user's categories. For instance, if the
    * user is a moderator, he'll be added to the moderator category (if missing) and if he's no longer a friend, he will
-   * be removed from the friends category.
+   * be removed from the friends category. The change is applied with all other changes of the same pulse.
    */
   private void updateChatUserListItemsForCategories(ChatChannelUser chatUser) {
-    List<CategoryOrChatUserListItem> userListItems;
-    synchronized (userNamesToListItems) {
-      userNamesToListItems.computeIfAbsent(chatUser.getUsername(), s -> new ArrayList<>());
-      userListItems = userNamesToListItems.get(chatUser.getUsername());
-    }
-    Set<ChatUserCategory> chatUserCategorySet = chatUser.getChatUserCategories();
-    Arrays.stream(ChatUserCategory.values())
-        .forEach(category -> {
-          List<CategoryOrChatUserListItem> categoryUserList = categoriesToUserListItems.get(category);
-          if (chatUserCategorySet.contains(category) && userListItems.stream().noneMatch(categoryUserList::contains)) {
-            CategoryOrChatUserListItem userItem = new CategoryOrChatUserListItem(chatUser, category);
-            userListItems.add(userItem);
-            categoryUserList.add(userItem);
-            addToTreeItemSorted(userItem);
-          } else if (!chatUserCategorySet.contains(category) && userListItems.stream().anyMatch(categoryUserList::contains)) {
-            List<CategoryOrChatUserListItem> itemsToRemove = userListItems.stream().filter(categoryUserList::contains).collect(Collectors.toList());
-            userListItems.removeAll(itemsToRemove);
-            categoryUserList.removeAll(itemsToRemove);
-            JavaFxUtil.runLater(() -> chatUserListItems.removeAll(itemsToRemove));
-          }
-        });
-  }
-
-  private void addToTreeItemSorted(CategoryOrChatUserListItem child) {
-    ChatUserCategory category = child.getCategory();
-    CategoryOrChatUserListItem parent = categoriesToCategoryListItems.get(category);
-    JavaFxUtil.runLater(() -> {
-      synchronized (chatUserListItems) {
-        for (int index = chatUserListItems.indexOf(parent) + 1; index < chatUserListItems.size(); index++) {
-          CategoryOrChatUserListItem otherItem = chatUserListItems.get(index);
-
-          if (otherItem.getCategory() != category || CHAT_USER_ITEM_COMPARATOR.compare(child, otherItem) > 0) {
-            chatUserListItems.add(index, child);
-            return;
-          }
-        }
-        chatUserListItems.add(child);
-      }
-    });
+    chatUserListModel.update(chatUser);
   }
 
   private void updateCssClass(ChatChannelUser chatUser) {
@@ -476,15 +406,7 @@ public class ChannelTabController extends AbstractChatTabController {
 
   void onPlayerDisconnected(ChatChannelUser user) {
     super.onPlayerDisconnected(user);
-    List<CategoryOrChatUserListItem> listItemsToBeRemoved = userNamesToListItems.remove(user.getUsername());
-
-    if (listItemsToBeRemoved != null) {
-      JavaFxUtil.runLater(() -> chatUserListItems.removeAll(listItemsToBeRemoved));
-      Arrays.stream(ChatUserCategory.values())
-          .filter(categoriesToUserListItems::containsKey)
-          .map(categoriesToUserListItems::get)
-          .forEach(categoryOrChatUserListItems -> listItemsToBeRemoved.forEach(categoryOrChatUserListItems::remove));
-    }
+    chatUserListModel.remove(user.getUsername());
   }
 
   // FIXME use this again
@@ -581,10 +503,6 @@ public class ChannelTabController extends AbstractChatTabController {
 
   @VisibleForTesting
   List<CategoryOrChatUserListItem> getChatUserItemsByCategory(ChatUserCategory category) {
-    CategoryOrChatUserListItem categoryItem = categoriesToCategoryListItems.get(category);
-    if (categoryItem == null) {
-      return Collections.emptyList();
-    }
     return filteredChatUserList.stream().filter(item -> item.getUser() != null && item.getCategory() == category).collect(Collectors.toList());
   }
 
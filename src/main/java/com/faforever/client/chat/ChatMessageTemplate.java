@@ -0,0 +1,76 @@
+package com.faforever.client.chat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A chat HTML template like {@code chat_section.html}, split once into literal text and {@code {placeholder}}s so that
+ * rendering a message only needs to append the segments instead of searching the whole template for every
+ * placeholder. Values are inserted as they are, they are never searched for placeholders themselves.
+ */
+final class ChatMessageTemplate {
+
+  private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([a-z-]+)}");
+
+  /** Literal text at even indices, placeholder names at odd indices. */
+  private final List<String> segments;
+  private final int length;
+
+  private ChatMessageTemplate(List<String> segments, int length) {
+    this.segments = segments;
+    this.length = length;
+  }
+
+  static ChatMessageTemplate compile(String template) {
+    List<String> segments = new ArrayList<>();
+    Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
+    int literalStart = 0;
+    while (matcher.find()) {
+      segments.add(template.substring(literalStart, matcher.start()));
+      segments.add(matcher.group(1));
+      literalStart = matcher.end();
+    }
+    segments.add(template.substring(literalStart));
+    return new ChatMessageTemplate(segments, template.length());
+  }
+
+  static ChatMessageTemplate load(URL url) throws IOException {
+    try (InputStream inputStream = url.openStream()) {
+      return compile(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Appends the template to {@code html}, with every placeholder replaced by its value. Placeholders without a value
+   * are kept as they are.
+   */
+  void render(Map<String, String> values, StringBuilder html) {
+    html.ensureCapacity(html.length() + length);
+    for (int i = 0; i < segments.size(); i++) {
+      String segment = segments.get(i);
+      if (i % 2 == 0) {
+        html.append(segment);
+        continue;
+      }
+      String value = values.get(segment);
+      if (value == null) {
+        html.append('{').append(segment).append('}');
+      } else {
+        html.append(value);
+      }
+    }
+  }
+
+  String render(Map<String, String> values) {
+    StringBuilder html = new StringBuilder();
+    render(values, html);
+    return html.toString();
+  }
+}
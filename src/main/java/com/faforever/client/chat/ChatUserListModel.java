@@ -0,0 +1,240 @@
+package com.faforever.client.chat;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/**
+ * The items of a channel's user list: one item per category, each followed by the items of the users in that category
+ * in display order. Every category keeps its users sorted, so the position of a user is found by binary search, and
+ * every user knows its items, so moving it to another category doesn't need to search any list.
+ * <p>
+ * Users may be added, updated and removed from any thread. Those changes are collected and applied together on the
+ * application thread, so that a flood of joins results in a single change of {@link #getItems()} rather than one per
+ * user.
+ */
+class ChatUserListModel {
+
+  /**
+   * Up to this many changes are applied to the items one by one, larger batches replace all items at once.
+   */
+  private static final int MAX_INCREMENTAL_CHANGES = 32;
+
+  private final Comparator<CategoryOrChatUserListItem> itemOrder;
+  private final Executor applicationThreadExecutor;
+  private final ObservableList<CategoryOrChatUserListItem> items;
+  private final Map<ChatUserCategory, CategoryOrChatUserListItem> categoryItems;
+  /** The items of the users of a category, in display order. Only accessed on the application thread. */
+  private final Map<ChatUserCategory, List<CategoryOrChatUserListItem>> userItemsByCategory;
+  /** The items of a user, by category. Only accessed on the application thread. */
+  private final Map<String, Map<ChatUserCategory, CategoryOrChatUserListItem>> userItemsByUsername;
+
+  /** Users that joined or whose categories may have changed since the last pulse. Guarded by itself. */
+  private final Map<String, ChatChannelUser> pendingUpdates;
+  /** Users that left since the last pulse. Guarded by {@link #pendingUpdates}. */
+  private final Set<String> pendingRemovals;
+  private boolean applyScheduled;
+
+  /**
+   * @param itemOrder the order of the users within a category
+   * @param applicationThreadExecutor runs tasks on the application thread, after the current pulse
+   */
+  ChatUserListModel(Comparator<CategoryOrChatUserListItem> itemOrder, Executor applicationThreadExecutor) {
+    this.itemOrder = itemOrder;
+    this.applicationThreadExecutor = applicationThreadExecutor;
+    items = FXCollections.observableArrayList();
+    categoryItems = new EnumMap<>(ChatUserCategory.class);
+    userItemsByCategory = new EnumMap<>(ChatUserCategory.class);
+    userItemsByUsername = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    pendingUpdates = new LinkedHashMap<>();
+    pendingRemovals = new LinkedHashSet<>();
+
+    for (ChatUserCategory category : ChatUserCategory.values()) {
+      CategoryOrChatUserListItem categoryItem = new CategoryOrChatUserListItem(category);
+      categoryItems.put(category, categoryItem);
+      userItemsByCategory.put(category, new ArrayList<>());
+      items.add(categoryItem);
+    }
+  }
+
+  /**
+   * The list backing the user list view. Must only be accessed on the application thread.
+   */
+  ObservableList<CategoryOrChatUserListItem> getItems() {
+    return items;
+  }
+
+  /**
+   * Adds the user to the categories it belongs to and removes it from all others.
+   */
+  void update(ChatChannelUser chatUser) {
+    synchronized (pendingUpdates) {
+      pendingRemovals.remove(chatUser.getUsername());
+      pendingUpdates.put(chatUser.getUsername(), chatUser);
+      scheduleApply();
+    }
+  }
+
+  void remove(String username) {
+    synchronized (pendingUpdates) {
+      pendingUpdates.remove(username);
+      pendingRemovals.add(username);
+      scheduleApply();
+    }
+  }
+
+  /**
+   * Returns the items of the users in the specified category, in display order. Must only be called on the
+   * application thread.
+   */
+  List<CategoryOrChatUserListItem> getUserItems(ChatUserCategory category) {
+    return Collections.unmodifiableList(userItemsByCategory.get(category));
+  }
+
+  /**
+   * Returns the names of all listed users. Must only be called on the application thread.
+   */
+  Set<String> getUsernames() {
+    return Collections.unmodifiableSet(userItemsByUsername.keySet());
+  }
+
+  /**
+   * Returns whether the user is listed in any category. Must only be called on the application thread.
+   */
+  boolean contains(String username) {
+    return userItemsByUsername.containsKey(username);
+  }
+
+  private void scheduleApply() {
+    if (applyScheduled) {
+      return;
+    }
+    applyScheduled = true;
+    applicationThreadExecutor.execute(this::applyPendingChanges);
+  }
+
+  private void applyPendingChanges() {
+    List<ChatChannelUser> updates;
+    List<String> removals;
+    synchronized (pendingUpdates) {
+      updates = new ArrayList<>(pendingUpdates.values());
+      removals = new ArrayList<>(pendingRemovals);
+      pendingUpdates.clear();
+      pendingRemovals.clear();
+      applyScheduled = false;
+    }
+
+    boolean incremental = updates.size() + removals.size() <= MAX_INCREMENTAL_CHANGES;
+    removals.forEach(username -> removeUser(username, incremental));
+    updates.forEach(chatUser -> updateUser(chatUser, incremental));
+
+    if (!incremental) {
+      List<CategoryOrChatUserListItem> allItems = new ArrayList<>(items.size());
+      for (ChatUserCategory category : ChatUserCategory.values()) {
+        allItems.add(categoryItems.get(category));
+        allItems.addAll(userItemsByCategory.get(category));
+      }
+      items.setAll(allItems);
+    }
+  }
+
+  private void removeUser(String username, boolean updateItems) {
+    Map<ChatUserCategory, CategoryOrChatUserListItem> userItems = userItemsByUsername.remove(username);
+    if (userItems == null) {
+      return;
+    }
+    userItems.values().forEach(userItem -> removeItem(userItem, updateItems));
+  }
+
+  private void updateUser(ChatChannelUser chatUser, boolean updateItems) {
+    Set<ChatUserCategory> categories = chatUser.getChatUserCategories();
+    Map<ChatUserCategory, CategoryOrChatUserListItem> userItems = userItemsByUsername
+        .computeIfAbsent(chatUser.getUsername(), username -> new EnumMap<>(ChatUserCategory.class));
+
+    for (ChatUserCategory category : ChatUserCategory.values()) {
+      CategoryOrChatUserListItem userItem = userItems.get(category);
+      if (categories.contains(category) && userItem == null) {
+        userItem = new CategoryOrChatUserListItem(chatUser, category);
+        userItems.put(category, userItem);
+        addItem(userItem, updateItems);
+      } else if (!categories.contains(category) && userItem != null) {
+        userItems.remove(category);
+        removeItem(userItem, updateItems);
+      }
+    }
+  }
+
+  private void addItem(CategoryOrChatUserListItem userItem, boolean updateItems) {
+    List<CategoryOrChatUserListItem> categoryUserItems = userItemsByCategory.get(userItem.getCategory());
+    int index = Collections.binarySearch(categoryUserItems, userItem, itemOrder);
+    // Users that are equal in order are added after the existing ones
+    int insertionIndex = index < 0 ? -index - 1 : index + 1;
+    while (insertionIndex < categoryUserItems.size()
+        && itemOrder.compare(categoryUserItems.get(insertionIndex), userItem) == 0) {
+      insertionIndex++;
+    }
+    categoryUserItems.add(insertionIndex, userItem);
+    if (updateItems) {
+      items.add(getCategoryItemIndex(userItem.getCategory()) + 1 + insertionIndex, userItem);
+    }
+  }
+
+  private void removeItem(CategoryOrChatUserListItem userItem, boolean updateItems) {
+    List<CategoryOrChatUserListItem> categoryUserItems = userItemsByCategory.get(userItem.getCategory());
+    int index = indexOf(categoryUserItems, userItem);
+    if (index < 0) {
+      return;
+    }
+    categoryUserItems.remove(index);
+    if (updateItems) {
+      items.remove(getCategoryItemIndex(userItem.getCategory()) + 1 + index);
+    }
+  }
+
+  /**
+   * Finds the item by binary search, then looks for the very same instance among the items that are equal in order.
+   * Falls back to a linear search if the user's order changed since it was added, e.g. because it turned out to be the
+   * current player.
+   */
+  private int indexOf(List<CategoryOrChatUserListItem> categoryUserItems, CategoryOrChatUserListItem userItem) {
+    int index = Collections.binarySearch(categoryUserItems, userItem, itemOrder);
+    if (index >= 0) {
+      while (index > 0 && itemOrder.compare(categoryUserItems.get(index - 1), userItem) == 0) {
+        index--;
+      }
+      for (; index < categoryUserItems.size() && itemOrder.compare(categoryUserItems.get(index), userItem) == 0; index++) {
+        if (categoryUserItems.get(index) == userItem) {
+          return index;
+        }
+      }
+    }
+    for (index = 0; index < categoryUserItems.size(); index++) {
+      if (categoryUserItems.get(index) == userItem) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private int getCategoryItemIndex(ChatUserCategory category) {
+    int index = 0;
+    for (ChatUserCategory precedingCategory : ChatUserCategory.values()) {
+      if (precedingCategory == category) {
+        return index;
+      }
+      index += 1 + userItemsByCategory.get(precedingCategory).size();
+    }
+    throw new IllegalArgumentException("Unknown category: " + category);
+  }
+}
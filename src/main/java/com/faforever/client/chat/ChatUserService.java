@@ -9,11 +9,14 @@ import com.faforever.client.i18n.I18n;
 import com.faforever.client.map.MapService;
 import com.faforever.client.map.MapService.PreviewType;
 import com.faforever.client.player.Player;
+import com.faforever.client.player.event.PlayersUpdatedEvent;
+import com.faforever.client.player.event.PlayersUpdatingEvent;
 import com.faforever.client.preferences.ChatPrefs;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.theme.UiService;
 import com.google.common.base.Strings;
 import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import lombok.RequiredArgsConstructor;
@@ -21,8 +24,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.faforever.client.chat.ChatColorMode.DEFAULT;
 import static com.faforever.client.chat.ChatColorMode.RANDOM;
@@ -45,11 +52,61 @@ public class ChatUserService implements InitializingBean {
   private final I18n i18n;
   private final EventBus eventBus;
 
+  /**
+   * Refreshes of chat users whose players changed while a batch of player updates is applied. Those are performed
+   * once the whole batch has been applied, so that every chat user is refreshed at most once per batch. Guarded by
+   * itself. Chat users are compared by identity since the same user is represented by one instance per channel.
+   */
+  private final Map<ChatChannelUser, Set<Refresh>> deferredRefreshes = new IdentityHashMap<>();
+  private boolean playersUpdating;
+
+  private enum Refresh {
+    GAME_IMAGES, CLAN, COUNTRY, AVATAR, COLOR
+  }
+
   @Override
   public void afterPropertiesSet() {
     eventBus.register(this);
   }
 
+  @Subscribe
+  public void onPlayersUpdating(PlayersUpdatingEvent event) {
+    synchronized (deferredRefreshes) {
+      playersUpdating = true;
+    }
+  }
+
+  @Subscribe
+  public void onPlayersUpdated(PlayersUpdatedEvent event) {
+    Map<ChatChannelUser, Set<Refresh>> refreshes;
+    synchronized (deferredRefreshes) {
+      playersUpdating = false;
+      refreshes = new IdentityHashMap<>(deferredRefreshes);
+      deferredRefreshes.clear();
+    }
+    refreshes.forEach((chatChannelUser, userRefreshes) -> userRefreshes.forEach(refresh -> perform(chatChannelUser, refresh)));
+  }
+
+  private void refresh(ChatChannelUser chatChannelUser, Refresh refresh) {
+    synchronized (deferredRefreshes) {
+      if (playersUpdating) {
+        deferredRefreshes.computeIfAbsent(chatChannelUser, user -> EnumSet.noneOf(Refresh.class)).add(refresh);
+        return;
+      }
+    }
+    perform(chatChannelUser, refresh);
+  }
+
+  private void perform(ChatChannelUser chatChannelUser, Refresh refresh) {
+    switch (refresh) {
+      case GAME_IMAGES -> populateGameImages(chatChannelUser);
+      case CLAN -> populateClan(chatChannelUser);
+      case COUNTRY -> populateCountry(chatChannelUser);
+      case AVATAR -> populateAvatar(chatChannelUser);
+      case COLOR -> populateColor(chatChannelUser);
+    }
+  }
+
   private void populateClan(ChatChannelUser chatChannelUser) {
     if (chatChannelUser.isDisplayed()) {
       chatChannelUser.getPlayer().ifPresent(player -> {
@@ -204,27 +261,27 @@ public class ChatUserService implements InitializingBean {
   private void addListeners(ChatChannelUser chatChannelUser) {
     chatChannelUser.setAvatarChangeListener((observable, oldValue, newValue) -> {
       if (!Objects.equals(oldValue, newValue)) {
-        populateAvatar(chatChannelUser);
+        refresh(chatChannelUser, Refresh.AVATAR);
       }
     });
     chatChannelUser.setClanTagChangeListener((observable, oldValue, newValue) -> {
       if (!Objects.equals(oldValue, newValue)) {
-        populateClan(chatChannelUser);
+        refresh(chatChannelUser, Refresh.CLAN);
       }
     });
     chatChannelUser.setCountryChangeListener((observable, oldValue, newValue) -> {
       if (!Objects.equals(oldValue, newValue)) {
-        populateCountry(chatChannelUser);
+        refresh(chatChannelUser, Refresh.COUNTRY);
       }
     });
     chatChannelUser.setSocialStatusChangeListener((observable, oldValue, newValue) -> {
       if (!Objects.equals(oldValue, newValue)) {
-        populateColor(chatChannelUser);
+        refresh(chatChannelUser, Refresh.COLOR);
       }
     });
     chatChannelUser.setGameStatusChangeListener((observable, oldValue, newValue) -> {
       if (!Objects.equals(oldValue, newValue)) {
-        populateGameImages(chatChannelUser);
+        refresh(chatChannelUser, Refresh.GAME_IMAGES);
       }
     });
     chatChannelUser.setDisplayedChangeListener((observable, oldValue, newValue) -> {
@@ -251,7 +308,7 @@ public class ChatUserService implements InitializingBean {
       boolean wasAfk = oldValue.longValue() >= MIN_AFK_TIMEOUT_SECONDS;
       boolean isAfk = newValue.longValue() >= MIN_AFK_TIMEOUT_SECONDS;
       if (wasAfk != isAfk) {
-        populateGameImages(chatChannelUser);
+        refresh(chatChannelUser, Refresh.GAME_IMAGES);
       }
     });
   }
@@ -0,0 +1,86 @@
+package com.faforever.client.chat;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.html.HtmlEscapers.htmlEscaper;
+
+/**
+ * Turns URLs in plain chat text into links the chat web view can handle, without a round trip into the web view for
+ * every message.
+ */
+public final class UrlHyperlinkUtil {
+
+  /**
+   * Matches URLs starting with a scheme or {@code www.}, and bare domains like {@code faforever.com/news}. To not link
+   * things like file names or abbreviations, a bare domain needs one of the top level domains commonly seen in
+   * chat and must not be part of an email address.
+   */
+  private static final Pattern URL_PATTERN = Pattern.compile(
+      "\\b(?:https?://|www\\.)[^\\s<>\"]+"
+          + "|(?<![@\\w.-])(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?\\.)+"
+          + "(?:com|net|org|info|app|dev|xyz|eu|de|ru|uk|fr|pl|nl|cz|se|at|ch|be|us|ca|au|co|io|gg|tv|me|to|ly)(?![\\w-])"
+          + "(?::\\d+)?(?:[/?#][^\\s<>\"]*)?",
+      Pattern.CASE_INSENSITIVE);
+  private static final Pattern SCHEME_PATTERN = Pattern.compile("^[a-z]+://", Pattern.CASE_INSENSITIVE);
+  private static final Pattern URL_PREFIX_PATTERN = Pattern.compile("^(?:https?://)?(?:www\\.)?", Pattern.CASE_INSENSITIVE);
+  private static final String TRAILING_PUNCTUATION = ".,;:!?'";
+
+  private UrlHyperlinkUtil() {
+    throw new AssertionError("Not instantiatable");
+  }
+
+  /**
+   * HTML-escapes the specified plain text and replaces all URLs in it by links.
+   */
+  public static String escapeAndLinkUrls(String text) {
+    Matcher matcher = URL_PATTERN.matcher(text);
+    StringBuilder html = new StringBuilder(text.length() + 16);
+    int plainTextStart = 0;
+    while (matcher.find()) {
+      String url = trimTrailingPunctuation(matcher.group());
+      if (URL_PREFIX_PATTERN.matcher(url).replaceFirst("").isEmpty()) {
+        continue;
+      }
+      html.append(htmlEscaper().escape(text.substring(plainTextStart, matcher.start())));
+      appendLink(url, html);
+      plainTextStart = matcher.start() + url.length();
+    }
+    html.append(htmlEscaper().escape(text.substring(plainTextStart)));
+    return html.toString();
+  }
+
+  private static void appendLink(String url, StringBuilder html) {
+    String href = SCHEME_PATTERN.matcher(url).find() ? url : "http://" + url;
+    String escapedHref = htmlEscaper().escape(href.replace("\\", "\\\\").replace("'", "\\'"));
+
+    String anchorText = URL_PREFIX_PATTERN.matcher(url).replaceFirst("");
+    if (anchorText.endsWith("/")) {
+      anchorText = anchorText.substring(0, anchorText.length() - 1);
+    }
+
+    html.append("<a href=\"javascript:void(0);\" onClick=\"java.openUrl('").append(escapedHref)
+        .append("')\" onMouseOver=\"java.previewUrl('").append(escapedHref)
+        .append("')\" onMouseOut=\"java.hideUrlPreview()\">")
+        .append(htmlEscaper().escape(anchorText))
+        .append("</a>");
+  }
+
+  /**
+   * Punctuation directly after a URL usually ends the sentence rather than belonging to the URL. A closing parenthesis
+   * is only kept if the URL contains the opening one, like Wikipedia links do.
+   */
+  private static String trimTrailingPunctuation(String url) {
+    int end = url.length();
+    while (end > 0) {
+      char last = url.charAt(end - 1);
+      if (TRAILING_PUNCTUATION.indexOf(last) >= 0
+          || last == ')' && url.lastIndexOf('(', end - 1) < 0) {
+        end--;
+      } else {
+        break;
+      }
+    }
+    return url.substring(0, end);
+  }
+}
@@ -1,5 +1,8 @@
 package com.faforever.client.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import javafx.scene.image.Image;
+import lombok.RequiredArgsConstructor;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
@@ -44,56 +47,104 @@ import static com.faforever.client.config.CacheNames.TADEMO_MAP_HASH;
 import static com.faforever.client.config.CacheNames.TADEMO_MOD_HASH;
 import static com.faforever.client.config.CacheNames.THEME_IMAGES;
 import static com.faforever.client.config.CacheNames.URL_PREVIEW;
-import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
 import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Configuration
 @EnableCaching
+@RequiredArgsConstructor
 public class CacheConfig extends CachingConfigurerSupport {
 
+  /** Assumed size of an image that is still loading and has no requested size. */
+  private static final int ESTIMATED_IMAGE_WEIGHT = 512 * 512 * 4;
+
+  private final ClientProperties clientProperties;
+
   @Bean
   @Override
   public CacheManager cacheManager() {
     SimpleCacheManager simpleCacheManager = new SimpleCacheManager();
     simpleCacheManager.setCaches(Arrays.asList(
-        new CaffeineCache(STATISTICS, newBuilder().maximumSize(10).expireAfterWrite(20, MINUTES).build()),
-        new CaffeineCache(ACHIEVEMENTS, newBuilder().expireAfterWrite(10, MINUTES).build()),
-        new CaffeineCache(MODS, newBuilder().expireAfterWrite(10, MINUTES).build()),
-        new CaffeineCache(MAPS, newBuilder().expireAfterWrite(10, MINUTES).build()),
-        new CaffeineCache(MAP_GENERATOR, newBuilder().expireAfterWrite(10, MINUTES).build()),
-        new CaffeineCache(LEADERBOARD, newBuilder().expireAfterWrite(15, SECONDS).build()),
-        new CaffeineCache(GLOBAL_LEADERBOARD, newBuilder().maximumSize(1).expireAfterAccess(5, MINUTES).build()),
-        new CaffeineCache(LADDER_1V1_LEADERBOARD, newBuilder().maximumSize(1).expireAfterAccess(5, MINUTES).build()),
-        new CaffeineCache(AVAILABLE_AVATARS, newBuilder().expireAfterAccess(10, MINUTES).build()),
-        new CaffeineCache(COOP_MAPS, newBuilder().expireAfterAccess(10, MINUTES).build()),
-        new CaffeineCache(NEWS, newBuilder().expireAfterWrite(5, MINUTES).build()),
-        new CaffeineCache(RATING_HISTORY, newBuilder().expireAfterWrite(1, MINUTES).build()),
-        new CaffeineCache(COOP_LEADERBOARD, newBuilder().expireAfterWrite(1, MINUTES).build()),
-        new CaffeineCache(CLAN, newBuilder().expireAfterWrite(1, HOURS).build()),
-        new CaffeineCache(FEATURED_MODS, newBuilder().build()),
-        new CaffeineCache(FEATURED_MOD_FILES, newBuilder().expireAfterWrite(10, MINUTES).build()),
-        new CaffeineCache(MATCHMAKER_QUEUES, newBuilder().expireAfterWrite(10, MINUTES).build()),
-        new CaffeineCache(MATCHMAKER_QUEUES_BY_MOD, newBuilder().expireAfterWrite(10, MINUTES).build()),
-        new CaffeineCache(MATCHMAKER_POOLS, newBuilder().expireAfterWrite(10, MINUTES).build()),
-        new CaffeineCache(TADEMO_MAP_HASH, newBuilder().expireAfterWrite(1, MINUTES).build()),
-        new CaffeineCache(TADEMO_MOD_HASH, newBuilder().expireAfterWrite(1, MINUTES).build()),
+        new CaffeineCache(STATISTICS, newBuilder(STATISTICS).expireAfterWrite(20, MINUTES).build()),
+        new CaffeineCache(ACHIEVEMENTS, newBuilder(ACHIEVEMENTS).expireAfterWrite(10, MINUTES).build()),
+        new CaffeineCache(MODS, newBuilder(MODS).expireAfterWrite(10, MINUTES).build()),
+        new CaffeineCache(MAPS, newBuilder(MAPS).expireAfterWrite(10, MINUTES).build()),
+        new CaffeineCache(MAP_GENERATOR, newBuilder(MAP_GENERATOR).expireAfterWrite(10, MINUTES).build()),
+        new CaffeineCache(LEADERBOARD, newBuilder(LEADERBOARD).expireAfterWrite(15, SECONDS).build()),
+        new CaffeineCache(GLOBAL_LEADERBOARD, newBuilder(GLOBAL_LEADERBOARD).expireAfterAccess(5, MINUTES).build()),
+        new CaffeineCache(LADDER_1V1_LEADERBOARD, newBuilder(LADDER_1V1_LEADERBOARD).expireAfterAccess(5, MINUTES).build()),
+        new CaffeineCache(AVAILABLE_AVATARS, newBuilder(AVAILABLE_AVATARS).expireAfterAccess(10, MINUTES).build()),
+        new CaffeineCache(COOP_MAPS, newBuilder(COOP_MAPS).expireAfterAccess(10, MINUTES).build()),
+        new CaffeineCache(NEWS, newBuilder(NEWS).expireAfterWrite(5, MINUTES).build()),
+        new CaffeineCache(RATING_HISTORY, newBuilder(RATING_HISTORY).expireAfterWrite(1, MINUTES).build()),
+        new CaffeineCache(COOP_LEADERBOARD, newBuilder(COOP_LEADERBOARD).expireAfterWrite(1, MINUTES).build()),
+        new CaffeineCache(CLAN, newBuilder(CLAN).expireAfterWrite(1, HOURS).build()),
+        new CaffeineCache(FEATURED_MODS, newBuilder(FEATURED_MODS).build()),
+        new CaffeineCache(FEATURED_MOD_FILES, newBuilder(FEATURED_MOD_FILES).expireAfterWrite(10, MINUTES).build()),
+        new CaffeineCache(MATCHMAKER_QUEUES, newBuilder(MATCHMAKER_QUEUES).expireAfterWrite(10, MINUTES).build()),
+        new CaffeineCache(MATCHMAKER_QUEUES_BY_MOD, newBuilder(MATCHMAKER_QUEUES_BY_MOD).expireAfterWrite(10, MINUTES).build()),
+        new CaffeineCache(MATCHMAKER_POOLS, newBuilder(MATCHMAKER_POOLS).expireAfterWrite(10, MINUTES).build()),
+        new CaffeineCache(TADEMO_MAP_HASH, newBuilder(TADEMO_MAP_HASH).expireAfterWrite(1, MINUTES).build()),
+        new CaffeineCache(TADEMO_MOD_HASH, newBuilder(TADEMO_MOD_HASH).expireAfterWrite(1, MINUTES).build()),
 
         // Images should only be cached as long as they are in use. This avoids loading an image multiple times, while
         // at the same time it doesn't prevent unused images from being garbage collected.
-        new CaffeineCache(ACHIEVEMENT_IMAGES, newBuilder().weakValues().build()),
-        new CaffeineCache(AVATARS, newBuilder().weakValues().build()),
-        new CaffeineCache(URL_PREVIEW, newBuilder().weakValues().expireAfterAccess(30, MINUTES).build()),
-        new CaffeineCache(MAP_PREVIEW, newBuilder().weakValues().build()),
-        new CaffeineCache(COUNTRY_FLAGS, newBuilder().weakValues().build()),
-        new CaffeineCache(COUNTRY_NAMES, newBuilder().weakValues().build()),
-        new CaffeineCache(THEME_IMAGES, newBuilder().weakValues().build()),
-        new CaffeineCache(MOD_THUMBNAIL, newBuilder().weakValues().build()
+        // Configured weight limits additionally cap the total size of the images that are in use.
+        new CaffeineCache(ACHIEVEMENT_IMAGES, imageCacheBuilder(ACHIEVEMENT_IMAGES).build()),
+        new CaffeineCache(AVATARS, imageCacheBuilder(AVATARS).build()),
+        new CaffeineCache(URL_PREVIEW, imageCacheBuilder(URL_PREVIEW).expireAfterAccess(30, MINUTES).build()),
+        new CaffeineCache(MAP_PREVIEW, imageCacheBuilder(MAP_PREVIEW).build()),
+        new CaffeineCache(COUNTRY_FLAGS, imageCacheBuilder(COUNTRY_FLAGS).build()),
+        new CaffeineCache(COUNTRY_NAMES, newBuilder(COUNTRY_NAMES).weakValues().build()),
+        new CaffeineCache(THEME_IMAGES, imageCacheBuilder(THEME_IMAGES).build()),
+        new CaffeineCache(MOD_THUMBNAIL, imageCacheBuilder(MOD_THUMBNAIL).build()
         )));
     return simpleCacheManager;
   }
 
+  /**
+   * Returns a builder for a cache that records its statistics and is limited to the configured number of entries, if
+   * any.
+   */
+  private Caffeine<Object, Object> newBuilder(String cacheName) {
+    Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+    Long maxSize = clientProperties.getCache().getMaxSizes().get(cacheName);
+    if (maxSize != null) {
+      builder.maximumSize(maxSize);
+    }
+    return builder;
+  }
+
+  /**
+   * Returns a builder for a cache of images that are in use, limited to the configured total image size, if any.
+   */
+  private Caffeine<Object, Object> imageCacheBuilder(String cacheName) {
+    Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats().weakValues();
+    Long maxWeight = clientProperties.getCache().getMaxImageWeights().get(cacheName);
+    if (maxWeight != null) {
+      builder.maximumWeight(maxWeight).weigher(CacheConfig::weighImage);
+    }
+    return builder;
+  }
+
+  /**
+   * Estimates the size of a decoded image in bytes. Images that are still loading in the background are weighed by
+   * their requested size, since the weight is only computed once.
+   */
+  private static int weighImage(Object key, Object value) {
+    if (!(value instanceof Image)) {
+      return 1;
+    }
+    Image image = (Image) value;
+    double width = image.getWidth() > 0 ? image.getWidth() : image.getRequestedWidth();
+    double height = image.getHeight() > 0 ? image.getHeight() : image.getRequestedHeight();
+    if (width <= 0 || height <= 0) {
+      return ESTIMATED_IMAGE_WEIGHT;
+    }
+    return (int) Math.min(Integer.MAX_VALUE, width * height * 4);
+  }
+
   @Override
   public CacheResolver cacheResolver() {
     return null;
@@ -27,6 +27,9 @@ public class ClientProperties {
   private MapGenerator mapGenerator = new MapGenerator();
   private Website website = new Website();
   private Discord discord = new Discord();
+  private Tasks tasks = new Tasks();
+  private FeaturedModUpdater featuredModUpdater = new FeaturedModUpdater();
+  private Cache cache = new Cache();
   private String translationProjectUrl;
   private String clientConfigUrl;
   private boolean useRemotePreferences;
@@ -188,4 +191,76 @@ public class ClientProperties {
     private String title;
     private String url;
   }
+
+  @Data
+  public static class Tasks {
+    /**
+     * Maximum number of background tasks doing mostly computations that run at the same time.
+     */
+    private int cpuThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Maximum number of background tasks doing mostly file system work that run at the same time.
+     */
+    private int diskThreads = 2;
+
+    /**
+     * Maximum number of background tasks doing mostly network transfers that run at the same time.
+     */
+    private int networkThreads = 4;
+  }
+
+  @Data
+  public static class FeaturedModUpdater {
+    /**
+     * Number of installed featured mod files that are hashed at the same time to find out which ones are outdated. The
+     * files are hashed on the disk lane, so at most {@link Tasks#getDiskThreads()} plus the updater itself run at once.
+     */
+    private int hashThreads = 4;
+
+    /**
+     * Number of featured mod files that are downloaded at the same time. The files are downloaded on the network lane,
+     * so at most {@link Tasks#getNetworkThreads()} plus the updater itself run at once.
+     */
+    private int downloadThreads = 4;
+
+    /**
+     * Maximum total size in bytes of the cached featured mod files. The least recently used files are removed first.
+     */
+    private long maxCacheSize = 2L * 1024 * 1024 * 1024;
+  }
+
+  @Data
+  public static class Cache {
+    /**
+     * Maximum total size in bytes of the avatars, map previews and other images cached on disk. The least recently used
+     * images are removed first.
+     */
+    private long maxImageDiskSize = 256L * 1024 * 1024;
+
+    /**
+     * Maximum number of entries of an in-memory cache, by cache name (see {@link CacheNames}). Caches without a limit
+     * only expire their entries after a while. Image caches are limited by {@link #maxImageWeights} instead.
+     */
+    private Map<String, Long> maxSizes = new HashMap<>(Map.of(
+        CacheNames.STATISTICS, 10L,
+        CacheNames.GLOBAL_LEADERBOARD, 1L,
+        CacheNames.LADDER_1V1_LEADERBOARD, 1L));
+
+    /**
+     * Maximum total size in bytes of the decoded images kept by an in-memory image cache, by cache name (see
+     * {@link CacheNames}). Images in caches without a limit are kept as long as they are in use.
+     */
+    private Map<String, Long> maxImageWeights = new HashMap<>();
+
+    /**
+     * Maximum total size in bytes of the decoded map preview thumbnails kept in memory.
+     */
+    private long maxMapThumbnailWeight = 64L * 1024 * 1024;
+
+    /**
+     * How often the statistics of all in-memory caches are logged at debug level. Zero disables logging.
+     */
+    private Duration statisticsLogInterval = Duration.ofMinutes(5);
+  }
 }
@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class MapTool {
 
@@ -30,6 +31,9 @@ public class MapTool {
   public static final Integer MAP_DETAIL_COLUMN_GRAVITY = 8;
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int MAX_WORKERS = 2;
+
+  private static MapToolWorkerPool workerPool;
 
   static public List<Map<String,String>> toListOfDict(List<String[]> _mapDetails) {
     List<Map<String, String>> mapDetails = new ArrayList();
@@ -71,64 +75,61 @@ public class MapTool {
     run(gamePath, null, mapName + "$", false, previewCacheDirectory, previewType, maxPositions, previewCacheDirectory);
   }
 
+  /**
+   * Stops the map tool workers.
+   */
+  public static synchronized void shutdown() {
+    if (workerPool != null) {
+      workerPool.shutdown();
+    }
+  }
+
   static private List<String[]> run(Path gamePath, String hpiSpecs, String mapName, boolean doCrc, Path previewCacheDirectory, PreviewType previewType, int maxPositions, Path featuresCacheDirectory) throws IOException {
     String nativeDir = System.getProperty("nativeDir", "lib");
     Path exe = Paths.get(nativeDir).resolve("bin").resolve(
         org.bridj.Platform.isLinux() ? "maptool" : "maptool.exe"
     );
-    Path workingDirectory = exe.getParent();
 
-    List<String> command = new ArrayList<>();
-    command.add(exe.toAbsolutePath().toString());
-    command.add("--gamepath");
-    command.add(gamePath.toString());
+    List<String> arguments = new ArrayList<>();
+    arguments.add("--gamepath");
+    arguments.add(gamePath.toString());
 
     if (hpiSpecs != null) {
-      command.add("--hpispecs");
-      command.add(hpiSpecs);
+      arguments.add("--hpispecs");
+      arguments.add(hpiSpecs);
     }
     if (mapName != null) {
-      command.add("--mapname");
-      command.add(mapName);
+      arguments.add("--mapname");
+      arguments.add(mapName);
     }
     if (doCrc) {
-      command.add("--hash");
+      arguments.add("--hash");
     }
     if (previewCacheDirectory != null) {
-      command.add("--thumb");
-      command.add(previewCacheDirectory.toString());
+      arguments.add("--thumb");
+      arguments.add(previewCacheDirectory.toString());
     }
     if (previewType != null) {
-      command.add("--thumbtypes");
-      command.add(previewType.toString().toLowerCase());
+      arguments.add("--thumbtypes");
+      arguments.add(previewType.toString().toLowerCase());
     }
     if (maxPositions > 0) {
-      command.add("--maxpositions");
-      command.add(String.valueOf(maxPositions));
+      arguments.add("--maxpositions");
+      arguments.add(String.valueOf(maxPositions));
     }
     if (featuresCacheDirectory != null) {
-      command.add("--featurescachedir");
-      command.add(featuresCacheDirectory.toString());
+      arguments.add("--featurescachedir");
+      arguments.add(featuresCacheDirectory.toString());
     }
 
-    ProcessBuilder processBuilder = new ProcessBuilder();
-    processBuilder.directory(workingDirectory.toFile());
-    processBuilder.command(command);
-    logger.info("{}", processBuilder.command());
-
-    List<String[]> mapList = new ArrayList<>();
-
-    boolean logEnable = false;
-    String maptoolDataReceived = new String();
+    logger.info("{} {}", exe, arguments);
+    Optional<List<String>> workerOutput = getWorkerPool(exe).execute(arguments);
+    List<String> output = workerOutput.isPresent() ? workerOutput.get() : runProcess(exe, arguments);
 
     final String UNIT_SEPARATOR = Character.toString((char)0x1f);
-    Process process = processBuilder.start();
-
-    BufferedReader input = new BufferedReader(new InputStreamReader(process.getInputStream()));
-
-    String line;
-    while ((line = input.readLine()) != null) {
-      maptoolDataReceived += line + "\n";
+    List<String[]> mapList = new ArrayList<>(output.size());
+    boolean logEnable = false;
+    for (String line : output) {
       String parts[] = line.split(UNIT_SEPARATOR);
       if (parts.length < 9) {
         logEnable = true;
@@ -136,18 +137,46 @@ public class MapTool {
       mapList.add(parts);
     }
     if (logEnable) {
-      logger.warn("Received too few fields from mapTool:\n{}\n{}", processBuilder.command(), maptoolDataReceived);
+      logger.warn("Received too few fields from mapTool:\n{}\n{}", arguments, String.join("\n", output));
+    }
+    return mapList;
+  }
+
+  private static synchronized MapToolWorkerPool getWorkerPool(Path exe) {
+    if (workerPool == null) {
+      workerPool = new MapToolWorkerPool(exe, MAX_WORKERS);
+    }
+    return workerPool;
+  }
+
+  /**
+   * Runs the map tool in a process of its own, for map tools that don't support server mode.
+   */
+  private static List<String> runProcess(Path exe, List<String> arguments) throws IOException {
+    List<String> command = new ArrayList<>();
+    command.add(exe.toAbsolutePath().toString());
+    command.addAll(arguments);
+
+    ProcessBuilder processBuilder = new ProcessBuilder();
+    processBuilder.directory(exe.getParent().toFile());
+    processBuilder.command(command);
+
+    List<String> output = new ArrayList<>();
+    Process process = processBuilder.start();
+
+    try (BufferedReader input = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+      String line;
       while ((line = input.readLine()) != null) {
-        logger.warn("but theres more:{}", line);
+        output.add(line);
       }
     }
-    input.close();
 
-    BufferedReader err = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-    while ((line = err.readLine()) != null) {
-      logger.error(line);
+    try (BufferedReader err = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+      String line;
+      while ((line = err.readLine()) != null) {
+        logger.error(line);
+      }
     }
-    err.close();
 
     try {
       int exitCode = process.waitFor();
@@ -158,6 +187,6 @@ public class MapTool {
       logger.error("maptool process interrupted: {}", e.getMessage());
     }
 
-    return mapList;
+    return output;
   }
 }
@@ -0,0 +1,280 @@
+package com.faforever.client.fa;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.Gson;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps map tool processes running in server mode, so that listing maps, computing CRCs and generating previews doesn't
+ * need to start a new process every time.
+ * <p>
+ * A map tool started with {@code --server} announces itself with the line {@value #HANDSHAKE}. It then reads one
+ * request per line from stdin, a JSON array of the arguments the request would be run with in a process of its own. It
+ * answers with the lines that process would have written to stdout, followed by a line of {@link #END_OF_RESPONSE} and
+ * the exit code. A map tool that answers with anything else or exits without answering doesn't support server mode, in
+ * which case {@link #execute(List)} returns nothing and the caller has to start a process per request. If a worker
+ * doesn't announce itself in time, only the current request falls back and the next one starts a worker again, up to
+ * {@value #MAX_HANDSHAKE_TIMEOUTS} times in a row.
+ */
+@Slf4j
+class MapToolWorkerPool {
+
+  static final String HANDSHAKE = "MAPTOOL-SERVER 1";
+  static final char END_OF_RESPONSE = 0x04;
+
+  private static final long HANDSHAKE_TIMEOUT_MILLIS = 5_000;
+  private static final long RESPONSE_TIMEOUT_MILLIS = 600_000;
+  @VisibleForTesting
+  static final int MAX_HANDSHAKE_TIMEOUTS = 3;
+
+  private final Path exe;
+  private final long handshakeTimeoutMillis;
+  private final Semaphore permits;
+  private final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<>();
+  private final Gson gson = new Gson();
+  private final AtomicInteger handshakeTimeouts = new AtomicInteger();
+  private volatile boolean serverModeSupported = true;
+  private volatile boolean shutDown;
+
+  MapToolWorkerPool(Path exe, int maxWorkers) {
+    this(exe, maxWorkers, HANDSHAKE_TIMEOUT_MILLIS);
+  }
+
+  @VisibleForTesting
+  MapToolWorkerPool(Path exe, int maxWorkers, long handshakeTimeoutMillis) {
+    this.exe = exe;
+    this.handshakeTimeoutMillis = handshakeTimeoutMillis;
+    this.permits = new Semaphore(maxWorkers);
+  }
+
+  /**
+   * Runs the request in one of the workers, starting a new one if none is idle. If the worker crashes, it is replaced
+   * by a new one on the next request.
+   *
+   * @return the lines written by the map tool, or nothing if server mode isn't supported by this map tool or no worker
+   * could be started for this request
+   * @throws IOException if the map tool failed or exited with an error code
+   */
+  Optional<List<String>> execute(List<String> arguments) throws IOException {
+    if (!serverModeSupported || shutDown) {
+      return Optional.empty();
+    }
+
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a map tool worker", e);
+    }
+    try {
+      Worker worker = takeHealthyWorker();
+      if (worker == null) {
+        return Optional.empty();
+      }
+      Response response;
+      try {
+        response = worker.execute(gson.toJson(arguments));
+      } catch (IOException e) {
+        worker.destroy();
+        throw e;
+      }
+      release(worker);
+      if (response.getExitCode() != 0) {
+        throw new IOException(String.format("Map tool exited with error code %d", response.getExitCode()));
+      }
+      return Optional.of(response.getLines());
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Stops all idle workers, workers still busy are stopped once they're done.
+   */
+  void shutdown() {
+    shutDown = true;
+    Worker worker;
+    while ((worker = idleWorkers.poll()) != null) {
+      worker.destroy();
+    }
+  }
+
+  @VisibleForTesting
+  List<Process> getIdleWorkerProcesses() {
+    return idleWorkers.stream().map(worker -> worker.process).collect(Collectors.toList());
+  }
+
+  private Worker takeHealthyWorker() throws IOException {
+    Worker worker;
+    while ((worker = idleWorkers.poll()) != null) {
+      if (worker.isAlive()) {
+        return worker;
+      }
+      log.info("Map tool worker exited with code {}, replacing it", worker.process.exitValue());
+      worker.destroy();
+    }
+    return startWorker();
+  }
+
+  private void release(Worker worker) {
+    if (shutDown) {
+      worker.destroy();
+    } else {
+      idleWorkers.add(worker);
+    }
+  }
+
+  private Worker startWorker() throws IOException {
+    ProcessBuilder processBuilder = new ProcessBuilder(exe.toAbsolutePath().toString(), "--server");
+    processBuilder.directory(exe.toAbsolutePath().getParent().toFile());
+    log.info("Starting map tool worker {}", processBuilder.command());
+    Worker worker = new Worker(processBuilder.start());
+
+    String handshake;
+    try {
+      handshake = worker.readLine(handshakeTimeoutMillis);
+    } catch (WorkerTimeoutException e) {
+      worker.destroy();
+      if (handshakeTimeouts.incrementAndGet() >= MAX_HANDSHAKE_TIMEOUTS) {
+        log.warn("Map tool worker didn't start {} times in a row, starting a process per request", MAX_HANDSHAKE_TIMEOUTS);
+        serverModeSupported = false;
+      } else {
+        log.warn("Map tool worker didn't start ({}), starting a process for this request", e.getMessage());
+      }
+      return null;
+    } catch (WorkerExitedException e) {
+      log.info("Map tool doesn't support server mode (exited without answering), starting a process per request");
+      serverModeSupported = false;
+      worker.destroy();
+      return null;
+    }
+    if (!HANDSHAKE.equals(handshake)) {
+      log.info("Map tool doesn't support server mode (answered '{}'), starting a process per request", handshake);
+      serverModeSupported = false;
+      worker.destroy();
+      return null;
+    }
+    handshakeTimeouts.set(0);
+    return worker;
+  }
+
+  private static class Worker {
+    private final Process process;
+    private final BufferedWriter stdin;
+    /** Lines written to stdout, an empty optional once stdout is closed. */
+    private final BlockingQueue<Optional<String>> stdoutLines = new LinkedBlockingQueue<>();
+
+    Worker(Process process) {
+      this.process = process;
+      this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+      startDaemon("map tool stdout", () -> {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            stdoutLines.add(Optional.of(line));
+          }
+        } catch (IOException e) {
+          log.debug("Reading map tool worker output failed", e);
+        } finally {
+          stdoutLines.add(Optional.empty());
+        }
+      });
+      startDaemon("map tool stderr", () -> {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            log.error(line);
+          }
+        } catch (IOException e) {
+          log.debug("Reading map tool worker errors failed", e);
+        }
+      });
+    }
+
+    Response execute(String request) throws IOException {
+      stdin.write(request);
+      stdin.newLine();
+      stdin.flush();
+
+      List<String> lines = new ArrayList<>();
+      String line;
+      while (!(line = readLine(RESPONSE_TIMEOUT_MILLIS)).startsWith(String.valueOf(END_OF_RESPONSE))) {
+        lines.add(line);
+      }
+
+      try {
+        return new Response(lines, Integer.parseInt(line.substring(1).trim()));
+      } catch (NumberFormatException e) {
+        throw new IOException("Map tool worker sent an invalid end of response: " + line, e);
+      }
+    }
+
+    /**
+     * @throws WorkerTimeoutException if the worker didn't answer in time
+     * @throws WorkerExitedException if the worker exited
+     */
+    String readLine(long timeoutMillis) throws IOException {
+      Optional<String> line;
+      try {
+        line = stdoutLines.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for the map tool worker", e);
+      }
+      if (line == null) {
+        throw new WorkerTimeoutException("Map tool worker didn't answer within " + timeoutMillis + " ms");
+      }
+      return line.orElseThrow(() -> new WorkerExitedException("Map tool worker exited"));
+    }
+
+    boolean isAlive() {
+      return process.isAlive();
+    }
+
+    void destroy() {
+      process.destroy();
+    }
+
+    private static void startDaemon(String name, Runnable runnable) {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  private static class WorkerTimeoutException extends IOException {
+    WorkerTimeoutException(String message) {
+      super(message);
+    }
+  }
+
+  private static class WorkerExitedException extends IOException {
+    WorkerExitedException(String message) {
+      super(message);
+    }
+  }
+
+  @Value
+  private static class Response {
+    List<String> lines;
+    int exitCode;
+  }
+}
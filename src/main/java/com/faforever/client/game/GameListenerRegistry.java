@@ -0,0 +1,46 @@
+package com.faforever.client.game;
+
+import com.faforever.client.fx.JavaFxUtil;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the listeners that have been attached to the properties of a game, so that they can be attached
+ * exactly once when the game is created and detached once it is removed.
+ */
+class GameListenerRegistry {
+
+  private final Map<Integer, List<Runnable>> listenerRemoversByGameId = new HashMap<>();
+
+  synchronized <T> void addListener(Game game, ObservableValue<T> observable, ChangeListener<? super T> listener) {
+    JavaFxUtil.addListener(observable, listener);
+    listenerRemoversByGameId.computeIfAbsent(game.getId(), id -> new ArrayList<>())
+        .add(() -> JavaFxUtil.removeListener(observable, listener));
+  }
+
+  synchronized void removeListeners(Game game) {
+    List<Runnable> listenerRemovers = listenerRemoversByGameId.remove(game.getId());
+    if (listenerRemovers != null) {
+      listenerRemovers.forEach(Runnable::run);
+    }
+  }
+
+  synchronized void removeAllListeners() {
+    listenerRemoversByGameId.values().forEach(listenerRemovers -> listenerRemovers.forEach(Runnable::run));
+    listenerRemoversByGameId.clear();
+  }
+
+  /**
+   * Returns the number of registered listeners, by game ID.
+   */
+  synchronized Map<Integer, Integer> getListenerCounts() {
+    Map<Integer, Integer> listenerCounts = new HashMap<>();
+    listenerRemoversByGameId.forEach((gameId, listenerRemovers) -> listenerCounts.put(gameId, listenerRemovers.size()));
+    return listenerCounts;
+  }
+}
@@ -85,6 +85,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -97,6 +98,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -164,6 +166,13 @@ public class GameService implements InitializingBean {
   private Process process;
   private Optional<Game> rehostRequested;
 
+  /** Game infos that have been received but not yet applied, coalesced by game uid. Guarded by itself. */
+  private final Map<Integer, GameInfoMessage> pendingGameInfos = new LinkedHashMap<>();
+  private boolean gameInfoApplicationScheduled;
+  private final AtomicLong receivedGameInfoCount = new AtomicLong();
+  private final AtomicLong appliedGameInfoCount = new AtomicLong();
+  private final GameListenerRegistry gameListenerRegistry = new GameListenerRegistry();
+
   @Inject
   public GameService(ClientProperties clientProperties,
                      FafService fafService,
@@ -256,7 +265,6 @@ public class GameService implements InitializingBean {
       statusChangeListener.changed(newValue.statusProperty(), newValue.getStatus(), newValue.getStatus());
     });
 
-    JavaFxUtil.attachListToMap(games, uidToGameInfoBean);
     JavaFxUtil.addListener(
         runningGameUidProperty,
         (observable, oldValue, newValue) -> reconnectTimerService.setGameRunning(newValue != null)
@@ -264,18 +272,23 @@ public class GameService implements InitializingBean {
 
     eventBus.register(this);
 
-    fafService.addOnMessageListener(GameInfoMessage.class, message -> {
-      JavaFxUtil.runLater(() -> onGameInfo(message));
-    });
+    fafService.addOnMessageListener(GameInfoMessage.class, this::onGameInfoMessage);
     fafService.addOnMessageListener(LoginMessage.class, message -> onLoggedIn());
 
     JavaFxUtil.addListener(
         fafService.connectionStateProperty(),
         (observable, oldValue, newValue) -> {
           if (newValue == ConnectionState.DISCONNECTED) {
-            synchronized (uidToGameInfoBean) {
-              uidToGameInfoBean.clear();
+            synchronized (pendingGameInfos) {
+              pendingGameInfos.clear();
             }
+            JavaFxUtil.runLater(() -> {
+              synchronized (uidToGameInfoBean) {
+                uidToGameInfoBean.clear();
+              }
+              gameListenerRegistry.removeAllListeners();
+              games.clear();
+            });
           }
         }
     );
@@ -1129,23 +1142,93 @@ public class GameService implements InitializingBean {
         .findFirst();
   }
 
-  private void onGameInfo(GameInfoMessage gameInfoMessage) {
+  /**
+   * Number of game infos received from the server, including those that were superseded by a newer info of the same
+   * game before they could be applied.
+   */
+  public long getReceivedGameInfoCount() {
+    return receivedGameInfoCount.get();
+  }
+
+  /**
+   * Number of game infos that have actually been applied to the known games.
+   */
+  public long getAppliedGameInfoCount() {
+    return appliedGameInfoCount.get();
+  }
+
+  /**
+   * Called on the server connection's thread. Queues the game infos, replacing any pending info of the same game, and
+   * schedules their application unless that has already been scheduled.
+   */
+  private void onGameInfoMessage(GameInfoMessage message) {
+    boolean scheduleApplication;
+    synchronized (pendingGameInfos) {
+      queueGameInfo(message);
+      scheduleApplication = !gameInfoApplicationScheduled;
+      gameInfoApplicationScheduled = true;
+    }
+    if (scheduleApplication) {
+      JavaFxUtil.runLater(this::applyPendingGameInfos);
+    }
+  }
+
+  private void queueGameInfo(GameInfoMessage message) {
+    if (message.getGames() != null) {
+      message.getGames().forEach(this::queueGameInfo);
+      return;
+    }
+    receivedGameInfoCount.incrementAndGet();
+    pendingGameInfos.put(message.getUid(), message);
+  }
+
+  /**
+   * Applies all pending game infos at once and fires a single {@link GamesChangedEvent} for them.
+   */
+  @VisibleForTesting
+  void applyPendingGameInfos() {
     JavaFxUtil.assertApplicationThread();
-    if (gameInfoMessage.getGames() != null) {
-      gameInfoMessage.getGames().forEach(this::onGameInfo);
+    List<GameInfoMessage> gameInfos;
+    synchronized (pendingGameInfos) {
+      gameInfos = new ArrayList<>(pendingGameInfos.values());
+      pendingGameInfos.clear();
+      gameInfoApplicationScheduled = false;
+    }
+    if (gameInfos.isEmpty()) {
       return;
     }
 
+    GameChanges changes = new GameChanges();
+    gameInfos.forEach(gameInfo -> onGameInfo(gameInfo, changes));
+    // Games that have been created and ended within the same batch are of no interest to anyone
+    List<Game> transientGames = changes.addedGames.stream()
+        .filter(changes.removedGames::contains)
+        .collect(Collectors.toList());
+    changes.addedGames.removeAll(transientGames);
+    changes.removedGames.removeAll(transientGames);
+
+    games.removeAll(changes.removedGames);
+    games.addAll(changes.addedGames);
+    appliedGameInfoCount.addAndGet(gameInfos.size());
+    log.debug("Applied {} game infos ({} received in total, {} applied in total)",
+        gameInfos.size(), receivedGameInfoCount.get(), appliedGameInfoCount.get());
+
+    eventBus.post(new GamesChangedEvent(changes.addedGames, changes.updatedGames, changes.removedGames));
+  }
+
+  private void onGameInfo(GameInfoMessage gameInfoMessage, GameChanges changes) {
+    JavaFxUtil.assertApplicationThread();
+
     // We may receive game info before we receive our player info
     Optional<Player> currentPlayerOptional = playerService.getCurrentPlayer();
 
-    Game game = createOrUpdateGame(gameInfoMessage);
+    Game game = createOrUpdateGame(gameInfoMessage, changes);
     // some control paths null out currentGame but we still need to remember this
     final boolean isGameCurrentGame = Objects.equals(currentGame.get(), game) ||
         Objects.equals(getRunningGameUid(), game.getId());
 
     if (GameStatus.ENDED == game.getStatus()) {
-      removeGame(gameInfoMessage);
+      removeGame(gameInfoMessage, changes);
       if (!currentPlayerOptional.isPresent() || !isGameCurrentGame) {
         return;
       }
@@ -1177,8 +1260,14 @@ public class GameService implements InitializingBean {
         eventBus.post(new AutoJoinRequestEvent(game));
       }
     }
+  }
 
-    JavaFxUtil.addListener(game.statusProperty(), (observable, oldValue, newValue) -> {
+  /**
+   * Attaches the listeners every known game needs. Must only be called once per game, they are detached in {@link
+   * #removeGame(GameInfoMessage, GameChanges)}.
+   */
+  private void addGameListeners(Game game) {
+    gameListenerRegistry.addListener(game, game.statusProperty(), (observable, oldValue, newValue) -> {
       if (oldValue.isOpen()
           && newValue.isInProgress()
           && game.getTeams().values().stream().anyMatch(team -> playerService.getCurrentPlayer().isPresent() && team.contains(playerService.getCurrentPlayer().get().getUsername()))
@@ -1188,7 +1277,15 @@ public class GameService implements InitializingBean {
     });
   }
 
-  private Game createOrUpdateGame(GameInfoMessage gameInfoMessage) {
+  /**
+   * Returns the number of listeners this service has attached to each known game, by game ID. Meant for diagnostics;
+   * the counts should stay constant no matter how many updates a game receives.
+   */
+  public Map<Integer, Integer> getGameListenerCounts() {
+    return gameListenerRegistry.getListenerCounts();
+  }
+
+  private Game createOrUpdateGame(GameInfoMessage gameInfoMessage, GameChanges changes) {
     JavaFxUtil.assertApplicationThread();
     Integer gameId = gameInfoMessage.getUid();
     log.debug("Updating Game {}", gameId);
@@ -1198,11 +1295,12 @@ public class GameService implements InitializingBean {
         game = new Game();
         uidToGameInfoBean.put(gameId, game);
         updateFromGameInfo(gameInfoMessage, game);
-        eventBus.post(new GameAddedEvent(game));
+        addGameListeners(game);
+        changes.addedGames.add(game);
       } else {
         game = uidToGameInfoBean.get(gameId);
         updateFromGameInfo(gameInfoMessage, game);
-        eventBus.post(new GameUpdatedEvent(game));
+        changes.updatedGames.add(game);
       }
     }
     return game;
@@ -1266,7 +1364,7 @@ public class GameService implements InitializingBean {
     game.setReplayDelaySeconds(gameInfoMessage.getReplayDelaySeconds());
   }
 
-  private void removeGame(GameInfoMessage gameInfoMessage) {
+  private void removeGame(GameInfoMessage gameInfoMessage, GameChanges changes) {
     Game game;
     synchronized (uidToGameInfoBean) {
       game = uidToGameInfoBean.remove(gameInfoMessage.getUid());
@@ -1281,7 +1379,11 @@ public class GameService implements InitializingBean {
         notificationService.addImmediateInfoNotification("game.start.cancelledRemotely.title", "game.start.cancelledRemotely");
       }
     }
-    eventBus.post(new GameRemovedEvent(game));
+    if (game != null) {
+      gameListenerRegistry.removeListeners(game);
+      changes.updatedGames.remove(game);
+      changes.removedGames.add(game);
+    }
   }
 
   public void killGame() {
@@ -1300,4 +1402,11 @@ public class GameService implements InitializingBean {
     killGame();
   }
 
+  /** Collects the games affected by one batch of game infos. */
+  private static class GameChanges {
+    private final List<Game> addedGames = new ArrayList<>();
+    private final List<Game> updatedGames = new ArrayList<>();
+    private final List<Game> removedGames = new ArrayList<>();
+  }
+
 }
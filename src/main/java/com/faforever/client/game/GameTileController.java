@@ -281,7 +281,7 @@ public class GameTileController implements Controller<Node> {
 
     // TODO display "unknown map" image first since loading may take a while
     mapImageView.imageProperty().bind(createObjectBinding(
-        () -> mapService.loadPreview(game.getFeaturedMod(), game.getMapName(), PreviewType.MINI, 10),
+        () -> mapService.loadPreview(game.getFeaturedMod(), game.getMapName(), PreviewType.MINI, 10, mapImageView.getFitWidth()),
         game.mapNameProperty()
     ));
 
@@ -0,0 +1,16 @@
+package com.faforever.client.game;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Fired once per batch of game infos received from the server, containing every game that has been added, updated or
+ * removed by that batch. A game is contained in at most one of the lists.
+ */
+@Value
+public class GamesChangedEvent {
+  private List<Game> addedGames;
+  private List<Game> updatedGames;
+  private List<Game> removedGames;
+}
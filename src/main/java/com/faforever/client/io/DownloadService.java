@@ -19,12 +19,16 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 @Service
 @Lazy
 @Slf4j
 public class DownloadService {
 
+  private static final String PART_FILE_SUFFIX = ".part";
+  private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
   public void downloadFile(URL url, Path targetFile, ByteCountListener progressListener) throws IOException {
     if (!Files.exists(targetFile.getParent())) {
       Files.createDirectories(targetFile.getParent());
@@ -54,6 +58,57 @@ public class DownloadService {
     }
   }
 
+  /**
+   * Like {@link #downloadFile(URL, Path, ByteCountListener)}, but downloads into {@code <targetFile>.part} and keeps
+   * that file if the download fails. The next download of the same target file then continues where the previous one
+   * left off, if the server supports range requests. Progress includes the bytes downloaded by previous attempts.
+   */
+  public void downloadFileResumable(URL url, Path targetFile, ByteCountListener progressListener) throws IOException {
+    Files.createDirectories(targetFile.getParent());
+    Path partFile = targetFile.resolveSibling(targetFile.getFileName() + PART_FILE_SUFFIX);
+    long existingBytes = Files.exists(partFile) ? Files.size(partFile) : 0;
+
+    ResourceLocks.acquireDownloadLock();
+    HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
+    try {
+      if (existingBytes > 0) {
+        urlConnection.setRequestProperty("Range", "bytes=" + existingBytes + "-");
+      }
+
+      int responseCode = urlConnection.getResponseCode();
+      if (responseCode == HTTP_RANGE_NOT_SATISFIABLE) {
+        log.debug("Server rejected to resume '{}' at byte {}, starting over", url, existingBytes);
+        Files.delete(partFile);
+      } else {
+        boolean resumed = responseCode == HttpURLConnection.HTTP_PARTIAL;
+        long offset = resumed ? existingBytes : 0;
+        long contentLength = urlConnection.getContentLengthLong();
+        long totalBytes = contentLength < 0 ? -1 : offset + contentLength;
+        if (resumed) {
+          log.debug("Resuming download of '{}' at byte {}", url, offset);
+        }
+
+        try (InputStream inputStream = urlConnection.getInputStream();
+             OutputStream outputStream = resumed
+                 ? Files.newOutputStream(partFile, StandardOpenOption.APPEND)
+                 : Files.newOutputStream(partFile)) {
+          ByteCopier.from(inputStream)
+              .to(outputStream)
+              .totalBytes(totalBytes)
+              .listener((written, total) -> progressListener.updateBytesProcessed(offset + written, total))
+              .copy();
+        }
+        Files.move(partFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        return;
+      }
+    } finally {
+      urlConnection.disconnect();
+      ResourceLocks.freeDownloadLock();
+    }
+
+    downloadFileResumable(url, targetFile, progressListener);
+  }
+
   // @param charsetName eg StandardCharsets.UTF_8.name()
   public <T> T downloadJson(URL url, Class<T> classT) throws IOException {
     ResourceLocks.acquireDownloadLock();
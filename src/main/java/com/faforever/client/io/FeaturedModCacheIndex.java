@@ -0,0 +1,224 @@
+package com.faforever.client.io;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps track of the size and the last use of every file in the featured mod cache, so that the least recently used
+ * files can be evicted without relying on the file system's access times, which many file systems don't update.
+ * Files are identified by their path relative to the cache directory, i.e. {@code <group>/<md5>}.
+ */
+@Slf4j
+class FeaturedModCacheIndex {
+
+  private static final String PART_FILE_SUFFIX = ".part";
+
+  private final Path cacheDirectory;
+  private final Path indexFile;
+  private final Gson gson = new Gson();
+  private final Map<String, Entry> entriesByPath = new HashMap<>();
+  /** The number of downloads currently holding the download lock of a file, by path. */
+  private final Map<String, Integer> downloadLocksByPath = new HashMap<>();
+  private boolean loaded;
+  private boolean dirty;
+
+  FeaturedModCacheIndex(Path cacheDirectory, Path indexFile) {
+    this.cacheDirectory = cacheDirectory;
+    this.indexFile = indexFile;
+  }
+
+  /**
+   * Marks the cached file as used just now.
+   */
+  synchronized void recordUse(Path cachedFile) {
+    loadIfNecessary();
+    String key = toKey(cachedFile);
+    try {
+      entriesByPath.put(key, new Entry(Files.size(cachedFile), System.currentTimeMillis()));
+    } catch (IOException e) {
+      entriesByPath.remove(key);
+    }
+    dirty = true;
+  }
+
+  synchronized void remove(Path cachedFile) {
+    loadIfNecessary();
+    if (entriesByPath.remove(toKey(cachedFile)) != null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Keeps the file out of the index and protects it from eviction while it's being downloaded into the cache and
+   * moved out of it again.
+   */
+  synchronized void acquireDownloadLock(Path cachedFile) {
+    downloadLocksByPath.merge(toKey(cachedFile), 1, Integer::sum);
+  }
+
+  synchronized void freeDownloadLock(Path cachedFile) {
+    downloadLocksByPath.computeIfPresent(toKey(cachedFile), (key, count) -> count == 1 ? null : count - 1);
+  }
+
+  synchronized long getTotalSize() {
+    loadIfNecessary();
+    return entriesByPath.values().stream().mapToLong(Entry::getSize).sum();
+  }
+
+  /**
+   * Adds files that are in the cache directory but not in the index, e.g. left over by an older client version, and
+   * removes entries of files that no longer exist. Partially downloaded files and files under a download lock are
+   * skipped. The directory is listed without holding any lock.
+   */
+  void synchronizeWithDirectory() throws IOException {
+    Map<String, BasicFileAttributes> presentFiles = new HashMap<>();
+    try (Stream<Path> paths = Files.walk(cacheDirectory, 2)) {
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        if (path.getParent().equals(cacheDirectory)) {
+          // Files directly in the cache directory are bookkeeping files, cached files are in a directory per group
+          continue;
+        }
+        if (path.getFileName().toString().endsWith(PART_FILE_SUFFIX)) {
+          // Kept to resume the download, becomes a cached file once it's complete
+          continue;
+        }
+        try {
+          BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+          if (attributes.isRegularFile()) {
+            presentFiles.put(toKey(path), attributes);
+          }
+        } catch (NoSuchFileException e) {
+          // Has just been moved out of the cache
+        }
+      }
+    }
+
+    synchronized (this) {
+      loadIfNecessary();
+      presentFiles.keySet().removeAll(downloadLocksByPath.keySet());
+      entriesByPath.keySet().retainAll(presentFiles.keySet());
+      presentFiles.forEach((key, attributes) -> {
+        Entry entry = entriesByPath.get(key);
+        if (entry == null || entry.getSize() != attributes.size()) {
+          long lastUsed = entry == null ? attributes.lastModifiedTime().toMillis() : entry.getLastUsed();
+          entriesByPath.put(key, new Entry(attributes.size(), lastUsed));
+        }
+      });
+      dirty = true;
+    }
+  }
+
+  /**
+   * Returns the files that need to be evicted, least recently used first: all files that have not been used since
+   * {@code minLastUsed}, and then as many of the remaining files as needed to fit into {@code maxTotalSize}.
+   */
+  synchronized List<EvictionCandidate> selectEvictionCandidates(long maxTotalSize, long minLastUsed) {
+    loadIfNecessary();
+
+    List<Map.Entry<String, Entry>> leastRecentlyUsedFirst = new ArrayList<>(entriesByPath.entrySet());
+    leastRecentlyUsedFirst.sort(Comparator.comparingLong(mapEntry -> mapEntry.getValue().getLastUsed()));
+
+    long remainingSize = getTotalSize();
+    List<EvictionCandidate> candidates = new ArrayList<>();
+    for (Map.Entry<String, Entry> mapEntry : leastRecentlyUsedFirst) {
+      Entry entry = mapEntry.getValue();
+      if (remainingSize <= maxTotalSize && entry.getLastUsed() >= minLastUsed) {
+        break;
+      }
+      candidates.add(new EvictionCandidate(mapEntry.getKey(), entry.getSize(), entry.getLastUsed()));
+      remainingSize -= entry.getSize();
+    }
+    return candidates;
+  }
+
+  /**
+   * Deletes the candidate's file unless it has been used since it was selected for eviction or is under a download
+   * lock.
+   *
+   * @return whether the file has been deleted
+   */
+  synchronized boolean evict(EvictionCandidate candidate) throws IOException {
+    Entry entry = entriesByPath.get(candidate.getPath());
+    if (entry == null || entry.getLastUsed() != candidate.getLastUsed()
+        || downloadLocksByPath.containsKey(candidate.getPath())) {
+      return false;
+    }
+    Files.deleteIfExists(cacheDirectory.resolve(candidate.getPath()));
+    entriesByPath.remove(candidate.getPath());
+    dirty = true;
+    return true;
+  }
+
+  synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+
+    Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(indexFile.getParent());
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        gson.toJson(entriesByPath, writer);
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Featured mod cache index '{}' could not be written", indexFile, e);
+    }
+  }
+
+  private void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    if (Files.notExists(indexFile)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+      Map<String, Entry> entries = gson.fromJson(reader, new TypeToken<Map<String, Entry>>() {
+      }.getType());
+      if (entries != null) {
+        entriesByPath.putAll(entries);
+      }
+    } catch (Exception e) {
+      log.warn("Featured mod cache index '{}' could not be read, rebuilding it", indexFile, e);
+    }
+  }
+
+  private String toKey(Path cachedFile) {
+    return cacheDirectory.relativize(cachedFile).toString().replace('\\', '/');
+  }
+
+  @Value
+  private static class Entry {
+    private long size;
+    private long lastUsed;
+  }
+
+  @Value
+  static class EvictionCandidate {
+    private String path;
+    private long size;
+    private long lastUsed;
+  }
+}
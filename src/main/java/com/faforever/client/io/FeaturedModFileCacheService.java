@@ -1,12 +1,16 @@
 package com.faforever.client.io;
 
 import com.faforever.client.api.dto.FeaturedModFile;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.io.FeaturedModCacheIndex.EvictionCandidate;
+import com.faforever.client.preferences.Preferences;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.util.UpdaterUtil;
-import com.google.common.hash.Hashing;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 
@@ -14,28 +18,98 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.nio.file.attribute.FileTime;
 import java.text.MessageFormat;
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.util.stream.Stream;
-
-import static com.google.common.io.Files.hash;
-
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class FeaturedModFileCacheService implements InitializingBean {
+public class FeaturedModFileCacheService implements InitializingBean, DisposableBean {
+  private static final String HASH_MANIFEST_FILE_NAME = "file-hashes.json";
+  private static final String CACHE_INDEX_FILE_NAME = "cache-index.json";
+
   private final PreferencesService preferencesService;
+  private final ClientProperties clientProperties;
+
+  private final Map<CacheUsage, LongAdder> hitsByUsage = createCounters();
+  private final Map<CacheUsage, LongAdder> missesByUsage = createCounters();
+  private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+  private FileHashManifest hashManifest;
+  private FeaturedModCacheIndex cacheIndex;
+  private ExecutorService evictionExecutor;
 
-  public boolean isCached(FeaturedModFile featuredModFile) throws IOException {
-    return Files.exists(getCachedFilePath(featuredModFile));
+  /**
+   * What a featured mod file is looked up in the cache for, to keep separate hit and miss counts.
+   */
+  public enum CacheUsage {
+    /** Preparing the latest version of a featured mod to play a game. */
+    GAME,
+    /** Preparing a specific, usually older, version of a featured mod to watch a replay. */
+    REPLAY
   }
 
+  /**
+   * Returns whether the file is in the cache, counting the lookup as hit or miss. A hit counts as a use of the file
+   * and protects it from being evicted.
+   */
+  public boolean isCached(FeaturedModFile featuredModFile, CacheUsage usage) throws IOException {
+    Path cachedFilePath = getCachedFilePath(featuredModFile);
+    if (Files.exists(cachedFilePath)) {
+      getCacheIndex().recordUse(cachedFilePath);
+      hitsByUsage.get(usage).increment();
+      return true;
+    }
+    missesByUsage.get(usage).increment();
+    return false;
+  }
+
+  /**
+   * Returns the number of cache hits and misses since startup, by usage.
+   */
+  public Map<CacheUsage, CacheStatistics> getCacheStatistics() {
+    Map<CacheUsage, CacheStatistics> statistics = new EnumMap<>(CacheUsage.class);
+    for (CacheUsage usage : CacheUsage.values()) {
+      statistics.put(usage, new CacheStatistics(hitsByUsage.get(usage).sum(), missesByUsage.get(usage).sum()));
+    }
+    return Collections.unmodifiableMap(statistics);
+  }
+
+  /**
+   * Returns the MD5 hash of the file. Files are only hashed again if their size or modification time changed since
+   * they were last hashed.
+   */
   public String readHashFromFile(Path filePath) throws IOException {
-    return hash(filePath.toFile(), Hashing.md5()).toString();
+    return getHashManifest().getMd5(filePath);
+  }
+
+  /**
+   * Persists the hashes calculated since the last call, so they are known after a restart.
+   */
+  public void storeHashManifest() {
+    getHashManifest().store();
+  }
+
+  private synchronized FileHashManifest getHashManifest() {
+    if (hashManifest == null) {
+      hashManifest = new FileHashManifest(preferencesService.getFeaturedModCachePath().resolve(HASH_MANIFEST_FILE_NAME));
+    }
+    return hashManifest;
+  }
+
+  private synchronized FeaturedModCacheIndex getCacheIndex() {
+    if (cacheIndex == null) {
+      Path cacheDirectory = preferencesService.getFeaturedModCachePath();
+      cacheIndex = new FeaturedModCacheIndex(cacheDirectory, cacheDirectory.resolve(CACHE_INDEX_FILE_NAME));
+    }
+    return cacheIndex;
   }
 
   private Path getCachedFilePath(String hash, String group) {
@@ -52,6 +126,18 @@ public class FeaturedModFileCacheService implements InitializingBean {
     return getCachedFilePath(readHashFromFile(targetPath), targetPath.getParent().getFileName().toString());
   }
 
+  /**
+   * Protects the file from being indexed or evicted while it's being downloaded into the cache. Must be freed with
+   * {@link #freeDownloadLock(FeaturedModFile)} once the file has been moved out of the cache or the download failed.
+   */
+  public void acquireDownloadLock(FeaturedModFile featuredModFile) throws IOException {
+    getCacheIndex().acquireDownloadLock(getCachedFilePath(featuredModFile));
+  }
+
+  public void freeDownloadLock(FeaturedModFile featuredModFile) throws IOException {
+    getCacheIndex().freeDownloadLock(getCachedFilePath(featuredModFile));
+  }
+
   public void moveFeaturedModFileFromCache(FeaturedModFile featuredModFile, Path targetPath) throws IOException {
     Files.createDirectories(targetPath.getParent());
     ResourceLocks.acquireDiskLock();
@@ -61,7 +147,10 @@ public class FeaturedModFileCacheService implements InitializingBean {
         //We want to keep the old file for now in case it is needed again for example for old replays
         moveFeaturedModFileToCache(targetPath);
       }
-      Files.move(getCachedFilePath(featuredModFile), targetPath, StandardCopyOption.REPLACE_EXISTING);
+      Path cachedFilePath = getCachedFilePath(featuredModFile);
+      Files.move(cachedFilePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+      getHashManifest().moved(cachedFilePath, targetPath);
+      getCacheIndex().remove(cachedFilePath);
       UpdaterUtil.extractMoviesIfPresent(targetPath, preferencesService.getFafDataDirectory());
     } finally {
       ResourceLocks.freeDiskLock();
@@ -69,7 +158,15 @@ public class FeaturedModFileCacheService implements InitializingBean {
   }
 
   private void moveFeaturedModFileToCache(Path targetPath) throws IOException {
-    Files.move(targetPath, getCachedFilePath(targetPath), StandardCopyOption.REPLACE_EXISTING);
+    Path cachedFilePath = getCachedFilePath(targetPath);
+    Files.move(targetPath, cachedFilePath, StandardCopyOption.REPLACE_EXISTING);
+    getHashManifest().moved(targetPath, cachedFilePath);
+
+    FeaturedModCacheIndex cacheIndex = getCacheIndex();
+    cacheIndex.recordUse(cachedFilePath);
+    if (cacheIndex.getTotalSize() > clientProperties.getFeaturedModUpdater().getMaxCacheSize()) {
+      scheduleEviction();
+    }
   }
 
   /**
@@ -87,38 +184,93 @@ public class FeaturedModFileCacheService implements InitializingBean {
             " You might have to delete it or check if the needed permission are given.", cacheDirectory));
       }
     }
-    cleanUnusedFilesFromCache();
+    scheduleEviction();
   }
 
-  private void cleanUnusedFilesFromCache() {
-    try (Stream<Path> pathElements = Files.walk(preferencesService.getFeaturedModCachePath())) {
-      pathElements
-          .filter(Files::isRegularFile)
-          .forEach(this::deleteCachedFileIfNeeded);
-    } catch (Exception e) {
-      log.error("Cleaning featured mod files cache failed", e);
+  @Override
+  public void destroy() {
+    storeHashManifest();
+    getCacheIndex().store();
+    synchronized (this) {
+      if (evictionExecutor != null) {
+        evictionExecutor.shutdownNow();
+      }
     }
   }
 
   /**
-   * Per directory cleanup old files.
+   * Evicts files in the background. Does nothing if an eviction is already pending.
    */
-  private void deleteCachedFileIfNeeded(Path filePath) {
+  private void scheduleEviction() {
+    if (!evictionScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    getEvictionExecutor().execute(() -> {
+      evictionScheduled.set(false);
+      evictUnusedFiles();
+    });
+  }
+
+  private synchronized ExecutorService getEvictionExecutor() {
+    if (evictionExecutor == null) {
+      evictionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "featured-mod-cache-eviction");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return evictionExecutor;
+  }
+
+  /**
+   * Removes files that haven't been used within the cache life time and, least recently used first, as many files as
+   * needed to fit into the cache size limit. Removes all files if the cache is deactivated.
+   */
+  private void evictUnusedFiles() {
+    Preferences preferences = preferencesService.getPreferences();
+    long maxTotalSize;
+    long minLastUsed;
+    if (preferences.isGameDataCacheActivated()) {
+      maxTotalSize = clientProperties.getFeaturedModUpdater().getMaxCacheSize();
+      minLastUsed = System.currentTimeMillis() - Duration.ofDays(preferences.getCacheLifeTimeInDays()).toMillis();
+    } else {
+      maxTotalSize = 0;
+      minLastUsed = Long.MAX_VALUE;
+    }
+
+    FeaturedModCacheIndex cacheIndex = getCacheIndex();
     try {
-      ResourceLocks.acquireDiskLock();
-
-      FileTime lastAccessTime = Files.readAttributes(filePath, BasicFileAttributes.class).lastAccessTime();
-      OffsetDateTime comparableLastAccessTime = OffsetDateTime.ofInstant(lastAccessTime.toInstant(), ZoneId.systemDefault());
-      final boolean olderThanCacheTime = comparableLastAccessTime.plusDays(preferencesService.getPreferences().getCacheLifeTimeInDays()).isBefore(OffsetDateTime.now());
-      final boolean gameDataCacheActivated = preferencesService.getPreferences().isGameDataCacheActivated();
-      if (olderThanCacheTime || !gameDataCacheActivated) {
-        log.debug("Deleting cached file ''{}'' ", filePath.toString());
-        Files.deleteIfExists(filePath);
+      cacheIndex.synchronizeWithDirectory();
+
+      List<EvictionCandidate> candidates = cacheIndex.selectEvictionCandidates(maxTotalSize, minLastUsed);
+      int evictedFiles = 0;
+      long evictedBytes = 0;
+      for (EvictionCandidate candidate : candidates) {
+        if (cacheIndex.evict(candidate)) {
+          evictedFiles++;
+          evictedBytes += candidate.getSize();
+        }
       }
+      log.debug("Evicted {} files ({} bytes) from featured mod cache, {} bytes remaining", evictedFiles, evictedBytes,
+          cacheIndex.getTotalSize());
     } catch (Exception e) {
-      log.error("Exception during deleting the cache files", e);
+      log.error("Cleaning featured mod files cache failed", e);
     } finally {
-      ResourceLocks.freeDiskLock();
+      cacheIndex.store();
     }
   }
+
+  private static Map<CacheUsage, LongAdder> createCounters() {
+    Map<CacheUsage, LongAdder> counters = new EnumMap<>(CacheUsage.class);
+    for (CacheUsage usage : CacheUsage.values()) {
+      counters.put(usage, new LongAdder());
+    }
+    return counters;
+  }
+
+  @Value
+  public static class CacheStatistics {
+    private long hits;
+    private long misses;
+  }
 }
@@ -0,0 +1,139 @@
+package com.faforever.client.io;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.io.Files.hash;
+
+/**
+ * Remembers the MD5 hash of files together with their size and modification time, so that a file only needs to be
+ * hashed again if one of them changed. The manifest is read lazily and only written if it changed.
+ */
+@Slf4j
+class FileHashManifest {
+
+  private final Path manifestFile;
+  private final Gson gson = new Gson();
+  /** Keyed by absolute, normalized path. */
+  private final Map<String, Entry> entriesByPath = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+  private volatile boolean dirty;
+
+  FileHashManifest(Path manifestFile) {
+    this.manifestFile = manifestFile;
+  }
+
+  /**
+   * Returns the MD5 hash of the specified file, hashing it only if its size or modification time changed since it was
+   * last hashed.
+   */
+  String getMd5(Path file) throws IOException {
+    loadIfNecessary();
+
+    String key = toKey(file);
+    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    long size = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+
+    Entry entry = entriesByPath.get(key);
+    if (entry != null && entry.getSize() == size && entry.getLastModified() == lastModified) {
+      return entry.getMd5();
+    }
+
+    String md5 = hash(file.toFile(), Hashing.md5()).toString();
+    Entry newEntry = new Entry();
+    newEntry.setSize(size);
+    newEntry.setLastModified(lastModified);
+    newEntry.setMd5(md5);
+    entriesByPath.put(key, newEntry);
+    dirty = true;
+    return md5;
+  }
+
+  /**
+   * Carries the known hash of a file over to its new location after it has been moved. Moving a file keeps its size
+   * and modification time, so the entry stays valid.
+   */
+  void moved(Path source, Path target) {
+    loadIfNecessary();
+
+    Entry entry = entriesByPath.remove(toKey(source));
+    if (entry != null) {
+      entriesByPath.put(toKey(target), entry);
+    } else {
+      entriesByPath.remove(toKey(target));
+    }
+    dirty = true;
+  }
+
+  /**
+   * Removes entries of files that no longer exist and writes the manifest if anything changed.
+   */
+  synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+
+    entriesByPath.keySet().removeIf(path -> Files.notExists(Path.of(path)));
+
+    Path tempFile = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(manifestFile.getParent());
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        gson.toJson(entriesByPath, writer);
+      }
+      Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("File hash manifest '{}' could not be written", manifestFile, e);
+    }
+  }
+
+  private void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      if (Files.exists(manifestFile)) {
+        try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+          Map<String, Entry> entries = gson.fromJson(reader, new TypeToken<Map<String, Entry>>() {
+          }.getType());
+          if (entries != null) {
+            entriesByPath.putAll(entries);
+          }
+        } catch (Exception e) {
+          log.warn("File hash manifest '{}' could not be read, files will be hashed again", manifestFile, e);
+        }
+      }
+      loaded = true;
+    }
+  }
+
+  private static String toKey(Path file) {
+    return file.toAbsolutePath().normalize().toString();
+  }
+
+  @Data
+  private static class Entry {
+    private long size;
+    private long lastModified;
+    private String md5;
+  }
+}
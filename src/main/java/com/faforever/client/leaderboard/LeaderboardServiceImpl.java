@@ -1,27 +1,42 @@
 package com.faforever.client.leaderboard;
 
 import com.faforever.client.FafClientApplication;
+import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.FafService;
-import com.faforever.client.util.RatingUtil;
 import com.faforever.client.util.Tuple;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 @Lazy
 @Service
 @Profile("!" + FafClientApplication.PROFILE_OFFLINE)
 @RequiredArgsConstructor
+@Slf4j
 public class LeaderboardServiceImpl implements LeaderboardService {
+
+  private static final String SNAPSHOT_DIRECTORY_NAME = "leaderboards";
+  /** Entries deleted on the server are only noticed when all entries are downloaded again. */
+  private static final Duration FULL_REFRESH_INTERVAL = Duration.ofDays(7);
+
   private final FafService fafService;
+  private final PreferencesService preferencesService;
+
+  private final Map<String, LeaderboardSnapshot> snapshotsByTechnicalName = new ConcurrentHashMap<>();
+  /** Refreshes in progress, so that the entries and the statistics requested together are only downloaded once. */
+  private final Map<String, CompletableFuture<LeaderboardSnapshot>> refreshesByTechnicalName = new ConcurrentHashMap<>();
 
   @Override
   public CompletableFuture<List<Leaderboard>> getLeaderboards() {
@@ -29,7 +44,8 @@ public class LeaderboardServiceImpl implements LeaderboardService {
   }
 
   public CompletableFuture<List<LeaderboardEntry>> getEntries(Leaderboard leaderboard) {
-    return fafService.getAllLeaderboardEntries(leaderboard.getTechnicalName());
+    return refreshSnapshot(leaderboard.getTechnicalName())
+        .thenApply(snapshot -> snapshot.getEntries(OffsetDateTime.now(ZoneOffset.UTC)));
   }
 
   public CompletableFuture<Tuple<List<LeaderboardEntry>, Integer>> getPagedEntries(Leaderboard leaderboard, int count, int page) {
@@ -37,25 +53,46 @@ public class LeaderboardServiceImpl implements LeaderboardService {
   }
 
   public CompletableFuture<List<RatingStat>> getLeaderboardStats(String leaderboardTechnicalName) {
-    return fafService.getAllLeaderboardEntries(leaderboardTechnicalName).thenApply(this::toRatingStats);
+    return refreshSnapshot(leaderboardTechnicalName)
+        .thenApply(snapshot -> snapshot.getRatingStats(OffsetDateTime.now(ZoneOffset.UTC)));
   }
 
-  private List<RatingStat> toRatingStats(List<LeaderboardEntry> entries) {
-    Map<Integer, Long> totalCount = countByRating(entries.stream());
-    Map<Integer, Long> countWithoutFewGames = countByRating(entries.stream()
-        .filter(entry -> entry.wonGamesProperty().get() >= MINIMUM_GAMES_PLAYED_TO_BE_SHOWN));
-
-    return totalCount.entrySet().stream()
-        .map(entry -> new RatingStat(
-            entry.getKey(),
-            entry.getValue().intValue(),
-            countWithoutFewGames.getOrDefault(entry.getKey(), 0L).intValue()))
-        .collect(Collectors.toList());
-  }
+  /**
+   * Downloads the entries that changed since the snapshot was last refreshed, or all entries if it is empty or due for
+   * a full refresh. If downloading fails, the entries the snapshot already holds are used, unless there are none.
+   */
+  private CompletableFuture<LeaderboardSnapshot> refreshSnapshot(String technicalName) {
+    CompletableFuture<LeaderboardSnapshot> refresh = new CompletableFuture<>();
+    CompletableFuture<LeaderboardSnapshot> pendingRefresh = refreshesByTechnicalName.putIfAbsent(technicalName, refresh);
+    if (pendingRefresh != null) {
+      return pendingRefresh;
+    }
 
-  private Map<Integer, Long> countByRating(Stream<LeaderboardEntry> entries) {
-    return entries.collect(Collectors.groupingBy(leaderboardEntry ->
-        RatingUtil.roundRatingToNextLowest100(leaderboardEntry.getRating()), Collectors.counting()));
+    LeaderboardSnapshot snapshot = snapshotsByTechnicalName.computeIfAbsent(technicalName, key -> new LeaderboardSnapshot(
+        preferencesService.getCacheDirectory().resolve(SNAPSHOT_DIRECTORY_NAME).resolve(key + ".json")));
+    OffsetDateTime updatedSince = snapshot.getUpdatedSince(Instant.now(), FULL_REFRESH_INTERVAL);
+    fafService.getLeaderboardEntriesUpdatedSince(technicalName, updatedSince)
+        .thenApply(entries -> {
+          if (updatedSince == null) {
+            snapshot.replaceAll(entries, Instant.now());
+          } else {
+            snapshot.applyChanges(entries);
+          }
+          snapshot.store();
+          return snapshot;
+        })
+        .whenComplete((result, throwable) -> {
+          refreshesByTechnicalName.remove(technicalName, refresh);
+          if (throwable == null) {
+            refresh.complete(result);
+          } else if (!snapshot.isEmpty()) {
+            log.warn("Leaderboard '{}' could not be refreshed, using the stored entries", technicalName, throwable);
+            refresh.complete(snapshot);
+          } else {
+            refresh.completeExceptionally(throwable);
+          }
+        });
+    return refresh;
   }
 
   @Override
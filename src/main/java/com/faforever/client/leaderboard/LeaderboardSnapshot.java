@@ -0,0 +1,302 @@
+package com.faforever.client.leaderboard;
+
+import com.faforever.client.api.dto.Player;
+import com.faforever.client.util.RatingUtil;
+import com.google.gson.Gson;
+import lombok.Data;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * A local copy of the entries of one leaderboard. It is kept up to date with the entries that have been updated since
+ * the last refresh, so that only changed entries need to be downloaded. The ranking is updated entry by entry instead
+ * of being sorted again every time. Entries deleted on the server are only noticed when all entries are replaced. The
+ * snapshot is read lazily and only written if it changed.
+ */
+@Slf4j
+class LeaderboardSnapshot {
+
+  /** If there are fewer entries updated within the last month, the most recently updated ones are shown instead. */
+  private static final int MIN_SHOWN_ENTRIES = 10;
+
+  private final Path snapshotFile;
+  private final Gson gson = new Gson();
+  private final Map<String, Row> rowsById = new HashMap<>();
+  private final NavigableSet<Row> rowsByRating = new TreeSet<>(Comparator.comparingDouble(Row::getRating).reversed()
+      .thenComparing(Row::getId));
+  @Nullable
+  private LeaderboardInfo leaderboard;
+  /** The latest update time of all entries, in epoch milliseconds. */
+  private long lastUpdateTime;
+  /** When all entries were last replaced, in epoch milliseconds. */
+  private long lastFullRefresh;
+  private boolean loaded;
+  private boolean dirty;
+
+  LeaderboardSnapshot(Path snapshotFile) {
+    this.snapshotFile = snapshotFile;
+  }
+
+  /**
+   * Returns the time entries need to have been updated at or after to be missing from this snapshot, or {@code null}
+   * if all entries need to be replaced because the snapshot is empty or older than {@code fullRefreshInterval}.
+   */
+  @Nullable
+  synchronized OffsetDateTime getUpdatedSince(Instant now, Duration fullRefreshInterval) {
+    loadIfNecessary();
+    if (lastFullRefresh == 0 || now.isAfter(Instant.ofEpochMilli(lastFullRefresh).plus(fullRefreshInterval))) {
+      return null;
+    }
+    return OffsetDateTime.ofInstant(Instant.ofEpochMilli(lastUpdateTime), ZoneOffset.UTC);
+  }
+
+  /**
+   * Replaces all entries.
+   */
+  synchronized void replaceAll(List<com.faforever.client.api.dto.LeaderboardEntry> entries, Instant now) {
+    loadIfNecessary();
+    rowsById.clear();
+    rowsByRating.clear();
+    lastUpdateTime = 0;
+    entries.forEach(this::put);
+    lastFullRefresh = now.toEpochMilli();
+    dirty = true;
+  }
+
+  /**
+   * Adds new entries and replaces the previous version of changed ones. Since changes are requested from the latest
+   * update time on, the entries updated at that time are usually included again, but only mark the snapshot as changed
+   * if they actually differ.
+   */
+  synchronized void applyChanges(List<com.faforever.client.api.dto.LeaderboardEntry> entries) {
+    loadIfNecessary();
+    for (com.faforever.client.api.dto.LeaderboardEntry entry : entries) {
+      dirty |= put(entry);
+    }
+  }
+
+  synchronized boolean isEmpty() {
+    loadIfNecessary();
+    return rowsById.isEmpty();
+  }
+
+  /**
+   * Returns the number of entries per 100 rating points, lowest rating first, counting the same entries as {@link
+   * #getEntries(OffsetDateTime)}.
+   */
+  synchronized List<RatingStat> getRatingStats(OffsetDateTime now) {
+    loadIfNecessary();
+    Map<Integer, RatingCount> countsByRating = new TreeMap<>();
+    for (Row row : getShownRows(now)) {
+      RatingCount ratingCount = countsByRating.computeIfAbsent(RatingUtil.roundRatingToNextLowest100(row.getRating()),
+          key -> new RatingCount());
+      ratingCount.setTotalCount(ratingCount.getTotalCount() + 1);
+      if (row.getWonGames() >= LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN) {
+        ratingCount.setCountWithEnoughGamesPlayed(ratingCount.getCountWithEnoughGamesPlayed() + 1);
+      }
+    }
+    return countsByRating.entrySet().stream()
+        .map(entry -> new RatingStat(entry.getKey(), entry.getValue().getTotalCount(), entry.getValue().getCountWithEnoughGamesPlayed()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the entries updated within the last month, highest rating first. If there are too few of them, the most
+   * recently updated entries are returned instead.
+   */
+  synchronized List<LeaderboardEntry> getEntries(OffsetDateTime now) {
+    loadIfNecessary();
+    com.faforever.client.api.dto.Leaderboard leaderboardDto = leaderboard == null ? null : leaderboard.toDto();
+    return getShownRows(now).stream()
+        .map(row -> LeaderboardEntry.fromDto(row.toDto(leaderboardDto)))
+        .collect(Collectors.toList());
+  }
+
+  private List<Row> getShownRows(OffsetDateTime now) {
+    long cutOff = now.minusMonths(1).toInstant().toEpochMilli();
+    List<Row> recentRows = rowsByRating.stream()
+        .filter(row -> row.getUpdateTime() >= cutOff)
+        .collect(Collectors.toList());
+
+    if (recentRows.size() >= MIN_SHOWN_ENTRIES) {
+      return recentRows;
+    }
+    return rowsByRating.stream()
+        .sorted(Comparator.comparingLong(Row::getUpdateTime).reversed())
+        .limit(MIN_SHOWN_ENTRIES)
+        .sorted(rowsByRating.comparator())
+        .collect(Collectors.toList());
+  }
+
+  synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+
+    Contents contents = new Contents();
+    contents.setLeaderboard(leaderboard);
+    contents.setRows(new ArrayList<>(rowsById.values()));
+    contents.setLastUpdateTime(lastUpdateTime);
+    contents.setLastFullRefresh(lastFullRefresh);
+
+    Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(snapshotFile.getParent());
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        gson.toJson(contents, writer);
+      }
+      Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Leaderboard snapshot '{}' could not be written", snapshotFile, e);
+    }
+  }
+
+  /**
+   * @return whether the entry or its leaderboard differ from what the snapshot held before
+   */
+  private boolean put(com.faforever.client.api.dto.LeaderboardEntry entry) {
+    boolean changed = false;
+    if (entry.getLeaderboard() != null) {
+      LeaderboardInfo previousLeaderboard = leaderboard;
+      leaderboard = LeaderboardInfo.fromDto(entry.getLeaderboard());
+      changed = !leaderboard.equals(previousLeaderboard);
+    }
+    return put(Row.fromDto(entry)) || changed;
+  }
+
+  /**
+   * @return whether the row differs from the previous version of its entry
+   */
+  private boolean put(Row row) {
+    Row previousRow = rowsById.put(row.getId(), row);
+    if (previousRow != null) {
+      rowsByRating.remove(previousRow);
+    }
+    rowsByRating.add(row);
+    lastUpdateTime = Math.max(lastUpdateTime, row.getUpdateTime());
+    return !row.equals(previousRow);
+  }
+
+  private void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    if (Files.notExists(snapshotFile)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+      Contents contents = gson.fromJson(reader, Contents.class);
+      if (contents != null && contents.getRows() != null) {
+        leaderboard = contents.getLeaderboard();
+        contents.getRows().forEach(this::put);
+        lastUpdateTime = contents.getLastUpdateTime();
+        lastFullRefresh = contents.getLastFullRefresh();
+      }
+    } catch (Exception e) {
+      log.warn("Leaderboard snapshot '{}' could not be read, downloading all entries", snapshotFile, e);
+      rowsById.clear();
+      rowsByRating.clear();
+    }
+  }
+
+  @Data
+  private static class Contents {
+    private LeaderboardInfo leaderboard;
+    private List<Row> rows;
+    private long lastUpdateTime;
+    private long lastFullRefresh;
+  }
+
+  @Data
+  private static class RatingCount {
+    private int totalCount;
+    private int countWithEnoughGamesPlayed;
+  }
+
+  @Value
+  private static class LeaderboardInfo {
+    String id;
+    String technicalName;
+    String nameKey;
+    String descriptionKey;
+
+    static LeaderboardInfo fromDto(com.faforever.client.api.dto.Leaderboard leaderboard) {
+      return new LeaderboardInfo(leaderboard.getId(), leaderboard.getTechnicalName(), leaderboard.getNameKey(),
+          leaderboard.getDescriptionKey());
+    }
+
+    com.faforever.client.api.dto.Leaderboard toDto() {
+      return new com.faforever.client.api.dto.Leaderboard(id, null, null, descriptionKey, nameKey, technicalName);
+    }
+  }
+
+  /**
+   * The fields of a leaderboard entry that are shown, in a form that can be stored.
+   */
+  @Value
+  private static class Row {
+    String id;
+    String login;
+    double rating;
+    int wonGames;
+    int drawnGames;
+    int lostGames;
+    int streak;
+    int bestStreak;
+    String recentScores;
+    String recentMod;
+    /** In epoch milliseconds. */
+    long updateTime;
+
+    static Row fromDto(com.faforever.client.api.dto.LeaderboardEntry entry) {
+      return new Row(entry.getId(), entry.getPlayer().getLogin(), entry.getRating(), entry.getWonGames(),
+          entry.getDrawnGames(), entry.getLostGames(), entry.getStreak(), entry.getBestStreak(), entry.getRecentScores(),
+          entry.getRecentMod(), entry.getUpdateTime().toInstant().toEpochMilli());
+    }
+
+    com.faforever.client.api.dto.LeaderboardEntry toDto(com.faforever.client.api.dto.Leaderboard leaderboard) {
+      Player player = new Player();
+      player.setLogin(login);
+
+      com.faforever.client.api.dto.LeaderboardEntry entry = new com.faforever.client.api.dto.LeaderboardEntry();
+      entry.setId(id);
+      entry.setPlayer(player);
+      entry.setLeaderboard(leaderboard);
+      entry.setRating(rating);
+      entry.setWonGames(wonGames);
+      entry.setDrawnGames(drawnGames);
+      entry.setLostGames(lostGames);
+      entry.setStreak(streak);
+      entry.setBestStreak(bestStreak);
+      entry.setRecentScores(recentScores);
+      entry.setRecentMod(recentMod);
+      entry.setUpdateTime(OffsetDateTime.ofInstant(Instant.ofEpochMilli(updateTime), ZoneOffset.UTC));
+      return entry;
+    }
+  }
+}
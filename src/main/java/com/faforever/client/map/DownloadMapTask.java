@@ -55,7 +55,7 @@ public class DownloadMapTask extends CompletableTask<Void> {
   @Inject
   public DownloadMapTask(PlatformService platformService, PreferencesService preferencesService,
                          NotificationService notificationService, DownloadService downloadService, I18n i18n) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, Lane.NETWORK);
     this.platformService = platformService;
     this.preferencesService = preferencesService;
     this.notificationService = notificationService;
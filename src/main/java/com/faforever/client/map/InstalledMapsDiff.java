@@ -0,0 +1,64 @@
+package com.faforever.client.map;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The changes that bring the installed maps of an installation up to date after some of its archives have been
+ * scanned again. Maps whose details did not change are kept, so lists showing them don't need to be rebuilt and CRCs
+ * that were already computed don't get lost.
+ */
+@Value
+class InstalledMapsDiff {
+  List<MapBean> removed;
+  List<MapBean> added;
+
+  /**
+   * @param installed the maps currently installed
+   * @param rescanned whether the archive of the specified name has been scanned again
+   * @param scanned the maps found in the archives that have been scanned again. If a map is found more than once, the
+   * first one wins, and a map of an archive that hasn't been scanned again always wins over a scanned one.
+   */
+  static InstalledMapsDiff compute(Collection<MapBean> installed, Predicate<String> rescanned, Collection<MapBean> scanned) {
+    Map<String, MapBean> scannedByName = new LinkedHashMap<>();
+    for (MapBean mapBean : scanned) {
+      scannedByName.putIfAbsent(mapBean.getMapName(), mapBean);
+    }
+
+    List<MapBean> removed = new ArrayList<>();
+    for (MapBean installedMap : installed) {
+      if (!rescanned.test(installedMap.getHpiArchiveName())) {
+        scannedByName.remove(installedMap.getMapName());
+        continue;
+      }
+      MapBean scannedMap = scannedByName.get(installedMap.getMapName());
+      if (scannedMap != null && isSameMap(installedMap, scannedMap)) {
+        scannedByName.remove(installedMap.getMapName());
+      } else {
+        removed.add(installedMap);
+      }
+    }
+    return new InstalledMapsDiff(removed, new ArrayList<>(scannedByName.values()));
+  }
+
+  /**
+   * Compares the details as read from the archive. The CRC is only compared as far as it's known without computing it.
+   */
+  private static boolean isSameMap(MapBean installedMap, MapBean scannedMap) {
+    return installedMap.getHpiArchiveName().equalsIgnoreCase(scannedMap.getHpiArchiveName())
+        && Objects.equals(installedMap.getDescription(), scannedMap.getDescription())
+        && Objects.equals(installedMap.getSize(), scannedMap.getSize())
+        && Objects.equals(installedMap.crcProperty().get(), scannedMap.crcProperty().get());
+  }
+
+  boolean isEmpty() {
+    return removed.isEmpty() && added.isEmpty();
+  }
+}
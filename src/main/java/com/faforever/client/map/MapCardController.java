@@ -1,12 +1,12 @@
 package com.faforever.client.map;
 
-import com.faforever.client.fx.Controller;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.map.MapService.PreviewType;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.util.IdenticonUtil;
+import com.faforever.client.vault.VaultEntityCardController;
 import com.faforever.client.vault.review.Review;
 import com.faforever.client.vault.review.StarsController;
 import javafx.beans.InvalidationListener;
@@ -32,7 +32,7 @@ import java.util.function.Consumer;
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @RequiredArgsConstructor
 @Slf4j
-public class MapCardController implements Controller<Node> {
+public class MapCardController implements VaultEntityCardController<MapBean> {
 
   private final MapService mapService;
   private final NotificationService notificationService;
@@ -55,7 +55,10 @@ public class MapCardController implements Controller<Node> {
   private MapBean map;
   private Consumer<MapBean> onOpenDetailListener;
   private ListChangeListener<MapBean> installStatusChangeListener;
+  private ListChangeListener<MapBean> weakInstallStatusChangeListener;
+  private ObservableList<MapBean> observedInstalledMaps;
   private final InvalidationListener reviewsChangedListener = observable -> populateReviews();
+  private final InvalidationListener weakReviewsChangedListener = new WeakInvalidationListener(reviewsChangedListener);
 
   public void initialize() {
     installButton.managedProperty().bind(installButton.visibleProperty());
@@ -76,14 +79,21 @@ public class MapCardController implements Controller<Node> {
         }
       }
     };
+    weakInstallStatusChangeListener = new WeakListChangeListener<>(installStatusChangeListener);
+  }
+
+  @Override
+  public void setEntity(MapBean map) {
+    setMap(map);
   }
 
   public void setMap(MapBean map) {
     String modTechnical = preferencesService.getPreferences().getLastGame().getLastGameType();
+    unbindFromMap();
     this.map = map;
     Image image;
     if (map.getThumbnailUrl() != null) {
-      image = mapService.loadPreview(modTechnical, map, PreviewType.MINI, 10);
+      image = mapService.loadPreview(modTechnical, map, PreviewType.MINI, 10, thumbnailImageView.getFitWidth());
     } else {
       image = IdenticonUtil.createIdenticon(map.getId());
     }
@@ -105,16 +115,29 @@ public class MapCardController implements Controller<Node> {
       installButton.setVisible(false);
       uninstallButton.setVisible(false);
     } else {
-      ObservableList<MapBean> installedMaps = mapService.getInstalledMaps(modTechnical);
-      JavaFxUtil.addListener(installedMaps, new WeakListChangeListener<>(installStatusChangeListener));
+      observedInstalledMaps = mapService.getInstalledMaps(modTechnical);
+      JavaFxUtil.addListener(observedInstalledMaps, weakInstallStatusChangeListener);
       setInstalled(mapService.isInstalled(modTechnical, map.getMapName(), map.getCrc()));
     }
 
     ObservableList<Review> reviews = map.getReviews();
-    JavaFxUtil.addListener(reviews, new WeakInvalidationListener(reviewsChangedListener));
+    JavaFxUtil.addListener(reviews, weakReviewsChangedListener);
     reviewsChangedListener.invalidated(reviews);
   }
 
+  /**
+   * Stops listening to the previously shown map, since this card may be recycled for another map.
+   */
+  private void unbindFromMap() {
+    if (observedInstalledMaps != null) {
+      JavaFxUtil.removeListener(observedInstalledMaps, weakInstallStatusChangeListener);
+      observedInstalledMaps = null;
+    }
+    if (map != null) {
+      JavaFxUtil.removeListener(map.getReviews(), weakReviewsChangedListener);
+    }
+  }
+
   private void populateReviews() {
     JavaFxUtil.runLater(() -> {
       numberOfReviewsLabel.setText(i18n.number(map.getReviewsSummary().getReviews()));
@@ -151,10 +174,12 @@ public class MapCardController implements Controller<Node> {
     uninstallButton.setVisible(installed);
   }
 
+  @Override
   public Node getRoot() {
     return mapTileRoot;
   }
 
+  @Override
   public void setOnOpenDetailListener(Consumer<MapBean> onOpenDetailListener) {
     this.onOpenDetailListener = onOpenDetailListener;
   }
@@ -162,7 +162,7 @@ public class MapDetailController implements Controller<Node> {
     Image image;
     String modTechnical = preferencesService.getPreferences().getLastGame().getLastGameType();
     if (map.getThumbnailUrl() != null) {
-      image = mapService.loadPreview(modTechnical, map, PreviewType.MINI, 10);
+      image = mapService.loadPreview(modTechnical, map, PreviewType.MINI, 10, thumbnailImageView.getFitWidth());
     } else {
       image = IdenticonUtil.createIdenticon(map.getId());
     }
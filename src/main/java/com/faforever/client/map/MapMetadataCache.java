@@ -0,0 +1,197 @@
+package com.faforever.client.map;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.Data;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the maps found in map archives together with the archives' size and modification time, so that an archive
+ * only needs to be scanned by the map tool again if one of them changed. CRCs computed later on are remembered as
+ * well. The cache is read lazily and only written if it changed.
+ */
+@Slf4j
+class MapMetadataCache {
+
+  private final Path cacheFile;
+  private final Gson gson = new Gson();
+  /** Keyed by absolute, normalized path. */
+  private final Map<String, Entry> entriesByPath = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+  private volatile boolean dirty;
+
+  MapMetadataCache(Path cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  /**
+   * Returns the maps of the specified archive as they were found when it had the specified fingerprint, or nothing if
+   * it has not been scanned since it changed.
+   */
+  Optional<List<MapMetadata>> getMaps(Path archive, Fingerprint fingerprint) {
+    loadIfNecessary();
+
+    Entry entry = entriesByPath.get(toKey(archive));
+    if (entry == null || entry.getSize() != fingerprint.getSize() || entry.getLastModified() != fingerprint.getLastModified()) {
+      return Optional.empty();
+    }
+    List<MapMetadata> maps = new ArrayList<>(entry.getMaps().size());
+    entry.getMaps().forEach(map -> maps.add(map.copy()));
+    return Optional.of(maps);
+  }
+
+  /**
+   * Remembers the maps found in the specified archive. The fingerprint must have been taken before the archive was
+   * scanned, so a change while scanning is noticed next time.
+   */
+  void putMaps(Path archive, Fingerprint fingerprint, List<MapMetadata> maps) {
+    loadIfNecessary();
+
+    Entry entry = new Entry();
+    entry.setSize(fingerprint.getSize());
+    entry.setLastModified(fingerprint.getLastModified());
+    entry.getMaps().addAll(maps);
+    entry.getMaps().replaceAll(MapMetadata::copy);
+    entriesByPath.put(toKey(archive), entry);
+    dirty = true;
+  }
+
+  /**
+   * Remembers the CRC of a map of an archive that has been scanned before. Like all changes, it is only written by the
+   * next {@link #store()}.
+   */
+  void putCrc(Path archive, String mapName, String crc) {
+    loadIfNecessary();
+
+    // Entries are never modified once cached, so they can be read and written without locking
+    Entry entry = entriesByPath.computeIfPresent(toKey(archive), (key, cachedEntry) -> cachedEntry.withCrc(mapName, crc));
+    if (entry != null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Removes entries of archives that no longer exist and writes the cache if anything changed.
+   */
+  synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+
+    entriesByPath.keySet().removeIf(path -> Files.notExists(Path.of(path)));
+
+    Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        gson.toJson(entriesByPath, writer);
+      }
+      Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Map metadata cache '{}' could not be written", cacheFile, e);
+    }
+  }
+
+  private void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      if (Files.exists(cacheFile)) {
+        try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+          Map<String, Entry> entries = gson.fromJson(reader, new TypeToken<Map<String, Entry>>() {
+          }.getType());
+          if (entries != null) {
+            entriesByPath.putAll(entries);
+          }
+        } catch (Exception e) {
+          log.warn("Map metadata cache '{}' could not be read, map archives will be scanned again", cacheFile, e);
+        }
+      }
+      loaded = true;
+    }
+  }
+
+  private static String toKey(Path file) {
+    return file.toAbsolutePath().normalize().toString();
+  }
+
+  /**
+   * The size and modification time of an archive.
+   */
+  @Value
+  static class Fingerprint {
+    long size;
+    long lastModified;
+
+    static Fingerprint of(Path archive) throws IOException {
+      BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+      return new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+  }
+
+  /**
+   * The details of a map as read from its archive.
+   */
+  @Data
+  static class MapMetadata {
+    private String name;
+    private String archiveName;
+    private String description;
+    private int width;
+    private int height;
+    /** {@code "00000000"} if not known yet. */
+    private String crc;
+
+    MapMetadata copy() {
+      MapMetadata copy = new MapMetadata();
+      copy.setName(name);
+      copy.setArchiveName(archiveName);
+      copy.setDescription(description);
+      copy.setWidth(width);
+      copy.setHeight(height);
+      copy.setCrc(crc);
+      return copy;
+    }
+  }
+
+  @Data
+  private static class Entry {
+    private long size;
+    private long lastModified;
+    private List<MapMetadata> maps = new ArrayList<>();
+
+    Entry withCrc(String mapName, String crc) {
+      Entry entry = new Entry();
+      entry.setSize(size);
+      entry.setLastModified(lastModified);
+      for (MapMetadata map : maps) {
+        MapMetadata copy = map.copy();
+        if (copy.getName().equals(mapName)) {
+          copy.setCrc(crc);
+        }
+        entry.getMaps().add(copy);
+      }
+      return entry;
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.faforever.client.map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import javafx.beans.value.ChangeListener;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static com.github.nocatch.NoCatch.noCatch;
+
+/**
+ * Smaller copies of map previews in a few fixed sizes, so that previews shown in small nodes like vault cards and game
+ * tiles don't need to decode the full size preview every time. The copies are generated from a full size preview the
+ * first time it has been loaded, stored in {@code <size>/<preview folder>/<map name>.png} below the thumbnail
+ * directory, and kept in memory up to a total size once decoded.
+ */
+@Slf4j
+class MapPreviewThumbnails {
+
+  /** The sizes thumbnails are generated in, in pixels along their longer side. Ascending. */
+  static final int[] SIZES = {64, 128, 256, 512};
+
+  private static final int BYTES_PER_PIXEL = 4;
+
+  private final Path thumbnailDirectory;
+  private final Executor executor;
+  private final Cache<ThumbnailKey, Image> images;
+  /** The previews thumbnails are being generated for, by preview folder and map name. */
+  private final Set<ThumbnailKey> generating = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @param executor generates the thumbnails, must not be the application thread
+   * @param maxCachedBytes the maximum total size of the decoded thumbnails kept in memory
+   */
+  MapPreviewThumbnails(Path thumbnailDirectory, Executor executor, long maxCachedBytes) {
+    this.thumbnailDirectory = thumbnailDirectory;
+    this.executor = executor;
+    // Thumbnails load in the background and have no size until they're loaded, so they are weighed by their size limit
+    this.images = Caffeine.newBuilder()
+        .maximumWeight(maxCachedBytes)
+        .<ThumbnailKey, Image>weigher((key, image) -> key.getSize() * key.getSize() * BYTES_PER_PIXEL)
+        .build();
+  }
+
+  /**
+   * Returns the smallest thumbnail size that is at least as large as the specified display size, or {@code 0} if the
+   * full size preview is needed.
+   */
+  static int selectSize(double displaySize) {
+    for (int size : SIZES) {
+      if (size >= displaySize) {
+        return size;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the thumbnail of the specified size, or {@code null} if it hasn't been generated yet.
+   */
+  @Nullable
+  Image get(String previewFolderName, String mapName, int size) {
+    ThumbnailKey key = new ThumbnailKey(previewFolderName, mapName, size);
+    Image image = images.getIfPresent(key);
+    if (image != null) {
+      return image;
+    }
+
+    Path file = getThumbnailFile(key);
+    if (Files.notExists(file)) {
+      return null;
+    }
+    image = new Image(noCatch(() -> file.toUri().toURL().toExternalForm()), 0, 0, true, true, true);
+    images.put(key, image);
+    return image;
+  }
+
+  /**
+   * Generates the thumbnails in all sizes from the full size preview in the background, as soon as it's loaded.
+   */
+  void generate(String previewFolderName, String mapName, @Nullable Image preview) {
+    if (preview == null || preview.isError()) {
+      return;
+    }
+    ThumbnailKey previewKey = new ThumbnailKey(previewFolderName, mapName, 0);
+    if (!generating.add(previewKey)) {
+      return;
+    }
+
+    whenLoaded(preview)
+        .thenRunAsync(() -> writeThumbnails(previewKey, preview), executor)
+        .whenComplete((result, throwable) -> {
+          // Also if loading the preview failed or the executor rejected the job, so the next preview is used instead
+          generating.remove(previewKey);
+          if (throwable != null) {
+            log.debug("Thumbnails of map '{}' were not generated", mapName, throwable);
+          }
+        });
+  }
+
+  /**
+   * Completes once the image has been loaded, or exceptionally if it couldn't be loaded.
+   */
+  private static CompletableFuture<Void> whenLoaded(Image image) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    if (image.isError()) {
+      future.completeExceptionally(image.getException());
+    } else if (image.getProgress() >= 1) {
+      future.complete(null);
+    } else {
+      ChangeListener<Number> progressListener = (observable, oldValue, newValue) -> {
+        if (newValue.doubleValue() >= 1) {
+          future.complete(null);
+        }
+      };
+      ChangeListener<Boolean> errorListener = (observable, oldValue, newValue) -> {
+        if (newValue) {
+          future.completeExceptionally(image.getException());
+        }
+      };
+      image.progressProperty().addListener(progressListener);
+      image.errorProperty().addListener(errorListener);
+      future.whenComplete((result, throwable) -> {
+        image.progressProperty().removeListener(progressListener);
+        image.errorProperty().removeListener(errorListener);
+      });
+    }
+    return future;
+  }
+
+  /**
+   * Deletes the thumbnails of the specified map, so they are generated again from the next full size preview.
+   */
+  void invalidate(String mapName) {
+    images.asMap().keySet().removeIf(key -> key.getMapName().equals(mapName));
+    try (var sizeDirectories = Files.list(thumbnailDirectory)) {
+      for (Path sizeDirectory : (Iterable<Path>) sizeDirectories::iterator) {
+        try (var previewDirectories = Files.list(sizeDirectory)) {
+          for (Path previewDirectory : (Iterable<Path>) previewDirectories::iterator) {
+            Files.deleteIfExists(previewDirectory.resolve(mapName + ".png"));
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Could not delete thumbnails of map '{}'", mapName, e);
+    }
+  }
+
+  private void writeThumbnails(ThumbnailKey previewKey, Image preview) {
+    try {
+      if (preview.isError()) {
+        return;
+      }
+      BufferedImage source = SwingFXUtils.fromFXImage(preview, null);
+      for (int size : SIZES) {
+        ThumbnailKey key = new ThumbnailKey(previewKey.getPreviewFolderName(), previewKey.getMapName(), size);
+        Path file = getThumbnailFile(key);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.createDirectories(file.getParent());
+        ImageIO.write(scale(source, size), "png", tempFile.toFile());
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not generate thumbnails of map '{}'", previewKey.getMapName(), e);
+    }
+  }
+
+  /**
+   * Scales the image down so that its longer side is at most {@code maxSize}, halving it step by step so that every
+   * source pixel contributes to the result.
+   */
+  static BufferedImage scale(BufferedImage source, int maxSize) {
+    int longerSide = Math.max(source.getWidth(), source.getHeight());
+    if (longerSide <= maxSize) {
+      return source;
+    }
+    double factor = (double) maxSize / longerSide;
+    int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * factor));
+    int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+    BufferedImage result = source;
+    int width = source.getWidth();
+    int height = source.getHeight();
+    do {
+      width = Math.max(targetWidth, width / 2);
+      height = Math.max(targetHeight, height / 2);
+      BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D graphics = step.createGraphics();
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.drawImage(result, 0, 0, width, height, null);
+      graphics.dispose();
+      result = step;
+    } while (width != targetWidth || height != targetHeight);
+    return result;
+  }
+
+  private Path getThumbnailFile(ThumbnailKey key) {
+    return thumbnailDirectory
+        .resolve(String.valueOf(key.getSize()))
+        .resolve(key.getPreviewFolderName())
+        .resolve(key.getMapName() + ".png");
+  }
+
+  @Value
+  private static class ThumbnailKey {
+    String previewFolderName;
+    String mapName;
+    /** In pixels, {@code 0} for the full size preview. */
+    int size;
+  }
+}
@@ -10,6 +10,8 @@ import com.faforever.client.i18n.I18n;
 import com.faforever.client.leaderboard.LeaderboardRating;
 import com.faforever.client.io.FileUtils;
 import com.faforever.client.map.MapBean.Type;
+import com.faforever.client.map.MapMetadataCache.Fingerprint;
+import com.faforever.client.map.MapMetadataCache.MapMetadata;
 import com.faforever.client.notification.DismissAction;
 import com.faforever.client.notification.ImmediateNotification;
 import com.faforever.client.notification.NotificationService;
@@ -21,7 +23,9 @@ import com.faforever.client.preferences.TotalAnnihilationPrefs;
 import com.faforever.client.remote.AssetService;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.task.CompletableTask;
+import com.faforever.client.task.CompletableTask.Lane;
 import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.PrioritizedTaskExecutor;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.teammatchmaking.MatchmakingQueue;
 import com.faforever.client.theme.UiService;
@@ -39,6 +43,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.image.Image;
 import javafx.util.Pair;
 import lombok.SneakyThrows;
+import lombok.Value;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -57,27 +62,32 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.HashSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.faforever.client.fa.MapTool.MAP_DETAIL_COLUMN_ARCHIVE;
 import static com.faforever.client.fa.MapTool.MAP_DETAIL_COLUMN_CRC;
@@ -90,6 +100,7 @@ import static java.lang.String.format;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 
 
 @Lazy
@@ -101,6 +112,7 @@ public class MapService implements InitializingBean, DisposableBean {
 
   private final PreferencesService preferencesService;
   private final TaskService taskService;
+  private final PrioritizedTaskExecutor taskExecutor;
   private final ApplicationContext applicationContext;
   private final FafService fafService;
   private final AssetService assetService;
@@ -114,6 +126,8 @@ public class MapService implements InitializingBean, DisposableBean {
   private final String mapDownloadUrlFormat;
   private final String mapPreviewUrlFormat;
   private Boolean notifiedBadMapTool = false;
+  private MapMetadataCache mapMetadataCache;
+  private MapPreviewThumbnails previewThumbnails;
 
   private class Installation {
     final String modTechnicalName;
@@ -121,7 +135,15 @@ public class MapService implements InitializingBean, DisposableBean {
     private final ObservableList<MapBean> maps = FXCollections.observableArrayList();
     private List<String> downloadingList = new ArrayList<>(); // guard against multiple attempts to download same archive prolly due to clicky users
     private Thread directoryWatcherThread;
-    private Integer enumerationsRequested = 0;
+    /** Archives to scan again, by file name. Guarded by {@link #enumerationLock}. */
+    private final SortedSet<String> archivesToScan = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    /** Guarded by {@link #enumerationLock}. */
+    private boolean fullScanRequested;
+    /** Whether an enumeration task is running that will pick up further requests. Guarded by {@link #enumerationLock}. */
+    private boolean enumerationRunning;
+    private final Object enumerationLock = new Object();
+    /** Whether the maps are the OTA maps inserted because no maps could be found. Guarded by {@link #enumerationLock}. */
+    private boolean placeholderMaps;
 
     public Installation(String modTechnical) {
       this.modTechnicalName = modTechnical;
@@ -153,6 +175,57 @@ public class MapService implements InitializingBean, DisposableBean {
         maps.add(mapBean);
       }
     }
+
+    /**
+     * Requests the specified archives to be scanned again, or all archives if {@code archiveNames} is {@code null}.
+     *
+     * @return {@code true} if the caller has to start an enumeration task, {@code false} if a running one will pick up
+     * the request
+     */
+    private boolean requestEnumeration(@Nullable Collection<String> archiveNames) {
+      synchronized (enumerationLock) {
+        if (archiveNames == null) {
+          fullScanRequested = true;
+        } else {
+          archivesToScan.addAll(archiveNames);
+        }
+        if (enumerationRunning) {
+          return false;
+        }
+        enumerationRunning = true;
+        return true;
+      }
+    }
+
+    /**
+     * Takes all pending requests, merged into one. Returns {@code null} and marks the enumeration as finished if there
+     * are none.
+     */
+    @Nullable
+    private EnumerationRequest takeEnumerationRequest() {
+      synchronized (enumerationLock) {
+        if (!fullScanRequested && archivesToScan.isEmpty()) {
+          enumerationRunning = false;
+          return null;
+        }
+        // Placeholder maps don't belong to any archive, so they are only replaced by a full scan
+        boolean fullScan = fullScanRequested || placeholderMaps;
+        EnumerationRequest request = new EnumerationRequest(fullScan, fullScan ? Set.of() : new TreeSet<>(archivesToScan));
+        fullScanRequested = false;
+        archivesToScan.clear();
+        return request;
+      }
+    }
+  }
+
+  /**
+   * All archives of an installation to scan again, or just the ones of the specified names.
+   */
+  @Value
+  private static class EnumerationRequest {
+    boolean fullScan;
+    /** Compared ignoring case, like the file names on Windows. */
+    Set<String> archiveNames;
   }
 
   // keyed by ModTechnical
@@ -169,6 +242,7 @@ public class MapService implements InitializingBean, DisposableBean {
   @Inject
   public MapService(PreferencesService preferencesService,
                     TaskService taskService,
+                    PrioritizedTaskExecutor taskExecutor,
                     ApplicationContext applicationContext,
                     FafService fafService,
                     AssetService assetService,
@@ -179,6 +253,7 @@ public class MapService implements InitializingBean, DisposableBean {
                     EventBus eventBus, PlayerService playerService) {
     this.preferencesService = preferencesService;
     this.taskService = taskService;
+    this.taskExecutor = taskExecutor;
     this.applicationContext = applicationContext;
     this.fafService = fafService;
     this.assetService = assetService;
@@ -255,6 +330,9 @@ public class MapService implements InitializingBean, DisposableBean {
       "tademo.ufo");
 
   private static String HPI_ARCHIVE_TA_FEATURES_2013 = "TA_Features_2013.ccx";
+  private static final Pattern ARCHIVE_FILE_NAME_PATTERN = Pattern.compile(".*\\.(ufo|hpi|ccx|gpf|gp3)", Pattern.CASE_INSENSITIVE);
+  private static final String MAP_METADATA_CACHE_FILE_NAME = "map-metadata.json";
+  private static final String THUMBNAIL_DIRECTORY_NAME = "thumbnails";
 
   private static URL getDownloadUrl(String hpiArchiveName, String baseUrl) {
     return noCatch(() -> new URL(format(baseUrl, urlFragmentEscaper().escape(hpiArchiveName))));
@@ -305,14 +383,19 @@ public class MapService implements InitializingBean, DisposableBean {
       try (WatchService watcher = mapsDirectory.getFileSystem().newWatchService()) {
         // beware potential bug: this used to register with forgedAlliancePreferences.getCustomMapsDirectory() ...
         mapsDirectory.register(watcher, new WatchEvent.Kind[]{ENTRY_DELETE, ENTRY_MODIFY, ENTRY_CREATE});
-        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:*.{ufo,hpi,ccx}");
         while (!Thread.interrupted()) {
           WatchKey key = watcher.take();
           List<WatchEvent<?>> events = key.pollEvents();
-          if (events.stream()
-              .filter(event -> matcher.matches((Path)event.context()) )
-              .findAny().isPresent()) {
+          if (events.stream().anyMatch(event -> event.kind() == OVERFLOW)) {
             Platform.runLater(() -> { if (enableLoadInstalledMapsOnDirectoryUpdate) loadInstalledMaps(installation); });
+          } else {
+            Set<String> archiveNames = events.stream()
+                .map(event -> event.context().toString())
+                .filter(fileName -> ARCHIVE_FILE_NAME_PATTERN.matcher(fileName).matches())
+                .collect(Collectors.toSet());
+            if (!archiveNames.isEmpty()) {
+              Platform.runLater(() -> { if (enableLoadInstalledMapsOnDirectoryUpdate) enumerateInstalledMaps(installation, archiveNames); });
+            }
           }
           key.reset();
         }
@@ -344,81 +427,200 @@ public class MapService implements InitializingBean, DisposableBean {
   }
 
   private void loadInstalledMaps(Installation installation) {
-    synchronized(installation.enumerationsRequested) {
-      ++installation.enumerationsRequested;
-      if (installation.enumerationsRequested > 1) {
-        return;
-      }
+    enumerateInstalledMaps(installation, null);
+  }
+
+  /**
+   * Scans the specified archives of the installation again, or all of them if {@code archiveNames} is {@code null},
+   * and applies the differences to its maps. Requests made while an enumeration is running are merged and handled by
+   * that enumeration once it's done.
+   */
+  private void enumerateInstalledMaps(Installation installation, @Nullable Collection<String> archiveNames) {
+    if (!installation.requestEnumeration(archiveNames)) {
+      return;
     }
 
-    taskService.submitTask(new CompletableTask<Void>(Priority.LOW) {
+    taskService.submitTask(new CompletableTask<Void>(Priority.LOW, Lane.DISK) {
 
       protected Void call() {
         updateTitle(i18n.get("mapVault.loadingMaps"));
 
-        Path exePath = preferencesService.getTotalAnnihilation(installation.modTechnicalName).getInstalledExePath();
-        if (exePath == null || !Files.isExecutable(exePath)) {
-          synchronized(installation.enumerationsRequested) {
-            installation.enumerationsRequested = 0;
-          }
-          return null;
-        }
-        Path gamePath = exePath.getParent();
-
-        List<MapBean> mapList = new ArrayList<>();
-        try {
-          for (String[] details : MapTool.listMapsInstalled(gamePath, preferencesService.getCacheDirectory().resolve("maps"), false)) {
-            MapBean mapBean = readMap(details[0], details);
-            mapBean.setLazyCrc((aVoid) -> {
-              try {
-                List<String[]> detailsWithCrc = MapTool.listMap(gamePath, mapBean.getMapName());
-                return detailsWithCrc.get(0)[MAP_DETAIL_COLUMN_CRC];
-              } catch (IOException e) {
-                notifyBadMapTool(e);
-                return "00000000";
-              }
-            });
-            mapList.add(mapBean);
-          }
-        }
-        catch (IOException e) {
-          notifyBadMapTool(e);
-        }
-        installation.maps.clear();
-        installation.maps.addAll(mapList);
-        if (installation.maps.isEmpty()) {
-          logger.warn("no maps found for mod={}. inserting OTA maps", installation.modTechnicalName);
-          for (String map : otaMaps) {
-            installation.addMap(map, null);
+        EnumerationRequest request;
+        while ((request = installation.takeEnumerationRequest()) != null) {
+          try {
+            applyEnumeration(installation, request);
+          } catch (RuntimeException e) {
+            logger.warn("Could not enumerate maps of mod {}", installation.modTechnicalName, e);
           }
         }
         updateProgress(1, 1);
+        return null;
+      }
+    });
+  }
 
-        boolean again = false;
-        synchronized(installation.enumerationsRequested) {
-          if (installation.enumerationsRequested > 1) {
-            installation.enumerationsRequested = 1;
-            again = true;
-          }
-          else {
-            installation.enumerationsRequested = 0;
-          }
-        }
-        if (again) {
-          return call();
-        }
-        else {
-          return null;
+  private void applyEnumeration(Installation installation, EnumerationRequest request) {
+    Path exePath = preferencesService.getTotalAnnihilation(installation.modTechnicalName).getInstalledExePath();
+    if (exePath == null || !Files.isExecutable(exePath)) {
+      return;
+    }
+    Path gamePath = exePath.getParent();
+
+    List<MapBean> scannedMaps = new ArrayList<>();
+    try {
+      List<Path> archives = request.isFullScan() ? listArchives(gamePath) : request.getArchiveNames().stream()
+          .map(gamePath::resolve)
+          .filter(Files::exists)
+          .collect(Collectors.toList());
+      for (MapMetadata metadata : readArchives(gamePath, archives, request.isFullScan())) {
+        scannedMaps.add(createInstalledMap(gamePath, metadata));
+      }
+    } catch (IOException e) {
+      notifyBadMapTool(e);
+    }
+    getMapMetadataCache().store();
+
+    InstalledMapsDiff diff = InstalledMapsDiff.compute(installation.maps,
+        archiveName -> request.isFullScan() || request.getArchiveNames().contains(archiveName), scannedMaps);
+    logger.debug("Enumerated maps of mod {} in {}: {} removed, {} added", installation.modTechnicalName,
+        request.isFullScan() ? "all archives" : request.getArchiveNames(), diff.getRemoved().size(), diff.getAdded().size());
+    if (!diff.isEmpty()) {
+      installation.maps.removeAll(new HashSet<>(diff.getRemoved()));
+      installation.maps.addAll(diff.getAdded());
+    }
+
+    synchronized (installation.enumerationLock) {
+      installation.placeholderMaps = installation.maps.isEmpty();
+    }
+    if (installation.maps.isEmpty()) {
+      logger.warn("no maps found for mod={}. inserting OTA maps", installation.modTechnicalName);
+      for (String map : otaMaps) {
+        installation.addMap(map, null);
+      }
+    }
+  }
+
+  private List<Path> listArchives(Path gamePath) throws IOException {
+    try (Stream<Path> files = Files.list(gamePath)) {
+      return files
+          .filter(file -> ARCHIVE_FILE_NAME_PATTERN.matcher(file.getFileName().toString()).matches())
+          .filter(Files::isRegularFile)
+          .sorted(Comparator.comparing(file -> file.getFileName().toString(), String.CASE_INSENSITIVE_ORDER))
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Reads the maps of the specified archives from the metadata cache, only the archives that changed since they were
+   * last read are scanned by the map tool. If none of them is known yet, a full scan lists them all in one go.
+   */
+  private List<MapMetadata> readArchives(Path gamePath, List<Path> archives, boolean fullScan) throws IOException {
+    MapMetadataCache cache = getMapMetadataCache();
+    Map<Path, List<MapMetadata>> mapsByArchive = new LinkedHashMap<>();
+    Map<Path, Fingerprint> changedArchives = new LinkedHashMap<>();
+    for (Path archive : archives) {
+      Fingerprint fingerprint;
+      try {
+        fingerprint = Fingerprint.of(archive);
+      } catch (IOException e) {
+        logger.debug("Skipping archive {} ({})", archive, e.getMessage());
+        continue;
+      }
+      Optional<List<MapMetadata>> cachedMaps = cache.getMaps(archive, fingerprint);
+      if (cachedMaps.isPresent()) {
+        mapsByArchive.put(archive, cachedMaps.get());
+      } else {
+        mapsByArchive.put(archive, List.of());
+        changedArchives.put(archive, fingerprint);
+      }
+    }
+    logger.debug("{} of {} archives in {} need to be scanned", changedArchives.size(), mapsByArchive.size(), gamePath);
+
+    if (fullScan && changedArchives.size() > 1 && changedArchives.size() == mapsByArchive.size()) {
+      return listAllArchives(gamePath, changedArchives);
+    }
+
+    for (Map.Entry<Path, Fingerprint> entry : changedArchives.entrySet()) {
+      Path archive = entry.getKey();
+      List<MapMetadata> maps = new ArrayList<>();
+      for (String[] details : MapTool.listMapsInArchive(archive, null, false)) {
+        maps.add(parseMapMetadata(details[MapTool.MAP_DETAIL_COLUMN_NAME], details));
+      }
+      cache.putMaps(archive, entry.getValue(), maps);
+      mapsByArchive.put(archive, maps);
+    }
+    return mapsByArchive.values().stream().flatMap(List::stream).collect(Collectors.toList());
+  }
+
+  /**
+   * Lists the maps of all archives with a single map tool run. The result is only cached if every map could be
+   * attributed to one of the archives, otherwise a later start would miss the others.
+   */
+  private List<MapMetadata> listAllArchives(Path gamePath, Map<Path, Fingerprint> archives) throws IOException {
+    List<MapMetadata> maps = new ArrayList<>();
+    Map<String, List<MapMetadata>> mapsByArchiveName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (String[] details : MapTool.listMapsInstalled(gamePath, preferencesService.getCacheDirectory().resolve("maps"), false)) {
+      MapMetadata metadata = parseMapMetadata(details[MapTool.MAP_DETAIL_COLUMN_NAME], details);
+      maps.add(metadata);
+      mapsByArchiveName.computeIfAbsent(metadata.getArchiveName(), archiveName -> new ArrayList<>()).add(metadata);
+    }
+
+    Set<String> archiveNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    archives.keySet().forEach(archive -> archiveNames.add(archive.getFileName().toString()));
+    if (!archiveNames.containsAll(mapsByArchiveName.keySet())) {
+      logger.warn("Maps of {} were found in unknown archives, not caching them", gamePath);
+      return maps;
+    }
+
+    MapMetadataCache cache = getMapMetadataCache();
+    archives.forEach((archive, fingerprint) -> cache.putMaps(archive, fingerprint,
+        mapsByArchiveName.getOrDefault(archive.getFileName().toString(), List.of())));
+    return maps;
+  }
+
+  private MapBean createInstalledMap(Path gamePath, MapMetadata metadata) {
+    MapBean mapBean = createMap(metadata);
+    mapBean.setLazyCrc((aVoid) -> {
+      try {
+        String[] detailsWithCrc = MapTool.listMap(gamePath, mapBean.getMapName()).get(0);
+        String crc = detailsWithCrc[MAP_DETAIL_COLUMN_CRC];
+        // The map tool picks the map from whichever archive the game would load it from
+        if (metadata.getArchiveName().equalsIgnoreCase(detailsWithCrc[MAP_DETAIL_COLUMN_ARCHIVE])) {
+          // Written with the next enumeration or on shutdown rather than once per CRC
+          getMapMetadataCache().putCrc(gamePath.resolve(metadata.getArchiveName()), metadata.getName(), crc);
         }
+        return crc;
+      } catch (IOException e) {
+        notifyBadMapTool(e);
+        return "00000000";
       }
     });
+    return mapBean;
+  }
+
+  private synchronized MapMetadataCache getMapMetadataCache() {
+    if (mapMetadataCache == null) {
+      mapMetadataCache = new MapMetadataCache(preferencesService.getCacheDirectory().resolve(MAP_METADATA_CACHE_FILE_NAME));
+    }
+    return mapMetadataCache;
+  }
+
+  private synchronized MapPreviewThumbnails getPreviewThumbnails() {
+    if (previewThumbnails == null) {
+      previewThumbnails = new MapPreviewThumbnails(
+          preferencesService.getCacheDirectory().resolve("maps").resolve(THUMBNAIL_DIRECTORY_NAME),
+          taskExecutor.getExecutor(Lane.CPU, Priority.LOW), clientProperties.getCache().getMaxMapThumbnailWeight());
+    }
+    return previewThumbnails;
   }
 
   static final Pattern MAP_SIZE_FROM_DESCRIPTION_REGEX = Pattern.compile("([0-9]+\\s?[xX]\\s?[0-9]+)[\\s\\.].*");
   @NotNull
   public MapBean readMap(String mapName, String [] mapDetails) {
-    MapBean mapBean = new MapBean();
+    return createMap(parseMapMetadata(mapName, mapDetails));
+  }
 
+  private MapMetadata parseMapMetadata(String mapName, String [] mapDetails) {
     String archiveName = "unknown.ufo";
     String description = mapName;
     String mapSizeStr = "16 x 16";
@@ -447,26 +649,34 @@ public class MapService implements InitializingBean, DisposableBean {
     }
     String mapSizeArray[] = mapSizeStr.replaceAll("[^0-9x]", "").split("x");
 
-    mapBean.setDownloadUrl(getDownloadUrl(archiveName, mapDownloadUrlFormat));
-    mapBean.setMapName(mapName);
-    mapBean.setCrc(crc);
-    mapBean.setDescription(description.replaceAll("[ ][ ]+", "\n"));  // some maps insert spaces into description to move to new line when displayed in TA lobby
-    mapBean.setHpiArchiveName(archiveName);
-    mapBean.setPlayers(10);
-    mapBean.setType(Type.SKIRMISH);
-
-    mapBean.setSize(MapSize.valueOf(0, 0));
+    MapMetadata metadata = new MapMetadata();
+    metadata.setName(mapName);
+    metadata.setArchiveName(archiveName);
+    metadata.setCrc(crc);
+    metadata.setDescription(description.replaceAll("[ ][ ]+", "\n"));  // some maps insert spaces into description to move to new line when displayed in TA lobby
     try {
       if (mapSizeArray.length == 2) {
-        Integer w = Integer.parseInt(mapSizeArray[0].trim());
-        Integer h = Integer.parseInt(mapSizeArray[1].trim());
-        mapBean.setSize(MapSize.valueOf(w, h));
+        metadata.setWidth(Integer.parseInt(mapSizeArray[0].trim()));
+        metadata.setHeight(Integer.parseInt(mapSizeArray[1].trim()));
       }
     }
     catch (NumberFormatException e) {
       logger.error("Map '{}' has unparsable size '{}'", mapName, mapSizeStr);
     }
 
+    return metadata;
+  }
+
+  private MapBean createMap(MapMetadata metadata) {
+    MapBean mapBean = new MapBean();
+    mapBean.setDownloadUrl(getDownloadUrl(metadata.getArchiveName(), mapDownloadUrlFormat));
+    mapBean.setMapName(metadata.getName());
+    mapBean.setCrc(metadata.getCrc());
+    mapBean.setDescription(metadata.getDescription());
+    mapBean.setHpiArchiveName(metadata.getArchiveName());
+    mapBean.setPlayers(10);
+    mapBean.setType(Type.SKIRMISH);
+    mapBean.setSize(MapSize.valueOf(metadata.getWidth(), metadata.getHeight()));
     return mapBean;
   }
 
@@ -809,6 +1019,39 @@ public class MapService implements InitializingBean, DisposableBean {
     return loadPreview(modTechnical, map.getMapName(), url, previewType, maxPositions);
   }
 
+  /**
+   * Loads the preview in the smallest thumbnail size that covers {@code displaySize}. Until the thumbnails have been
+   * generated from the full size preview, the full size preview is returned.
+   */
+  public Image loadPreview(String modTechnicalName, String mapName, PreviewType previewType, int maxPositions, double displaySize) {
+    String folderName = previewType.getFolderName(maxPositions);
+    int size = MapPreviewThumbnails.selectSize(displaySize);
+    Image thumbnail = size == 0 ? null : getPreviewThumbnails().get(folderName, mapName, size);
+    if (thumbnail != null) {
+      return thumbnail;
+    }
+    Image preview = applicationContext.getBean(this.getClass()).loadPreview(modTechnicalName, mapName, previewType, maxPositions);
+    if (size != 0) {
+      getPreviewThumbnails().generate(folderName, mapName, preview);
+    }
+    return preview;
+  }
+
+  public Image loadPreview(String modTechnical, MapBean map, PreviewType previewType, int maxPositions, double displaySize) {
+    String folderName = previewType.getFolderName(maxPositions);
+    int size = MapPreviewThumbnails.selectSize(displaySize);
+    Image thumbnail = size == 0 ? null : getPreviewThumbnails().get(folderName, map.getMapName(), size);
+    if (thumbnail != null) {
+      return thumbnail;
+    }
+    Image preview = applicationContext.getBean(this.getClass()).loadPreview(modTechnical, map, previewType, maxPositions);
+    // Without a URL the preview is the "unknown map" image
+    if (size != 0 && map.getThumbnailUrl() != null) {
+      getPreviewThumbnails().generate(folderName, map.getMapName(), preview);
+    }
+    return preview;
+  }
+
   private Image loadPreview(String modTechnical, String mapName, URL url, PreviewType previewType, int maxPositions) {
     Path cacheDir = preferencesService.getCacheDirectory().resolve("maps").resolve(previewType.getFolderName(maxPositions));
     Path cachedFile = cacheDir.resolve(mapName+".png");
@@ -819,6 +1062,7 @@ public class MapService implements InitializingBean, DisposableBean {
 
   @CacheEvict(value = CacheNames.MAP_PREVIEW, allEntries = true)
   public void resetPreviews(String mapName) {
+    getPreviewThumbnails().invalidate(mapName);
     for (PreviewType previewType: PreviewType.values()) {
       for (int maxPositions=2; maxPositions<=10; ++maxPositions) {
         resetPreview(getPreviewUrl(mapName, mapPreviewUrlFormat, previewType), previewType, maxPositions);
@@ -967,6 +1211,8 @@ public class MapService implements InitializingBean, DisposableBean {
     for (Installation installation: installations.values()) {
       Optional.ofNullable(installation.directoryWatcherThread).ifPresent(Thread::interrupt);
     }
+    getMapMetadataCache().store();
+    MapTool.shutdown();
   }
 
   public enum PreviewType {
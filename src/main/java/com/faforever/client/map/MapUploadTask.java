@@ -47,7 +47,7 @@ public class MapUploadTask extends CompletableTask<Void> implements Initializing
 
   @Inject
   public MapUploadTask(PreferencesService preferencesService, FafApiAccessor fafApiAccessor, I18n i18n) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, Lane.NETWORK);
     this.preferencesService = preferencesService;
     this.fafApiAccessor = fafApiAccessor;
     this.i18n = i18n;
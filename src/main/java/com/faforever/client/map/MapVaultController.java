@@ -17,6 +17,7 @@ import com.faforever.client.teammatchmaking.MatchmakingQueue;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.ui.dialog.Dialog;
 import com.faforever.client.ui.preferences.event.GameDirectoryChooseEvent;
+import com.faforever.client.vault.VaultEntityCardController;
 import com.faforever.client.vault.VaultEntityController;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.google.common.eventbus.EventBus;
@@ -135,11 +136,8 @@ public class MapVaultController extends VaultEntityController<MapBean> {
     }
   }
 
-  protected Node getEntityCard(MapBean map) {
-    MapCardController controller = uiService.loadFxml("theme/vault/map/map_card.fxml");
-    controller.setMap(map);
-    controller.setOnOpenDetailListener(this::onDisplayDetails);
-    return controller.getRoot();
+  protected VaultEntityCardController<MapBean> createEntityCard() {
+    return uiService.loadFxml("theme/vault/map/map_card.fxml");
   }
 
   @Override
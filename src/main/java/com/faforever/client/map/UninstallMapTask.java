@@ -24,7 +24,7 @@ public class UninstallMapTask extends CompletableTask<Void> {
 
   @Inject
   public UninstallMapTask() {
-    super(Priority.LOW);
+    super(Priority.LOW, Lane.DISK);
   }
 
   public void setInstallationPath(Path installationPath) {
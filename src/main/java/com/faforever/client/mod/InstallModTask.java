@@ -30,7 +30,7 @@ public class InstallModTask extends CompletableTask<Void> {
 
   @Inject
   public InstallModTask( PlatformService platformService, PreferencesService preferencesService, I18n i18n) {
-    super(HIGH);
+    super(HIGH, Lane.NETWORK);
     this.platformService = platformService;
     this.preferencesService = preferencesService;
     this.i18n = i18n;
@@ -1,11 +1,11 @@
 package com.faforever.client.mod;
 
-import com.faforever.client.fx.Controller;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.util.TimeService;
+import com.faforever.client.vault.VaultEntityCardController;
 import com.faforever.client.vault.review.Review;
 import com.faforever.client.vault.review.StarsController;
 import javafx.beans.InvalidationListener;
@@ -29,7 +29,7 @@ import java.util.function.Consumer;
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @RequiredArgsConstructor
 @Slf4j
-public class ModCardController implements Controller<Node> {
+public class ModCardController implements VaultEntityCardController<ModVersion> {
 
   private final ModService modService;
   private final NotificationService notificationService;
@@ -51,6 +51,7 @@ public class ModCardController implements Controller<Node> {
   private ListChangeListener<ModVersion> installStatusChangeListener;
   public StarsController starsController;
   private final InvalidationListener reviewsChangedListener = observable -> populateReviews();
+  private final InvalidationListener weakReviewsChangedListener = new WeakInvalidationListener(reviewsChangedListener);
 
   private void populateReviews() {
     JavaFxUtil.runLater(() -> {
@@ -65,19 +66,20 @@ public class ModCardController implements Controller<Node> {
     installStatusChangeListener = change -> {
       while (change.next()) {
         for (ModVersion modVersion : change.getAddedSubList()) {
-          if (this.modVersion.equals(modVersion)) {
+          if (modVersion.equals(this.modVersion)) {
             setInstalled(true);
             return;
           }
         }
         for (ModVersion modVersion : change.getRemoved()) {
-          if (this.modVersion.equals(modVersion)) {
+          if (modVersion.equals(this.modVersion)) {
             setInstalled(false);
             return;
           }
         }
       }
     };
+    JavaFxUtil.addListener(modService.getInstalledModVersions(), new WeakListChangeListener<>(installStatusChangeListener));
   }
 
   public void onInstallButtonClicked() {
@@ -108,30 +110,36 @@ public class ModCardController implements Controller<Node> {
     uninstallButton.setVisible(installed);
   }
 
+  @Override
+  public void setEntity(ModVersion modVersion) {
+    setModVersion(modVersion);
+  }
+
   public void setModVersion(ModVersion modVersion) {
+    if (this.modVersion != null) {
+      // This card may be recycled for another mod
+      JavaFxUtil.removeListener(this.modVersion.getReviews(), weakReviewsChangedListener);
+    }
     this.modVersion = modVersion;
     thumbnailImageView.setImage(modService.loadThumbnail(modVersion));
     nameLabel.setText(modVersion.getDisplayName());
-    if (modVersion.getMod() != null) {
-      authorLabel.setText(modVersion.getMod().getAuthor());
-    }
+    authorLabel.setText(modVersion.getMod() != null ? modVersion.getMod().getAuthor() : "");
     createdLabel.setText(timeService.asDate(modVersion.getCreateTime()));
     updatedLabel.setText(timeService.asDate(modVersion.getUpdateTime()));
     typeLabel.setText(modVersion.getModType() != null ? i18n.get(modVersion.getModType().getI18nKey()) : "");
     setInstalled(modService.isModInstalled(modVersion.getUid()));
 
-    ObservableList<ModVersion> installedModVersions = modService.getInstalledModVersions();
-    JavaFxUtil.addListener(installedModVersions, new WeakListChangeListener<>(installStatusChangeListener));
-
     ObservableList<Review> reviews = modVersion.getReviews();
-    JavaFxUtil.addListener(reviews, new WeakInvalidationListener(reviewsChangedListener));
+    JavaFxUtil.addListener(reviews, weakReviewsChangedListener);
     reviewsChangedListener.invalidated(reviews);
   }
 
+  @Override
   public Node getRoot() {
     return modTileRoot;
   }
 
+  @Override
   public void setOnOpenDetailListener(Consumer<ModVersion> onOpenDetailListener) {
     this.onOpenDetailListener = onOpenDetailListener;
   }
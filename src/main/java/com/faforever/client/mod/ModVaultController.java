@@ -13,6 +13,7 @@ import com.faforever.client.query.SearchablePropertyMappings;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.ui.dialog.Dialog;
+import com.faforever.client.vault.VaultEntityCardController;
 import com.faforever.client.vault.VaultEntityController;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.google.common.eventbus.EventBus;
@@ -83,11 +84,8 @@ public class ModVaultController extends VaultEntityController<ModVersion> {
     }
   }
 
-  protected Node getEntityCard(ModVersion modVersion) {
-    ModCardController controller = uiService.loadFxml("theme/vault/mod/mod_card.fxml");
-    controller.setModVersion(modVersion);
-    controller.setOnOpenDetailListener(this::onDisplayDetails);
-    return controller.getRoot();
+  protected VaultEntityCardController<ModVersion> createEntityCard() {
+    return uiService.loadFxml("theme/vault/mod/mod_card.fxml");
   }
 
   @Override
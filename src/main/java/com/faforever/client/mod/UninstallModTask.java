@@ -25,7 +25,7 @@ public class UninstallModTask extends CompletableTask<Void> {
 
   @Inject
   public UninstallModTask(ModService modService) {
-    super(CompletableTask.Priority.LOW);
+    super(CompletableTask.Priority.LOW, Lane.DISK);
 
     this.modService = modService;
   }
@@ -1,13 +1,19 @@
 package com.faforever.client.patch;
 
 import com.faforever.client.api.dto.FeaturedModFile;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.FeaturedModUpdater;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.io.DownloadService;
 import com.faforever.client.io.FeaturedModFileCacheService;
+import com.faforever.client.io.FeaturedModFileCacheService.CacheUsage;
 import com.faforever.client.mod.FeaturedMod;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.task.CompletableTask;
+import com.faforever.client.task.PrioritizedTaskExecutor;
+import com.faforever.commons.io.ByteCountListener;
+import com.google.common.base.Throwables;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -18,8 +24,15 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -30,6 +43,8 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
   private final DownloadService downloadService;
   private final I18n i18n;
   private final FeaturedModFileCacheService featuredModFileCacheService;
+  private final PrioritizedTaskExecutor taskExecutor;
+  private final ClientProperties clientProperties;
 
   private FeaturedMod featuredMod;
   private Integer version;
@@ -39,15 +54,19 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
       PreferencesService preferencesService,
       DownloadService downloadService,
       I18n i18n,
-      FeaturedModFileCacheService featuredModFileCacheService
+      FeaturedModFileCacheService featuredModFileCacheService,
+      PrioritizedTaskExecutor taskExecutor,
+      ClientProperties clientProperties
   ) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, Lane.NETWORK);
 
     this.fafService = fafService;
     this.preferencesService = preferencesService;
     this.downloadService = downloadService;
     this.i18n = i18n;
     this.featuredModFileCacheService = featuredModFileCacheService;
+    this.taskExecutor = taskExecutor;
+    this.clientProperties = clientProperties;
   }
 
   @Override
@@ -59,27 +78,21 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
 
     List<FeaturedModFile> featuredModFiles = fafService.getFeaturedModFiles(featuredMod, version).get();
     Path fafDataDirectory = preferencesService.getFafDataDirectory();
-
-    featuredModFiles
-        .forEach(featuredModFile -> {
-          Path targetPath = fafDataDirectory
-              .resolve(featuredModFile.getGroup())
-              .resolve(featuredModFile.getName());
-
-          try {
-            if (fileAlreadyLoaded(featuredModFile, targetPath)) {
-              log.debug("Featured mod file already prepared: {}", featuredModFile);
-            } else if (featuredModFileCacheService.isCached(featuredModFile)) {
-              featuredModFileCacheService.moveFeaturedModFileFromCache(featuredModFile, targetPath);
-            } else {
-              downloadFeaturedModFile(featuredModFile, featuredModFileCacheService.getCachedFilePath(featuredModFile));
-              featuredModFileCacheService.moveFeaturedModFileFromCache(featuredModFile, targetPath);
-            }
-          } catch (IOException e) {
-            log.error("Error on updating featured mod file: {}", featuredModFile, e);
-            throw new RuntimeException(e);
-          }
-        });
+    FeaturedModUpdater updaterProperties = clientProperties.getFeaturedModUpdater();
+
+    updateMessage(i18n.get("updater.checkingFiles", featuredModFiles.size()));
+    List<FeaturedModFile> filesToDownload = runInParallel(featuredModFiles, Lane.DISK, updaterProperties.getHashThreads(), true,
+        featuredModFile -> prepareFromLocalFiles(featuredModFile, fafDataDirectory));
+    filesToDownload.removeIf(Objects::isNull);
+
+    if (!filesToDownload.isEmpty()) {
+      updateMessage(i18n.get("updater.downloadingFiles", filesToDownload.size()));
+      Map<String, Double> downloadProgress = new ConcurrentHashMap<>();
+      runInParallel(filesToDownload, Lane.NETWORK, updaterProperties.getDownloadThreads(), false,
+          featuredModFile -> downloadFeaturedModFile(featuredModFile, fafDataDirectory, downloadProgress, filesToDownload.size()));
+    }
+    featuredModFileCacheService.storeHashManifest();
+    log.debug("Featured mod cache statistics: {}", featuredModFileCacheService.getCacheStatistics());
 
     Path initFile = featuredModFiles.stream()
         .filter(featuredModFile -> "bin".equals(featuredModFile.getGroup()) &&
@@ -99,17 +112,120 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
     return PatchResult.withLegacyInitFile(new ComparableVersion(String.valueOf(maxVersion)), initFile);
   }
 
+  /**
+   * Applies {@code action} to all files using {@code threads} threads: the calling thread and up to {@code threads - 1}
+   * worker threads of {@code lane}. This task runs on a lane itself, so files that no worker has started yet when their
+   * turn comes are processed by the calling thread instead of waiting for them.
+   *
+   * @param reportProgress whether to report progress as the share of files processed
+   * @return the results of {@code action}, in the order of {@code files}
+   */
+  private <R> List<R> runInParallel(List<FeaturedModFile> files, Lane lane, int threads, boolean reportProgress,
+                                    FeaturedModFileAction<R> action) throws IOException, InterruptedException {
+    updateProgress(0, files.size());
+
+    AtomicInteger processedFiles = new AtomicInteger();
+    List<FutureTask<R>> futures = new ArrayList<>();
+    for (FeaturedModFile file : files) {
+      futures.add(new FutureTask<>(() -> {
+        R result = action.apply(file);
+        int processed = processedFiles.incrementAndGet();
+        if (reportProgress) {
+          updateProgress(processed, files.size());
+        }
+        return result;
+      }));
+    }
+    // Each worker takes the next file nobody has started yet until none are left
+    Executor executor = taskExecutor.getBulkExecutor(lane, getPriority());
+    int workers = Math.min(threads, files.size()) - 1;
+    for (int worker = 0; worker < workers; worker++) {
+      executor.execute(() -> futures.forEach(FutureTask::run));
+    }
+
+    try {
+      List<R> results = new ArrayList<>();
+      for (FutureTask<R> future : futures) {
+        // Does nothing if a worker has already started the file
+        future.run();
+        results.add(future.get());
+      }
+      return results;
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  /**
+   * Makes sure the file is in place if it's either installed already or in the cache.
+   *
+   * @return the file if it needs to be downloaded, {@code null} otherwise
+   */
+  private FeaturedModFile prepareFromLocalFiles(FeaturedModFile featuredModFile, Path fafDataDirectory) throws IOException {
+    Path targetPath = getTargetPath(featuredModFile, fafDataDirectory);
+    if (fileAlreadyLoaded(featuredModFile, targetPath)) {
+      log.debug("Featured mod file already prepared: {}", featuredModFile);
+      return null;
+    }
+    CacheUsage cacheUsage = version == null ? CacheUsage.GAME : CacheUsage.REPLAY;
+    if (featuredModFileCacheService.isCached(featuredModFile, cacheUsage)) {
+      featuredModFileCacheService.moveFeaturedModFileFromCache(featuredModFile, targetPath);
+      return null;
+    }
+    return featuredModFile;
+  }
+
   private boolean fileAlreadyLoaded(FeaturedModFile featuredModFile, Path targetPath) throws IOException {
     return Files.exists(targetPath)
         && Objects.equals(featuredModFile.getMd5(), featuredModFileCacheService.readHashFromFile(targetPath));
   }
 
-  private void downloadFeaturedModFile(FeaturedModFile featuredModFile, Path targetPath) throws java.io.IOException {
-    Files.createDirectories(targetPath.getParent());
-    updateMessage(i18n.get("updater.downloadingFile", featuredModFile.getName()));
+  /**
+   * Downloads the file into the cache and moves it into place.
+   *
+   * @param downloadProgress the progress of all downloads by file ID, used to report aggregated progress
+   */
+  private Void downloadFeaturedModFile(FeaturedModFile featuredModFile, Path fafDataDirectory,
+                                       Map<String, Double> downloadProgress, int numberOfFiles) throws IOException {
+    Path cachedFilePath = featuredModFileCacheService.getCachedFilePath(featuredModFile);
+    URL url = new URL(featuredModFile.getUrl());
+    ByteCountListener progressListener = (written, total) -> {
+      if (total > 0) {
+        downloadProgress.put(featuredModFile.getId(), (double) written / total);
+        updateProgress(downloadProgress.values().stream().mapToDouble(Double::doubleValue).sum(), numberOfFiles);
+      }
+    };
+
+    featuredModFileCacheService.acquireDownloadLock(featuredModFile);
+    try {
+      downloadService.downloadFileResumable(url, cachedFilePath, progressListener);
+      if (!Objects.equals(featuredModFile.getMd5(), featuredModFileCacheService.readHashFromFile(cachedFilePath))) {
+        // A resumed download may have been appended to a partial file of a since changed file, try once from scratch
+        log.warn("Checksum mismatch after downloading '{}', downloading it again", featuredModFile.getName());
+        Files.delete(cachedFilePath);
+        downloadService.downloadFileResumable(url, cachedFilePath, progressListener);
+        if (!Objects.equals(featuredModFile.getMd5(), featuredModFileCacheService.readHashFromFile(cachedFilePath))) {
+          Files.delete(cachedFilePath);
+          throw new IOException("Checksum mismatch of downloaded featured mod file: " + featuredModFile.getName());
+        }
+      }
+
+      downloadProgress.put(featuredModFile.getId(), 1.0);
+      featuredModFileCacheService.moveFeaturedModFileFromCache(featuredModFile, getTargetPath(featuredModFile, fafDataDirectory));
+    } finally {
+      featuredModFileCacheService.freeDownloadLock(featuredModFile);
+    }
+    return null;
+  }
 
-    String url = featuredModFile.getUrl();
-    downloadService.downloadFile(new URL(url), targetPath, this::updateProgress);
+  private Path getTargetPath(FeaturedModFile featuredModFile, Path fafDataDirectory) {
+    return fafDataDirectory
+        .resolve(featuredModFile.getGroup())
+        .resolve(featuredModFile.getName());
   }
 
   public void setFeaturedMod(FeaturedMod featuredMod) {
@@ -119,4 +235,9 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
   public void setVersion(Integer version) {
     this.version = version;
   }
+
+  @FunctionalInterface
+  private interface FeaturedModFileAction<R> {
+    R apply(FeaturedModFile featuredModFile) throws IOException;
+  }
 }
@@ -7,11 +7,11 @@ import com.faforever.client.chat.event.ChatUserCategoryChangeEvent;
 import com.faforever.client.chat.event.ChatUserGameChangeEvent;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.game.Game;
-import com.faforever.client.game.GameAddedEvent;
-import com.faforever.client.game.GameRemovedEvent;
-import com.faforever.client.game.GameUpdatedEvent;
+import com.faforever.client.game.GamesChangedEvent;
 import com.faforever.client.player.event.CurrentPlayerInfo;
 import com.faforever.client.player.event.PlayerJoinedGameEvent;
+import com.faforever.client.player.event.PlayersUpdatedEvent;
+import com.faforever.client.player.event.PlayersUpdatingEvent;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.remote.domain.GameStatus;
 import com.faforever.client.remote.domain.GameType;
@@ -21,8 +21,10 @@ import com.faforever.client.remote.domain.SocialMessage;
 import com.faforever.client.user.UserService;
 import com.faforever.client.user.event.LoginSuccessEvent;
 import com.faforever.client.util.Assert;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -39,7 +41,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -56,6 +61,13 @@ import static com.faforever.client.player.SocialStatus.SELF;
 @Slf4j
 public class PlayerService implements InitializingBean {
 
+  /**
+   * Maximum number of player updates applied within one pulse, so that the full player list sent after login doesn't
+   * block the application thread.
+   */
+  @VisibleForTesting
+  static final int MAX_PLAYER_UPDATES_PER_PULSE = 500;
+
   private final ObservableMap<String, Player> playersByName;
   private final ObservableMap<Integer, Player> playersById;
 
@@ -63,14 +75,20 @@ public class PlayerService implements InitializingBean {
   // therefore its kind of fuzzy don't use for core functionality. suitable to control eg friend online/offline notifications
   private final ObservableMap<Integer, Player> usersOfflineById;
 
-  private final List<Integer> foeList;
-  private final List<Integer> friendList;
+  private final Set<Integer> foeIds;
+  private final Set<Integer> friendIds;
   private final ObjectProperty<Player> currentPlayer;
 
   private final FafService fafService;
   private final UserService userService;
   private final EventBus eventBus;
-  private final HashMap<Integer, List<Player>> playersByGame;
+  /** The players in a game by their username, by game ID. */
+  private final Map<Integer, Map<String, Player>> playersByGame;
+  /** The reverse of {@link #playersByGame}: the ID of the game a player is in, by username. */
+  private final Map<String, Integer> gameIdsByUsername;
+  /** Player updates received from the server but not applied yet, by player ID. Guarded by itself. */
+  private final Map<Integer, com.faforever.client.remote.domain.Player> pendingPlayerUpdates;
+  private boolean playerUpdatesScheduled;
 
   public PlayerService(FafService fafService, UserService userService, EventBus eventBus) {
     this.fafService = fafService;
@@ -80,10 +98,12 @@ public class PlayerService implements InitializingBean {
     playersByName = FXCollections.observableMap(new ConcurrentHashMap<>());
     playersById = FXCollections.observableHashMap();
     usersOfflineById = FXCollections.observableHashMap();
-    friendList = new ArrayList<>();
-    foeList = new ArrayList<>();
+    friendIds = ConcurrentHashMap.newKeySet();
+    foeIds = ConcurrentHashMap.newKeySet();
     currentPlayer = new SimpleObjectProperty<>();
     playersByGame = new HashMap<>();
+    gameIdsByUsername = new HashMap<>();
+    pendingPlayerUpdates = new LinkedHashMap<>();
   }
 
   @Override
@@ -94,25 +114,10 @@ public class PlayerService implements InitializingBean {
   }
 
   @Subscribe
-  public void onGameAdded(GameAddedEvent event) {
-    updateGameForPlayersInGame(event.getGame());
-  }
-
-  @Subscribe
-  public void onGameUpdated(GameUpdatedEvent event) {
-    updateGameForPlayersInGame(event.getGame());
-  }
-
-  @Subscribe
-  public void onGameRemoved(GameRemovedEvent event) {
-    Game game = event.getGame();
-    ObservableMap<String, List<String>> teams = game.getTeams();
-    synchronized (game.getTeams()) {
-      List<String> playersInGame = teams.entrySet().stream()
-          .flatMap(stringListEntry -> stringListEntry.getValue().stream())
-          .collect(Collectors.toList());
-      updateGamePlayers(playersInGame, null);
-    }
+  public void onGamesChanged(GamesChangedEvent event) {
+    event.getAddedGames().forEach(this::updateGameForPlayersInGame);
+    event.getUpdatedGames().forEach(this::updateGameForPlayersInGame);
+    event.getRemovedGames().forEach(this::removeGameFromPlayersInGame);
   }
 
   @Subscribe
@@ -123,13 +128,24 @@ public class PlayerService implements InitializingBean {
     }
   }
 
+  private void removeGameFromPlayersInGame(Game game) {
+    Map<String, Player> previousPlayersFromGame = playersByGame.remove(game.getId());
+    if (previousPlayersFromGame != null) {
+      previousPlayersFromGame.keySet().forEach(username -> gameIdsByUsername.remove(username, game.getId()));
+    }
+    updateGamePlayers(getPlayerNamesInGame(game), null);
+  }
+
   private void updateGameForPlayersInGame(Game game) {
+    updateGamePlayers(getPlayerNamesInGame(game), game);
+  }
+
+  private Set<String> getPlayerNamesInGame(Game game) {
     ObservableMap<String, List<String>> teams = game.getTeams();
     synchronized (game.getTeams()) {
-      List<String> playersInGame = teams.entrySet().stream()
-          .flatMap(stringListEntry -> stringListEntry.getValue().stream())
-          .collect(Collectors.toList());
-      updateGamePlayers(playersInGame, game);
+      Set<String> playersInGame = new HashSet<>();
+      teams.values().forEach(playersInGame::addAll);
+      return playersInGame;
     }
   }
 
@@ -164,62 +180,65 @@ public class PlayerService implements InitializingBean {
     Optional.ofNullable(playerForUsername).ifPresent(player -> player.setAfkSeconds(0));
   }
 
-  private void updateGamePlayers(List<String> currentPlayers, Game game) {
-    currentPlayers.stream()
-        .map(this::getPlayerForUsername)
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .forEach(player -> {
-          resetIdleTime(player);
-          updateGameDataForPlayer(game, player);
-        });
+  private void updateGamePlayers(Set<String> currentPlayers, Game game) {
+    //Game is closed remove players
+    if (game != null && game.getStatus() == GameStatus.ENDED) {
+      Map<String, Player> previousPlayersFromGame = playersByGame.remove(game.getId());
+      if (previousPlayersFromGame != null) {
+        previousPlayersFromGame.values().forEach(player -> removePlayerFromGame(player, game.getId()));
+      }
+    }
 
     //We need to see if anybody dropped out of games
     if (game != null && game.getStatus() != GameStatus.ENDED && playersByGame.get(game.getId()) != null) {
-      List<Player> playersThatLeftTheGame = new ArrayList<>();
-      List<Player> previousPlayersFromGame = playersByGame.get(game.getId());
-      for (Player player : previousPlayersFromGame) {
+      Iterator<Player> previousPlayersFromGame = playersByGame.get(game.getId()).values().iterator();
+      while (previousPlayersFromGame.hasNext()) {
+        Player player = previousPlayersFromGame.next();
         if (!currentPlayers.contains(player.getUsername())) {
-          player.setGame(null);
-          playersThatLeftTheGame.add(player);
-          updatePlayerChatUsers(player);
+          previousPlayersFromGame.remove();
+          removePlayerFromGame(player, game.getId());
         }
       }
-      previousPlayersFromGame.removeAll(playersThatLeftTheGame);
     }
 
-    //Game is closed remove players
-    if (game != null && game.getStatus() == GameStatus.ENDED && playersByGame.get(game.getId()) != null) {
-      List<Player> previousPlayersFromGame = playersByGame.get(game.getId());
-      for (Player player : previousPlayersFromGame) {
-        player.setGame(null);
-        updatePlayerChatUsers(player);
+    for (String username : currentPlayers) {
+      Player player = playersByName.get(username);
+      if (player != null) {
+        resetIdleTime(player);
+        updateGameDataForPlayer(game, player);
       }
-      previousPlayersFromGame.clear();
     }
   }
 
-  private void updateGameDataForPlayer(Game game, Player player) {
-    if (game == null) {
+  /**
+   * Unsets the player's game unless the player has been added to another game in the meantime.
+   */
+  private void removePlayerFromGame(Player player, int gameId) {
+    if (gameIdsByUsername.remove(player.getUsername(), gameId)) {
       player.setGame(null);
-      updatePlayerChatUsers(player);
-      return;
     }
+    updatePlayerChatUsers(player);
+  }
 
-    if (game.getStatus() == GameStatus.ENDED) {
-      playersByGame.remove(game.getId());
-      player.setGame(null);
+  private void updateGameDataForPlayer(Game game, Player player) {
+    if (game == null || game.getStatus() == GameStatus.ENDED) {
+      // The game has already been removed from the index, so the player is either in no or in another game
+      if (!gameIdsByUsername.containsKey(player.getUsername())) {
+        player.setGame(null);
+      }
       updatePlayerChatUsers(player);
       return;
     }
 
-    if (!playersByGame.containsKey(game.getId())) {
-      playersByGame.put(game.getId(), new ArrayList<>());
-    }
+    Map<String, Player> playersInGame = playersByGame.computeIfAbsent(game.getId(), gameId -> new HashMap<>());
+    if (!playersInGame.containsKey(player.getUsername())) {
+      Integer previousGameId = gameIdsByUsername.put(player.getUsername(), game.getId());
+      if (previousGameId != null && previousGameId != game.getId()) {
+        Optional.ofNullable(playersByGame.get(previousGameId)).ifPresent(players -> players.remove(player.getUsername()));
+      }
 
-    if (!playersByGame.get(game.getId()).contains(player)) {
       player.setGame(game);
-      playersByGame.get(game.getId()).add(player);
+      playersInGame.put(player.getUsername(), player);
       if (player.getSocialStatus() == FRIEND
           && game.getStatus() == GameStatus.STAGING
           && game.getGameType() != GameType.MATCHMAKER) {
@@ -227,7 +246,8 @@ public class PlayerService implements InitializingBean {
       }
       else if (player.getSocialStatus() != SELF
           && game.getStatus() == GameStatus.STAGING
-          && playersByGame.get(game.getId()).contains(currentPlayer.get())
+          && currentPlayer.get() != null
+          && playersInGame.containsKey(currentPlayer.get().getUsername())
           && game.getGameType() != GameType.MATCHMAKER) {
         eventBus.post(new PlayerJoinedGameEvent(player, game));
       }
@@ -284,8 +304,8 @@ public class PlayerService implements InitializingBean {
 
   public void addFriend(Player player) {
     playersByName.get(player.getUsername()).setSocialStatus(FRIEND);
-    friendList.add(player.getId());
-    foeList.remove((Integer) player.getId());
+    friendIds.add(player.getId());
+    foeIds.remove(player.getId());
 
     player.getChatChannelUsers().forEach(chatUser -> eventBus.post(new ChatUserCategoryChangeEvent(chatUser)));
     fafService.addFriend(player);
@@ -293,7 +313,7 @@ public class PlayerService implements InitializingBean {
 
   public void removeFriend(Player player) {
     playersByName.get(player.getUsername()).setSocialStatus(OTHER);
-    friendList.remove((Integer) player.getId());
+    friendIds.remove(player.getId());
 
     player.getChatChannelUsers().forEach(chatUser -> eventBus.post(new ChatUserCategoryChangeEvent(chatUser)));
     fafService.removeFriend(player);
@@ -301,8 +321,8 @@ public class PlayerService implements InitializingBean {
 
   public void addFoe(Player player) {
     playersByName.get(player.getUsername()).setSocialStatus(FOE);
-    foeList.add(player.getId());
-    friendList.remove((Integer) player.getId());
+    foeIds.add(player.getId());
+    friendIds.remove(player.getId());
 
     player.getChatChannelUsers().forEach(chatUser -> eventBus.post(new ChatUserCategoryChangeEvent(chatUser)));
     fafService.addFoe(player);
@@ -310,7 +330,7 @@ public class PlayerService implements InitializingBean {
 
   public void removeFoe(Player player) {
     playersByName.get(player.getUsername()).setSocialStatus(OTHER);
-    foeList.remove((Integer) player.getId());
+    foeIds.remove(player.getId());
 
     player.getChatChannelUsers().forEach(chatUser -> eventBus.post(new ChatUserCategoryChangeEvent(chatUser)));
     fafService.removeFoe(player);
@@ -345,8 +365,64 @@ public class PlayerService implements InitializingBean {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Queues the updates, replacing older updates of the same players that have not been applied yet.
+   */
   private void onPlayersInfo(PlayersMessage playersMessage) {
-    playersMessage.getPlayers().forEach(dto -> JavaFxUtil.runLater(() -> onPlayerInfo(dto)));
+    synchronized (pendingPlayerUpdates) {
+      playersMessage.getPlayers().forEach(dto -> {
+        // Re-insert so that the player is updated in the order of its latest update
+        pendingPlayerUpdates.remove(dto.getId());
+        pendingPlayerUpdates.put(dto.getId(), dto);
+      });
+      if (!playerUpdatesScheduled) {
+        playerUpdatesScheduled = true;
+        schedulePendingPlayerUpdates();
+      }
+    }
+  }
+
+  /**
+   * Applies the next pulse of pending updates on the application thread.
+   */
+  @VisibleForTesting
+  void schedulePendingPlayerUpdates() {
+    Platform.runLater(this::applyPendingPlayerUpdates);
+  }
+
+  /**
+   * Applies up to {@link #MAX_PLAYER_UPDATES_PER_PULSE} pending updates and schedules another pulse if any are left.
+   */
+  @VisibleForTesting
+  void applyPendingPlayerUpdates() {
+    List<com.faforever.client.remote.domain.Player> dtos = new ArrayList<>();
+    synchronized (pendingPlayerUpdates) {
+      Iterator<com.faforever.client.remote.domain.Player> iterator = pendingPlayerUpdates.values().iterator();
+      while (iterator.hasNext() && dtos.size() < MAX_PLAYER_UPDATES_PER_PULSE) {
+        dtos.add(iterator.next());
+        iterator.remove();
+      }
+      if (pendingPlayerUpdates.isEmpty()) {
+        playerUpdatesScheduled = false;
+      } else {
+        schedulePendingPlayerUpdates();
+      }
+    }
+    applyPlayerUpdates(dtos);
+  }
+
+  /**
+   * Applies the updates as one batch, enclosed by a {@link PlayersUpdatingEvent} and a {@link PlayersUpdatedEvent}.
+   */
+  @VisibleForTesting
+  void applyPlayerUpdates(List<com.faforever.client.remote.domain.Player> dtos) {
+    List<Player> updatedPlayers = new ArrayList<>(dtos.size());
+    eventBus.post(new PlayersUpdatingEvent());
+    try {
+      dtos.forEach(dto -> updatedPlayers.add(onPlayerInfo(dto)));
+    } finally {
+      eventBus.post(new PlayersUpdatedEvent(updatedPlayers));
+    }
   }
 
   private void onFoeList(SocialMessage socialMessage) {
@@ -355,19 +431,19 @@ public class PlayerService implements InitializingBean {
   }
 
   private void onFoeList(List<Integer> foes) {
-    updateSocialList(foeList, foes, FOE);
+    updateSocialList(foeIds, foes, FOE);
   }
 
   private void onFriendList(List<Integer> friends) {
-    updateSocialList(friendList, friends, FRIEND);
+    updateSocialList(friendIds, friends, FRIEND);
   }
 
-  private void updateSocialList(List<Integer> socialList, List<Integer> newValues, SocialStatus socialStatus) {
-    socialList.clear();
-    socialList.addAll(newValues);
+  private void updateSocialList(Set<Integer> socialIds, List<Integer> newValues, SocialStatus socialStatus) {
+    socialIds.clear();
+    socialIds.addAll(newValues);
 
     synchronized (playersById) {
-      for (Integer userId : socialList) {
+      for (Integer userId : socialIds) {
         Player player = playersById.get(userId);
         if (player != null) {
           player.setSocialStatus(socialStatus);
@@ -376,7 +452,7 @@ public class PlayerService implements InitializingBean {
     }
   }
 
-  private void onPlayerInfo(com.faforever.client.remote.domain.Player dto) {
+  private Player onPlayerInfo(com.faforever.client.remote.domain.Player dto) {
     // isOnline() reflects what the taf-python-server tells us.  unfortunately taf-python-server doesn't tell us when user disconnects
     // usersOfflineById reflects what the IRC server tells us.  This is more reliable, but unfortunately doesn't tell us anything about user's ability to join games (ie connection to taf-python-server)
     boolean wasAlreadyOnline = isOnline(dto.getId()) && !usersOfflineById.containsKey(dto.getId());
@@ -387,12 +463,13 @@ public class PlayerService implements InitializingBean {
       player.updateFromDto(dto);
       player.setSocialStatus(SELF);
       eventBus.post(new CurrentPlayerInfo(player));
+      return player;
     } else {
       Player player = createAndGetPlayerForUsername(dto.getLogin());
 
-      if (friendList.contains(dto.getId())) {
+      if (friendIds.contains(dto.getId())) {
         player.setSocialStatus(FRIEND);
-      } else if (foeList.contains(dto.getId())) {
+      } else if (foeIds.contains(dto.getId())) {
         player.setSocialStatus(FOE);
       } else {
         player.setSocialStatus(OTHER);
@@ -403,6 +480,7 @@ public class PlayerService implements InitializingBean {
       if (!wasAlreadyOnline && dto.getState() == PlayerStatus.IDLE) {
         eventBus.post(new PlayerOnlineEvent(player));
       }
+      return player;
     }
   }
 }
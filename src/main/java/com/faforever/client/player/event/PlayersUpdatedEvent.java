@@ -0,0 +1,14 @@
+package com.faforever.client.player.event;
+
+import com.faforever.client.player.Player;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Posted after a batch of player updates received from the server has been applied.
+ */
+@Value
+public class PlayersUpdatedEvent {
+  List<Player> players;
+}
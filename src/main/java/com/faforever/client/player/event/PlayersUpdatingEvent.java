@@ -0,0 +1,8 @@
+package com.faforever.client.player.event;
+
+/**
+ * Posted before a batch of player updates received from the server is applied. Until the corresponding {@link
+ * PlayersUpdatedEvent}, subscribers may defer work triggered by changes of player properties.
+ */
+public class PlayersUpdatingEvent {
+}
@@ -36,9 +36,11 @@ public abstract class AbstractServerAccessor implements DisposableBean {
     dataInput = new QDataInputStream(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
     while (!stopped && !socket.isInputShutdown()) {
       dataInput.skipBlockSize();
-      String message = dataInput.readQString();
+      CharSequence message = dataInput.readQChars();
 
-      logger.debug("Message from server: {}", message);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Message from server: {}", message);
+      }
 
       try {
         onServerMessage(message);
@@ -50,7 +52,11 @@ public abstract class AbstractServerAccessor implements DisposableBean {
     logger.info("Connection to server {} has been closed", socket.getRemoteSocketAddress());
   }
 
-  protected abstract void onServerMessage(String message) throws IOException;
+  /**
+   * Handles a message received from the server. The message's characters are only valid until this method returns,
+   * since the buffer they are decoded into is reused for the next message.
+   */
+  protected abstract void onServerMessage(CharSequence message) throws IOException;
 
   @Override
   public void destroy() throws IOException {
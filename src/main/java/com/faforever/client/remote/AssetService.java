@@ -1,40 +1,84 @@
 package com.faforever.client.remote;
 
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.remote.ImageCacheIndex.EvictionCandidate;
+import com.faforever.client.task.CompletableTask.Lane;
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.PrioritizedTaskExecutor;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 import static com.github.nocatch.NoCatch.noCatch;
 
 
+/**
+ * Loads images such as avatars and map previews and keeps them in the cache directory. Downloaded images are stored as
+ * they are, without decoding and encoding them again, unless they have been loaded on the application thread. The least
+ * recently used images are evicted once the cache exceeds its size limit.
+ */
 @Lazy
 @Service
 @RequiredArgsConstructor
-public class AssetService {
+public class AssetService implements DisposableBean {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String CACHE_INDEX_FILE_NAME = "image-cache-index.json";
 
   private final PreferencesService preferencesService;
+  private final ClientProperties clientProperties;
+  private final PrioritizedTaskExecutor taskExecutor;
+
+  /** Downloads in progress, by the cache file they are written to, so that an image is only downloaded once. */
+  private final Map<Path, FutureTask<Path>> downloadsByCachePath = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+  private ImageCacheIndex cacheIndex;
 
   @Nullable
   public Image loadAndCacheImage(URL url, Path cacheSubFolder, @Nullable Supplier<Image> defaultSupplier) {
     return loadAndCacheImage(url, cacheSubFolder, defaultSupplier, 0, 0);
   }
 
+  /**
+   * Loads the image from the cache, or downloads it into the cache if it isn't cached yet. Off the application thread,
+   * the download is waited for. The application thread must not wait, so there the image is loaded from the URL in the
+   * background and written to the cache once it has been loaded, as JavaFX can't load an image from a file that is
+   * still being downloaded.
+   */
   @Nullable
   public Image loadAndCacheImage(URL url, Path cacheSubFolder, @Nullable Supplier<Image> defaultSupplier, int width, int height) {
     if (url == null) {
@@ -52,15 +96,180 @@ public class AssetService {
     String filename = urlString.substring(urlString.lastIndexOf('/') + 1);
     Path cachePath = preferencesService.getCacheDirectory().resolve(cacheSubFolder).resolve(filename);
     if (Files.exists(cachePath)) {
-      logger.info("Using cached image: {}", cachePath);
-      return new Image(noCatch(() -> cachePath.toUri().toURL().toExternalForm()), width, height, true, true);
+      logger.debug("Using cached image: {}", cachePath);
+      hits.increment();
+      recordUse(cachePath);
+      return loadCachedImage(cachePath, width, height);
     }
 
-    logger.info("Cached image not exists: {}", cachePath);
     logger.info("Fetching image from: {}", url);
+    misses.increment();
+    if (Platform.isFxApplicationThread()) {
+      Image image = new Image(url.toString(), width, height, true, true, true);
+      if (width == 0 && height == 0) {
+        writeToCacheWhenLoaded(image, cachePath);
+      }
+      return image;
+    }
+
+    FutureTask<Path> download = downloadToCache(url, cachePath);
+    // Downloads the image right here if no worker has started it yet, so that a caller that runs on a worker of the
+    // network lane itself can't wait for a download queued behind it
+    download.run();
+    try {
+      return loadCachedImage(download.get(), width, height);
+    } catch (ExecutionException e) {
+      logger.warn("Could not cache image from {}: {}", url, e.getCause().getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return new Image(url.toString(), width, height, true, true, true);
+  }
+
+  /**
+   * Returns the number of cache hits, misses and evictions since startup.
+   */
+  public CacheStatistics getCacheStatistics() {
+    return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+  }
+
+  @Override
+  public void destroy() {
+    getCacheIndex().store();
+  }
+
+  private Image loadCachedImage(Path cachePath, int width, int height) {
+    return new Image(noCatch(() -> cachePath.toUri().toURL().toExternalForm()), width, height, true, true);
+  }
+
+  private FutureTask<Path> downloadToCache(URL url, Path cachePath) {
+    return downloadsByCachePath.computeIfAbsent(cachePath, path -> {
+      FutureTask<Path> download = new FutureTask<>(() -> {
+        try {
+          writeToCache(path, tempFile -> {
+            try (InputStream inputStream = url.openStream()) {
+              Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+          });
+          return path;
+        } finally {
+          downloadsByCachePath.remove(path);
+        }
+      });
+      taskExecutor.getExecutor(Lane.NETWORK, Priority.MEDIUM).execute(download);
+      return download;
+    });
+  }
+
+  /**
+   * Writes the image to the cache in the background once it has been loaded successfully.
+   */
+  private void writeToCacheWhenLoaded(Image image, Path cachePath) {
+    String fileName = cachePath.getFileName().toString();
+    String format = fileName.substring(fileName.lastIndexOf('.') + 1);
+    Runnable write = () -> taskExecutor.getExecutor(Lane.DISK, Priority.LOW).execute(() -> {
+      try {
+        writeToCache(cachePath, tempFile -> ImageIO.write(SwingFXUtils.fromFXImage(image, null), format, tempFile.toFile()));
+      } catch (IOException e) {
+        logger.warn("Could not cache image '{}'", cachePath, e);
+      }
+    });
+
+    if (image.getProgress() >= 1) {
+      if (!image.isError()) {
+        write.run();
+      }
+      return;
+    }
+    JavaFxUtil.addListener(image.progressProperty(), new ChangeListener<>() {
+      @Override
+      public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
+        if (newValue.doubleValue() >= 1) {
+          image.progressProperty().removeListener(this);
+          if (!image.isError()) {
+            write.run();
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Writes the file next to its place in the cache, then moves it into place and records it in the cache index.
+   */
+  private void writeToCache(Path cachePath, CacheFileWriter writer) throws IOException {
+    Path tempFile = cachePath.resolveSibling(cachePath.getFileName() + ".part");
+    try {
+      Files.createDirectories(cachePath.getParent());
+      writer.write(tempFile);
+      Files.move(tempFile, cachePath, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      Files.deleteIfExists(tempFile);
+      throw e;
+    }
+    recordUse(cachePath);
+  }
+
+  private void recordUse(Path cachePath) {
+    ImageCacheIndex cacheIndex = getCacheIndex();
+    cacheIndex.recordUse(cachePath);
+    if (cacheIndex.getTotalSize() > clientProperties.getCache().getMaxImageDiskSize()) {
+      scheduleEviction();
+    }
+  }
+
+  /**
+   * Evicts images in the background. Does nothing if an eviction is already pending.
+   */
+  private void scheduleEviction() {
+    if (!evictionScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    taskExecutor.getExecutor(Lane.DISK, Priority.LOW).execute(() -> {
+      evictionScheduled.set(false);
+      evictLeastRecentlyUsedImages();
+    });
+  }
+
+  private void evictLeastRecentlyUsedImages() {
+    ImageCacheIndex cacheIndex = getCacheIndex();
+    try {
+      List<EvictionCandidate> candidates = cacheIndex.selectEvictionCandidates(clientProperties.getCache().getMaxImageDiskSize());
+      int evictedFiles = 0;
+      long evictedBytes = 0;
+      for (EvictionCandidate candidate : candidates) {
+        if (cacheIndex.evict(candidate)) {
+          evictedFiles++;
+          evictedBytes += candidate.getSize();
+        }
+      }
+      evictions.add(evictedFiles);
+      logger.debug("Evicted {} images ({} bytes) from cache, {} bytes remaining", evictedFiles, evictedBytes,
+          cacheIndex.getTotalSize());
+    } catch (Exception e) {
+      logger.error("Cleaning image cache failed", e);
+    } finally {
+      cacheIndex.store();
+    }
+  }
+
+  private synchronized ImageCacheIndex getCacheIndex() {
+    if (cacheIndex == null) {
+      Path cacheDirectory = preferencesService.getCacheDirectory();
+      cacheIndex = new ImageCacheIndex(cacheDirectory, cacheDirectory.resolve(CACHE_INDEX_FILE_NAME));
+    }
+    return cacheIndex;
+  }
+
+  @FunctionalInterface
+  private interface CacheFileWriter {
+    void write(Path tempFile) throws IOException;
+  }
 
-    Image image = new Image(url.toString(), width, height, true, true, true);
-    JavaFxUtil.persistImage(image, cachePath, filename.substring(filename.lastIndexOf('.') + 1));
-    return image;
+  @Value
+  public static class CacheStatistics {
+    private long hits;
+    private long misses;
+    private long evictions;
   }
 }
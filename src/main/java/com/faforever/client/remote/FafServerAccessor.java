@@ -5,6 +5,7 @@ import com.faforever.client.game.Faction;
 import com.faforever.client.game.NewGameInfo;
 import com.faforever.client.net.ConnectionState;
 import com.faforever.client.player.Player;
+import com.faforever.client.remote.ServerMessageDispatcher.DispatchStatistics;
 import com.faforever.client.remote.domain.Avatar;
 import com.faforever.client.remote.domain.GameLaunchMessage;
 import com.faforever.client.remote.domain.IceServersServerMessage.IceServer;
@@ -18,6 +19,7 @@ import javafx.beans.property.ReadOnlyObjectProperty;
 import java.net.URL;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
@@ -32,6 +34,11 @@ public interface FafServerAccessor {
   @SuppressWarnings("unchecked")
   <T extends ServerMessage> void removeOnMessageListener(Class<T> type, Consumer<T> listener);
 
+  /**
+   * Returns, by message type, how many server messages have been dispatched and how long their listeners took.
+   */
+  Map<Class<?>, DispatchStatistics> getDispatchStatistics();
+
   ReadOnlyObjectProperty<ConnectionState> connectionStateProperty();
 
   CompletableFuture<LoginMessage> connectAndLogIn(String username, String password);
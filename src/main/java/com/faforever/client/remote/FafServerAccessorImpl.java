@@ -25,6 +25,7 @@ import com.faforever.client.notification.Severity;
 import com.faforever.client.player.Player;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.rankedmatch.MatchmakerInfoClientMessage;
+import com.faforever.client.remote.ServerMessageDispatcher.DispatchStatistics;
 import com.faforever.client.remote.domain.AcceptPartyInviteMessage;
 import com.faforever.client.remote.domain.AddFoeMessage;
 import com.faforever.client.remote.domain.AddFriendMessage;
@@ -97,11 +98,13 @@ import com.github.nocatch.NoCatch;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.EventBus;
 import com.google.common.hash.Hashing;
+import com.google.common.io.CharSource;
 import com.google.common.net.InetAddresses;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
@@ -125,16 +128,17 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.lang.reflect.Type;
 import java.net.Socket;
 import java.net.URL;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -169,7 +173,7 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
       .registerTypeAdapter(LobbyMode.class, LobbyModeTypeAdapter.INSTANCE)
       .registerTypeAdapter(MatchmakingState.class, MatchmakingStateTypeAdapter.INSTANCE)
       .create();
-  private final HashMap<Class<? extends ServerMessage>, Collection<Consumer<ServerMessage>>> messageListeners = new HashMap<>();
+  private final ServerMessageDispatcher serverMessageDispatcher = new ServerMessageDispatcher();
 
   private final PreferencesService preferencesService;
   private final UidService uidService;
@@ -228,17 +232,18 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public <T extends ServerMessage> void addOnMessageListener(Class<T> type, Consumer<T> listener) {
-    if (!messageListeners.containsKey(type)) {
-      messageListeners.put(type, new LinkedList<>());
-    }
-    messageListeners.get(type).add((Consumer<ServerMessage>) listener);
+    serverMessageDispatcher.addListener(type, listener);
   }
 
   @Override
   public <T extends ServerMessage> void removeOnMessageListener(Class<T> type, Consumer<T> listener) {
-    messageListeners.get(type).remove(listener);
+    serverMessageDispatcher.removeListener(type, listener);
+  }
+
+  @Override
+  public Map<Class<?>, DispatchStatistics> getDispatchStatistics() {
+    return serverMessageDispatcher.getStatistics();
   }
 
   @Override
@@ -308,6 +313,7 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
             blockingReadServer(fafServerSocket);
           } catch (IOException e) {
             JavaFxUtil.runLater(() -> connectionState.set(ConnectionState.DISCONNECTED));
+            logDispatchStatistics();
             if (isCancelled()) {
               log.debug("Connection to FAF server has been closed");
             } else {
@@ -512,8 +518,13 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
     }
   }
 
-  public void onServerMessage(String message) {
-    ServerCommand serverCommand = ServerCommand.fromString(message);
+  public void onServerMessage(CharSequence message) {
+    if (message != null && isJsonObject(message)) {
+      parseServerObject(message);
+      return;
+    }
+
+    ServerCommand serverCommand = ServerCommand.fromString(Objects.toString(message, null));
     if (serverCommand != null) {
       dispatchServerMessage(serverCommand);
     } else {
@@ -521,6 +532,16 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
     }
   }
 
+  private static boolean isJsonObject(CharSequence message) {
+    for (int i = 0; i < message.length(); i++) {
+      char c = message.charAt(i);
+      if (!Character.isWhitespace(c)) {
+        return c == '{';
+      }
+    }
+    return false;
+  }
+
   private void dispatchServerMessage(ServerCommand serverCommand) {
     switch (serverCommand) {
       case PING:
@@ -537,24 +558,48 @@ public class FafServerAccessorImpl extends AbstractServerAccessor implements Faf
     }
   }
 
-  private void parseServerObject(String jsonString) {
+  /**
+   * Deserializes a server message straight from the received characters. The message type is determined by a first,
+   * streaming pass over the {@code command} and {@code target} fields so that no intermediate JSON tree is needed.
+   */
+  private void parseServerObject(CharSequence json) {
+    if (json == null) {
+      return;
+    }
     try {
-      ServerMessage serverMessage = gson.fromJson(jsonString, ServerMessage.class);
-      if (serverMessage == null) {
-        log.debug("Discarding unimplemented server message: {}", jsonString);
+      CharSource jsonSource = CharSource.wrap(json);
+      Type messageType;
+      try (JsonReader jsonReader = new JsonReader(jsonSource.openStream())) {
+        messageType = ServerMessageTypeAdapter.peekMessageType(jsonReader);
+      }
+      if (messageType == null) {
+        log.debug("Discarding unimplemented server message: {}", json);
         return;
       }
 
-      Class<?> messageClass = serverMessage.getClass();
-      while (messageClass != Object.class) {
-        messageListeners.getOrDefault(messageClass, Collections.emptyList())
-            .forEach(consumer -> consumer.accept(serverMessage));
-        messageClass = messageClass.getSuperclass();
+      ServerMessage serverMessage;
+      try (JsonReader jsonReader = new JsonReader(jsonSource.openStream())) {
+        serverMessage = gson.fromJson(jsonReader, messageType);
+      }
+      if (serverMessage == null) {
+        log.debug("Discarding empty server message: {}", json);
+        return;
       }
 
-    } catch (JsonSyntaxException e) {
-      log.warn("Could not deserialize message: " + jsonString, e);
+      serverMessageDispatcher.dispatch(serverMessage);
+    } catch (JsonParseException | IOException | IllegalStateException e) {
+      log.warn("Could not deserialize message: " + json, e);
+    }
+  }
+
+  private void logDispatchStatistics() {
+    if (!log.isDebugEnabled()) {
+      return;
     }
+    serverMessageDispatcher.getStatistics().entrySet().stream()
+        .sorted(Comparator.comparing((Entry<Class<?>, DispatchStatistics> entry) -> entry.getValue().getTotalTime()).reversed())
+        .forEach(entry -> log.debug("Dispatched {} {} in {} ms total, {} ms max", entry.getValue().getCount(),
+            entry.getKey().getSimpleName(), entry.getValue().getTotalTime().toMillis(), entry.getValue().getMaxTime().toMillis()));
   }
 
   private void onServerPing() {
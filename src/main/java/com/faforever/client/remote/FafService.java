@@ -28,6 +28,7 @@ import com.faforever.client.mod.FeaturedMod;
 import com.faforever.client.mod.ModVersion;
 import com.faforever.client.net.ConnectionState;
 import com.faforever.client.player.Player;
+import com.faforever.client.remote.ServerMessageDispatcher.DispatchStatistics;
 import com.faforever.client.remote.domain.GameEndedMessage;
 import com.faforever.client.remote.domain.GameLaunchMessage;
 import com.faforever.client.remote.domain.IceMessage;
@@ -49,6 +50,7 @@ import com.google.common.eventbus.EventBus;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
@@ -56,6 +58,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.nio.file.Path;
+import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -86,6 +89,10 @@ public class FafService {
     fafServerAccessor.removeOnMessageListener(type, listener);
   }
 
+  public java.util.Map<Class<?>, DispatchStatistics> getDispatchStatistics() {
+    return fafServerAccessor.getDispatchStatistics();
+  }
+
   public CompletableFuture<GameLaunchMessage> requestHostGame(NewGameInfo newGameInfo) {
     return fafServerAccessor.requestHostGame(newGameInfo);
   }
@@ -161,11 +168,8 @@ public class FafService {
   }
 
   @Async
-  public CompletableFuture<List<LeaderboardEntry>> getAllLeaderboardEntries(String leaderboardTechnicalName) {
-    return CompletableFuture.completedFuture(fafApiAccessor.getAllLeaderboardEntries(leaderboardTechnicalName)
-        .parallelStream()
-        .map(LeaderboardEntry::fromDto)
-        .collect(toList()));
+  public CompletableFuture<List<com.faforever.client.api.dto.LeaderboardEntry>> getLeaderboardEntriesUpdatedSince(String leaderboardTechnicalName, @Nullable OffsetDateTime updatedSince) {
+    return CompletableFuture.completedFuture(fafApiAccessor.getLeaderboardEntriesUpdatedSince(leaderboardTechnicalName, updatedSince));
   }
 
   @Async
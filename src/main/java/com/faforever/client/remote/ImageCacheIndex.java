@@ -0,0 +1,164 @@
+package com.faforever.client.remote;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the size and the last use of the images cached by {@link AssetService}, so that the least recently
+ * used ones can be evicted once the cache exceeds its size limit. Only files that have been written or read through
+ * the index are known to it, other files in the cache directory are never evicted. Files are identified by their path
+ * relative to the cache directory, e.g. {@code avatars/<file>}.
+ */
+@Slf4j
+class ImageCacheIndex {
+
+  private final Path cacheDirectory;
+  private final Path indexFile;
+  private final Gson gson = new Gson();
+  private final Map<String, Entry> entriesByPath = new HashMap<>();
+  private long totalSize;
+  private boolean loaded;
+  private boolean dirty;
+
+  ImageCacheIndex(Path cacheDirectory, Path indexFile) {
+    this.cacheDirectory = cacheDirectory;
+    this.indexFile = indexFile;
+  }
+
+  /**
+   * Marks the cached file as used just now.
+   */
+  synchronized void recordUse(Path cachedFile) {
+    loadIfNecessary();
+    String key = toKey(cachedFile);
+    Entry newEntry;
+    try {
+      newEntry = new Entry(Files.size(cachedFile), System.currentTimeMillis());
+    } catch (IOException e) {
+      newEntry = null;
+    }
+    Entry oldEntry = newEntry == null ? entriesByPath.remove(key) : entriesByPath.put(key, newEntry);
+    if (oldEntry != null) {
+      totalSize -= oldEntry.getSize();
+    }
+    if (newEntry != null) {
+      totalSize += newEntry.getSize();
+    }
+    dirty = true;
+  }
+
+  synchronized long getTotalSize() {
+    loadIfNecessary();
+    return totalSize;
+  }
+
+  /**
+   * Returns the files that need to be evicted to fit into {@code maxTotalSize}, least recently used first.
+   */
+  synchronized List<EvictionCandidate> selectEvictionCandidates(long maxTotalSize) {
+    loadIfNecessary();
+
+    List<Map.Entry<String, Entry>> leastRecentlyUsedFirst = new ArrayList<>(entriesByPath.entrySet());
+    leastRecentlyUsedFirst.sort(Comparator.comparingLong(mapEntry -> mapEntry.getValue().getLastUsed()));
+
+    long remainingSize = totalSize;
+    List<EvictionCandidate> candidates = new ArrayList<>();
+    for (Map.Entry<String, Entry> mapEntry : leastRecentlyUsedFirst) {
+      if (remainingSize <= maxTotalSize) {
+        break;
+      }
+      Entry entry = mapEntry.getValue();
+      candidates.add(new EvictionCandidate(mapEntry.getKey(), entry.getSize(), entry.getLastUsed()));
+      remainingSize -= entry.getSize();
+    }
+    return candidates;
+  }
+
+  /**
+   * Deletes the candidate's file unless it has been used since it was selected for eviction.
+   *
+   * @return whether the file has been deleted
+   */
+  synchronized boolean evict(EvictionCandidate candidate) throws IOException {
+    Entry entry = entriesByPath.get(candidate.getPath());
+    if (entry == null || entry.getLastUsed() != candidate.getLastUsed()) {
+      return false;
+    }
+    Files.deleteIfExists(cacheDirectory.resolve(candidate.getPath()));
+    entriesByPath.remove(candidate.getPath());
+    totalSize -= entry.getSize();
+    dirty = true;
+    return true;
+  }
+
+  synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+
+    Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(indexFile.getParent());
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        gson.toJson(entriesByPath, writer);
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Image cache index '{}' could not be written", indexFile, e);
+    }
+  }
+
+  private void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    if (Files.notExists(indexFile)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+      Map<String, Entry> entries = gson.fromJson(reader, new TypeToken<Map<String, Entry>>() {
+      }.getType());
+      if (entries != null) {
+        entriesByPath.putAll(entries);
+        totalSize = entries.values().stream().mapToLong(Entry::getSize).sum();
+      }
+    } catch (Exception e) {
+      log.warn("Image cache index '{}' could not be read, rebuilding it", indexFile, e);
+    }
+  }
+
+  private String toKey(Path cachedFile) {
+    return cacheDirectory.relativize(cachedFile).toString().replace('\\', '/');
+  }
+
+  @Value
+  private static class Entry {
+    private long size;
+    private long lastUsed;
+  }
+
+  @Value
+  static class EvictionCandidate {
+    private String path;
+    private long size;
+    private long lastUsed;
+  }
+}
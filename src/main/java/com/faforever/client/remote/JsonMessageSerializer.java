@@ -2,6 +2,7 @@ package com.faforever.client.remote;
 
 import com.faforever.client.remote.domain.SerializableMessage;
 import com.faforever.client.remote.io.QDataWriter;
+import com.google.common.io.CharStreams;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -10,15 +11,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.serializer.Serializer;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 
 public class JsonMessageSerializer<T extends SerializableMessage> implements Serializer<T> {
 
@@ -27,25 +24,21 @@ public class JsonMessageSerializer<T extends SerializableMessage> implements Ser
   private static final String CONFIDENTIAL_INFORMATION_MASK = "********";
 
   private Gson gson;
+  private Field separatorField;
+
+  /** Reused for every message, access is guarded by {@code this}. */
+  private final StringBuilder jsonBuilder = new StringBuilder();
 
   // TODO Clean this up, such that the message is logged within ServerWriter and everything makes much more sense
   @Override
-  public void serialize(SerializableMessage message, OutputStream outputStream) throws IOException {
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-    Writer jsonStringWriter = new StringWriter();
-
-    // Serialize the object into a StringWriter which is later send as one string block with its size prepended.
-    getGson().toJson(message, message.getClass(), fixedJsonWriter(jsonStringWriter));
+  public synchronized void serialize(SerializableMessage message, OutputStream outputStream) throws IOException {
+    jsonBuilder.setLength(0);
 
-    QDataWriter qDataWriter = new QDataWriter(byteArrayOutputStream);
-    qDataWriter.append(jsonStringWriter.toString());
-
-    byte[] byteArray = byteArrayOutputStream.toByteArray();
+    // Serialize the object into a reused buffer which is then sent as one string block with its size prepended.
+    getGson().toJson(message, message.getClass(), fixedJsonWriter(CharStreams.asWriter(jsonBuilder)));
 
     if (logger.isDebugEnabled()) {
-      // Remove the first 4 bytes which contain the length of the following data
-      String data = new String(Arrays.copyOfRange(byteArray, 4, byteArray.length), StandardCharsets.UTF_16BE);
+      String data = jsonBuilder.toString();
 
       for (String stringToMask : message.getStringsToMask()) {
         data = data.replace("\"" + stringToMask + "\"", "\"" + CONFIDENTIAL_INFORMATION_MASK + "\"");
@@ -54,7 +47,7 @@ public class JsonMessageSerializer<T extends SerializableMessage> implements Ser
       logger.debug("Writing to server: {}", data);
     }
 
-    outputStream.write(byteArray);
+    new QDataWriter(outputStream).append(jsonBuilder);
   }
 
   private Gson getGson() {
@@ -76,8 +69,10 @@ public class JsonMessageSerializer<T extends SerializableMessage> implements Ser
       JsonWriter jsonWriter = new JsonWriter(writer);
       jsonWriter.setSerializeNulls(false);
 
-      Field separatorField = JsonWriter.class.getDeclaredField("separator");
-      separatorField.setAccessible(true);
+      if (separatorField == null) {
+        separatorField = JsonWriter.class.getDeclaredField("separator");
+        separatorField.setAccessible(true);
+      }
       separatorField.set(jsonWriter, ": ");
 
       return jsonWriter;
@@ -11,6 +11,7 @@ import com.faforever.client.notification.Action;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.notification.PersistentNotification;
 import com.faforever.client.notification.Severity;
+import com.faforever.client.remote.ServerMessageDispatcher.DispatchStatistics;
 import com.faforever.client.remote.domain.Avatar;
 import com.faforever.client.remote.domain.GameAccess;
 import com.faforever.client.remote.domain.GameInfoMessage;
@@ -47,6 +48,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
@@ -91,6 +93,11 @@ public class MockFafServerAccessor implements FafServerAccessor {
     messageListeners.get(type).remove(listener);
   }
 
+  @Override
+  public Map<Class<?>, DispatchStatistics> getDispatchStatistics() {
+    return Map.of();
+  }
+
   @Override
   public ReadOnlyObjectProperty<ConnectionState> connectionStateProperty() {
     return connectionState;
@@ -0,0 +1,112 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.remote.domain.ServerMessage;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches server messages to the listeners registered for the message's type or any of its super classes. For each
+ * concrete message type, the listeners of its whole class hierarchy are flattened into an array once, so that
+ * dispatching a message is a single map lookup. Registering or removing a listener discards all flattened arrays;
+ * since that only happens during startup and when UI components come and go, dispatching never needs a lock.
+ */
+public class ServerMessageDispatcher {
+
+  @SuppressWarnings("unchecked")
+  private static final Consumer<ServerMessage>[] NO_LISTENERS = new Consumer[0];
+
+  /** Guarded by {@code this}. */
+  private final Map<Class<?>, List<Consumer<ServerMessage>>> listenersByType = new HashMap<>();
+  private volatile Map<Class<?>, Consumer<ServerMessage>[]> dispatchTable = new ConcurrentHashMap<>();
+  private final Map<Class<?>, DispatchMetrics> metricsByType = new ConcurrentHashMap<>();
+
+  @SuppressWarnings("unchecked")
+  public synchronized <T extends ServerMessage> void addListener(Class<T> type, Consumer<T> listener) {
+    listenersByType.computeIfAbsent(type, aClass -> new ArrayList<>()).add((Consumer<ServerMessage>) listener);
+    dispatchTable = new ConcurrentHashMap<>();
+  }
+
+  public synchronized <T extends ServerMessage> void removeListener(Class<T> type, Consumer<T> listener) {
+    List<Consumer<ServerMessage>> listeners = listenersByType.get(type);
+    if (listeners != null && listeners.remove(listener)) {
+      dispatchTable = new ConcurrentHashMap<>();
+    }
+  }
+
+  /**
+   * Passes the message to every listener registered for its type, starting with the most specific type.
+   */
+  public void dispatch(ServerMessage message) {
+    Class<? extends ServerMessage> messageType = message.getClass();
+
+    Map<Class<?>, Consumer<ServerMessage>[]> dispatchTable = this.dispatchTable;
+    Consumer<ServerMessage>[] listeners = dispatchTable.get(messageType);
+    if (listeners == null) {
+      listeners = flattenListeners(messageType);
+      dispatchTable.put(messageType, listeners);
+    }
+
+    long startTime = System.nanoTime();
+    try {
+      for (Consumer<ServerMessage> listener : listeners) {
+        listener.accept(message);
+      }
+    } finally {
+      metricsByType.computeIfAbsent(messageType, aClass -> new DispatchMetrics())
+          .record(System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Returns how many messages of each type have been dispatched and how long their listeners took.
+   */
+  public Map<Class<?>, DispatchStatistics> getStatistics() {
+    Map<Class<?>, DispatchStatistics> statistics = new HashMap<>();
+    metricsByType.forEach((type, metrics) -> statistics.put(type, metrics.toStatistics()));
+    return Collections.unmodifiableMap(statistics);
+  }
+
+  @SuppressWarnings("unchecked")
+  private synchronized Consumer<ServerMessage>[] flattenListeners(Class<?> messageType) {
+    List<Consumer<ServerMessage>> flattened = new ArrayList<>();
+    Class<?> type = messageType;
+    while (type != Object.class) {
+      flattened.addAll(listenersByType.getOrDefault(type, Collections.emptyList()));
+      type = type.getSuperclass();
+    }
+    return flattened.isEmpty() ? NO_LISTENERS : flattened.toArray(new Consumer[0]);
+  }
+
+  private static class DispatchMetrics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private void record(long nanos) {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private DispatchStatistics toStatistics() {
+      return new DispatchStatistics(count.sum(), Duration.ofNanos(totalNanos.sum()), Duration.ofNanos(maxNanos.get()));
+    }
+  }
+
+  @Value
+  public static class DispatchStatistics {
+    private long count;
+    private Duration totalTime;
+    private Duration maxTime;
+  }
+}
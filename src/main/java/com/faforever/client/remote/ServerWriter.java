@@ -1,6 +1,7 @@
 package com.faforever.client.remote;
 
 import com.faforever.client.remote.domain.SerializableMessage;
+import com.faforever.client.remote.io.FrameBuffer;
 import com.faforever.client.remote.io.QDataWriter;
 import com.faforever.client.util.Assert;
 import org.slf4j.Logger;
@@ -8,7 +9,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.serializer.Serializer;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -26,13 +26,19 @@ import java.util.Map;
 public class ServerWriter implements Closeable {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int INITIAL_FRAME_BUFFER_SIZE = 4096;
+  /** Frame buffers that have grown beyond this size are not kept for reuse. */
+  private static final int MAX_RETAINED_FRAME_BUFFER_SIZE = 256 * 1024;
 
   private final QDataWriter qDataWriter;
   private final Map<Class<?>, Serializer<?>> objectWriters;
+  /** Guarded by {@link #qDataWriter}. */
+  private FrameBuffer frameBuffer;
 
   public ServerWriter(OutputStream outputStream) {
     qDataWriter = new QDataWriter(new DataOutputStream(new BufferedOutputStream(outputStream)));
     objectWriters = new HashMap<>();
+    frameBuffer = new FrameBuffer(INITIAL_FRAME_BUFFER_SIZE);
   }
 
   public void registerMessageSerializer(Serializer<?> objectSerializer, Class<?> writableClass) {
@@ -48,13 +54,15 @@ public class ServerWriter implements Closeable {
     Assert.checkNullIllegalState(serializer, () -> "No object writer registered for type: " + clazz);
 
     try {
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-      serializer.serialize(object, outputStream);
-
       synchronized (qDataWriter) {
-        qDataWriter.appendWithSize(outputStream.toByteArray());
+        frameBuffer.reset();
+        serializer.serialize(object, frameBuffer);
+        frameBuffer.writeWithSizeTo(qDataWriter);
         qDataWriter.flush();
+
+        if (frameBuffer.capacity() > MAX_RETAINED_FRAME_BUFFER_SIZE) {
+          frameBuffer = new FrameBuffer(INITIAL_FRAME_BUFFER_SIZE);
+        }
       }
     } catch (EOFException | SocketException e) {
       logger.debug("Server writer has been closed");
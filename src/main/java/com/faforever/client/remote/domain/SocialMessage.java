@@ -12,10 +12,18 @@ public class SocialMessage extends FafServerMessage {
     return friends;
   }
 
+  public void setFriends(List<Integer> friends) {
+    this.friends = friends;
+  }
+
   public List<Integer> getFoes() {
     return foes;
   }
 
+  public void setFoes(List<Integer> foes) {
+    this.foes = foes;
+  }
+
   /**
    * List of channel names to join.
    */
@@ -11,13 +11,44 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 
 public class ServerMessageTypeAdapter implements JsonDeserializer<ServerMessage> {
 
   public static final ServerMessageTypeAdapter INSTANCE = new ServerMessageTypeAdapter();
 
+  /**
+   * Determines the type of a server message by reading only its {@code command} and {@code target} fields, skipping
+   * everything else without building a JSON tree. The reader is left positioned somewhere within the object and
+   * should not be used afterwards.
+   *
+   * @return the message type, or {@code null} if the message is not supported
+   */
+  public static Type peekMessageType(JsonReader in) throws IOException {
+    String command = null;
+    String target = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "command":
+          command = nextStringOrNull(in);
+          break;
+        case "target":
+          target = nextStringOrNull(in);
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+
+    return getMessageType(command, target);
+  }
+
   @Override
   public ServerMessage deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
     JsonObject jsonObject = json.getAsJsonObject();
@@ -30,7 +61,22 @@ public class ServerMessageTypeAdapter implements JsonDeserializer<ServerMessage>
       target = targetElement.getAsString();
     }
 
+    Type messageType = getMessageType(command, target);
+    if (messageType == null) {
+      return null;
+    }
+    return context.deserialize(jsonObject, messageType);
+  }
+
+  private static Type getMessageType(String command, String target) {
+    if (command == null) {
+      return null;
+    }
+
     MessageTarget messageTarget = MessageTarget.fromString(target);
+    if (messageTarget == null) {
+      return null;
+    }
 
     ServerMessageType serverMessageType;
     switch (messageTarget) {
@@ -50,6 +96,14 @@ public class ServerMessageTypeAdapter implements JsonDeserializer<ServerMessage>
     if (serverMessageType == null) {
       return null;
     }
-    return context.deserialize(jsonObject, serverMessageType.getType());
+    return serverMessageType.getType();
+  }
+
+  private static String nextStringOrNull(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
   }
 }
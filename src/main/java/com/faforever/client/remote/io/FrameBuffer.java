@@ -0,0 +1,26 @@
+package com.faforever.client.remote.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * A byte array output stream that is meant to be reset and reused for every frame sent to the server, and whose
+ * content can be written without copying it first.
+ */
+public class FrameBuffer extends ByteArrayOutputStream {
+
+  public FrameBuffer(int size) {
+    super(size);
+  }
+
+  public int capacity() {
+    return buf.length;
+  }
+
+  /**
+   * Writes the size of this buffer's content followed by the content itself.
+   */
+  public synchronized void writeWithSizeTo(QDataWriter qDataWriter) throws IOException {
+    qDataWriter.appendWithSize(buf, 0, count);
+  }
+}
@@ -4,13 +4,23 @@ import java.io.Closeable;
 import java.io.DataInput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 
 public class QDataInputStream extends InputStream {
 
+  private static final int INITIAL_BUFFER_SIZE = 8192;
+
   private final DataInput dataInput;
   private final Charset charset;
+  private CharsetDecoder decoder;
+  private ByteBuffer byteBuffer;
+  private CharBuffer charBuffer;
 
   public QDataInputStream(DataInput dataInput) {
     this(dataInput, StandardCharsets.UTF_16BE);
@@ -32,6 +42,43 @@ public class QDataInputStream extends InputStream {
     return new String(buffer, charset);
   }
 
+  /**
+   * Like {@link #readQString()}, but decodes the string into a buffer that is reused by subsequent calls. The returned
+   * characters are therefore only valid until the next call of this method.
+   *
+   * @return the decoded characters, or {@code null} if a null string has been sent
+   */
+  public CharBuffer readQChars() throws IOException {
+    int stringSize = dataInput.readInt();
+    if (stringSize == -1) {
+      return null;
+    }
+
+    if (decoder == null) {
+      decoder = charset.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      byteBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+      charBuffer = CharBuffer.allocate((int) (INITIAL_BUFFER_SIZE * decoder.maxCharsPerByte()));
+    }
+    if (byteBuffer.capacity() < stringSize) {
+      byteBuffer = ByteBuffer.allocate(stringSize);
+      charBuffer = CharBuffer.allocate((int) Math.ceil(stringSize * (double) decoder.maxCharsPerByte()));
+    }
+
+    dataInput.readFully(byteBuffer.array(), 0, stringSize);
+    byteBuffer.clear().limit(stringSize);
+    charBuffer.clear();
+
+    decoder.reset();
+    CoderResult result = decoder.decode(byteBuffer, charBuffer, true);
+    if (!result.isUnderflow()) {
+      result.throwException();
+    }
+    decoder.flush(charBuffer);
+    return charBuffer.flip();
+  }
+
   @Override
   public int read() throws IOException {
     return dataInput.readUnsignedByte();
@@ -3,13 +3,18 @@ package com.faforever.client.remote.io;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 public class QDataWriter extends Writer {
 
   public static final Charset CHARSET = StandardCharsets.UTF_16BE;
+  private static final int ENCODE_BUFFER_SIZE = 1024;
+
   private final OutputStream out;
+  private byte[] encodeBuffer;
 
   public QDataWriter(OutputStream out) {
     this.out = out;
@@ -17,7 +22,13 @@ public class QDataWriter extends Writer {
 
   @Override
   public void write(char[] cbuf, int off, int len) throws IOException {
-    out.write(new String(cbuf).substring(off, off + len).getBytes(CHARSET));
+    Objects.checkFromIndexSize(off, len, cbuf.length);
+    writeChars(CharBuffer.wrap(cbuf), off, off + len);
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    writeChars(str, off, off + len);
   }
 
   @Override
@@ -27,8 +38,10 @@ public class QDataWriter extends Writer {
       return this;
     }
 
-    byte[] bytes = csq.toString().getBytes(CHARSET);
-    return appendWithSize(bytes);
+    // UTF-16 encodes every char as exactly two bytes, so the size is known without encoding the string first
+    writeInt32(csq.length() * 2);
+    writeChars(csq, 0, csq.length());
+    return this;
   }
 
   @Override
@@ -52,8 +65,36 @@ public class QDataWriter extends Writer {
    * Appends the size of the given byte array to the stream followed by the byte array itself.
    */
   public QDataWriter appendWithSize(byte[] bytes) throws IOException {
-    writeInt32(bytes.length);
-    out.write(bytes);
+    return appendWithSize(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Appends {@code length} followed by the specified range of the given byte array.
+   */
+  public QDataWriter appendWithSize(byte[] bytes, int offset, int length) throws IOException {
+    writeInt32(length);
+    out.write(bytes, offset, length);
     return this;
   }
+
+  /**
+   * Encodes the specified chars as UTF-16BE through a small, reused buffer.
+   */
+  private void writeChars(CharSequence chars, int start, int end) throws IOException {
+    if (encodeBuffer == null) {
+      encodeBuffer = new byte[ENCODE_BUFFER_SIZE];
+    }
+
+    int position = 0;
+    for (int i = start; i < end; i++) {
+      if (position == encodeBuffer.length) {
+        out.write(encodeBuffer, 0, position);
+        position = 0;
+      }
+      char c = chars.charAt(i);
+      encodeBuffer[position++] = (byte) (c >>> 8);
+      encodeBuffer[position++] = (byte) c;
+    }
+    out.write(encodeBuffer, 0, position);
+  }
 }
@@ -0,0 +1,271 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.util.Tuple;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.github.nocatch.NoCatch.noCatch;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Persistent index of the replays in the local replay directory. Each replay's header is parsed once and stored in
+ * the cache directory together with the file's size and modification time, so that paging through the local replay
+ * vault is a lookup into a sorted list. A directory watcher keeps the index up to date; headers are only re-parsed if
+ * a file's size or modification time changed.
+ */
+@Lazy
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LocalReplayCatalog implements DisposableBean {
+
+  private static final String CATALOG_FILE_NAME = "local-replays.json";
+
+  private final ClientProperties clientProperties;
+  private final PreferencesService preferencesService;
+  private final ReplayFileReader replayFileReader;
+
+  private final Gson gson = ReplayFiles.gson();
+  /** Keyed by file name, relative to the replays directory. */
+  private final Map<String, CatalogEntry> entriesByFileName = new HashMap<>();
+  /** Entries sorted by modification time, newest first. {@code null} if it needs to be rebuilt. */
+  private List<CatalogEntry> sortedEntries;
+  private boolean initialized;
+  private Thread directoryWatcherThread;
+
+  /**
+   * Returns the catalog entries of the specified page (1-based) together with the number of pages.
+   */
+  public synchronized Tuple<List<CatalogEntry>, Integer> getPage(int pageSize, int page) {
+    initializeIfNecessary();
+
+    if (sortedEntries == null) {
+      sortedEntries = entriesByFileName.values().stream()
+          .sorted(Comparator.comparingLong(CatalogEntry::getLastModified).reversed())
+          .collect(Collectors.toList());
+    }
+
+    int numPages = sortedEntries.size() / pageSize;
+    int fromIndex = Math.min(pageSize * (page - 1), sortedEntries.size());
+    int toIndex = Math.min(fromIndex + pageSize, sortedEntries.size());
+    return new Tuple<>(new ArrayList<>(sortedEntries.subList(fromIndex, toIndex)), numPages);
+  }
+
+  /**
+   * Removes the specified replay from the catalog, e.g. because it has been moved away as corrupted.
+   */
+  public synchronized void remove(Path replayFile) {
+    if (entriesByFileName.remove(replayFile.getFileName().toString()) != null) {
+      sortedEntries = null;
+      store();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
+  }
+
+  private void initializeIfNecessary() {
+    if (initialized) {
+      return;
+    }
+    initialized = true;
+
+    Path replaysDirectory = preferencesService.getReplaysDirectory();
+    noCatch(() -> Files.createDirectories(replaysDirectory));
+
+    readCatalogFile();
+    synchronizeWithDirectory(replaysDirectory);
+    store();
+
+    directoryWatcherThread = startDirectoryWatcher(replaysDirectory);
+  }
+
+  /**
+   * Compares the whole replays directory with the catalog. Only costs a stat per file unless files were added or
+   * changed while the client was not running.
+   */
+  private void synchronizeWithDirectory(Path replaysDirectory) {
+    Set<String> presentFileNames = new HashSet<>();
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory, clientProperties.getReplay().getReplayFileGlob())) {
+      for (Path replayFile : directoryStream) {
+        presentFileNames.add(replayFile.getFileName().toString());
+        update(replayFile);
+      }
+    } catch (IOException e) {
+      log.warn("Could not list replays directory '{}'", replaysDirectory, e);
+      return;
+    }
+
+    if (entriesByFileName.keySet().retainAll(presentFileNames)) {
+      sortedEntries = null;
+    }
+  }
+
+  /**
+   * Brings the entry of the specified file up to date, re-parsing its header only if size or modification time
+   * changed. Removes the entry if the file no longer exists.
+   */
+  private void update(Path replayFile) {
+    String fileName = replayFile.getFileName().toString();
+
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(replayFile, BasicFileAttributes.class);
+    } catch (IOException e) {
+      if (entriesByFileName.remove(fileName) != null) {
+        sortedEntries = null;
+      }
+      return;
+    }
+
+    long size = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    CatalogEntry existingEntry = entriesByFileName.get(fileName);
+    if (existingEntry != null && existingEntry.getSize() == size && existingEntry.getLastModified() == lastModified) {
+      return;
+    }
+
+    CatalogEntry entry = new CatalogEntry();
+    entry.setFileName(fileName);
+    entry.setSize(size);
+    entry.setLastModified(lastModified);
+    entry.setReplayInfo(tryParseMetaData(replayFile));
+    entriesByFileName.put(fileName, entry);
+    sortedEntries = null;
+  }
+
+  @Nullable
+  private LocalReplayInfo tryParseMetaData(Path replayFile) {
+    try {
+      return replayFileReader.parseMetaData(replayFile);
+    } catch (Exception e) {
+      log.warn("Could not read replay file '{}'", replayFile, e);
+      return null;
+    }
+  }
+
+  private Thread startDirectoryWatcher(Path replaysDirectory) {
+    PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + clientProperties.getReplay().getReplayFileGlob());
+
+    Thread thread = new Thread(() -> noCatch(() -> {
+      try (WatchService watcher = replaysDirectory.getFileSystem().newWatchService()) {
+        replaysDirectory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        while (!Thread.interrupted()) {
+          WatchKey key = watcher.take();
+          List<WatchEvent<?>> events = key.pollEvents();
+          onDirectoryEvents(replaysDirectory, events, matcher);
+          key.reset();
+        }
+      } catch (InterruptedException e) {
+        log.debug("Watcher terminated ({})", e.getMessage());
+      }
+    }));
+    thread.setName("ReplayDirectoryWatcher");
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  @VisibleForTesting
+  synchronized void onDirectoryEvents(Path replaysDirectory, Collection<WatchEvent<?>> events, PathMatcher matcher) {
+    boolean overflow = events.stream().anyMatch(event -> event.kind() == OVERFLOW);
+    if (overflow) {
+      synchronizeWithDirectory(replaysDirectory);
+    } else {
+      events.stream()
+          .map(event -> (Path) event.context())
+          .filter(matcher::matches)
+          .distinct()
+          .forEach(fileName -> update(replaysDirectory.resolve(fileName)));
+    }
+    if (sortedEntries == null) {
+      store();
+    }
+  }
+
+  private void readCatalogFile() {
+    Path catalogFile = getCatalogFile();
+    if (Files.notExists(catalogFile)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(catalogFile, StandardCharsets.UTF_8)) {
+      List<CatalogEntry> entries = gson.fromJson(reader, new TypeToken<List<CatalogEntry>>() {
+      }.getType());
+      if (entries != null) {
+        entries.forEach(entry -> entriesByFileName.put(entry.getFileName(), entry));
+      }
+    } catch (Exception e) {
+      log.warn("Replay catalog '{}' could not be read, rebuilding it", catalogFile, e);
+      entriesByFileName.clear();
+    }
+    sortedEntries = null;
+  }
+
+  private void store() {
+    Path catalogFile = getCatalogFile();
+    Path tempFile = catalogFile.resolveSibling(CATALOG_FILE_NAME + ".tmp");
+    try {
+      Files.createDirectories(catalogFile.getParent());
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        gson.toJson(entriesByFileName.values(), writer);
+      }
+      Files.move(tempFile, catalogFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Replay catalog '{}' could not be written", catalogFile, e);
+    }
+  }
+
+  private Path getCatalogFile() {
+    return preferencesService.getCacheDirectory().resolve(CATALOG_FILE_NAME);
+  }
+
+  @Data
+  public static class CatalogEntry {
+    private String fileName;
+    private long size;
+    private long lastModified;
+    /** {@code null} if the replay header could not be parsed. */
+    private LocalReplayInfo replayInfo;
+  }
+}
@@ -11,6 +11,7 @@ import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.query.SearchablePropertyMappings;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.theme.UiService;
+import com.faforever.client.vault.VaultEntityCardController;
 import com.faforever.client.vault.VaultEntityController;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import javafx.scene.Node;
@@ -81,11 +82,8 @@ public class LocalReplayVaultController extends VaultEntityController<Replay> {
     }
   }
 
-  protected Node getEntityCard(Replay replay) {
-    ReplayCardController controller = uiService.loadFxml("theme/vault/replay/replay_card.fxml");
-    controller.setReplay(replay);
-    controller.setOnOpenDetailListener(this::onDisplayDetails);
-    return controller.getRoot();
+  protected VaultEntityCardController<Replay> createEntityCard() {
+    return uiService.loadFxml("theme/vault/replay/replay_card.fxml");
   }
 
   @Override
@@ -18,6 +18,7 @@ import com.faforever.client.query.CategoryFilterController;
 import com.faforever.client.query.SearchablePropertyMappings;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.theme.UiService;
+import com.faforever.client.vault.VaultEntityCardController;
 import com.faforever.client.vault.VaultEntityController;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
@@ -81,11 +82,8 @@ public class OnlineReplayVaultController extends VaultEntityController<Replay> {
     }
   }
 
-  protected Node getEntityCard(Replay replay) {
-    ReplayCardController controller = uiService.loadFxml("theme/vault/replay/replay_card.fxml");
-    controller.setReplay(replay);
-    controller.setOnOpenDetailListener(this::onDisplayDetails);
-    return controller.getRoot();
+  protected VaultEntityCardController<Replay> createEntityCard() {
+    return uiService.loadFxml("theme/vault/replay/replay_card.fxml");
   }
 
   @Override
@@ -1,6 +1,5 @@
 package com.faforever.client.replay;
 
-import com.faforever.client.fx.Controller;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.game.KnownFeaturedMod;
 import com.faforever.client.i18n.I18n;
@@ -10,6 +9,7 @@ import com.faforever.client.map.MapService.PreviewType;
 import com.faforever.client.rating.RatingService;
 import com.faforever.client.util.RatingUtil;
 import com.faforever.client.util.TimeService;
+import com.faforever.client.vault.VaultEntityCardController;
 import com.faforever.client.vault.review.Review;
 import com.faforever.client.vault.review.StarsController;
 import javafx.beans.InvalidationListener;
@@ -36,7 +36,7 @@ import java.util.function.Consumer;
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @RequiredArgsConstructor
-public class ReplayCardController implements Controller<Node> {
+public class ReplayCardController implements VaultEntityCardController<Replay> {
 
   private final ReplayService replayService;
   private final TimeService timeService;
@@ -63,9 +63,20 @@ public class ReplayCardController implements Controller<Node> {
   public StarsController starsController;
   private Replay replay;
   private final InvalidationListener reviewsChangedListener = observable -> populateReviews();
+  private final InvalidationListener weakReviewsChangedListener = new WeakInvalidationListener(reviewsChangedListener);
   private Consumer<Replay> onOpenDetailListener;
 
+  @Override
+  public void setEntity(Replay replay) {
+    setReplay(replay);
+  }
+
   public void setReplay(Replay replay) {
+    if (this.replay != null) {
+      // This card may be recycled for another replay
+      JavaFxUtil.removeListener(this.replay.getReviews(), weakReviewsChangedListener);
+      teamsContainer.getChildren().clear();
+    }
     this.replay = replay;
 
     Optional<MapBean> optionalMap = Optional.ofNullable(replay.getMap());
@@ -75,6 +86,7 @@ public class ReplayCardController implements Controller<Node> {
       mapThumbnailImageView.setImage(image);
       onMapLabel.setText(i18n.get("game.onMapFormat", map.getMapName()));
     } else {
+      mapThumbnailImageView.setImage(null);
       onMapLabel.setText(i18n.get("game.onUnknownMap"));
     }
 
@@ -100,6 +112,7 @@ public class ReplayCardController implements Controller<Node> {
             () -> ratingLabel.setText("-"));
 
     ratingTypeLabel.setText("-");
+    ratingTypeLabel.setVisible(true);
     replay.getTeamPlayerStats().values().stream().findAny()
         .ifPresent(playerStatsList -> playerStatsList.stream().findAny()
             .ifPresent(playerStats -> Optional.ofNullable(playerStats.getLeaderboard())
@@ -136,7 +149,7 @@ public class ReplayCardController implements Controller<Node> {
         });
 
     ObservableList<Review> reviews = replay.getReviews();
-    JavaFxUtil.addListener(reviews, new WeakInvalidationListener(reviewsChangedListener));
+    JavaFxUtil.addListener(reviews, weakReviewsChangedListener);
     reviewsChangedListener.invalidated(reviews);
   }
 
@@ -148,10 +161,12 @@ public class ReplayCardController implements Controller<Node> {
     });
   }
 
+  @Override
   public Node getRoot() {
     return replayTileRoot;
   }
 
+  @Override
   public void setOnOpenDetailListener(Consumer<Replay> onOpenDetailListener) {
     this.onOpenDetailListener = onOpenDetailListener;
   }
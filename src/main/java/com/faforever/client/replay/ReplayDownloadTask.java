@@ -36,7 +36,7 @@ public class ReplayDownloadTask extends CompletableTask<Path> {
   @Inject
   public ReplayDownloadTask(I18n i18n, ClientProperties clientProperties,
                             DownloadService downloadService) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, Lane.NETWORK);
 
     this.i18n = i18n;
     this.clientProperties = clientProperties;
@@ -3,6 +3,8 @@ package com.faforever.client.replay;
 
 import com.faforever.commons.replay.ReplayData;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 
 public interface ReplayFileReader {
@@ -17,6 +19,12 @@ public interface ReplayFileReader {
    */
   byte[] readRawReplayData(Path replayFile);
 
+  /**
+   * Returns a stream of the binary replay data that decompresses the replay body while it is being read. The caller
+   * is responsible for closing it.
+   */
+  InputStream openReplayDataStream(Path replayFile) throws IOException;
+
   /**
    * Parses the actual replay data of the specified file and returns information such as chat messages, game options,
    * executed commands and so on.
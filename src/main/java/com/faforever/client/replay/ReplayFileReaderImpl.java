@@ -1,34 +1,41 @@
 package com.faforever.client.replay;
 
-import com.faforever.commons.replay.QtCompress;
 import com.faforever.commons.replay.ReplayData;
 import com.faforever.commons.replay.ReplayDataParser;
 import com.google.common.io.BaseEncoding;
 import com.google.gson.Gson;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.compress.compressors.CompressorInputStream;
-import org.apache.commons.compress.compressors.CompressorStreamFactory;
-import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
 import java.util.Objects;
+import java.util.zip.InflaterInputStream;
 
 @Lazy
 @Component
 @Slf4j
 public class ReplayFileReaderImpl implements ReplayFileReader {
 
+  private static final int BUFFER_SIZE = 8192;
+  /**
+   * Upper bound for the JSON header, so that a file without separator is not read into memory entirely.
+   */
+  private static final int MAX_HEADER_SIZE = 1024 * 1024;
+  private static final int QT_LENGTH_PREFIX_SIZE = 4;
+
   private final Gson gson;
 
   public ReplayFileReaderImpl() {
@@ -40,23 +47,39 @@ public class ReplayFileReaderImpl implements ReplayFileReader {
   public LocalReplayInfo parseMetaData(Path replayPath) {
     log.debug("Parsing metadata of replay file: {}", replayPath);
 
-    byte[] replayData = Files.readAllBytes(replayPath);
+    try (InputStream inputStream = openReplayFile(replayPath)) {
+      return parseHeader(readHeader(inputStream));
+    }
+  }
 
-    String header = new String(Arrays.copyOf(replayData, findReplayHeaderEnd(replayData)), StandardCharsets.UTF_8);
-    return gson.fromJson(header, LocalReplayInfo.class);
+  private InputStream openReplayFile(Path replayPath) throws IOException {
+    return new BufferedInputStream(Files.newInputStream(replayPath), BUFFER_SIZE);
   }
 
-  private int findReplayHeaderEnd(byte[] replayData) {
-    int headerEnd;
-    for (headerEnd = 0; headerEnd < replayData.length; headerEnd++) {
-      if (replayData[headerEnd] == '\n') {
-        return headerEnd;
+  /**
+   * Reads the replay header up to (and consuming) the separating {@code '\n'}, leaving the stream positioned at the
+   * start of the replay body.
+   */
+  private byte[] readHeader(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream header = new ByteArrayOutputStream(BUFFER_SIZE);
+    int nextByte;
+    while ((nextByte = inputStream.read()) != -1) {
+      if (nextByte == '\n') {
+        return header.toByteArray();
       }
+      if (header.size() >= MAX_HEADER_SIZE) {
+        throw new IllegalArgumentException("Replay header exceeds " + MAX_HEADER_SIZE + " bytes");
+      }
+      header.write(nextByte);
     }
 
     throw new IllegalArgumentException("Missing separator between replay header and body");
   }
 
+  private LocalReplayInfo parseHeader(byte[] header) {
+    return gson.fromJson(new String(header, StandardCharsets.UTF_8), LocalReplayInfo.class);
+  }
+
   @Override
   @SneakyThrows
   public byte[] readRawReplayData(Path replayFile) {
@@ -67,38 +90,60 @@ public class ReplayFileReaderImpl implements ReplayFileReader {
   public byte[] readRawReplayData(Path replayPath, @Nullable LocalReplayInfo localReplayInfo) {
     log.debug("Reading replay file: {}", replayPath);
 
-    final LocalReplayInfo metadata;
-    if (localReplayInfo == null) {
-      metadata = parseMetaData(replayPath);
-    } else {
-      metadata = localReplayInfo;
+    try (InputStream inputStream = openReplayDataStream(replayPath, localReplayInfo)) {
+      return inputStream.readAllBytes();
     }
+  }
 
-    byte[] replayData = Files.readAllBytes(replayPath);
-    int replayHeaderEnd = findReplayHeaderEnd(replayData);
+  @Override
+  public InputStream openReplayDataStream(Path replayPath) throws IOException {
+    return openReplayDataStream(replayPath, null);
+  }
 
-    return decompress(Arrays.copyOfRange(replayData, replayHeaderEnd + 1, replayData.length), metadata);
+  /**
+   * Opens a stream of the decompressed replay body. The file is read only once: the header is skipped (and parsed only
+   * if {@code localReplayInfo} is {@code null}) and the body is decompressed lazily while the stream is consumed.
+   */
+  public InputStream openReplayDataStream(Path replayPath, @Nullable LocalReplayInfo localReplayInfo) throws IOException {
+    InputStream inputStream = openReplayFile(replayPath);
+    try {
+      byte[] header = readHeader(inputStream);
+      LocalReplayInfo metadata = localReplayInfo != null ? localReplayInfo : parseHeader(header);
+      return decompressingStream(inputStream, metadata);
+    } catch (IOException | RuntimeException e) {
+      inputStream.close();
+      throw e;
+    }
   }
 
   @SneakyThrows
   public byte[] decompress(byte[] data, @NotNull LocalReplayInfo metadata) {
+    try (InputStream inputStream = decompressingStream(new ByteArrayInputStream(data), metadata)) {
+      return inputStream.readAllBytes();
+    }
+  }
+
+  private InputStream decompressingStream(InputStream body, @NotNull LocalReplayInfo metadata) throws IOException {
     CompressionType compressionType = Objects.requireNonNullElse(metadata.getCompression(), CompressionType.QTCOMPRESS);
 
     return switch (compressionType) {
-      case QTCOMPRESS -> QtCompress.qUncompress(BaseEncoding.base64().decode(new String(data)));
-      case ZSTD -> {
-        ByteArrayInputStream arrayInputStream = new ByteArrayInputStream(data);
-        CompressorInputStream compressorInputStream = new CompressorStreamFactory()
-            .createCompressorInputStream(arrayInputStream);
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        IOUtils.copy(compressorInputStream, out);
-        yield out.toByteArray();
-      }
+      case QTCOMPRESS -> qUncompressingStream(BaseEncoding.base64().decodingStream(new InputStreamReader(body, StandardCharsets.US_ASCII)));
+      case ZSTD -> new ZstdCompressorInputStream(body);
       case UNKNOWN -> throw new IOException("Unknown replay format in replay file");
     };
   }
 
+  /**
+   * Streaming equivalent of {@code QtCompress.qUncompress}: Qt prefixes the zlib data with the uncompressed length as
+   * a 4 byte big endian integer, which is not needed when inflating a stream.
+   */
+  private InputStream qUncompressingStream(InputStream compressed) throws IOException {
+    if (compressed.readNBytes(QT_LENGTH_PREFIX_SIZE).length != QT_LENGTH_PREFIX_SIZE) {
+      throw new IOException("Replay body is too short");
+    }
+    return new InflaterInputStream(compressed);
+  }
+
   @Override
   public ReplayData parseReplay(Path path) {
     return new ReplayDataParser(path).parse();
@@ -26,9 +26,11 @@ import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.remote.domain.NewTadaReplayMessage;
 import com.faforever.client.remote.domain.ServerMessage;
+import com.faforever.client.replay.LocalReplayCatalog.CatalogEntry;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.tada.event.UploadToTadaEvent;
 import com.faforever.client.task.CompletableTask;
+import com.faforever.client.task.CompletableTask.Lane;
 import com.faforever.client.task.CompletableTask.Priority;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.user.UserService;
@@ -46,6 +48,7 @@ import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
@@ -62,12 +65,10 @@ import java.lang.invoke.MethodHandles;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -75,8 +76,6 @@ import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import static com.faforever.client.notification.Severity.WARN;
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -125,6 +124,7 @@ public class ReplayService implements InitializingBean {
   private final ModService modService;
   private final MapService mapService;
   private final EventBus eventBus;
+  private final LocalReplayCatalog localReplayCatalog;
   protected List<Replay> localReplays = new ArrayList<>();
 
   @Override
@@ -182,44 +182,33 @@ public class ReplayService implements InitializingBean {
 
   @Async
   public CompletableFuture<Tuple<List<Replay>, Integer>> loadLocalReplayPage(int pageSize, int page) throws IOException {
-    String replayFileGlob = clientProperties.getReplay().getReplayFileGlob();
-
     Path replaysDirectory = preferencesService.getReplaysDirectory();
-    if (Files.notExists(replaysDirectory)) {
-      noCatch(() -> createDirectories(replaysDirectory));
-    }
-
-    int skippedReplays = pageSize * (page - 1);
-
-    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory, replayFileGlob)) {
-      Stream<Path> filesStream = StreamSupport.stream(directoryStream.spliterator(), false)
-          .sorted(Comparator.comparing(path -> noCatch(() -> Files.getLastModifiedTime((Path) path))).reversed());
-
-      List<Path> filesList = filesStream.collect(Collectors.toList());
-      int numPages = filesList.size() / pageSize;
-
-      List<CompletableFuture<Replay>> replayFutures = filesList.stream()
-          .skip(skippedReplays)
-          .limit(pageSize)
-          .map(this::tryLoadingLocalReplay)
-          .filter(e -> !e.isCompletedExceptionally())
-          .collect(Collectors.toList());
-
-      return CompletableFuture.allOf(replayFutures.toArray(new CompletableFuture[0]))
-          .thenApply(ignoredVoid ->
-              replayFutures.stream()
-                  .map(CompletableFuture::join)
-                  .filter(Objects::nonNull)
-                  .collect(Collectors.toList()))
-          .thenApply(replays -> new Tuple<>(replays, numPages));
-    }
+    Tuple<List<CatalogEntry>, Integer> catalogPage = localReplayCatalog.getPage(pageSize, page);
+
+    List<CompletableFuture<Replay>> replayFutures = catalogPage.getFirst().stream()
+        .map(entry -> tryLoadingLocalReplay(replaysDirectory.resolve(entry.getFileName()), entry.getReplayInfo()))
+        .filter(e -> !e.isCompletedExceptionally())
+        .collect(Collectors.toList());
+
+    return CompletableFuture.allOf(replayFutures.toArray(new CompletableFuture[0]))
+        .thenApply(ignoredVoid ->
+            replayFutures.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()))
+        .thenApply(replays -> new Tuple<>(replays, catalogPage.getSecond()));
   }
 
 
-  private CompletableFuture<Replay> tryLoadingLocalReplay(Path replayFile) {
-    try {
-      LocalReplayInfo replayInfo = replayFileReader.parseMetaData(replayFile);
+  private CompletableFuture<Replay> tryLoadingLocalReplay(Path replayFile, @Nullable LocalReplayInfo replayInfo) {
+    if (replayInfo == null) {
+      logger.warn("Could not read replay file '{}'", replayFile);
+      localReplayCatalog.remove(replayFile);
+      moveCorruptedReplayFile(replayFile);
+      return CompletableFuture.completedFuture(null);
+    }
 
+    try {
       CompletableFuture<FeaturedMod> featuredModFuture = modService.getFeaturedMod(replayInfo.getFeaturedMod());
       FeaturedMod featuredMod = featuredModFuture.join();
       CompletableFuture<Optional<MapBean>> mapBeanFuture = mapService.findByMapFolderName(featuredMod.getTechnicalName(), replayInfo.getMapname());
@@ -232,8 +221,7 @@ public class ReplayService implements InitializingBean {
         return new Replay(replayInfo, replayFile, featuredModFuture.join(), mapBean.orElse(null));
       });
     } catch (Exception e) {
-      logger.warn("Could not read replay file '{}'", replayFile, e);
-      moveCorruptedReplayFile(replayFile);
+      logger.warn("Could not load replay file '{}'", replayFile, e);
       return CompletableFuture.completedFuture(null);
     }
   }
@@ -396,7 +384,7 @@ public class ReplayService implements InitializingBean {
     }
     else {
       CompletableFuture<URL> signedUrlFuture = taskService.submitTask(
-          new CompletableTask<URL>(Priority.HIGH) {
+          new CompletableTask<URL>(Priority.HIGH, Lane.NETWORK) {
             @Override
             protected URL call() throws Exception {
               URL tadaDownloadEndpoint = new URL(String.format(
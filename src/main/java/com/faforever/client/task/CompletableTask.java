@@ -10,9 +10,15 @@ public abstract class CompletableTask<V> extends Task<V> implements PrioritizedC
 
   private final CompletableFuture<V> future;
   private Priority priority;
+  private final Lane lane;
 
   public CompletableTask(Priority priority) {
+    this(priority, Lane.CPU);
+  }
+
+  public CompletableTask(Priority priority, Lane lane) {
     this.priority = priority;
+    this.lane = lane;
     this.future = new CompletableFuture<>();
     setOnCancelled(event -> future.cancel(true));
     setOnFailed(event -> future.completeExceptionally(getException()));
@@ -28,6 +34,16 @@ public abstract class CompletableTask<V> extends Task<V> implements PrioritizedC
     return priority.compareTo(other.priority);
   }
 
+  @Override
+  public Priority getPriority() {
+    return priority;
+  }
+
+  @Override
+  public Lane getLane() {
+    return lane;
+  }
+
   public void setPriority(Priority priority) {
     Assert.checkNotNullIllegalState(this.priority, "Priority has already been set");
     this.priority = priority;
@@ -44,4 +60,16 @@ public abstract class CompletableTask<V> extends Task<V> implements PrioritizedC
     MEDIUM,
     HIGH
   }
+
+  /**
+   * The kind of resource a task mostly uses. Each lane has its own, bounded set of worker threads so that e.g. a long
+   * download does not keep CPU-bound tasks from running.
+   */
+  public enum Lane {
+    CPU,
+    DISK,
+    NETWORK,
+    /** Tasks that mostly wait for the user or some event. These are not bounded. */
+    WAITING
+  }
 }
@@ -16,4 +16,8 @@ public interface PrioritizedCompletableTask<V> extends Comparable<CompletableTas
   boolean cancel(boolean mayInterruptIfRunning);
 
   CompletableFuture<V> getFuture();
+
+  CompletableTask.Priority getPriority();
+
+  CompletableTask.Lane getLane();
 }
@@ -0,0 +1,241 @@
+package com.faforever.client.task;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.Tasks;
+import com.faforever.client.task.CompletableTask.Lane;
+import com.faforever.client.task.CompletableTask.Priority;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs tasks on a bounded pool of worker threads per {@link Lane}. Within a lane, waiting tasks are started by
+ * descending {@link Priority} and in submission order within the same priority.
+ * <p>
+ * Running tasks aren't preempted, so bulk work like downloading a map or a featured mod can only occupy all but {@value
+ * #RESERVED_THREADS} of a lane's threads. The reserved threads keep short jobs like API requests or image downloads
+ * from waiting until all bulk work is done. A lane with a single thread has nothing to reserve.
+ */
+@Lazy
+@Component
+@Slf4j
+public class PrioritizedTaskExecutor implements DisposableBean {
+
+  private static final int RESERVED_THREADS = 1;
+
+  private final Map<Lane, LaneScheduler> schedulersByLane = new EnumMap<>(Lane.class);
+  private final Map<Priority, QueueMetrics> metricsByPriority = new EnumMap<>(Priority.class);
+  private final AtomicLong sequence = new AtomicLong();
+
+  public PrioritizedTaskExecutor(ClientProperties clientProperties) {
+    Tasks tasks = clientProperties.getTasks();
+    schedulersByLane.put(Lane.CPU, new LaneScheduler(Lane.CPU, tasks.getCpuThreads()));
+    schedulersByLane.put(Lane.DISK, new LaneScheduler(Lane.DISK, tasks.getDiskThreads()));
+    schedulersByLane.put(Lane.NETWORK, new LaneScheduler(Lane.NETWORK, tasks.getNetworkThreads()));
+    schedulersByLane.put(Lane.WAITING, new LaneScheduler(Lane.WAITING, Integer.MAX_VALUE));
+
+    for (Priority priority : Priority.values()) {
+      metricsByPriority.put(priority, new QueueMetrics());
+    }
+  }
+
+  /**
+   * Runs the task as bulk work, since tasks are shown to the user because they may take a while.
+   */
+  public void execute(PrioritizedCompletableTask<?> task) {
+    execute(task.getLane(), task.getPriority(), true, task);
+  }
+
+  /**
+   * Returns an executor that runs jobs on the worker threads of the lane, queued with the given priority. Meant for
+   * background work that is too fine-grained to be shown as a task, like single API requests.
+   */
+  public Executor getExecutor(Lane lane, Priority priority) {
+    return runnable -> execute(lane, priority, false, runnable);
+  }
+
+  /**
+   * Like {@link #getExecutor(Lane, Priority)}, but for jobs that are part of bulk work, like the files of a featured
+   * mod, so they can't occupy the threads reserved for short jobs.
+   */
+  public Executor getBulkExecutor(Lane lane, Priority priority) {
+    return runnable -> execute(lane, priority, true, runnable);
+  }
+
+  /**
+   * Returns, by priority, how many tasks are waiting for a worker and how long tasks had to wait.
+   */
+  public Map<Priority, QueueStatistics> getQueueStatistics() {
+    Map<Priority, QueueStatistics> statistics = new EnumMap<>(Priority.class);
+    metricsByPriority.forEach((priority, metrics) -> statistics.put(priority, metrics.toStatistics()));
+    return Collections.unmodifiableMap(statistics);
+  }
+
+  @Override
+  public void destroy() {
+    schedulersByLane.values().forEach(LaneScheduler::shutdown);
+  }
+
+  private void execute(Lane lane, Priority priority, boolean bulk, Runnable runnable) {
+    QueueMetrics metrics = metricsByPriority.get(priority);
+    metrics.queuedTasks.incrementAndGet();
+    schedulersByLane.get(lane).execute(new QueuedTask(runnable, priority, bulk, metrics, sequence.getAndIncrement()));
+  }
+
+  private static ThreadFactory threadFactory(Lane lane) {
+    AtomicInteger threadNumber = new AtomicInteger();
+    String namePrefix = "task-" + lane.name().toLowerCase() + "-";
+    return runnable -> {
+      Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Starts the queued tasks of a lane as long as fewer than its maximum number of tasks are running, skipping bulk
+   * tasks while bulk work already occupies all unreserved threads.
+   */
+  private static class LaneScheduler {
+    private final ExecutorService threads;
+    private final int maxRunning;
+    private final int maxRunningBulk;
+    private final Queue<QueuedTask> queuedTasks = new PriorityQueue<>();
+    private final Queue<QueuedTask> queuedBulkTasks = new PriorityQueue<>();
+    private int running;
+    private int runningBulk;
+
+    private LaneScheduler(Lane lane, int maxRunning) {
+      this.maxRunning = maxRunning;
+      this.maxRunningBulk = Math.max(1, maxRunning - RESERVED_THREADS);
+      this.threads = Executors.newCachedThreadPool(threadFactory(lane));
+    }
+
+    private synchronized void execute(QueuedTask task) {
+      if (threads.isShutdown()) {
+        throw new RejectedExecutionException("Task executor has been shut down");
+      }
+      (task.bulk ? queuedBulkTasks : queuedTasks).add(task);
+      startQueuedTasks();
+    }
+
+    private synchronized void finished(QueuedTask task) {
+      running--;
+      if (task.bulk) {
+        runningBulk--;
+      }
+      if (!threads.isShutdown()) {
+        startQueuedTasks();
+      }
+    }
+
+    private void startQueuedTasks() {
+      while (running < maxRunning) {
+        QueuedTask next = queuedTasks.peek();
+        QueuedTask nextBulk = runningBulk < maxRunningBulk ? queuedBulkTasks.peek() : null;
+        if (nextBulk != null && (next == null || nextBulk.compareTo(next) < 0)) {
+          next = nextBulk;
+        }
+        if (next == null) {
+          return;
+        }
+
+        QueuedTask task = next.bulk ? queuedBulkTasks.remove() : queuedTasks.remove();
+        running++;
+        if (task.bulk) {
+          runningBulk++;
+        }
+        threads.execute(() -> {
+          try {
+            task.run();
+          } finally {
+            finished(task);
+          }
+        });
+      }
+    }
+
+    private void shutdown() {
+      threads.shutdownNow();
+    }
+  }
+
+  private static class QueuedTask implements Runnable, Comparable<QueuedTask> {
+    private final Runnable task;
+    private final Priority priority;
+    private final boolean bulk;
+    private final QueueMetrics metrics;
+    private final long sequence;
+    private final long queuedAt;
+
+    private QueuedTask(Runnable task, Priority priority, boolean bulk, QueueMetrics metrics, long sequence) {
+      this.task = task;
+      this.priority = priority;
+      this.bulk = bulk;
+      this.metrics = metrics;
+      this.sequence = sequence;
+      this.queuedAt = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+      metrics.recordStart(System.nanoTime() - queuedAt);
+      task.run();
+    }
+
+    @Override
+    public int compareTo(@NotNull QueuedTask other) {
+      int priorityComparison = other.priority.compareTo(priority);
+      if (priorityComparison != 0) {
+        return priorityComparison;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+
+  private static class QueueMetrics {
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final LongAdder startedTasks = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private void recordStart(long waitNanos) {
+      queuedTasks.decrementAndGet();
+      startedTasks.increment();
+      totalWaitNanos.add(waitNanos);
+      maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private QueueStatistics toStatistics() {
+      long started = startedTasks.sum();
+      Duration averageWaitTime = started == 0 ? Duration.ZERO : Duration.ofNanos(totalWaitNanos.sum() / started);
+      return new QueueStatistics(queuedTasks.get(), started, averageWaitTime, Duration.ofNanos(maxWaitNanos.get()));
+    }
+  }
+
+  @Value
+  public static class QueueStatistics {
+    private int queuedTasks;
+    private long startedTasks;
+    private Duration averageWaitTime;
+    private Duration maxWaitTime;
+  }
+}
@@ -1,6 +1,8 @@
 package com.faforever.client.task;
 
 import com.faforever.client.fx.JavaFxUtil;
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.PrioritizedTaskExecutor.QueueStatistics;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.concurrent.Worker;
@@ -11,13 +13,14 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.lang.invoke.MethodHandles;
-import java.util.concurrent.ExecutorService;
+import java.util.Map;
 
 /**
  * Enqueues and runs tasks in background. Services that need to run a task (tasks that finish, not long-running
  * background jobs) in background should always submit them to this service.
  * <p>
- * There are different queues for different kind of tasks. For every queue, only one task is executed at a time.
+ * Tasks are run by a {@link PrioritizedTaskExecutor}, which starts tasks of higher priority first and limits how many
+ * tasks of the same {@link CompletableTask.Lane} run at a time.
  */
 @Lazy
 @Service
@@ -26,7 +29,7 @@ public class TaskService {
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-  private final ExecutorService executorService;
+  private final PrioritizedTaskExecutor taskExecutor;
   private final ObservableList<Worker<?>> activeTasks = FXCollections.synchronizedObservableList(FXCollections.observableArrayList());
 
   private final ObservableList<Worker<?>> unmodifiableObservableList = FXCollections.unmodifiableObservableList(activeTasks);
@@ -46,13 +49,20 @@ public class TaskService {
     });
     JavaFxUtil.runLater(() -> {
       activeTasks.add(task);
-      executorService.execute(task);
+      taskExecutor.execute(task);
     });
 
     return task;
   }
 
+  /**
+   * Returns all tasks that have been submitted but not yet completed, including those still waiting to be started.
+   */
   public ObservableList<Worker<?>> getActiveWorkers() {
     return unmodifiableObservableList;
   }
+
+  public Map<Priority, QueueStatistics> getQueueStatistics() {
+    return taskExecutor.getQueueStatistics();
+  }
 }
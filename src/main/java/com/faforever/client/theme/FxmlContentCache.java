@@ -0,0 +1,54 @@
+package com.faforever.client.theme;
+
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the raw bytes and the resolved location of the FXML files of the current theme in memory, so that loading a
+ * component again neither needs to resolve its location in the theme nor read it from disk or the class path. This is
+ * a byte cache only: JavaFX has no reusable parsed form of a document, so it is still parsed and its controllers are
+ * still created on every load. Must be invalidated whenever the theme or one of its files changes.
+ */
+class FxmlContentCache {
+
+  private final Map<String, FxmlContent> contentsByPath = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the content of the specified FXML file, reading it from the location returned by {@code locationResolver}
+   * if it is not cached yet.
+   */
+  FxmlContent get(String relativePath, Function<String, URL> locationResolver) {
+    return contentsByPath.computeIfAbsent(relativePath, path -> read(locationResolver.apply(path)));
+  }
+
+  void invalidate() {
+    contentsByPath.clear();
+  }
+
+  private static FxmlContent read(URL location) {
+    try (InputStream inputStream = location.openStream()) {
+      return new FxmlContent(location, inputStream.readAllBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read FXML file " + location, e);
+    }
+  }
+
+  @Value
+  static class FxmlContent {
+    /** Needed to resolve relative references such as {@code fx:include}. */
+    private URL location;
+    private byte[] content;
+
+    InputStream openStream() {
+      return new ByteArrayInputStream(content);
+    }
+  }
+}
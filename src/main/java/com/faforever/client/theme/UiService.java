@@ -7,6 +7,7 @@ import com.faforever.client.fx.Controller;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.theme.FxmlContentCache.FxmlContent;
 import com.faforever.client.ui.dialog.Dialog;
 import com.faforever.client.ui.dialog.Dialog.DialogTransition;
 import com.faforever.client.ui.dialog.DialogLayout;
@@ -27,6 +28,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.layout.StackPane;
 import javafx.scene.web.WebView;
 import lombok.SneakyThrows;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.utils.IOUtils;
 import org.springframework.beans.factory.DisposableBean;
@@ -40,12 +42,16 @@ import org.springframework.context.support.MessageSourceResourceBundle;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
@@ -54,16 +60,20 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 import static com.faforever.client.io.FileUtils.deleteRecursively;
@@ -139,6 +149,8 @@ public class UiService implements InitializingBean, DisposableBean {
   private final ObjectProperty<Theme> currentTheme;
   private Path currentTempStyleSheet;
   private MessageSourceResourceBundle resources;
+  private final FxmlContentCache fxmlContentCache = new FxmlContentCache();
+  private final Map<String, FxmlLoadMetrics> fxmlLoadMetricsByPath = new ConcurrentHashMap<>();
 
   public UiService(PreferencesService preferencesService, ExecutorService executorService,
                    CacheManager cacheManager, MessageSource messageSource, ApplicationContext applicationContext,
@@ -233,6 +245,13 @@ public class UiService implements InitializingBean, DisposableBean {
 
   @Override
   public void destroy() throws IOException {
+    if (log.isDebugEnabled()) {
+      getFxmlLoadStatistics().entrySet().stream()
+          .sorted(Comparator.comparing((Map.Entry<String, FxmlLoadStatistics> entry) -> entry.getValue().getTotalTime()).reversed())
+          .limit(20)
+          .forEach(entry -> log.debug("Loaded {} {} times in {} ms", entry.getKey(), entry.getValue().getLoads(),
+              entry.getValue().getTotalTime().toMillis()));
+    }
     IOUtils.closeQuietly(watchService);
     deleteStylesheetsCacheDirectory();
   }
@@ -266,6 +285,7 @@ public class UiService implements InitializingBean, DisposableBean {
     } catch (InterruptedException e) {
       log.info("Watch thread was interrupted");
     }
+    fxmlContentCache.invalidate();
     reloadStylesheet();
   }
 
@@ -333,6 +353,7 @@ public class UiService implements InitializingBean, DisposableBean {
     preferencesService.storeInBackground();
     currentTheme.set(theme);
     cacheManager.getCache(CacheNames.THEME_IMAGES).clear();
+    fxmlContentCache.invalidate();
     reloadStylesheet();
   }
 
@@ -418,9 +439,7 @@ public class UiService implements InitializingBean, DisposableBean {
     log.debug("Loading fxml {}", relativePath);
     FXMLLoader loader = new FXMLLoader();
     loader.setControllerFactory(applicationContext::getBean);
-    loader.setLocation(getThemeFileUrl(relativePath));
-    loader.setResources(resources);
-    noCatch((NoCatchRunnable) loader::load);
+    load(loader, relativePath);
     T controller = loader.getController();
     log.debug("fxml {} loaded successfully controller class is {}", relativePath, controller.getClass().getSimpleName());
     return controller;
@@ -431,15 +450,63 @@ public class UiService implements InitializingBean, DisposableBean {
     FXMLLoader loader = new FXMLLoader();
     loader.setControllerFactory(applicationContext::getBean);
     loader.setController(applicationContext.getBean(controllerClass));
-    loader.setLocation(getThemeFileUrl(relativePath));
-    loader.setResources(resources);
-    noCatch((NoCatchRunnable) loader::load);
+    load(loader, relativePath);
     T controller = loader.getController();
     log.debug("Fxml {} with class {} loaded successfully controller class is {}", relativePath, controllerClass.getSimpleName(),
         controller.getClass().getSimpleName());
     return controller;
   }
 
+  /**
+   * Loads the FXML document from its cached content. The document is still parsed on every call, but it is only
+   * located and read once per theme. Documents it includes are resolved against its location, so they are read
+   * through {@link CachedFxmlStreamHandler} as well.
+   */
+  private void load(FXMLLoader loader, String relativePath) {
+    URL location = fxmlContentCache.get(relativePath, this::getThemeFileUrl).getLocation();
+    loader.setLocation(noCatch(() -> new URL(null, location.toExternalForm(), new CachedFxmlStreamHandler(location, relativePath))));
+    loader.setResources(resources);
+    noCatch((NoCatchRunnable) loader::load);
+  }
+
+  /**
+   * Opens the cached content of an FXML file. Loading is recorded in the statistics once the loader closes the stream,
+   * which it does after the document has been loaded completely.
+   */
+  private InputStream openFxml(String relativePath) throws IOException {
+    long startTime = System.nanoTime();
+    FxmlContent content;
+    try {
+      content = fxmlContentCache.get(relativePath, this::getThemeFileUrl);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return new FilterInputStream(content.openStream()) {
+      private boolean closed;
+
+      @Override
+      public void close() throws IOException {
+        super.close();
+        if (!closed) {
+          closed = true;
+          fxmlLoadMetricsByPath.computeIfAbsent(relativePath, path -> new FxmlLoadMetrics())
+              .record(System.nanoTime() - startTime);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns, by FXML file, how often it has been loaded and how long loading took in total, including the creation of
+   * its controllers. Documents included with {@code fx:include} are counted on their own, and their loading time is
+   * also part of the time of the document that includes them.
+   */
+  public Map<String, FxmlLoadStatistics> getFxmlLoadStatistics() {
+    Map<String, FxmlLoadStatistics> statistics = new HashMap<>();
+    fxmlLoadMetricsByPath.forEach((path, metrics) -> statistics.put(path, metrics.toStatistics()));
+    return Collections.unmodifiableMap(statistics);
+  }
+
   private Path getThemeDirectory(Theme theme) {
     log.debug("Retrieving Theme {}", theme.getDisplayName());
     return preferencesService.getThemesDirectory().resolve(folderNamesByTheme.get(theme));
@@ -515,4 +582,61 @@ public class UiService implements InitializingBean, DisposableBean {
       return stream.anyMatch(path -> Files.isRegularFile(path) && !path.endsWith(".css") && !path.endsWith(".properties"));
     }
   }
+
+  /**
+   * Opens FXML files below the theme location of a loaded document through {@link #openFxml(String)}, using their path
+   * relative to that location as theme file. Everything else, like images referenced with {@code @}, is opened from
+   * where it actually is.
+   */
+  private class CachedFxmlStreamHandler extends URLStreamHandler {
+    /** The location of the document without its path in the theme, or {@code null} if it doesn't end with it. */
+    private final String themeLocation;
+
+    private CachedFxmlStreamHandler(URL location, String relativePath) {
+      String strippedRelativePath = relativePath.replace("theme/", "");
+      String externalForm = location.toExternalForm();
+      themeLocation = externalForm.endsWith(strippedRelativePath)
+          ? externalForm.substring(0, externalForm.length() - strippedRelativePath.length())
+          : null;
+    }
+
+    @Override
+    protected URLConnection openConnection(URL url) throws IOException {
+      String externalForm = url.toExternalForm();
+      if (themeLocation == null || !externalForm.startsWith(themeLocation) || !externalForm.endsWith(".fxml")) {
+        return new URL(externalForm).openConnection();
+      }
+      String relativePath = "theme/" + externalForm.substring(themeLocation.length());
+      return new URLConnection(url) {
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+          return openFxml(relativePath);
+        }
+      };
+    }
+  }
+
+  private static class FxmlLoadMetrics {
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    private void record(long nanos) {
+      loads.increment();
+      totalNanos.add(nanos);
+    }
+
+    private FxmlLoadStatistics toStatistics() {
+      return new FxmlLoadStatistics(loads.sum(), Duration.ofNanos(totalNanos.sum()));
+    }
+  }
+
+  @Value
+  public static class FxmlLoadStatistics {
+    private long loads;
+    private Duration totalTime;
+  }
 }
@@ -5,6 +5,8 @@ import com.faforever.client.fx.Controller;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.remote.FafService;
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.PrioritizedTaskExecutor.QueueStatistics;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.update.Version;
 import com.google.common.base.Strings;
@@ -16,12 +18,18 @@ import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.Pane;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -42,6 +50,7 @@ public class StatusBarController implements Controller<Node> {
   public Pane taskPane;
   public Label taskProgressLabel;
   public Label versionLabel;
+  private final Tooltip taskQueueTooltip = new Tooltip();
 
   public StatusBarController(FafService fafService, I18n i18n, ChatService chatService, TaskService taskService) {
     this.fafService = fafService;
@@ -54,6 +63,7 @@ public class StatusBarController implements Controller<Node> {
   public void initialize() {
     setCurrentWorkerInStatusBar(null);
     versionLabel.setText(Version.getCurrentVersion());
+    Tooltip.install(taskPane, taskQueueTooltip);
 
     JavaFxUtil.addListener(fafService.connectionStateProperty(), (observable, oldValue, newValue) -> JavaFxUtil.runLater(() -> {
       switch (newValue) {
@@ -100,6 +110,7 @@ public class StatusBarController implements Controller<Node> {
       } else {
         setCurrentWorkerInStatusBar(runningWorkers.iterator().next());
       }
+      JavaFxUtil.runLater(this::updateTaskQueueTooltip);
     });
   }
 
@@ -136,6 +147,19 @@ public class StatusBarController implements Controller<Node> {
     });
   }
 
+  private void updateTaskQueueTooltip() {
+    StringJoiner text = new StringJoiner("\n");
+    List<Priority> priorities = Arrays.asList(Priority.values());
+    Collections.reverse(priorities);
+    Map<Priority, QueueStatistics> queueStatistics = taskService.getQueueStatistics();
+    for (Priority priority : priorities) {
+      QueueStatistics statistics = queueStatistics.get(priority);
+      text.add(i18n.get("statusBar.taskQueue.format", priority, statistics.getQueuedTasks(),
+          statistics.getAverageWaitTime().toMillis(), statistics.getMaxWaitTime().toMillis()));
+    }
+    taskQueueTooltip.setText(text.toString());
+  }
+
   public void onFafReconnectClicked() {
     fafService.reconnect();
   }
@@ -23,7 +23,7 @@ public class TaskBarFlashTask extends CompletableTask<Void> {
   Integer semaphore;
 
   TaskBarFlashTask() {
-    super(Priority.LOW);
+    super(Priority.LOW, Lane.WAITING);
     semaphore = 0;
     onFocusedListener = (obs, oldValue, newValue) -> {
       if (newValue) {
@@ -32,7 +32,7 @@ public class CheckForBetaUpdateTask extends CompletableTask<UpdateInfo> {
   public CheckForBetaUpdateTask(PreferencesService preferencesService,
                                 I18n i18n,
                                 RestTemplateBuilder restTemplateBuilder) {
-    super(Priority.LOW);
+    super(Priority.LOW, Lane.NETWORK);
     this.preferencesService = preferencesService;
     this.i18n = i18n;
     restTemplate = restTemplateBuilder.build();
@@ -25,7 +25,7 @@ public class CheckForUpdateTask extends CompletableTask<UpdateInfo> {
   private final I18n i18n;
   private final PreferencesService preferencesService;
   public CheckForUpdateTask(I18n i18n, PreferencesService preferencesService) {
-    super(Priority.LOW);
+    super(Priority.LOW, Lane.NETWORK);
     this.i18n = i18n;
     this.preferencesService = preferencesService;
   }
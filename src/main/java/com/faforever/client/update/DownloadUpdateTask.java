@@ -34,7 +34,7 @@ public class DownloadUpdateTask extends CompletableTask<Path> {
 
   @Inject
   public DownloadUpdateTask(I18n i18n, PreferencesService preferencesService) {
-    super(Priority.MEDIUM);
+    super(Priority.MEDIUM, Lane.NETWORK);
 
     this.i18n = i18n;
     this.preferencesService = preferencesService;
@@ -49,7 +49,7 @@ public class ImgurUploadTask extends CompletableTask<String> implements Initiali
 
   @Inject
   public ImgurUploadTask(I18n i18n, ClientProperties clientProperties) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, Lane.NETWORK);
     gson = new GsonBuilder().create();
 
     this.i18n = i18n;
@@ -27,7 +27,7 @@ public class ChangePasswordTask extends CompletableTask<Void> implements Initial
 
   @Inject
   public ChangePasswordTask(FafApiAccessor fafApiAccessor, I18n i18n) {
-    super(Priority.HIGH);
+    super(Priority.HIGH, Lane.NETWORK);
     this.fafApiAccessor = fafApiAccessor;
     this.i18n = i18n;
   }
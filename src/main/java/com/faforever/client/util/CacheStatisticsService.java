@@ -0,0 +1,123 @@
+package com.faforever.client.util;
+
+import com.faforever.client.config.ClientProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy.Eviction;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the statistics of the in-memory caches managed by the {@link CacheManager}, and logs them periodically at
+ * debug level so that cache sizes can be tuned on real sessions.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService implements InitializingBean, DisposableBean {
+
+  private final CacheManager cacheManager;
+  private final TaskScheduler taskScheduler;
+  private final ClientProperties clientProperties;
+
+  private ScheduledFuture<?> loggingTask;
+
+  @Override
+  public void afterPropertiesSet() {
+    Duration interval = clientProperties.getCache().getStatisticsLogInterval();
+    if (interval.isZero() || interval.isNegative()) {
+      return;
+    }
+    loggingTask = taskScheduler.scheduleWithFixedDelay(() -> {
+      if (log.isDebugEnabled()) {
+        log.debug("Cache statistics:\n{}", dump());
+      }
+    }, interval);
+  }
+
+  @Override
+  public void destroy() {
+    if (loggingTask != null) {
+      loggingTask.cancel(false);
+    }
+  }
+
+  /**
+   * Returns the current statistics of every Caffeine cache, ordered by cache name.
+   */
+  public List<CacheStatistics> getCacheStatistics() {
+    return cacheManager.getCacheNames().stream()
+        .sorted()
+        .map(cacheManager::getCache)
+        .filter(Objects::nonNull)
+        .filter(cache -> cache.getNativeCache() instanceof Cache)
+        .map(cache -> toStatistics(cache.getName(), (Cache<?, ?>) cache.getNativeCache()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the statistics of every cache as a table with one cache per line.
+   */
+  public String dump() {
+    StringBuilder builder = new StringBuilder(String.format("%-24s %8s %12s %8s %10s %10s %10s %12s%n",
+        "cache", "entries", "weight", "hitRate", "hits", "misses", "evictions", "avgLoadMs"));
+    for (CacheStatistics statistics : getCacheStatistics()) {
+      builder.append(String.format("%-24s %8d %12s %8.2f %10d %10d %10d %12.2f%n",
+          statistics.getName(),
+          statistics.getEstimatedSize(),
+          statistics.getWeightedSize() == null ? "-" : statistics.getWeightedSize().toString(),
+          statistics.getHitRate(),
+          statistics.getHitCount(),
+          statistics.getMissCount(),
+          statistics.getEvictionCount(),
+          statistics.getAverageLoadPenalty() / 1_000_000d));
+    }
+    return builder.toString();
+  }
+
+  private static CacheStatistics toStatistics(String name, Cache<?, ?> cache) {
+    CacheStats stats = cache.stats();
+    return new CacheStatistics(name, cache.estimatedSize(), getWeightedSize(cache), stats.hitCount(), stats.missCount(),
+        stats.hitRate(), stats.evictionCount(), stats.averageLoadPenalty());
+  }
+
+  @Nullable
+  private static <K, V> Long getWeightedSize(Cache<K, V> cache) {
+    Optional<Eviction<K, V>> eviction = cache.policy().eviction();
+    if (eviction.isEmpty() || !eviction.get().isWeighted()) {
+      return null;
+    }
+    OptionalLong weightedSize = eviction.get().weightedSize();
+    return weightedSize.isPresent() ? weightedSize.getAsLong() : null;
+  }
+
+  @Value
+  public static class CacheStatistics {
+    String name;
+    long estimatedSize;
+    /** The estimated total weight of the entries, or {@code null} if the cache isn't limited by weight. */
+    @Nullable
+    Long weightedSize;
+    long hitCount;
+    long missCount;
+    double hitRate;
+    long evictionCount;
+    /** In nanoseconds. */
+    double averageLoadPenalty;
+  }
+}
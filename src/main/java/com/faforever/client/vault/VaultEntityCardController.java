@@ -0,0 +1,17 @@
+package com.faforever.client.vault;
+
+import com.faforever.client.fx.Controller;
+import javafx.scene.Node;
+
+import java.util.function.Consumer;
+
+/**
+ * A card showing a vault entity. Cards are recycled when paging through the vault, so {@link #setEntity(Object)} may
+ * be called several times and must replace everything the previous entity set up.
+ */
+public interface VaultEntityCardController<T> extends Controller<Node> {
+
+  void setEntity(T entity);
+
+  void setOnOpenDetailListener(Consumer<T> onOpenDetailListener);
+}
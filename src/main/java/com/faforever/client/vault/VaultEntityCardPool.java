@@ -0,0 +1,62 @@
+package com.faforever.client.vault;
+
+import lombok.Value;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Cards that are currently not displayed. Displaying a page takes cards from here and only loads new ones if there are
+ * not enough, so paging through the vault rebinds existing cards instead of parsing their FXML again.
+ */
+class VaultEntityCardPool<T> {
+
+  private final Supplier<VaultEntityCardController<T>> cardFactory;
+  private final Deque<VaultEntityCardController<T>> freeCards = new ArrayDeque<>();
+
+  VaultEntityCardPool(Supplier<VaultEntityCardController<T>> cardFactory) {
+    this.cardFactory = cardFactory;
+  }
+
+  /**
+   * Takes {@code count} cards from the pool, creating the missing ones in parallel.
+   */
+  Cards<T> acquire(int count) {
+    List<VaultEntityCardController<T>> cards = new ArrayList<>(count);
+    synchronized (this) {
+      while (cards.size() < count && !freeCards.isEmpty()) {
+        cards.add(freeCards.pop());
+      }
+    }
+
+    int missing = count - cards.size();
+    cards.addAll(IntStream.range(0, missing).parallel()
+        .mapToObj(i -> cardFactory.get())
+        .collect(Collectors.toList()));
+    return new Cards<>(cards, missing);
+  }
+
+  /**
+   * Returns cards to the pool. They must no longer be part of the scene graph.
+   */
+  synchronized void release(Collection<VaultEntityCardController<T>> cards) {
+    freeCards.addAll(cards);
+  }
+
+  synchronized int getFreeCardCount() {
+    return freeCards.size();
+  }
+
+  @Value
+  static class Cards<T> {
+    private List<VaultEntityCardController<T>> cards;
+    /** How many of the cards had to be loaded from FXML. */
+    private int createdCards;
+  }
+}
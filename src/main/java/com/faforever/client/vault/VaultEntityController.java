@@ -13,6 +13,7 @@ import com.faforever.client.preferences.TotalAnnihilationPrefs;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.util.Tuple;
+import com.faforever.client.vault.VaultEntityCardPool.Cards;
 import com.faforever.client.vault.search.SearchController;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import javafx.beans.binding.Bindings;
@@ -20,7 +21,6 @@ import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.ListChangeListener;
-import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
@@ -40,11 +40,16 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -52,6 +57,9 @@ import java.util.stream.Collectors;
 public abstract class VaultEntityController<T> extends AbstractViewController<Node> {
 
   protected static final int TOP_ELEMENT_COUNT = 7;
+  /** Key of a pane's property holding the cards it currently displays. */
+  private static final String DISPLAYED_CARDS_KEY = "vaultEntityCards";
+
   protected final UiService uiService;
   protected final NotificationService notificationService;
   protected final I18n i18n;
@@ -83,6 +91,13 @@ public abstract class VaultEntityController<T> extends AbstractViewController<No
   public ComboBox<Integer> perPageComboBox;
   protected ObjectProperty<State> state;
   protected CompletableFuture<Tuple<List<T>, Integer>> currentSupplier;
+  private final VaultEntityCardPool<T> cardPool = new VaultEntityCardPool<>(this::createCard);
+  /** Panes of the currently displayed show room, only accessed on the application thread. */
+  private final List<Pane> showRoomPanes = new ArrayList<>();
+  /** The latest unfinished population of each pane, guarded by itself. */
+  private final Map<Pane, CompletableFuture<Void>> populationsByPane = new HashMap<>();
+  private volatile long pageRequestedAt;
+  private volatile PageStatistics lastPageStatistics;
 
   public VaultEntityController(UiService uiService, NotificationService notificationService, I18n i18n, PreferencesService preferencesService, ReportingService reportingService, ModService modService) {
     this.uiService = uiService;
@@ -97,7 +112,10 @@ public abstract class VaultEntityController<T> extends AbstractViewController<No
 
   protected abstract void initSearchController();
 
-  protected abstract Node getEntityCard(T t);
+  /**
+   * Loads a new card. Cards are recycled, so this is only called if there are not enough unused cards.
+   */
+  protected abstract VaultEntityCardController<T> createEntityCard();
 
   protected abstract List<ShowRoomCategory> getShowRoomCategories();
 
@@ -217,6 +235,8 @@ public abstract class VaultEntityController<T> extends AbstractViewController<No
   protected void loadShowRoom() {
     JavaFxUtil.assertApplicationThread();
     enterSearchingState();
+    showRoomPanes.forEach(this::releaseCards);
+    showRoomPanes.clear();
     showRoomGroup.getChildren().clear();
     Object monitorForAddingFutures = new Object();
     List<ShowRoomCategory> showRoomCategories = getShowRoomCategories();
@@ -227,13 +247,14 @@ public abstract class VaultEntityController<T> extends AbstractViewController<No
           VaultEntityShowRoomController vaultEntityShowRoomController = loadShowRoom(showRoomCategory);
           VBox showRoomRoot = vaultEntityShowRoomController.getRoot();
           synchronized (monitorForAddingFutures) {
+            showRoomPanes.add(vaultEntityShowRoomController.getPane());
             loadingEntitiesFutureReference.set(loadingEntitiesFutureReference.get().thenCompose(ignored -> showRoomCategory.getEntitySupplier().get())
-                .thenAccept(result -> {
+                .thenCompose(result -> {
                   showRoomRoot.managedProperty().bind(showRoomRoot.visibleProperty());
                   if (result.getFirst().isEmpty()) {
                     showRoomRoot.setVisible(false);
                   }
-                  populate(result.getFirst(), vaultEntityShowRoomController.getPane());
+                  return populate(result.getFirst(), vaultEntityShowRoomController.getPane());
                 }));
           }
           return showRoomRoot;
@@ -272,6 +293,7 @@ public abstract class VaultEntityController<T> extends AbstractViewController<No
 
   protected void enterSearchingState() {
     state.set(State.SEARCHING);
+    pageRequestedAt = System.nanoTime();
 
     showRoomGroup.setVisible(false);
     searchResultGroup.setVisible(false);
@@ -306,44 +328,103 @@ public abstract class VaultEntityController<T> extends AbstractViewController<No
     displayFromSupplier(() -> currentSupplier, firstLoad);
   }
 
-  protected void displaySearchResult(List<T> results) {
+  protected CompletableFuture<Void> displaySearchResult(List<T> results) {
     JavaFxUtil.assertBackgroundThread();
-    populate(results, searchResultPane);
-    JavaFxUtil.runLater(this::enterResultState);
+    return populate(results, searchResultPane)
+        .thenRun(() -> JavaFxUtil.runLater(this::enterResultState));
   }
 
   protected void displayFromSupplier(Supplier<CompletableFuture<Tuple<List<T>, Integer>>> supplier, boolean firstLoad) {
     supplier.get()
-        .thenAccept(tuple -> {
-          displaySearchResult(tuple.getFirst());
+        .thenCompose(tuple -> {
           if (firstLoad) {
             //when theres no search results the page count should be 1, 0 (which is returned) results in infinite pages
             JavaFxUtil.runLater(() -> pagination.setPageCount(Math.max(1, tuple.getSecond())));
           }
+          return displaySearchResult(tuple.getFirst());
         })
         .exceptionally(throwable -> {
           log.error("Vault search error", throwable);
           notificationService.addImmediateErrorNotification(throwable, "vault.searchError");
-          enterResultState();
+          JavaFxUtil.runLater(this::enterResultState);
           return null;
         });
   }
 
-  protected void populate(List<T> results, Pane pane) {
-    ObservableList<Node> children = pane.getChildren();
-    List<Node> childrenToAdd = results.parallelStream()
-        .map(this::getEntityCard)
-        .collect(Collectors.toList());
+  /**
+   * Displays the results in the pane. The pane's current cards are detached on the application thread, then rebound
+   * to the new results in the background, along with any unused cards, and attached again. Populations of the same
+   * pane are run one after another, so that every card displayed by an earlier one is released by the next.
+   */
+  protected CompletableFuture<Void> populate(List<T> results, Pane pane) {
+    synchronized (populationsByPane) {
+      CompletableFuture<Void> population = populationsByPane.getOrDefault(pane, CompletableFuture.completedFuture(null))
+          .exceptionally(throwable -> null)
+          .thenRunAsync(() -> releaseCards(pane), JavaFxUtil::runLater)
+          .thenApplyAsync(aVoid -> bindCards(results))
+          .thenAcceptAsync(cards -> displayCards(cards, pane), JavaFxUtil::runLater);
+      populationsByPane.put(pane, population);
+      population.whenComplete((aVoid, throwable) -> {
+        synchronized (populationsByPane) {
+          populationsByPane.remove(pane, population);
+        }
+      });
+      return population;
+    }
+  }
 
-    JavaFxUtil.runLater(() -> {
-      children.clear();
-      children.addAll(childrenToAdd);
-      Object userData = pane.getUserData();
-      if (userData == null) {
-        return;
-      }
-      pane.getChildren().add((Node) userData);
-    });
+  /**
+   * Returns statistics about the most recently displayed page, or {@code null} if no page has been displayed yet.
+   */
+  public PageStatistics getLastPageStatistics() {
+    return lastPageStatistics;
+  }
+
+  private VaultEntityCardController<T> createCard() {
+    VaultEntityCardController<T> card = createEntityCard();
+    card.setOnOpenDetailListener(this::onDisplayDetails);
+    return card;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void releaseCards(Pane pane) {
+    JavaFxUtil.assertApplicationThread();
+    List<VaultEntityCardController<T>> displayedCards = (List<VaultEntityCardController<T>>) pane.getProperties().remove(DISPLAYED_CARDS_KEY);
+    pane.getChildren().clear();
+    if (displayedCards != null) {
+      cardPool.release(displayedCards);
+    }
+  }
+
+  private Cards<T> bindCards(List<T> results) {
+    Cards<T> cards = cardPool.acquire(results.size());
+    try {
+      IntStream.range(0, results.size()).parallel()
+          .forEach(index -> cards.getCards().get(index).setEntity(results.get(index)));
+    } catch (RuntimeException e) {
+      cardPool.release(cards.getCards());
+      throw e;
+    }
+    return cards;
+  }
+
+  private void displayCards(Cards<T> cards, Pane pane) {
+    List<Node> children = cards.getCards().stream()
+        .map(VaultEntityCardController::getRoot)
+        .collect(Collectors.toCollection(ArrayList::new));
+    Object userData = pane.getUserData();
+    if (userData != null) {
+      children.add((Node) userData);
+    }
+    pane.getProperties().put(DISPLAYED_CARDS_KEY, cards.getCards());
+    pane.getChildren().setAll(children);
+
+    PageStatistics statistics = new PageStatistics(cards.getCards().size(), cards.getCreatedCards(),
+        Duration.ofNanos(System.nanoTime() - pageRequestedAt));
+    lastPageStatistics = statistics;
+    log.debug("Displayed {} cards after {} ms, {} of them loaded from FXML, {} unused cards",
+        statistics.getCards(), statistics.getTimeToFirstCard().toMillis(), statistics.getFxmlLoads(),
+        cardPool.getFreeCardCount());
   }
 
   protected void onFirstPageOpened(SearchConfig searchConfig) {
@@ -393,6 +474,16 @@ public abstract class VaultEntityController<T> extends AbstractViewController<No
     SEARCH, OWN, NEWEST, HIGHEST_RATED, PLAYER, RECOMMENDED, MAP_POOL, PLAYED, HIGHEST_RATED_UI
   }
 
+  @Value
+  public static class PageStatistics {
+    /** Number of cards displayed. */
+    int cards;
+    /** Number of cards that had to be loaded from FXML instead of being recycled. */
+    int fxmlLoads;
+    /** Time from requesting the page until its cards were displayed. */
+    Duration timeToFirstCard;
+  }
+
   @Value
   public class ShowRoomCategory {
     Supplier<CompletableFuture<Tuple<List<T>, Integer>>> entitySupplier;
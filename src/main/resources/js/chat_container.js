@@ -3,27 +3,6 @@ window.onscroll = function (e) {
   isScrolledToBottom = window.scrollY + window.innerHeight + 20 >= document.documentElement.scrollHeight;
 };
 
-function link(input) {
-  return Autolinker.link(input, {
-        email: false,
-        phone: false,
-        twitter: false,
-        replaceFn: function (autolinker, match) {
-          return new Autolinker.HtmlTag({
-            tagName: "a",
-            attrs: {
-              "href": "javascript:void(0);",
-                "onClick": "java.openUrl('" + match.getUrl() + "')",
-                "onMouseOver": "java.previewUrl('" + match.getUrl() + "')",
-                "onMouseOut": "java.hideUrlPreview()"
-            },
-            innerHtml: match.getAnchorText()
-          });
-        }
-      }
-  );
-}
-
 function showClanInfo(clanTag) {
     java.clanInfo(clanTag);
 }
@@ -48,6 +27,30 @@ function messagePlayer(playerName) {
     java.openPrivateMessageTab(playerName);
 }
 
+function appendChatMessages(sectionsHtml, textsBySectionJson) {
+  if (sectionsHtml) {
+    document.getElementById("chat-container").insertAdjacentHTML("beforeend", sectionsHtml);
+  }
+  var textsBySection = JSON.parse(textsBySectionJson);
+  for (var sectionId in textsBySection) {
+    if (textsBySection.hasOwnProperty(sectionId)) {
+      document.getElementById(sectionId).insertAdjacentHTML("beforeend", textsBySection[sectionId]);
+    }
+  }
+}
+
+function removeTopmostElements(className, count) {
+  var elements = document.getElementsByClassName(className);
+  count = Math.min(count, elements.length);
+  if (count <= 0) {
+    return;
+  }
+  var range = document.createRange();
+  range.setStartBefore(elements[0]);
+  range.setEndAfter(elements[count - 1]);
+  range.deleteContents();
+}
+
 function scrollToBottomIfDesired() {
   if (isScrolledToBottom) {
     window.scrollTo(0, document.documentElement.scrollHeight);
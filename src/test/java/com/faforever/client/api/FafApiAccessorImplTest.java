@@ -1,6 +1,7 @@
 package com.faforever.client.api;
 
 import com.faforever.client.api.dto.AchievementDefinition;
+import com.faforever.client.api.dto.CoopMission;
 import com.faforever.client.api.dto.Event;
 import com.faforever.client.api.dto.Game;
 import com.faforever.client.api.dto.GamePlayerStats;
@@ -17,7 +18,10 @@ import com.faforever.client.config.ClientProperties;
 import com.faforever.client.mod.ModVersion;
 import com.faforever.client.mod.ModVersionBuilder;
 import com.faforever.client.reporting.ModerationReportBuilder;
+import com.faforever.client.task.PrioritizedTaskExecutor;
+import com.github.jasminb.jsonapi.JSONAPIDocument;
 import com.google.common.eventbus.EventBus;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -43,6 +47,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.emptyList;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -55,6 +61,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -65,6 +72,7 @@ public class FafApiAccessorImplTest {
   public TemporaryFolder preferencesDirectory = new TemporaryFolder();
 
   private FafApiAccessorImpl instance;
+  private PrioritizedTaskExecutor taskExecutor;
 
   @Mock
   private EventBus eventBus;
@@ -80,6 +88,7 @@ public class FafApiAccessorImplTest {
   @Before
   public void setUp() throws Exception {
     MockitoAnnotations.initMocks(this);
+    taskExecutor = new PrioritizedTaskExecutor(new ClientProperties());
 
     when(restTemplateBuilder.requestFactory(any(Supplier.class))).thenReturn(restTemplateBuilder);
     when(restTemplateBuilder.additionalMessageConverters(any(JsonApiMessageConverter.class))).thenReturn(restTemplateBuilder);
@@ -87,11 +96,16 @@ public class FafApiAccessorImplTest {
     when(restTemplateBuilder.errorHandler(any())).thenReturn(restTemplateBuilder);
     when(restTemplateBuilder.configure(any(OAuth2RestTemplate.class))).thenReturn(restOperations);
 
-    instance = new FafApiAccessorImpl(eventBus, restTemplateBuilder, new ClientProperties(), jsonApiMessageConverter, jsonApiErrorHandler);
+    instance = new FafApiAccessorImpl(eventBus, restTemplateBuilder, new ClientProperties(), jsonApiMessageConverter, jsonApiErrorHandler, taskExecutor);
     instance.afterPropertiesSet();
     instance.authorize(123, "junit", "42");
   }
 
+  @After
+  public void tearDown() {
+    taskExecutor.destroy();
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void testGetPlayerAchievements() {
@@ -272,6 +286,41 @@ public class FafApiAccessorImplTest {
     verify(restOperations).getForObject(eq("/data/coopMission?page[size]=10000&page[number]=1"), eq(List.class));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGetAllFetchesRemainingPagesByTotal() {
+    ClientProperties clientProperties = new ClientProperties();
+    clientProperties.getApi().setMaxPageSize(2);
+    instance = new FafApiAccessorImpl(eventBus, restTemplateBuilder, clientProperties, jsonApiMessageConverter, jsonApiErrorHandler, taskExecutor);
+    instance.afterPropertiesSet();
+    instance.authorize(123, "junit", "42");
+
+    List<CoopMission> missions = IntStream.range(0, 7)
+        .mapToObj(i -> {
+          CoopMission mission = new CoopMission();
+          mission.setId(String.valueOf(i));
+          return mission;
+        })
+        .collect(Collectors.toList());
+    JSONAPIDocument<List<CoopMission>> secondPage = new JSONAPIDocument<>(missions.subList(2, 4));
+    secondPage.setMeta(Map.of("page", Map.of("totalPages", 4)));
+    when(restOperations.getForObject("/data/coopMission?page[size]=2&page[number]=1", List.class)).thenReturn(missions.subList(0, 2));
+    when(restOperations.getForObject("/data/coopMission?page[size]=2&page[number]=2&page[totals]", JSONAPIDocument.class)).thenReturn(secondPage);
+    when(restOperations.getForObject("/data/coopMission?page[size]=2&page[number]=3", List.class)).thenReturn(missions.subList(4, 6));
+    when(restOperations.getForObject("/data/coopMission?page[size]=2&page[number]=4", List.class)).thenReturn(missions.subList(6, 7));
+
+    assertThat(instance.getCoopMissions(), is(missions));
+  }
+
+  @Test
+  public void testGetAllRequestsSinglePageWithoutTotal() {
+    when(restOperations.getForObject(startsWith("/data/coopMission"), eq(List.class))).thenReturn(List.of(new CoopMission()));
+
+    instance.getCoopMissions();
+
+    verify(restOperations, never()).getForObject(anyString(), eq(JSONAPIDocument.class));
+  }
+
   @Test
   public void getCoopLeaderboardAll() {
     when(restOperations.getForObject(startsWith("/data/coopResult"), eq(List.class))).thenReturn(emptyList());
@@ -41,9 +41,12 @@ import org.testfx.util.WaitForAsyncUtils;
 
 import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static com.faforever.client.chat.AbstractChatTabController.CSS_CLASS_CHAT_ONLY;
 import static com.faforever.client.player.SocialStatus.FOE;
@@ -51,6 +54,7 @@ import static com.faforever.client.player.SocialStatus.FRIEND;
 import static com.faforever.client.player.SocialStatus.SELF;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.isEmptyString;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
@@ -98,6 +102,7 @@ public class AbstractChatTabControllerTest extends AbstractPlainJavaFxTest {
 
   private AbstractChatTabController instance;
   private CountDownLatch chatReadyLatch;
+  private List<ChatMessage> mentions;
 
 
   @Override
@@ -111,6 +116,7 @@ public class AbstractChatTabControllerTest extends AbstractPlainJavaFxTest {
     when(userService.getUsername()).thenReturn("junit");
     when(preferencesService.getPreferences()).thenReturn(preferences);
 
+    mentions = new CopyOnWriteArrayList<>();
     instance = new AbstractChatTabController(webViewConfigurer, userService, chatService, preferencesService,
         playerService, audioService, timeService, i18n, imageUploadService, notificationService, reportingService,
         uiService, eventBus, countryFlagService, chatUserService) {
@@ -132,6 +138,11 @@ public class AbstractChatTabControllerTest extends AbstractPlainJavaFxTest {
       protected WebView getMessagesWebView() {
         return webView;
       }
+
+      @Override
+      protected void onMention(ChatMessage chatMessage) {
+        mentions.add(chatMessage);
+      }
     };
 
     TabPane tabPane = new TabPane(instance.getRoot());
@@ -234,6 +245,22 @@ public class AbstractChatTabControllerTest extends AbstractPlainJavaFxTest {
     instance.onChatMessage(new ChatMessage("", Instant.now(), "junit", "Test action", true));
   }
 
+  @Test
+  public void testMentionIsNotifiedIfItsMessageIsDropped() throws Exception {
+    assertThat(chatReadyLatch.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+    preferencesService.getPreferences().getChat().setMaxMessages(1);
+    ChatMessage mention = new ChatMessage("", Instant.now(), "other", "hey junit");
+
+    // Both arrive within the same pulse, so the mention is pushed out of the queue before it is rendered
+    WaitForAsyncUtils.waitForAsyncFx(TIMEOUT, () -> {
+      instance.onChatMessage(mention);
+      instance.onChatMessage(new ChatMessage("", Instant.now(), "other", "anyone there?"));
+    });
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(mentions, contains(mention));
+  }
+
   @Test
   public void testHasFocus() {
     assertThat(instance.hasFocus(), is(true));
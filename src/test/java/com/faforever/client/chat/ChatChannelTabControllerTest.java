@@ -418,10 +418,8 @@ public class ChatChannelTabControllerTest extends AbstractPlainJavaFxTest {
 
     runOnFxThreadAndWait(() -> captor.getValue().onChanged(changeUserLeft));
 
-    boolean userStillListedInCategoryMap = instance.categoriesToUserListItems.entrySet().stream()
-        .anyMatch(chatUserCategoryListEntry -> chatUserCategoryListEntry.getValue().stream()
-            .anyMatch(categoryOrChatUserListItem -> categoryOrChatUserListItem.getUser().equals(chatUser))
-        );
+    WaitForAsyncUtils.waitForFxEvents();
+    boolean userStillListedInCategoryMap = instance.chatUserListModel.contains(chatUser.getUsername());
 
     assertFalse(userStillListedInCategoryMap);
   }
@@ -0,0 +1,34 @@
+package com.faforever.client.chat;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ChatMessageTemplateTest {
+
+  @Test
+  public void testRenderReplacesAllPlaceholders() {
+    ChatMessageTemplate template = ChatMessageTemplate.compile("<span class=\"{css-classes}\" title=\"{username}\">{username}: {text}</span>");
+
+    String html = template.render(Map.of("css-classes", "user-junit message", "username", "junit", "text", "hi"));
+
+    assertThat(html, is("<span class=\"user-junit message\" title=\"junit\">junit: hi</span>"));
+  }
+
+  @Test
+  public void testValuesAreNotSearchedForPlaceholders() {
+    ChatMessageTemplate template = ChatMessageTemplate.compile("{text}{username}");
+
+    assertThat(template.render(Map.of("text", "{username}", "username", "junit")), is("{username}junit"));
+  }
+
+  @Test
+  public void testUnknownPlaceholdersAreKept() {
+    ChatMessageTemplate template = ChatMessageTemplate.compile("{text} {unknown} {");
+
+    assertThat(template.render(Map.of("text", "hi")), is("hi {unknown} {"));
+  }
+}
@@ -0,0 +1,117 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.player.SocialStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class ChatUserListModelTest {
+
+  private List<Runnable> scheduledTasks;
+  private ChatUserListModel instance;
+
+  @Before
+  public void setUp() throws Exception {
+    scheduledTasks = new ArrayList<>();
+    instance = new ChatUserListModel(
+        Comparator.comparing(item -> item.getUser().getUsername(), String.CASE_INSENSITIVE_ORDER), scheduledTasks::add);
+  }
+
+  @Test
+  public void testChangesAreAppliedTogether() {
+    instance.update(user("b", SocialStatus.OTHER));
+    instance.update(user("a", SocialStatus.OTHER));
+
+    assertThat(scheduledTasks, hasSize(1));
+    assertThat(instance.getUserItems(ChatUserCategory.OTHER), is(empty()));
+
+    runScheduledTasks();
+
+    assertThat(usernames(ChatUserCategory.OTHER), contains("a", "b"));
+  }
+
+  @Test
+  public void testItemsAreSortedWithinCategories() {
+    instance.update(user("c", SocialStatus.OTHER));
+    instance.update(user("f", SocialStatus.FRIEND));
+    runScheduledTasks();
+    instance.update(user("a", SocialStatus.OTHER));
+    runScheduledTasks();
+
+    List<String> items = instance.getItems().stream()
+        .map(item -> item.getUser() == null ? item.getCategory().name() : item.getUser().getUsername())
+        .collect(Collectors.toList());
+    assertThat(items, contains("MODERATOR", "FRIEND", "f", "OTHER", "a", "c", "CHAT_ONLY", "FOE"));
+  }
+
+  @Test
+  public void testLargeBatchResultsInSameItems() {
+    for (int i = 99; i >= 0; i--) {
+      instance.update(user(String.format("user%02d", i), i % 2 == 0 ? SocialStatus.OTHER : SocialStatus.FOE));
+    }
+    runScheduledTasks();
+
+    assertThat(instance.getItems(), hasSize(ChatUserCategory.values().length + 100));
+    assertThat(usernames(ChatUserCategory.FOE).get(0), is("user01"));
+    assertThat(instance.getItems().get(instance.getItems().size() - 1).getUser().getUsername(), is("user99"));
+  }
+
+  @Test
+  public void testCategoryChangeMovesUser() {
+    ChatChannelUser chatUser = user("a", SocialStatus.OTHER);
+    instance.update(chatUser);
+    runScheduledTasks();
+
+    chatUser.setSocialStatus(SocialStatus.FRIEND);
+    chatUser.setModerator(true);
+    instance.update(chatUser);
+    runScheduledTasks();
+
+    assertThat(usernames(ChatUserCategory.OTHER), is(empty()));
+    assertThat(usernames(ChatUserCategory.FRIEND), contains("a"));
+    assertThat(usernames(ChatUserCategory.MODERATOR), contains("a"));
+    assertThat(instance.getItems(), hasSize(ChatUserCategory.values().length + 2));
+  }
+
+  @Test
+  public void testRemove() {
+    ChatChannelUser chatUser = user("a", SocialStatus.OTHER);
+    chatUser.setModerator(true);
+    instance.update(chatUser);
+    instance.update(user("b", SocialStatus.OTHER));
+    runScheduledTasks();
+
+    instance.remove("A");
+    runScheduledTasks();
+
+    assertThat(instance.contains("a"), is(false));
+    assertThat(usernames(ChatUserCategory.OTHER), contains("b"));
+    assertThat(instance.getItems(), hasSize(ChatUserCategory.values().length + 1));
+  }
+
+  private void runScheduledTasks() {
+    List<Runnable> tasks = new ArrayList<>(scheduledTasks);
+    scheduledTasks.clear();
+    tasks.forEach(Runnable::run);
+  }
+
+  private List<String> usernames(ChatUserCategory category) {
+    return instance.getUserItems(category).stream()
+        .map(item -> item.getUser().getUsername())
+        .collect(Collectors.toList());
+  }
+
+  private static ChatChannelUser user(String username, SocialStatus socialStatus) {
+    return ChatChannelUserBuilder.create(username).socialStatus(socialStatus).get();
+  }
+}
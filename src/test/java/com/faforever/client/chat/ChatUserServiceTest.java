@@ -14,6 +14,8 @@ import com.faforever.client.map.MapService;
 import com.faforever.client.player.Player;
 import com.faforever.client.player.PlayerBuilder;
 import com.faforever.client.player.SocialStatus;
+import com.faforever.client.player.event.PlayersUpdatedEvent;
+import com.faforever.client.player.event.PlayersUpdatingEvent;
 import com.faforever.client.preferences.Preferences;
 import com.faforever.client.preferences.PreferencesBuilder;
 import com.faforever.client.preferences.PreferencesService;
@@ -32,6 +34,7 @@ import org.testfx.util.WaitForAsyncUtils;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -524,4 +527,45 @@ public class ChatUserServiceTest extends AbstractPlainJavaFxTest {
     assertTrue(chatUser.getColor().isPresent());
     assertEquals(chatUser.getColor().get(), Color.RED);
   }
+
+  @Test
+  public void testRefreshesAreDeferredUntilPlayersAreUpdated() throws MalformedURLException {
+    Clan intermediateClan = ClanBuilder.create().defaultValues().tag("IC").get();
+    Clan newClan = ClanBuilder.create().defaultValues().tag("NC").get();
+    when(clanService.getClanByTag(newClan.getTag())).thenReturn(CompletableFuture.completedFuture(Optional.of(newClan)));
+    when(i18n.getCountryNameLocalized("DE")).thenReturn("Germany");
+    preferences.getChat().setGroupToColor(FXCollections.observableMap(Map.of(ChatUserCategory.FRIEND, Color.AQUA)));
+    player.setClan(testClan.getTag());
+    player.setCountry("US");
+    instance.associatePlayerToChatUser(chatUser, player);
+    WaitForAsyncUtils.waitForFxEvents();
+
+    instance.onPlayersUpdating(new PlayersUpdatingEvent());
+    player.setClan(intermediateClan.getTag());
+    player.setClan(newClan.getTag());
+    player.setCountry("DE");
+    String newAvatarUrl = new URL("http://awesome.png").toExternalForm();
+    player.setAvatarUrl(newAvatarUrl);
+    player.setSocialStatus(SocialStatus.FRIEND);
+    player.setStatus(PlayerStatus.PLAYING);
+    WaitForAsyncUtils.waitForFxEvents();
+
+    verify(clanService, never()).getClanByTag(newClan.getTag());
+    verify(countryFlagService, never()).loadCountryFlag("DE");
+    verify(avatarService, never()).loadAvatar(newAvatarUrl);
+    verify(uiService, never()).getThemeImage(UiService.CHAT_LIST_STATUS_PLAYING);
+    assertFalse(chatUser.getColor().isPresent());
+
+    instance.onPlayersUpdated(new PlayersUpdatedEvent(List.of(player)));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    verify(clanService, never()).getClanByTag(intermediateClan.getTag());
+    verify(clanService).getClanByTag(newClan.getTag());
+    verify(countryFlagService).loadCountryFlag("DE");
+    verify(avatarService).loadAvatar(newAvatarUrl);
+    verify(uiService).getThemeImage(UiService.CHAT_LIST_STATUS_PLAYING);
+    assertEquals(newClan, chatUser.getClan().orElse(null));
+    assertEquals("Germany", chatUser.getCountryName().orElse(null));
+    assertEquals(Color.AQUA, chatUser.getColor().orElse(null));
+  }
 }
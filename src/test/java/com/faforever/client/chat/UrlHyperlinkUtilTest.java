@@ -0,0 +1,66 @@
+package com.faforever.client.chat;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class UrlHyperlinkUtilTest {
+
+  @Test
+  public void testPlainTextIsEscaped() {
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls("<b>\"it's\" & more</b>"),
+        is("&lt;b&gt;&quot;it&#39;s&quot; &amp; more&lt;/b&gt;"));
+  }
+
+  @Test
+  public void testUrlIsLinked() {
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls("see https://www.example.com/a?b=1&c=2."),
+        is("see <a href=\"javascript:void(0);\" onClick=\"java.openUrl('https://www.example.com/a?b=1&amp;c=2')\""
+            + " onMouseOver=\"java.previewUrl('https://www.example.com/a?b=1&amp;c=2')\""
+            + " onMouseOut=\"java.hideUrlPreview()\">example.com/a?b=1&amp;c=2</a>."));
+  }
+
+  @Test
+  public void testUrlWithoutSchemeIsLinkedAsHttp() {
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls("(www.example.com/)"),
+        is("(<a href=\"javascript:void(0);\" onClick=\"java.openUrl('http://www.example.com/')\""
+            + " onMouseOver=\"java.previewUrl('http://www.example.com/')\""
+            + " onMouseOut=\"java.hideUrlPreview()\">example.com</a>)"));
+  }
+
+  @Test
+  public void testQuoteInUrlDoesNotEndScriptString() {
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls("http://example.com/it's").contains("openUrl('http://example.com/it\\&#39;s')"),
+        is(true));
+  }
+
+  @Test
+  public void testBareDomainIsLinkedAsHttp() {
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls("news on faforever.com/news, see you"),
+        is("news on <a href=\"javascript:void(0);\" onClick=\"java.openUrl('http://faforever.com/news')\""
+            + " onMouseOver=\"java.previewUrl('http://faforever.com/news')\""
+            + " onMouseOut=\"java.hideUrlPreview()\">faforever.com/news</a>, see you"));
+  }
+
+  @Test
+  public void testTrailingPunctuationIsNotLinked() {
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls("(see faforever.com)."),
+        is("(see <a href=\"javascript:void(0);\" onClick=\"java.openUrl('http://faforever.com')\""
+            + " onMouseOver=\"java.previewUrl('http://faforever.com')\""
+            + " onMouseOut=\"java.hideUrlPreview()\">faforever.com</a>)."));
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls("https://example.com/a,").endsWith("example.com/a</a>,"), is(true));
+  }
+
+  @Test
+  public void testParenthesisInUrlIsKept() {
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls("https://en.wikipedia.org/wiki/Cybran_(faction)")
+        .endsWith(">en.wikipedia.org/wiki/Cybran_(faction)</a>"), is(true));
+  }
+
+  @Test
+  public void testTextThatIsNoBareDomainIsNotLinked() {
+    String text = "mail me@example.com about replay.scfareplay, e.g. version 3.7.1 or gg.wp";
+    assertThat(UrlHyperlinkUtil.escapeAndLinkUrls(text), is(text));
+  }
+}
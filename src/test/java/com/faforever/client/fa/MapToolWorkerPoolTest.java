@@ -0,0 +1,145 @@
+package com.faforever.client.fa;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assume.assumeFalse;
+
+public class MapToolWorkerPoolTest {
+
+  /** Answers every request with its own arguments and the number of requests it served, then exits after the second. */
+  private static final String SERVER_SCRIPT = "#!/bin/sh\n"
+      + "echo '" + MapToolWorkerPool.HANDSHAKE + "'\n"
+      + "count=0\n"
+      + "while read -r request; do\n"
+      + "  count=$((count + 1))\n"
+      + "  echo \"$request\"\n"
+      + "  echo \"$count\"\n"
+      + "  case \"$request\" in *fail*) printf '\\0041\\n' ;; *) printf '\\0040\\n' ;; esac\n"
+      + "  [ \"$count\" -ge 2 ] && exit 0\n"
+      + "done\n";
+
+  private static final String ONE_SHOT_SCRIPT = "#!/bin/sh\n"
+      + "echo 'unknown option --server'\n"
+      + "exit 1\n";
+
+  /** Rejects the server option like a map tool without server mode, counting how often it was started. */
+  private static final String REJECTING_SCRIPT = "#!/bin/sh\n"
+      + "echo started >> starts\n"
+      + "echo 'unknown option --server' >&2\n"
+      + "exit 1\n";
+
+  /** Never announces itself, counting how often it was started. */
+  private static final String NEVER_STARTING_SCRIPT = "#!/bin/sh\n"
+      + "echo started >> starts\n"
+      + "exec sleep 10\n";
+
+  /** Doesn't announce itself when started for the first time, and behaves like {@link #SERVER_SCRIPT} afterwards. */
+  private static final String SLOW_START_SCRIPT = "#!/bin/sh\n"
+      + "if [ ! -e started ]; then\n"
+      + "  touch started\n"
+      + "  exec sleep 10\n"
+      + "fi\n"
+      + SERVER_SCRIPT.substring(SERVER_SCRIPT.indexOf('\n') + 1);
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void setUp() {
+    assumeFalse(org.bridj.Platform.isWindows());
+  }
+
+  @Test
+  public void testWorkerIsReused() throws Exception {
+    MapToolWorkerPool instance = new MapToolWorkerPool(script(SERVER_SCRIPT), 1);
+
+    assertThat(instance.execute(List.of("--mapname", "a")).orElseThrow(), contains("[\"--mapname\",\"a\"]", "1"));
+    assertThat(instance.execute(List.of("--mapname", "b")).orElseThrow(), contains("[\"--mapname\",\"b\"]", "2"));
+    instance.shutdown();
+  }
+
+  @Test
+  public void testExitedWorkerIsReplaced() throws Exception {
+    MapToolWorkerPool instance = new MapToolWorkerPool(script(SERVER_SCRIPT), 1);
+    instance.execute(List.of("a"));
+    instance.execute(List.of("b"));
+
+    // The worker exits after its second request
+    for (Process process : instance.getIdleWorkerProcesses()) {
+      assertThat(process.waitFor(5, TimeUnit.SECONDS), is(true));
+    }
+
+    assertThat(instance.execute(List.of("c")).orElseThrow(), contains("[\"c\"]", "1"));
+    instance.shutdown();
+  }
+
+  @Test(expected = IOException.class)
+  public void testErrorCode() throws Exception {
+    MapToolWorkerPool instance = new MapToolWorkerPool(script(SERVER_SCRIPT), 1);
+    try {
+      instance.execute(List.of("fail"));
+    } finally {
+      instance.shutdown();
+    }
+  }
+
+  @Test
+  public void testFallsBackWithoutServerMode() throws Exception {
+    MapToolWorkerPool instance = new MapToolWorkerPool(script(ONE_SHOT_SCRIPT), 1);
+
+    assertThat(instance.execute(List.of("a")), is(Optional.empty()));
+    assertThat(instance.execute(List.of("b")), is(Optional.empty()));
+  }
+
+  @Test
+  public void testServerModeIsGivenUpIfWorkerExitsBeforeHandshake() throws Exception {
+    MapToolWorkerPool instance = new MapToolWorkerPool(script(REJECTING_SCRIPT), 1);
+
+    assertThat(instance.execute(List.of("a")), is(Optional.empty()));
+    assertThat(instance.execute(List.of("b")), is(Optional.empty()));
+    assertThat(workerStarts(), is(1));
+  }
+
+  @Test
+  public void testServerModeIsGivenUpAfterRepeatedHandshakeTimeouts() throws Exception {
+    MapToolWorkerPool instance = new MapToolWorkerPool(script(NEVER_STARTING_SCRIPT), 1, 200);
+
+    for (int i = 0; i <= MapToolWorkerPool.MAX_HANDSHAKE_TIMEOUTS; i++) {
+      assertThat(instance.execute(List.of("a")), is(Optional.empty()));
+    }
+    assertThat(workerStarts(), is(MapToolWorkerPool.MAX_HANDSHAKE_TIMEOUTS));
+  }
+
+  @Test
+  public void testServerModeIsRetriedAfterHandshakeTimeout() throws Exception {
+    MapToolWorkerPool instance = new MapToolWorkerPool(script(SLOW_START_SCRIPT), 1, 500);
+
+    assertThat(instance.execute(List.of("a")), is(Optional.empty()));
+    assertThat(instance.execute(List.of("b")).orElseThrow(), contains("[\"b\"]", "1"));
+    instance.shutdown();
+  }
+
+  private int workerStarts() throws IOException {
+    return Files.readAllLines(temporaryFolder.getRoot().toPath().resolve("starts")).size();
+  }
+
+  private Path script(String content) throws IOException {
+    Path script = temporaryFolder.newFile("maptool").toPath();
+    Files.writeString(script, content);
+    script.toFile().setExecutable(true);
+    return script;
+  }
+}
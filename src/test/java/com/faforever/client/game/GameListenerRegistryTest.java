@@ -0,0 +1,56 @@
+package com.faforever.client.game;
+
+import com.faforever.client.remote.domain.GameStatus;
+import javafx.beans.value.ChangeListener;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.is;
+
+public class GameListenerRegistryTest {
+
+  private GameListenerRegistry instance;
+  private Game game;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new GameListenerRegistry();
+    game = new Game();
+    game.setId(1);
+    game.setStatus(GameStatus.STAGING);
+  }
+
+  @Test
+  public void testListenersAreCountedAndDetached() {
+    AtomicInteger invocations = new AtomicInteger();
+    ChangeListener<GameStatus> listener = (observable, oldValue, newValue) -> invocations.incrementAndGet();
+    instance.addListener(game, game.statusProperty(), listener);
+
+    assertThat(instance.getListenerCounts(), is(Map.of(1, 1)));
+    game.setStatus(GameStatus.LIVE);
+    assertThat(invocations.get(), is(1));
+
+    instance.removeListeners(game);
+
+    assertThat(instance.getListenerCounts(), is(anEmptyMap()));
+    game.setStatus(GameStatus.ENDED);
+    assertThat(invocations.get(), is(1));
+  }
+
+  @Test
+  public void testRemoveAllListeners() {
+    AtomicInteger invocations = new AtomicInteger();
+    instance.addListener(game, game.statusProperty(), (observable, oldValue, newValue) -> invocations.incrementAndGet());
+
+    instance.removeAllListeners();
+
+    game.setStatus(GameStatus.LIVE);
+    assertThat(invocations.get(), is(0));
+    assertThat(instance.getListenerCounts(), is(anEmptyMap()));
+  }
+}
@@ -12,6 +12,7 @@ import com.faforever.client.i18n.I18n;
 import com.faforever.client.map.MapService;
 import com.faforever.client.mod.FeaturedMod;
 import com.faforever.client.mod.ModService;
+import com.faforever.client.net.ConnectionState;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.notification.PersistentNotification;
 import com.faforever.client.patch.GameUpdater;
@@ -30,6 +31,7 @@ import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.ui.preferences.event.GameDirectoryChooseEvent;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableMap;
@@ -57,6 +59,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.faforever.client.game.Faction.GOK;
 import static com.faforever.client.remote.domain.GameStatus.ENDED;
@@ -69,6 +72,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.nullValue;
@@ -82,6 +86,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -144,17 +149,19 @@ public class GameServiceTest extends AbstractPlainJavaFxTest {
 
   private Player junitPlayer;
   private Preferences preferences;
+  private SimpleObjectProperty<ConnectionState> connectionState;
 
   @Before
   public void setUp() throws Exception {
     junitPlayer = PlayerBuilder.create("JUnit").defaultValues().get();
     preferences = PreferencesBuilder.create().defaultValues().get();
 
+    connectionState = new SimpleObjectProperty<>();
     ClientProperties clientProperties = new ClientProperties();
 
     when(preferencesService.getPreferences()).thenReturn(preferences);
     when(preferencesService.isGameExeValid(KnownFeaturedMod.DEFAULT.getTechnicalName())).thenReturn(true);
-    when(fafService.connectionStateProperty()).thenReturn(new SimpleObjectProperty<>());
+    when(fafService.connectionStateProperty()).thenReturn(connectionState);
     when(replayService.start(anyInt(), any())).thenReturn(completedFuture(LOCAL_REPLAY_PORT));
     when(iceAdapter.start("BILY_IDOL")).thenReturn(completedFuture(GPG_PORT));
     when(playerService.getCurrentPlayer()).thenReturn(Optional.of(junitPlayer));
@@ -491,6 +498,147 @@ public class GameServiceTest extends AbstractPlainJavaFxTest {
     assertThat(instance.getGames(), empty());
   }
 
+  @Test
+  public void testUpdatesOfOneGameAreAppliedOnce() throws Exception {
+    acceptWhileApplicationThreadIsBusy(
+        GameInfoMessageBuilder.create(1).defaultValues().title("Game 1").get(),
+        GameInfoMessageBuilder.create(1).defaultValues().title("Game 1 modified").get(),
+        GameInfoMessageBuilder.create(1).defaultValues().title("Game 1 modified again").get()
+    );
+
+    assertThat(instance.getGames(), contains(allOf(GameMatchers.hasId(1), GameMatchers.hasTitle("Game 1 modified again"))));
+    assertThat(instance.getReceivedGameInfoCount(), is(3L));
+    assertThat(instance.getAppliedGameInfoCount(), is(1L));
+
+    List<GamesChangedEvent> events = captureGamesChangedEvents();
+    assertThat(events, hasSize(1));
+    assertThat(events.get(0).getAddedGames(), contains(GameMatchers.hasId(1)));
+    assertThat(events.get(0).getUpdatedGames(), empty());
+    assertThat(events.get(0).getRemovedGames(), empty());
+  }
+
+  @Test
+  public void testGameInfoCountersCountEveryGameOfMultiGameInfo() throws Exception {
+    GameInfoMessage multiGameInfoMessage = new GameInfoMessage();
+    multiGameInfoMessage.setGames(asList(
+        GameInfoMessageBuilder.create(1).defaultValues().get(),
+        GameInfoMessageBuilder.create(2).defaultValues().get()
+    ));
+
+    acceptWhileApplicationThreadIsBusy(multiGameInfoMessage, GameInfoMessageBuilder.create(2).defaultValues().get());
+
+    assertThat(instance.getReceivedGameInfoCount(), is(3L));
+    assertThat(instance.getAppliedGameInfoCount(), is(2L));
+  }
+
+  @Test
+  public void testGamesChangedEventSplitsAddedUpdatedAndRemovedGames() throws Exception {
+    when(playerService.getCurrentPlayer()).thenReturn(Optional.ofNullable(PlayerBuilder.create("PlayerName").get()));
+    acceptWhileApplicationThreadIsBusy(
+        GameInfoMessageBuilder.create(1).defaultValues().get(),
+        GameInfoMessageBuilder.create(2).defaultValues().get()
+    );
+
+    acceptWhileApplicationThreadIsBusy(
+        GameInfoMessageBuilder.create(1).defaultValues().title("Game 1 modified").get(),
+        GameInfoMessageBuilder.create(2).defaultValues().state(ENDED).get(),
+        GameInfoMessageBuilder.create(3).defaultValues().get(),
+        GameInfoMessageBuilder.create(4).defaultValues().get(),
+        GameInfoMessageBuilder.create(4).defaultValues().state(ENDED).get()
+    );
+
+    List<GamesChangedEvent> events = captureGamesChangedEvents();
+    assertThat(events, hasSize(2));
+    GamesChangedEvent event = events.get(1);
+    assertThat(event.getAddedGames(), contains(GameMatchers.hasId(3)));
+    assertThat(event.getUpdatedGames(), contains(GameMatchers.hasId(1)));
+    assertThat(event.getRemovedGames(), contains(GameMatchers.hasId(2)));
+  }
+
+  @Test
+  public void testGamesStayInSyncWithKnownGames() throws Exception {
+    when(playerService.getCurrentPlayer()).thenReturn(Optional.ofNullable(PlayerBuilder.create("PlayerName").get()));
+    acceptWhileApplicationThreadIsBusy(
+        GameInfoMessageBuilder.create(1).defaultValues().get(),
+        GameInfoMessageBuilder.create(2).defaultValues().get()
+    );
+    acceptWhileApplicationThreadIsBusy(
+        GameInfoMessageBuilder.create(1).defaultValues().state(ENDED).get(),
+        GameInfoMessageBuilder.create(3).defaultValues().get(),
+        GameInfoMessageBuilder.create(4).defaultValues().get(),
+        GameInfoMessageBuilder.create(4).defaultValues().state(ENDED).get()
+    );
+
+    assertThat(instance.getGames(), containsInAnyOrder(GameMatchers.hasId(2), GameMatchers.hasId(3)));
+    assertThat(instance.getByUid(1), nullValue());
+    assertThat(instance.getByUid(2), is(instance.getGames().get(0)));
+    assertThat(instance.getByUid(3), is(instance.getGames().get(1)));
+    assertThat(instance.getByUid(4), nullValue());
+    assertThat(instance.getGameListenerCounts().keySet(), containsInAnyOrder(2, 3));
+  }
+
+  @Test
+  public void testDisconnectDiscardsPendingGameInfosAndClearsGames() throws Exception {
+    gameInfoMessageListenerCaptor.getValue().accept(GameInfoMessageBuilder.create(1).defaultValues().get());
+    WaitForAsyncUtils.waitForFxEvents();
+    assertThat(instance.getGames(), hasSize(1));
+
+    runWhileApplicationThreadIsBusy(() -> {
+      gameInfoMessageListenerCaptor.getValue().accept(GameInfoMessageBuilder.create(2).defaultValues().get());
+      connectionState.set(ConnectionState.DISCONNECTED);
+      // Clearing is deferred to the application thread
+      assertThat(instance.getGames(), hasSize(1));
+    });
+
+    assertThat(instance.getGames(), empty());
+    assertThat(instance.getByUid(1), nullValue());
+    assertThat(instance.getByUid(2), nullValue());
+    assertThat(instance.getGameListenerCounts().isEmpty(), is(true));
+    assertThat(instance.getReceivedGameInfoCount(), is(2L));
+    assertThat(instance.getAppliedGameInfoCount(), is(1L));
+  }
+
+  private void acceptWhileApplicationThreadIsBusy(GameInfoMessage... gameInfoMessages) throws InterruptedException {
+    runWhileApplicationThreadIsBusy(() -> {
+      for (GameInfoMessage gameInfoMessage : gameInfoMessages) {
+        gameInfoMessageListenerCaptor.getValue().accept(gameInfoMessage);
+      }
+    });
+  }
+
+  /**
+   * Runs {@code runnable} while the application thread is blocked, so that all game infos it sends are applied in a
+   * single batch afterwards.
+   */
+  private void runWhileApplicationThreadIsBusy(Runnable runnable) throws InterruptedException {
+    CountDownLatch applicationThreadBlocked = new CountDownLatch(1);
+    CountDownLatch runnableDone = new CountDownLatch(1);
+    Platform.runLater(() -> {
+      applicationThreadBlocked.countDown();
+      try {
+        runnableDone.await(TIMEOUT, TIME_UNIT);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    assertThat(applicationThreadBlocked.await(TIMEOUT, TIME_UNIT), is(true));
+    try {
+      runnable.run();
+    } finally {
+      runnableDone.countDown();
+    }
+    WaitForAsyncUtils.waitForFxEvents();
+  }
+
+  private List<GamesChangedEvent> captureGamesChangedEvents() {
+    ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
+    verify(eventBus, atLeastOnce()).post(eventCaptor.capture());
+    return eventCaptor.getAllValues().stream()
+        .filter(GamesChangedEvent.class::isInstance)
+        .map(GamesChangedEvent.class::cast)
+        .collect(Collectors.toList());
+  }
+
   @Test
   public void testStartSearchLadder1v1() throws Exception {
     int uid = 123;
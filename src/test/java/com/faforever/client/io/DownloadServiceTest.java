@@ -0,0 +1,93 @@
+package com.faforever.client.io;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class DownloadServiceTest {
+
+  @Rule
+  public MockWebServer server = new MockWebServer();
+  @Rule
+  public TemporaryFolder targetDirectory = new TemporaryFolder();
+
+  private Path targetFile;
+  private Path partFile;
+  private URL url;
+  private List<Long> progress;
+  private DownloadService instance;
+
+  @Before
+  public void setUp() throws Exception {
+    targetFile = targetDirectory.getRoot().toPath().resolve("file.zip");
+    partFile = targetDirectory.getRoot().toPath().resolve("file.zip.part");
+    url = server.url("/file.zip").url();
+    progress = new ArrayList<>();
+    instance = new DownloadService();
+  }
+
+  @Test
+  public void testDownloadWithoutPartFile() throws Exception {
+    server.enqueue(new MockResponse().setBody("0123456789"));
+
+    instance.downloadFileResumable(url, targetFile, (written, total) -> progress.add(written));
+
+    assertThat(server.takeRequest().getHeader("Range"), is(nullValue()));
+    assertThat(Files.readString(targetFile), is("0123456789"));
+    assertThat(Files.exists(partFile), is(false));
+  }
+
+  @Test
+  public void testDownloadResumesPartFile() throws Exception {
+    Files.writeString(partFile, "0123");
+    server.enqueue(new MockResponse()
+        .setResponseCode(206)
+        .setHeader("Content-Range", "bytes 4-9/10")
+        .setBody("456789"));
+
+    instance.downloadFileResumable(url, targetFile, (written, total) -> progress.add(written));
+
+    assertThat(server.takeRequest().getHeader("Range"), is("bytes=4-"));
+    assertThat(Files.readString(targetFile), is("0123456789"));
+    assertThat(Files.exists(partFile), is(false));
+    assertThat(progress.get(progress.size() - 1), is(10L));
+  }
+
+  @Test
+  public void testDownloadStartsOverIfServerIgnoresRange() throws Exception {
+    Files.writeString(partFile, "0123");
+    server.enqueue(new MockResponse().setBody("abcdefghij"));
+
+    instance.downloadFileResumable(url, targetFile, (written, total) -> progress.add(written));
+
+    assertThat(server.takeRequest().getHeader("Range"), is("bytes=4-"));
+    assertThat(Files.readString(targetFile), is("abcdefghij"));
+  }
+
+  @Test
+  public void testDownloadStartsOverIfRangeNotSatisfiable() throws Exception {
+    Files.writeString(partFile, "0123456789ab");
+    server.enqueue(new MockResponse().setResponseCode(416));
+    server.enqueue(new MockResponse().setBody("0123456789"));
+
+    instance.downloadFileResumable(url, targetFile, (written, total) -> progress.add(written));
+
+    assertThat(server.takeRequest().getHeader("Range"), is("bytes=12-"));
+    assertThat(server.takeRequest().getHeader("Range"), is(nullValue()));
+    assertThat(Files.readString(targetFile), is("0123456789"));
+    assertThat(Files.exists(partFile), is(false));
+  }
+}
@@ -0,0 +1,151 @@
+package com.faforever.client.io;
+
+import com.faforever.client.io.FeaturedModCacheIndex.EvictionCandidate;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class FeaturedModCacheIndexTest {
+
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  private Path indexFile;
+  private FeaturedModCacheIndex instance;
+
+  @Before
+  public void setUp() throws Exception {
+    indexFile = cacheDirectory.getRoot().toPath().resolve("cache-index.json");
+    instance = new FeaturedModCacheIndex(cacheDirectory.getRoot().toPath(), indexFile);
+  }
+
+  @Test
+  public void testSynchronizeWithDirectoryIgnoresBookkeepingFiles() throws Exception {
+    createCachedFile("gamedata/a", 10, 1000);
+    createCachedFile("bin/b", 20, 2000);
+    Files.writeString(indexFile, "{}");
+
+    instance.synchronizeWithDirectory();
+
+    assertThat(instance.getTotalSize(), is(30L));
+  }
+
+  @Test
+  public void testSynchronizeWithDirectoryIgnoresPartialDownloads() throws Exception {
+    createCachedFile("gamedata/a", 10, 1000);
+    createCachedFile("gamedata/b.part", 20, 2000);
+
+    instance.synchronizeWithDirectory();
+
+    assertThat(instance.getTotalSize(), is(10L));
+  }
+
+  @Test
+  public void testSynchronizeWithDirectoryIgnoresFilesUnderDownloadLock() throws Exception {
+    createCachedFile("gamedata/a", 10, 1000);
+    Path downloadedFile = createCachedFile("gamedata/b", 20, 2000);
+    instance.acquireDownloadLock(downloadedFile);
+
+    instance.synchronizeWithDirectory();
+
+    assertThat(instance.getTotalSize(), is(10L));
+
+    instance.freeDownloadLock(downloadedFile);
+    instance.synchronizeWithDirectory();
+
+    assertThat(instance.getTotalSize(), is(30L));
+  }
+
+  @Test
+  public void testFileUnderDownloadLockIsNotEvicted() throws Exception {
+    Path file = createCachedFile("gamedata/a", 10, 1000);
+    instance.synchronizeWithDirectory();
+    List<EvictionCandidate> candidates = instance.selectEvictionCandidates(0, 0);
+
+    instance.acquireDownloadLock(file);
+
+    assertThat(instance.evict(candidates.get(0)), is(false));
+    assertThat(Files.exists(file), is(true));
+  }
+
+  @Test
+  public void testSelectEvictionCandidatesLeastRecentlyUsedFirst() throws Exception {
+    createCachedFile("gamedata/old", 10, 1000);
+    createCachedFile("gamedata/middle", 10, 2000);
+    createCachedFile("gamedata/new", 10, 3000);
+    instance.synchronizeWithDirectory();
+
+    List<EvictionCandidate> candidates = instance.selectEvictionCandidates(15, 0);
+
+    assertThat(candidates.stream().map(EvictionCandidate::getPath).collect(Collectors.toList()),
+        contains("gamedata/old", "gamedata/middle"));
+  }
+
+  @Test
+  public void testSelectEvictionCandidatesNotUsedSince() throws Exception {
+    createCachedFile("gamedata/old", 10, 1000);
+    createCachedFile("gamedata/new", 10, 3000);
+    instance.synchronizeWithDirectory();
+
+    List<EvictionCandidate> candidates = instance.selectEvictionCandidates(Long.MAX_VALUE, 2000);
+
+    assertThat(candidates.stream().map(EvictionCandidate::getPath).collect(Collectors.toList()),
+        contains("gamedata/old"));
+  }
+
+  @Test
+  public void testFileUsedAfterSelectionIsNotEvicted() throws Exception {
+    Path file = createCachedFile("gamedata/a", 10, 1000);
+    instance.synchronizeWithDirectory();
+    List<EvictionCandidate> candidates = instance.selectEvictionCandidates(0, 0);
+
+    instance.recordUse(file);
+
+    assertThat(instance.evict(candidates.get(0)), is(false));
+    assertThat(Files.exists(file), is(true));
+  }
+
+  @Test
+  public void testEvictDeletesFile() throws Exception {
+    Path file = createCachedFile("gamedata/a", 10, 1000);
+    instance.synchronizeWithDirectory();
+
+    assertThat(instance.evict(instance.selectEvictionCandidates(0, 0).get(0)), is(true));
+    assertThat(Files.exists(file), is(false));
+    assertThat(instance.selectEvictionCandidates(0, 0), is(empty()));
+  }
+
+  @Test
+  public void testLastUseIsKeptAcrossRestarts() throws Exception {
+    Path recentlyUsedFile = createCachedFile("gamedata/a", 10, 1000);
+    createCachedFile("gamedata/b", 10, 2000);
+    instance.synchronizeWithDirectory();
+    instance.recordUse(recentlyUsedFile);
+    instance.store();
+
+    instance = new FeaturedModCacheIndex(cacheDirectory.getRoot().toPath(), indexFile);
+    instance.synchronizeWithDirectory();
+
+    assertThat(instance.selectEvictionCandidates(10, 0).get(0).getPath(), is("gamedata/b"));
+  }
+
+  private Path createCachedFile(String relativePath, int size, long lastModified) throws Exception {
+    Path file = cacheDirectory.getRoot().toPath().resolve(relativePath);
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[size]);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+    return file;
+  }
+}
@@ -1,6 +1,7 @@
 package com.faforever.client.io;
 
 import com.faforever.client.api.dto.FeaturedModFile;
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.preferences.Preferences;
 import com.faforever.client.preferences.PreferencesBuilder;
 import com.faforever.client.preferences.PreferencesService;
@@ -38,7 +39,7 @@ public class FeaturedModFileCacheServiceTest {
     Preferences preferences = PreferencesBuilder.create().defaultValues().gameDataCacheActivated(true).get();
     when(preferenceService.getPreferences()).thenReturn(preferences);
     when(preferenceService.getFeaturedModCachePath()).thenReturn(cacheDirectory.getRoot().toPath());
-    instance = new FeaturedModFileCacheService(preferenceService);
+    instance = new FeaturedModFileCacheService(preferenceService, new ClientProperties());
   }
 
   @Test
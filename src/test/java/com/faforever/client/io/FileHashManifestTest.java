@@ -0,0 +1,84 @@
+package com.faforever.client.io;
+
+import com.google.common.hash.Hashing;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static com.google.common.io.Files.hash;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class FileHashManifestTest {
+
+  private static final FileTime LAST_MODIFIED = FileTime.fromMillis(1_000_000);
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path manifestFile;
+  private Path file;
+  private FileHashManifest instance;
+
+  @Before
+  public void setUp() throws Exception {
+    manifestFile = temporaryFolder.getRoot().toPath().resolve("hashes.json");
+    file = temporaryFolder.newFile("file.dat").toPath();
+    Files.writeString(file, "abc");
+    Files.setLastModifiedTime(file, LAST_MODIFIED);
+    instance = new FileHashManifest(manifestFile);
+  }
+
+  @Test
+  public void testGetMd5() throws Exception {
+    assertThat(instance.getMd5(file), is(md5Of(file)));
+  }
+
+  @Test
+  public void testUnchangedFileIsNotHashedAgainAfterRestart() throws Exception {
+    instance.getMd5(file);
+    instance.store();
+    String knownMd5 = md5Of(file);
+
+    // Same size and modification time, but different content: only detectable by hashing
+    Files.writeString(file, "xyz");
+    Files.setLastModifiedTime(file, LAST_MODIFIED);
+
+    instance = new FileHashManifest(manifestFile);
+    assertThat(instance.getMd5(file), is(knownMd5));
+  }
+
+  @Test
+  public void testChangedFileIsHashedAgain() throws Exception {
+    instance.getMd5(file);
+    instance.store();
+
+    Files.writeString(file, "abcd");
+    Files.setLastModifiedTime(file, LAST_MODIFIED);
+
+    instance = new FileHashManifest(manifestFile);
+    assertThat(instance.getMd5(file), is(md5Of(file)));
+  }
+
+  @Test
+  public void testMovedFileKeepsHash() throws Exception {
+    String knownMd5 = instance.getMd5(file);
+    Path target = temporaryFolder.getRoot().toPath().resolve("moved.dat");
+    Files.move(file, target);
+    instance.moved(file, target);
+
+    Files.writeString(target, "xyz");
+    Files.setLastModifiedTime(target, LAST_MODIFIED);
+
+    assertThat(instance.getMd5(target), is(knownMd5));
+  }
+
+  private static String md5Of(Path file) throws Exception {
+    return hash(file.toFile(), Hashing.md5()).toString();
+  }
+}
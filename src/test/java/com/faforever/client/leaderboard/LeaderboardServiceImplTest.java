@@ -1,19 +1,29 @@
 package com.faforever.client.leaderboard;
 
 
+import com.faforever.client.api.dto.Player;
+import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.FafService;
+import com.faforever.client.test.FakeTestException;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
@@ -25,8 +35,15 @@ import static org.mockito.Mockito.when;
 public class LeaderboardServiceImplTest {
 
   private static final int PLAYER_ID = 123;
+  private static final OffsetDateTime RECENTLY = OffsetDateTime.now(ZoneOffset.UTC).minusDays(1);
+
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
   @Mock
   private FafService fafService;
+  @Mock
+  private PreferencesService preferencesService;
 
   private LeaderboardServiceImpl instance;
 
@@ -36,40 +53,30 @@ public class LeaderboardServiceImplTest {
   public void setUp() throws Exception {
     leaderboard = LeaderboardBuilder.create().defaultValues().get();
 
-    instance = new LeaderboardServiceImpl(fafService);
+    instance = new LeaderboardServiceImpl(fafService, preferencesService);
   }
 
   @Test
   public void testGetLeaderboardEntries() {
-    List<LeaderboardEntry> ladder1V1Entries = Collections.emptyList();
-    when(fafService.getAllLeaderboardEntries(leaderboard.getTechnicalName())).thenReturn(CompletableFuture.completedFuture(ladder1V1Entries));
+    givenEntries(null, List.of(
+        entryDto("1", "low", 100, 0, RECENTLY),
+        entryDto("2", "high", 200, 0, RECENTLY)));
 
     List<LeaderboardEntry> result = instance.getEntries(leaderboard).toCompletableFuture().join();
 
-    verify(fafService).getAllLeaderboardEntries(leaderboard.getTechnicalName());
-    assertThat(result, is(ladder1V1Entries));
+    verify(fafService).getLeaderboardEntriesUpdatedSince(leaderboard.getTechnicalName(), null);
+    assertThat(result.stream().map(LeaderboardEntry::getUsername).collect(Collectors.toList()), is(List.of("high", "low")));
   }
 
   @Test
   public void testGetLeaderboardStats() {
-    LeaderboardEntry leaderboardEntry1 = new LeaderboardEntry();
-    leaderboardEntry1.setRating(151);
-    leaderboardEntry1.setWonGames(LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN);
-
-    LeaderboardEntry leaderboardEntry2 = new LeaderboardEntry();
-    leaderboardEntry2.setRating(121);
-    leaderboardEntry2.setWonGames(LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN + 42);
-
-    LeaderboardEntry leaderboardEntry3 = new LeaderboardEntry();
-    leaderboardEntry3.setRating(221);
-    leaderboardEntry3.setWonGames(LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN);
-
-    when(fafService.getAllLeaderboardEntries(leaderboard.getTechnicalName())).thenReturn(CompletableFuture.completedFuture(Arrays.asList(
-        leaderboardEntry1, leaderboardEntry2, leaderboardEntry3
-    )));
+    givenEntries(null, List.of(
+        entryDto("1", "a", 151, LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN, RECENTLY),
+        entryDto("2", "b", 121, LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN + 42, RECENTLY),
+        entryDto("3", "c", 221, LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN, RECENTLY)));
 
     List<RatingStat> result = instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
-    verify(fafService).getAllLeaderboardEntries(leaderboard.getTechnicalName());
+    verify(fafService).getLeaderboardEntriesUpdatedSince(leaderboard.getTechnicalName(), null);
 
     result.sort(Comparator.comparingInt(RatingStat::getRating));
 
@@ -85,24 +92,13 @@ public class LeaderboardServiceImplTest {
 
   @Test
   public void testStatsOnlyShowsPlayersWithEnoughGamesPlayed() throws Exception {
-    LeaderboardEntry leaderboardEntry1 = new LeaderboardEntry();
-    leaderboardEntry1.setRating(151);
-    leaderboardEntry1.setWonGames(LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN);
-
-    LeaderboardEntry leaderboardEntry2 = new LeaderboardEntry();
-    leaderboardEntry2.setRating(121);
-    leaderboardEntry2.setWonGames(LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN - 1);
-
-    LeaderboardEntry leaderboardEntry3 = new LeaderboardEntry();
-    leaderboardEntry3.setRating(221);
-    leaderboardEntry3.setWonGames(LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN - 1);
-
-    when(fafService.getAllLeaderboardEntries(leaderboard.getTechnicalName())).thenReturn(CompletableFuture.completedFuture(Arrays.asList(
-        leaderboardEntry1, leaderboardEntry2, leaderboardEntry3
-    )));
+    givenEntries(null, List.of(
+        entryDto("1", "a", 151, LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN, RECENTLY),
+        entryDto("2", "b", 121, LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN - 1, RECENTLY),
+        entryDto("3", "c", 221, LeaderboardService.MINIMUM_GAMES_PLAYED_TO_BE_SHOWN - 1, RECENTLY)));
 
     List<RatingStat> result = instance.getLeaderboardStats(leaderboard.getTechnicalName()).toCompletableFuture().get(2, TimeUnit.SECONDS);
-    verify(fafService).getAllLeaderboardEntries(leaderboard.getTechnicalName());
+    verify(fafService).getLeaderboardEntriesUpdatedSince(leaderboard.getTechnicalName(), null);
 
     assertEquals(2, result.size());
     assertEquals(2, result.get(0).getTotalCount());
@@ -114,6 +110,101 @@ public class LeaderboardServiceImplTest {
     assertEquals(200, result.get(1).getRating());
   }
 
+  @Test
+  public void testStatsOnlyCountEntriesUpdatedWithinLastMonth() {
+    List<com.faforever.client.api.dto.LeaderboardEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      entries.add(entryDto(String.valueOf(i), "recent" + i, 150, 0, RECENTLY));
+    }
+    entries.add(entryDto("10", "inactive", 350, 0, RECENTLY.minusMonths(2)));
+    givenEntries(null, entries);
+
+    List<RatingStat> result = instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+
+    assertThat(result.size(), is(1));
+    assertThat(result.get(0).getRating(), is(100));
+    assertThat(result.get(0).getTotalCount(), is(10));
+  }
+
+  @Test
+  public void testStatsCountMostRecentlyUpdatedEntriesIfTooFewAreRecent() {
+    givenEntries(null, List.of(
+        entryDto("1", "a", 150, 0, RECENTLY.minusMonths(2)),
+        entryDto("2", "b", 250, 0, RECENTLY.minusMonths(3))));
+
+    List<RatingStat> result = instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+
+    assertThat(result.stream().map(RatingStat::getRating).collect(Collectors.toList()), is(List.of(100, 200)));
+  }
+
+  @Test
+  public void testOnlyChangedEntriesAreDownloadedAgain() {
+    OffsetDateTime lastUpdate = RECENTLY.withNano(0);
+    givenEntries(null, List.of(
+        entryDto("1", "a", 150, 0, lastUpdate.minusHours(1)),
+        entryDto("2", "b", 250, 0, lastUpdate)));
+    instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+
+    givenEntries(lastUpdate, List.of(entryDto("1", "a", 350, 0, lastUpdate.plusHours(1))));
+    List<RatingStat> result = instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+
+    assertThat(result.stream().map(RatingStat::getRating).collect(Collectors.toList()), is(List.of(200, 300)));
+    givenEntries(lastUpdate.plusHours(1), List.of());
+    List<LeaderboardEntry> entries = instance.getEntries(leaderboard).join();
+    assertThat(entries.stream().map(LeaderboardEntry::getUsername).collect(Collectors.toList()), is(List.of("a", "b")));
+  }
+
+  @Test
+  public void testSnapshotIsKeptAcrossRestarts() {
+    OffsetDateTime lastUpdate = RECENTLY.withNano(0);
+    givenEntries(null, List.of(entryDto("1", "a", 150, 0, lastUpdate)));
+    instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+
+    instance = new LeaderboardServiceImpl(fafService, preferencesService);
+    givenEntries(lastUpdate, List.of());
+    List<RatingStat> result = instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+
+    assertThat(result.size(), is(1));
+    assertThat(result.get(0).getTotalCount(), is(1));
+  }
+
+  @Test
+  public void testSnapshotIsNotWrittenAgainIfNothingChanged() throws Exception {
+    OffsetDateTime lastUpdate = RECENTLY.withNano(0);
+    givenEntries(null, List.of(entryDto("1", "a", 150, 0, lastUpdate)));
+    instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+    Path snapshotFile = cacheDirectory.getRoot().toPath().resolve("leaderboards").resolve(leaderboard.getTechnicalName() + ".json");
+    Files.delete(snapshotFile);
+
+    // The entry updated last is always included again
+    givenEntries(lastUpdate, List.of(entryDto("1", "a", 150, 0, lastUpdate)));
+    instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+
+    assertThat(Files.exists(snapshotFile), is(false));
+  }
+
+  @Test
+  public void testStoredEntriesAreUsedIfRefreshFails() {
+    OffsetDateTime lastUpdate = RECENTLY.withNano(0);
+    givenEntries(null, List.of(entryDto("1", "a", 150, 0, lastUpdate)));
+    instance.getLeaderboardStats(leaderboard.getTechnicalName()).join();
+
+    when(fafService.getLeaderboardEntriesUpdatedSince(leaderboard.getTechnicalName(), lastUpdate))
+        .thenReturn(CompletableFuture.failedFuture(new FakeTestException()));
+    List<LeaderboardEntry> entries = instance.getEntries(leaderboard).join();
+
+    assertThat(entries.stream().map(LeaderboardEntry::getUsername).collect(Collectors.toList()), is(List.of("a")));
+  }
+
+  @Test(expected = CompletionException.class)
+  public void testRefreshFailsWithoutStoredEntries() {
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
+    when(fafService.getLeaderboardEntriesUpdatedSince(leaderboard.getTechnicalName(), null))
+        .thenReturn(CompletableFuture.failedFuture(new FakeTestException()));
+
+    instance.getEntries(leaderboard).join();
+  }
+
   @Test
   public void testGetEntriesForPlayer() {
     LeaderboardEntry entry = new LeaderboardEntry();
@@ -123,4 +214,29 @@ public class LeaderboardServiceImplTest {
     verify(fafService).getLeaderboardEntriesForPlayer(PLAYER_ID);
     assertEquals(List.of(entry), result);
   }
+
+  private void givenEntries(OffsetDateTime updatedSince, List<com.faforever.client.api.dto.LeaderboardEntry> entries) {
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
+    when(fafService.getLeaderboardEntriesUpdatedSince(leaderboard.getTechnicalName(), updatedSince))
+        .thenReturn(CompletableFuture.completedFuture(entries));
+  }
+
+  private com.faforever.client.api.dto.LeaderboardEntry entryDto(String id, String login, double rating, int wonGames, OffsetDateTime updateTime) {
+    Player player = new Player();
+    player.setLogin(login);
+
+    com.faforever.client.api.dto.LeaderboardEntry entry = new com.faforever.client.api.dto.LeaderboardEntry();
+    entry.setId(id);
+    entry.setPlayer(player);
+    entry.setLeaderboard(new com.faforever.client.api.dto.Leaderboard("1", null, null, "test_description", "test_name", leaderboard.getTechnicalName()));
+    entry.setRating(rating);
+    entry.setWonGames(wonGames);
+    entry.setDrawnGames(0);
+    entry.setLostGames(0);
+    entry.setStreak(0);
+    entry.setBestStreak(0);
+    entry.setRecentScores("");
+    entry.setUpdateTime(updateTime);
+    return entry;
+  }
 }
@@ -0,0 +1,61 @@
+package com.faforever.client.map;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class InstalledMapsDiffTest {
+
+  @Test
+  public void testUnchangedMapsAreKept() {
+    MapBean installed = map("Alpha", "pack.ufo", "Alpha desc");
+
+    InstalledMapsDiff diff = InstalledMapsDiff.compute(List.of(installed), archiveName -> true,
+        List.of(map("Alpha", "PACK.ufo", "Alpha desc")));
+
+    assertThat(diff.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testOnlyMapsOfRescannedArchivesAreRemoved() {
+    MapBean alpha = map("Alpha", "alpha.ufo", "");
+    MapBean beta = map("Beta", "beta.ufo", "");
+    MapBean gamma = map("Gamma", "beta.ufo", "");
+    MapBean newBeta = map("Beta", "beta.ufo", "changed");
+
+    InstalledMapsDiff diff = InstalledMapsDiff.compute(List.of(alpha, beta, gamma), Set.of("beta.ufo")::contains,
+        List.of(newBeta));
+
+    assertThat(diff.getRemoved(), contains(beta, gamma));
+    assertThat(diff.getAdded(), contains(newBeta));
+  }
+
+  @Test
+  public void testMapOfOtherArchiveWins() {
+    MapBean alpha = map("Alpha", "alpha.ufo", "");
+    MapBean duplicate = map("Alpha", "new.ufo", "");
+    MapBean delta = map("Delta", "new.ufo", "");
+
+    InstalledMapsDiff diff = InstalledMapsDiff.compute(List.of(alpha), Set.of("new.ufo")::contains,
+        List.of(duplicate, delta));
+
+    assertThat(diff.getRemoved(), is(empty()));
+    assertThat(diff.getAdded(), contains(delta));
+  }
+
+  private static MapBean map(String name, String archiveName, String description) {
+    MapBean mapBean = new MapBean();
+    mapBean.setMapName(name);
+    mapBean.setHpiArchiveName(archiveName);
+    mapBean.setDescription(description);
+    mapBean.setCrc("00000000");
+    mapBean.setSize(MapSize.valueOf(8, 8));
+    return mapBean;
+  }
+}
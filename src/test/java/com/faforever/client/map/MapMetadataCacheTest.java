@@ -0,0 +1,99 @@
+package com.faforever.client.map;
+
+import com.faforever.client.map.MapMetadataCache.Fingerprint;
+import com.faforever.client.map.MapMetadataCache.MapMetadata;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class MapMetadataCacheTest {
+
+  private static final FileTime LAST_MODIFIED = FileTime.fromMillis(1_000_000);
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path cacheFile;
+  private Path archive;
+  private MapMetadataCache instance;
+
+  @Before
+  public void setUp() throws Exception {
+    cacheFile = temporaryFolder.getRoot().toPath().resolve("map-metadata.json");
+    archive = temporaryFolder.newFile("maps.ufo").toPath();
+    Files.writeString(archive, "abc");
+    Files.setLastModifiedTime(archive, LAST_MODIFIED);
+    instance = new MapMetadataCache(cacheFile);
+  }
+
+  @Test
+  public void testUnchangedArchiveIsKnownAfterRestart() throws Exception {
+    instance.putMaps(archive, Fingerprint.of(archive), List.of(map("Alpha", "00000000")));
+    instance.putCrc(archive, "Alpha", "1234abcd");
+    instance.store();
+
+    instance = new MapMetadataCache(cacheFile);
+    Optional<List<MapMetadata>> maps = instance.getMaps(archive, Fingerprint.of(archive));
+
+    assertThat(maps.isPresent(), is(true));
+    assertThat(maps.get(), contains(map("Alpha", "1234abcd")));
+  }
+
+  @Test
+  public void testChangedArchiveIsUnknown() throws Exception {
+    instance.putMaps(archive, Fingerprint.of(archive), List.of(map("Alpha", "00000000")));
+    instance.store();
+
+    Files.writeString(archive, "abcd");
+    Files.setLastModifiedTime(archive, LAST_MODIFIED);
+
+    instance = new MapMetadataCache(cacheFile);
+    assertThat(instance.getMaps(archive, Fingerprint.of(archive)).isPresent(), is(false));
+  }
+
+  @Test
+  public void testStoreOnlyWritesIfSomethingChanged() throws Exception {
+    instance.putMaps(archive, Fingerprint.of(archive), List.of(map("Alpha", "00000000")));
+    instance.store();
+    Files.delete(cacheFile);
+
+    instance.store();
+    assertThat(Files.exists(cacheFile), is(false));
+
+    instance.putCrc(archive, "Alpha", "1234abcd");
+    assertThat(Files.exists(cacheFile), is(false));
+    instance.store();
+    assertThat(Files.exists(cacheFile), is(true));
+  }
+
+  @Test
+  public void testCachedMapsAreNotModifiedByCaller() throws Exception {
+    instance.putMaps(archive, Fingerprint.of(archive), List.of(map("Alpha", "00000000")));
+
+    instance.getMaps(archive, Fingerprint.of(archive)).orElseThrow().get(0).setCrc("ffffffff");
+
+    assertThat(instance.getMaps(archive, Fingerprint.of(archive)).orElseThrow(), contains(map("Alpha", "00000000")));
+  }
+
+  private static MapMetadata map(String name, String crc) {
+    MapMetadata metadata = new MapMetadata();
+    metadata.setName(name);
+    metadata.setArchiveName("maps.ufo");
+    metadata.setDescription(name + " description");
+    metadata.setWidth(8);
+    metadata.setHeight(10);
+    metadata.setCrc(crc);
+    return metadata;
+  }
+}
@@ -0,0 +1,67 @@
+package com.faforever.client.map;
+
+import javafx.scene.image.WritableImage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class MapPreviewThumbnailsTest {
+
+  @Rule
+  public TemporaryFolder thumbnailDirectory = new TemporaryFolder();
+
+  @Test
+  public void testSelectSizePicksSmallestFittingSize() {
+    assertThat(MapPreviewThumbnails.selectSize(20), is(64));
+    assertThat(MapPreviewThumbnails.selectSize(128), is(128));
+    assertThat(MapPreviewThumbnails.selectSize(140), is(256));
+    assertThat(MapPreviewThumbnails.selectSize(512), is(512));
+  }
+
+  @Test
+  public void testSelectSizeLargerThanThumbnails() {
+    assertThat(MapPreviewThumbnails.selectSize(600), is(0));
+  }
+
+  @Test
+  public void testScaleKeepsAspectRatio() {
+    BufferedImage result = MapPreviewThumbnails.scale(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_ARGB), 128);
+
+    assertThat(result.getWidth(), is(128));
+    assertThat(result.getHeight(), is(64));
+  }
+
+  @Test
+  public void testScaleDoesNotUpscale() {
+    BufferedImage source = new BufferedImage(100, 80, BufferedImage.TYPE_INT_ARGB);
+
+    assertThat(MapPreviewThumbnails.scale(source, 128), sameInstance(source));
+  }
+
+  @Test
+  public void testGenerationIsRetriedIfItFailed() {
+    List<Runnable> jobs = new ArrayList<>();
+    MapPreviewThumbnails instance = new MapPreviewThumbnails(thumbnailDirectory.getRoot().toPath(), job -> {
+      jobs.add(job);
+      if (jobs.size() == 1) {
+        throw new RejectedExecutionException();
+      }
+    }, 1024);
+    WritableImage preview = new WritableImage(8, 8);
+
+    instance.generate("mini", "map", preview);
+    instance.generate("mini", "map", preview);
+
+    assertThat(jobs, hasSize(2));
+  }
+}
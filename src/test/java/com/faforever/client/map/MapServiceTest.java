@@ -13,6 +13,7 @@ import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.remote.AssetService;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.task.CompletableTask;
+import com.faforever.client.task.PrioritizedTaskExecutor;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.theme.UiService;
@@ -111,7 +112,7 @@ public class MapServiceTest extends AbstractPlainJavaFxTest {
 
     when(preferencesService.getPreferences()).thenReturn(preferences);
     when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
-    instance = new MapService(preferencesService, taskService, applicationContext,
+    instance = new MapService(preferencesService, taskService, new PrioritizedTaskExecutor(clientProperties), applicationContext,
         fafService, assetService, notificationService, i18n, uiService, clientProperties, eventBus, playerService);
     instance.afterPropertiesSet();
 
@@ -0,0 +1,270 @@
+package com.faforever.client.patch;
+
+import com.faforever.client.api.dto.FeaturedModFile;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DownloadService;
+import com.faforever.client.io.FeaturedModFileCacheService;
+import com.faforever.client.mod.FeaturedMod;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.remote.FafService;
+import com.faforever.client.task.CompletableTask.Lane;
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.task.PrioritizedTaskExecutor;
+import com.faforever.commons.io.ByteCountListener;
+import com.google.common.hash.Hashing;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SimpleHttpFeaturedModUpdaterTaskTest {
+
+  private static final String INIT_FILE_CONTENT = "init";
+
+  @Rule
+  public TemporaryFolder fafDataDirectory = new TemporaryFolder();
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  @Mock
+  private FafService fafService;
+  @Mock
+  private PreferencesService preferencesService;
+  @Mock
+  private DownloadService downloadService;
+  @Mock
+  private I18n i18n;
+
+  private ClientProperties clientProperties;
+  private PrioritizedTaskExecutor taskExecutor;
+  private FeaturedModFileCacheService featuredModFileCacheService;
+  private FeaturedMod featuredMod;
+  private List<Double> progress;
+
+  @Before
+  public void setUp() throws Exception {
+    when(preferencesService.getFafDataDirectory()).thenReturn(fafDataDirectory.getRoot().toPath());
+    when(preferencesService.getFeaturedModCachePath()).thenReturn(cacheDirectory.getRoot().toPath());
+
+    clientProperties = new ClientProperties();
+    taskExecutor = new PrioritizedTaskExecutor(clientProperties);
+    featuredModFileCacheService = new FeaturedModFileCacheService(preferencesService, clientProperties);
+    featuredMod = new FeaturedMod();
+    featuredMod.setTechnicalName("faf");
+    progress = new CopyOnWriteArrayList<>();
+
+    Path initFile = fafDataDirectory.getRoot().toPath().resolve("bin").resolve("init_faf.lua");
+    Files.createDirectories(initFile.getParent());
+    Files.writeString(initFile, INIT_FILE_CONTENT);
+  }
+
+  @After
+  public void tearDown() {
+    taskExecutor.destroy();
+  }
+
+  @Test
+  public void testInstalledFilesAreNotDownloaded() throws Exception {
+    givenFeaturedModFiles(List.of());
+
+    PatchResult result = createTask(taskExecutor).call();
+
+    assertThat(result.getLegacyInitFile(), is(fafDataDirectory.getRoot().toPath().resolve("bin").resolve("init_faf.lua")));
+    verify(downloadService, never()).downloadFileResumable(any(), any(), any());
+  }
+
+  @Test
+  public void testChecksumMismatchIsDownloadedAgainOnce() throws Exception {
+    FeaturedModFile file = featuredModFile("1", "units.hpi", "units");
+    givenFeaturedModFiles(List.of(file));
+    List<String> downloads = new ArrayList<>(List.of("corrupt", "units"));
+    doAnswer(invocation -> {
+      writeDownload(invocation.getArgument(1), downloads.remove(0));
+      return null;
+    }).when(downloadService).downloadFileResumable(eq(new URL(file.getUrl())), any(), any());
+
+    createTask(taskExecutor).call();
+
+    verify(downloadService, times(2)).downloadFileResumable(eq(new URL(file.getUrl())), any(), any());
+    assertThat(Files.readString(installedPath(file)), is("units"));
+  }
+
+  @Test
+  public void testRepeatedChecksumMismatchFails() throws Exception {
+    FeaturedModFile file = featuredModFile("1", "units.hpi", "units");
+    givenFeaturedModFiles(List.of(file));
+    doAnswer(invocation -> {
+      writeDownload(invocation.getArgument(1), "corrupt");
+      return null;
+    }).when(downloadService).downloadFileResumable(eq(new URL(file.getUrl())), any(), any());
+
+    try {
+      createTask(taskExecutor).call();
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      verify(downloadService, times(2)).downloadFileResumable(eq(new URL(file.getUrl())), any(), any());
+      assertThat(Files.exists(featuredModFileCacheService.getCachedFilePath(file)), is(false));
+      assertThat(Files.exists(installedPath(file)), is(false));
+    }
+  }
+
+  @Test
+  public void testDownloadProgressIsAveragedOverAllFiles() throws Exception {
+    FeaturedModFile first = featuredModFile("1", "units.hpi", "units");
+    FeaturedModFile second = featuredModFile("2", "maps.hpi", "maps");
+    givenFeaturedModFiles(List.of(first, second));
+    givenDownloadsReportingHalfwayProgress();
+
+    // Jobs queued on the lanes are never run, so the task processes all files itself, one after another
+    PrioritizedTaskExecutor sequentialExecutor = new PrioritizedTaskExecutor(new ClientProperties()) {
+      @Override
+      public Executor getBulkExecutor(Lane lane, Priority priority) {
+        return runnable -> {
+        };
+      }
+    };
+    createTask(sequentialExecutor).call();
+    sequentialExecutor.destroy();
+
+    int downloadStart = progress.lastIndexOf(0.0);
+    assertThat(progress.subList(downloadStart, progress.size()), contains(0.0, 0.25, 0.5, 0.75, 1.0));
+  }
+
+  @Test
+  public void testFilesAreDownloadedInParallel() throws Exception {
+    FeaturedModFile first = featuredModFile("1", "units.hpi", "units");
+    FeaturedModFile second = featuredModFile("2", "maps.hpi", "maps");
+    givenFeaturedModFiles(List.of(first, second));
+    CyclicBarrier bothDownloading = new CyclicBarrier(2);
+    doAnswer(invocation -> {
+      // Times out unless the other file is being downloaded at the same time
+      bothDownloading.await(5, TimeUnit.SECONDS);
+      URL url = invocation.getArgument(0);
+      writeDownload(invocation.getArgument(1), url.getPath().substring(1));
+      return null;
+    }).when(downloadService).downloadFileResumable(any(), any(), any());
+
+    createTask(taskExecutor).call();
+
+    assertThat(Files.readString(installedPath(first)), is("units"));
+    assertThat(Files.readString(installedPath(second)), is("maps"));
+  }
+
+  @Test
+  public void testWorkersAreLimitedByThreadSettings() throws Exception {
+    clientProperties.getFeaturedModUpdater().setHashThreads(1);
+    clientProperties.getFeaturedModUpdater().setDownloadThreads(2);
+    givenFeaturedModFiles(List.of(
+        featuredModFile("1", "units.hpi", "units"),
+        featuredModFile("2", "maps.hpi", "maps"),
+        featuredModFile("3", "sounds.hpi", "sounds")));
+    givenDownloadsReportingHalfwayProgress();
+
+    List<Lane> workerLanes = new CopyOnWriteArrayList<>();
+    PrioritizedTaskExecutor recordingExecutor = new PrioritizedTaskExecutor(clientProperties) {
+      @Override
+      public Executor getBulkExecutor(Lane lane, Priority priority) {
+        return runnable -> workerLanes.add(lane);
+      }
+    };
+    createTask(recordingExecutor).call();
+    recordingExecutor.destroy();
+
+    // The updater itself is one of the threads
+    assertThat(workerLanes, contains(Lane.NETWORK));
+  }
+
+  private void givenDownloadsReportingHalfwayProgress() throws IOException {
+    doAnswer(invocation -> {
+      URL url = invocation.getArgument(0);
+      Path targetFile = invocation.getArgument(1);
+      ByteCountListener progressListener = invocation.getArgument(2);
+      progressListener.updateBytesProcessed(50, 100);
+      writeDownload(targetFile, url.getPath().substring(1));
+      progressListener.updateBytesProcessed(100, 100);
+      return null;
+    }).when(downloadService).downloadFileResumable(any(), any(), any());
+  }
+
+  private static void writeDownload(Path targetFile, String content) throws IOException {
+    Files.createDirectories(targetFile.getParent());
+    Files.writeString(targetFile, content);
+  }
+
+  private void givenFeaturedModFiles(List<FeaturedModFile> filesToDownload) {
+    List<FeaturedModFile> featuredModFiles = new ArrayList<>(filesToDownload);
+    FeaturedModFile initFile = featuredModFile("0", "init_faf.lua", INIT_FILE_CONTENT);
+    initFile.setGroup("bin");
+    featuredModFiles.add(initFile);
+    when(fafService.getFeaturedModFiles(featuredMod, null)).thenReturn(CompletableFuture.completedFuture(featuredModFiles));
+  }
+
+  private SimpleHttpFeaturedModUpdaterTask createTask(PrioritizedTaskExecutor taskExecutor) {
+    SimpleHttpFeaturedModUpdaterTask task = new SimpleHttpFeaturedModUpdaterTask(fafService, preferencesService,
+        downloadService, i18n, featuredModFileCacheService, taskExecutor, clientProperties) {
+      @Override
+      protected void updateTitle(String title) {
+      }
+
+      @Override
+      protected void updateMessage(String message) {
+      }
+
+      @Override
+      protected void updateProgress(double workDone, double max) {
+        progress.add(workDone / max);
+      }
+    };
+    task.setFeaturedMod(featuredMod);
+    return task;
+  }
+
+  private Path installedPath(FeaturedModFile file) {
+    return fafDataDirectory.getRoot().toPath().resolve(file.getGroup()).resolve(file.getName());
+  }
+
+  /**
+   * Creates a file that is downloaded from {@code http://localhost/<content>} and has the MD5 hash of {@code content}.
+   */
+  private static FeaturedModFile featuredModFile(String id, String name, String content) {
+    FeaturedModFile file = new FeaturedModFile();
+    file.setId(id);
+    file.setVersion("3700");
+    file.setGroup("gamedata");
+    file.setName(name);
+    file.setMd5(Hashing.md5().hashString(content, StandardCharsets.UTF_8).toString());
+    file.setUrl("http://localhost/" + content);
+    return file;
+  }
+}
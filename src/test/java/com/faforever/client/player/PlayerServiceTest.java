@@ -1,9 +1,9 @@
 package com.faforever.client.player;
 
 import com.faforever.client.game.Game;
-import com.faforever.client.game.GameAddedEvent;
-import com.faforever.client.game.GameRemovedEvent;
-import com.faforever.client.game.GameUpdatedEvent;
+import com.faforever.client.game.GamesChangedEvent;
+import com.faforever.client.player.event.PlayersUpdatedEvent;
+import com.faforever.client.player.event.PlayersUpdatingEvent;
 import com.faforever.client.remote.FafService;
 import com.faforever.client.remote.domain.GameStatus;
 import com.faforever.client.remote.domain.PlayersMessage;
@@ -16,24 +16,31 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.ObservableMap;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.util.ReflectionUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.faforever.client.player.SocialStatus.FOE;
 import static com.faforever.client.player.SocialStatus.FRIEND;
+import static com.faforever.client.player.SocialStatus.OTHER;
 import static com.natpryce.hamcrest.reflection.HasAnnotationMatcher.hasAnnotation;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -41,6 +48,9 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -235,12 +245,12 @@ public class PlayerServiceTest {
     Player player1 = instance.createAndGetPlayerForUsername("JUnit1");
     Player player2 = instance.createAndGetPlayerForUsername("JUnit2");
 
-    instance.onGameAdded(new GameAddedEvent(game));
+    instance.onGamesChanged(new GamesChangedEvent(List.of(game), List.of(), List.of()));
 
     assertThat(player1.getGame(), is(game));
     assertThat(player2.getGame(), is(game));
 
-    instance.onGameRemoved(new GameRemovedEvent(game));
+    instance.onGamesChanged(new GamesChangedEvent(List.of(), List.of(), List.of(game)));
 
     assertThat(player1.getGame(), is(nullValue()));
     assertThat(player2.getGame(), is(nullValue()));
@@ -258,14 +268,14 @@ public class PlayerServiceTest {
     Player player2 = instance.createAndGetPlayerForUsername("JUnit2");
     game.setHost("JUnit2");
 
-    instance.onGameAdded(new GameAddedEvent(game));
+    instance.onGamesChanged(new GamesChangedEvent(List.of(game), List.of(), List.of()));
 
     assertThat(player1.getGame(), is(game));
     assertThat(player2.getGame(), is(game));
 
     teams.remove("1");
 
-    instance.onGameUpdated(new GameUpdatedEvent(game));
+    instance.onGamesChanged(new GamesChangedEvent(List.of(), List.of(game), List.of()));
 
     assertThat(player1.getGame(), is(nullValue()));
     assertThat(player2.getGame(), is(game));
@@ -283,16 +293,154 @@ public class PlayerServiceTest {
     Player player2 = instance.createAndGetPlayerForUsername("JUnit2");
     game.setHost("JUnit2");
 
-    instance.onGameAdded(new GameAddedEvent(game));
+    instance.onGamesChanged(new GamesChangedEvent(List.of(game), List.of(), List.of()));
 
     assertThat(player1.getGame(), is(game));
     assertThat(player2.getGame(), is(game));
 
     game.setStatus(GameStatus.ENDED);
 
-    instance.onGameUpdated(new GameUpdatedEvent(game));
+    instance.onGamesChanged(new GamesChangedEvent(List.of(), List.of(game), List.of()));
 
     assertThat(player1.getGame(), is(nullValue()));
     assertThat(player2.getGame(), is(nullValue()));
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testApplyLargePlayerList() {
+    int numberOfPlayers = 5_000;
+    List<Integer> friendIds = new ArrayList<>();
+    List<Integer> foeIds = new ArrayList<>();
+    for (int id = 1; id <= numberOfPlayers; id++) {
+      if (id % 3 == 0) {
+        friendIds.add(id);
+      } else if (id % 3 == 1) {
+        foeIds.add(id);
+      }
+    }
+    SocialMessage socialMessage = new SocialMessage();
+    socialMessage.setFriends(friendIds);
+    socialMessage.setFoes(foeIds);
+    ArgumentCaptor<Consumer<SocialMessage>> socialMessageListenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+    verify(fafService).addOnMessageListener(eq(SocialMessage.class), socialMessageListenerCaptor.capture());
+    socialMessageListenerCaptor.getValue().accept(socialMessage);
+
+    List<Game> games = new ArrayList<>();
+    for (int gameId = 1; gameId <= numberOfPlayers / 5; gameId++) {
+      Game game = new Game();
+      game.setId(gameId);
+      game.setStatus(GameStatus.STAGING);
+      List<String> team = new ArrayList<>();
+      for (int slot = 0; slot < 5; slot++) {
+        team.add("player" + ((gameId - 1) * 5 + slot + 1));
+      }
+      game.getTeams().put("1", team);
+      games.add(game);
+    }
+
+    List<com.faforever.client.remote.domain.Player> dtos = playerDtos(numberOfPlayers, com.faforever.client.remote.domain.PlayerStatus.IDLE);
+
+    instance.applyPlayerUpdates(dtos);
+    instance.onGamesChanged(new GamesChangedEvent(games, List.of(), List.of()));
+
+    assertThat(instance.getPlayerForUsername("player3").orElseThrow().getSocialStatus(), is(FRIEND));
+    assertThat(instance.getPlayerForUsername("player4").orElseThrow().getSocialStatus(), is(FOE));
+    assertThat(instance.getPlayerForUsername("player5").orElseThrow().getSocialStatus(), is(OTHER));
+    assertThat(instance.getPlayerForUsername("player" + numberOfPlayers).orElseThrow().getGame(),
+        is(games.get(games.size() - 1)));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPlayerUpdatesAreAppliedInPulses() {
+    AtomicInteger scheduledPulses = new AtomicInteger();
+    instance = new PlayerService(fafService, userService, eventBus) {
+      @Override
+      void schedulePendingPlayerUpdates() {
+        scheduledPulses.incrementAndGet();
+      }
+    };
+    clearInvocations(fafService, eventBus);
+    instance.afterPropertiesSet();
+    ArgumentCaptor<Consumer<PlayersMessage>> playersMessageListenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+    verify(fafService).addOnMessageListener(eq(PlayersMessage.class), playersMessageListenerCaptor.capture());
+
+    PlayersMessage allPlayers = new PlayersMessage();
+    allPlayers.setPlayers(playerDtos(2 * PlayerService.MAX_PLAYER_UPDATES_PER_PULSE + 200, com.faforever.client.remote.domain.PlayerStatus.PLAYING));
+    playersMessageListenerCaptor.getValue().accept(allPlayers);
+    PlayersMessage firstPlayerAgain = new PlayersMessage();
+    firstPlayerAgain.setPlayers(playerDtos(1, com.faforever.client.remote.domain.PlayerStatus.PLAYING));
+    playersMessageListenerCaptor.getValue().accept(firstPlayerAgain);
+
+    assertThat(scheduledPulses.get(), is(1));
+    verify(eventBus, never()).post(any());
+
+    for (int pulse = 0; pulse < scheduledPulses.get(); pulse++) {
+      instance.applyPendingPlayerUpdates();
+    }
+
+    assertThat(scheduledPulses.get(), is(3));
+    ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
+    verify(eventBus, times(6)).post(eventCaptor.capture());
+    List<PlayersUpdatedEvent> updatedEvents = eventCaptor.getAllValues().stream()
+        .filter(PlayersUpdatedEvent.class::isInstance)
+        .map(PlayersUpdatedEvent.class::cast)
+        .collect(Collectors.toList());
+    assertThat(updatedEvents.stream().map(event -> event.getPlayers().size()).collect(Collectors.toList()),
+        contains(PlayerService.MAX_PLAYER_UPDATES_PER_PULSE, PlayerService.MAX_PLAYER_UPDATES_PER_PULSE, 200));
+    // The player updated again is applied once, in the order of its latest update
+    List<Player> lastBatch = updatedEvents.get(2).getPlayers();
+    assertThat(lastBatch.get(lastBatch.size() - 1), is(instance.getPlayerForUsername("player1").orElseThrow()));
+  }
+
+  @Test
+  public void testPlayerMovedToAnotherGameKeepsNewGame() {
+    Player player = instance.createAndGetPlayerForUsername("JUnit1");
+    Game oldGame = new Game();
+    oldGame.setId(1);
+    oldGame.setStatus(GameStatus.STAGING);
+    oldGame.getTeams().put("1", new ArrayList<>(List.of("JUnit1")));
+    instance.onGamesChanged(new GamesChangedEvent(List.of(oldGame), List.of(), List.of()));
+
+    Game newGame = new Game();
+    newGame.setId(2);
+    newGame.setStatus(GameStatus.STAGING);
+    newGame.getTeams().put("1", List.of("JUnit1"));
+    instance.onGamesChanged(new GamesChangedEvent(List.of(newGame), List.of(), List.of()));
+    oldGame.getTeams().clear();
+    instance.onGamesChanged(new GamesChangedEvent(List.of(), List.of(oldGame), List.of()));
+
+    assertThat(player.getGame(), is(newGame));
+  }
+
+  @Test
+  public void testApplyPlayerUpdatesPostsOneEventPerBatch() {
+    instance.applyPlayerUpdates(playerDtos(2, com.faforever.client.remote.domain.PlayerStatus.PLAYING));
+
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(eventBus, times(2)).post(captor.capture());
+    assertThat(captor.getAllValues().get(0), instanceOf(PlayersUpdatingEvent.class));
+    assertThat(((PlayersUpdatedEvent) captor.getAllValues().get(1)).getPlayers(), contains(
+        instance.getPlayerForUsername("player1").orElseThrow(),
+        instance.getPlayerForUsername("player2").orElseThrow()));
+  }
+
+  /**
+   * Creates the player infos the server would send for players with the IDs 1 to {@code count}, named "player"
+   * followed by their ID.
+   */
+  private static List<com.faforever.client.remote.domain.Player> playerDtos(int count, com.faforever.client.remote.domain.PlayerStatus state) {
+    List<com.faforever.client.remote.domain.Player> dtos = new ArrayList<>();
+    for (int id = 1; id <= count; id++) {
+      com.faforever.client.remote.domain.Player dto = new com.faforever.client.remote.domain.Player();
+      dto.setId(id);
+      dto.setLogin("player" + id);
+      dto.setState(state);
+      dto.setCurrentGameUid(0);
+      dto.setNumberOfGames(0);
+      dtos.add(dto);
+    }
+    return dtos;
+  }
 }
@@ -0,0 +1,96 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.remote.ImageCacheIndex.EvictionCandidate;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class ImageCacheIndexTest {
+
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  private Path indexFile;
+  private ImageCacheIndex instance;
+
+  @Before
+  public void setUp() throws Exception {
+    indexFile = cacheDirectory.getRoot().toPath().resolve("image-cache-index.json");
+    instance = new ImageCacheIndex(cacheDirectory.getRoot().toPath(), indexFile);
+  }
+
+  @Test
+  public void testRecordUseUpdatesTotalSize() throws Exception {
+    Path avatar = createCachedFile("avatars/a.png", 10);
+    instance.recordUse(avatar);
+    instance.recordUse(createCachedFile("maps/mini/b.png", 20));
+
+    Files.write(avatar, new byte[5]);
+    instance.recordUse(avatar);
+
+    assertThat(instance.getTotalSize(), is(25L));
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsedFirst() throws Exception {
+    Path old = createCachedFile("avatars/old.png", 10);
+    Path middle = createCachedFile("avatars/middle.png", 10);
+    Path recent = createCachedFile("avatars/recent.png", 10);
+    recordUses(middle, old, recent, middle);
+
+    List<EvictionCandidate> candidates = instance.selectEvictionCandidates(15);
+    assertThat(candidates.stream().map(EvictionCandidate::getPath).collect(Collectors.toList()),
+        contains("avatars/old.png", "avatars/recent.png"));
+
+    assertThat(instance.evict(candidates.get(0)), is(true));
+    assertThat(Files.exists(old), is(false));
+    assertThat(instance.getTotalSize(), is(20L));
+  }
+
+  @Test
+  public void testFileUsedAfterSelectionIsNotEvicted() throws Exception {
+    Path avatar = createCachedFile("avatars/a.png", 10);
+    instance.recordUse(avatar);
+    EvictionCandidate candidate = instance.selectEvictionCandidates(0).get(0);
+
+    Thread.sleep(5);
+    instance.recordUse(avatar);
+
+    assertThat(instance.evict(candidate), is(false));
+    assertThat(Files.exists(avatar), is(true));
+  }
+
+  @Test
+  public void testIndexIsKeptAcrossRestarts() throws Exception {
+    instance.recordUse(createCachedFile("avatars/a.png", 10));
+    instance.store();
+
+    instance = new ImageCacheIndex(cacheDirectory.getRoot().toPath(), indexFile);
+
+    assertThat(instance.getTotalSize(), is(10L));
+  }
+
+  private void recordUses(Path... files) throws InterruptedException {
+    for (Path file : files) {
+      instance.recordUse(file);
+      Thread.sleep(5);
+    }
+  }
+
+  private Path createCachedFile(String relativePath, int size) throws Exception {
+    Path file = cacheDirectory.getRoot().toPath().resolve(relativePath);
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[size]);
+    return file;
+  }
+}
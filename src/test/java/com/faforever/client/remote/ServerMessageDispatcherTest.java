@@ -0,0 +1,77 @@
+package com.faforever.client.remote;
+
+import com.faforever.client.remote.domain.FafServerMessage;
+import com.faforever.client.remote.domain.GameInfoMessage;
+import com.faforever.client.remote.domain.PlayersMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class ServerMessageDispatcherTest {
+
+  private ServerMessageDispatcher instance;
+  private List<String> invocations;
+
+  @Before
+  public void setUp() throws Exception {
+    instance = new ServerMessageDispatcher();
+    invocations = new ArrayList<>();
+  }
+
+  @Test
+  public void testDispatchToTypeAndSuperTypes() {
+    instance.addListener(FafServerMessage.class, message -> invocations.add("super"));
+    instance.addListener(GameInfoMessage.class, message -> invocations.add("game"));
+    instance.addListener(PlayersMessage.class, message -> invocations.add("players"));
+
+    instance.dispatch(new GameInfoMessage());
+
+    assertThat(invocations, contains("game", "super"));
+  }
+
+  @Test
+  public void testListenerAddedAfterDispatchIsCalled() {
+    instance.addListener(GameInfoMessage.class, message -> invocations.add("first"));
+    instance.dispatch(new GameInfoMessage());
+
+    instance.addListener(GameInfoMessage.class, message -> invocations.add("second"));
+    instance.dispatch(new GameInfoMessage());
+
+    assertThat(invocations, contains("first", "first", "second"));
+  }
+
+  @Test
+  public void testRemoveListener() {
+    Consumer<GameInfoMessage> listener = message -> invocations.add("game");
+    instance.addListener(GameInfoMessage.class, listener);
+    instance.dispatch(new GameInfoMessage());
+
+    instance.removeListener(GameInfoMessage.class, listener);
+    instance.removeListener(PlayersMessage.class, message -> invocations.add("never registered"));
+    invocations.clear();
+    instance.dispatch(new GameInfoMessage());
+
+    assertThat(invocations, is(empty()));
+  }
+
+  @Test
+  public void testStatistics() {
+    instance.addListener(GameInfoMessage.class, message -> invocations.add("game"));
+
+    instance.dispatch(new GameInfoMessage());
+    instance.dispatch(new GameInfoMessage());
+
+    assertThat(instance.getStatistics().get(GameInfoMessage.class).getCount(), is(2L));
+    assertThat(instance.getStatistics(), not(hasKey(PlayersMessage.class)));
+  }
+}
@@ -0,0 +1,36 @@
+package com.faforever.client.remote.gson;
+
+import com.faforever.client.remote.domain.GameInfoMessage;
+import com.google.gson.stream.JsonReader;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ServerMessageTypeAdapterTest {
+
+  @Test
+  public void testPeekMessageTypeSkipsOtherFields() throws Exception {
+    JsonReader jsonReader = new JsonReader(new StringReader(
+        "{\"games\": [{\"uid\": 1, \"teams\": {\"1\": [\"a\"]}}], \"target\": null, \"command\": \"game_info\"}"));
+
+    assertThat(ServerMessageTypeAdapter.peekMessageType(jsonReader), is(GameInfoMessage.class));
+  }
+
+  @Test
+  public void testPeekMessageTypeUnknownCommand() throws Exception {
+    JsonReader jsonReader = new JsonReader(new StringReader("{\"command\": \"does_not_exist\"}"));
+
+    assertThat(ServerMessageTypeAdapter.peekMessageType(jsonReader), is(nullValue()));
+  }
+
+  @Test
+  public void testPeekMessageTypeWithoutCommand() throws Exception {
+    JsonReader jsonReader = new JsonReader(new StringReader("{\"target\": \"game\"}"));
+
+    assertThat(ServerMessageTypeAdapter.peekMessageType(jsonReader), is(nullValue()));
+  }
+}
@@ -0,0 +1,44 @@
+package com.faforever.client.remote.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.CharBuffer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class QDataInputStreamTest {
+
+  @Test
+  public void testReadQCharsReusesBuffer() throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    QDataWriter qDataWriter = new QDataWriter(outputStream);
+    qDataWriter.append("{\"command\": \"ping\"}");
+    qDataWriter.append("äöü 中文");
+    qDataWriter.append(null);
+
+    QDataInputStream instance = new QDataInputStream(new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+
+    CharBuffer first = instance.readQChars();
+    assertThat(first.toString(), is("{\"command\": \"ping\"}"));
+    CharBuffer second = instance.readQChars();
+    assertThat(second.toString(), is("äöü 中文"));
+    assertThat(second == first, is(true));
+    assertThat(instance.readQChars(), is(nullValue()));
+  }
+
+  @Test
+  public void testReadQCharsGrowsBuffer() throws Exception {
+    String longString = "x".repeat(100_000);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    new QDataWriter(outputStream).append(longString);
+
+    QDataInputStream instance = new QDataInputStream(new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+
+    assertThat(instance.readQChars().toString(), is(longString));
+  }
+}
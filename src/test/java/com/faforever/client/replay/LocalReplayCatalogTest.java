@@ -0,0 +1,108 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.PreferencesService;
+import com.faforever.client.replay.LocalReplayCatalog.CatalogEntry;
+import com.faforever.client.util.Tuple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LocalReplayCatalogTest {
+
+  @Rule
+  public TemporaryFolder replaysDirectory = new TemporaryFolder();
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  @Mock
+  private PreferencesService preferencesService;
+  @Mock
+  private ReplayFileReader replayFileReader;
+
+  private LocalReplayCatalog instance;
+
+  @Before
+  public void setUp() throws Exception {
+    when(preferencesService.getReplaysDirectory()).thenReturn(replaysDirectory.getRoot().toPath());
+    when(preferencesService.getCacheDirectory()).thenReturn(cacheDirectory.getRoot().toPath());
+    instance = new LocalReplayCatalog(new ClientProperties(), preferencesService, replayFileReader);
+  }
+
+  @After
+  public void tearDown() {
+    instance.destroy();
+  }
+
+  @Test
+  public void testGetPageSortsNewestFirst() throws Exception {
+    givenReadableReplays();
+    createReplay("1-old.tad", 1000);
+    createReplay("2-new.tad", 3000);
+    createReplay("3-middle.tad", 2000);
+
+    Tuple<List<CatalogEntry>, Integer> page = instance.getPage(2, 1);
+
+    assertThat(page.getFirst().stream().map(CatalogEntry::getFileName).collect(Collectors.toList()), contains("2-new.tad", "3-middle.tad"));
+    assertThat(page.getSecond(), is(1));
+  }
+
+  @Test
+  public void testUnchangedReplaysAreNotParsedAgainAfterRestart() throws Exception {
+    givenReadableReplays();
+    createReplay("1-replay.tad", 1000);
+    instance.getPage(10, 1);
+    instance.destroy();
+
+    instance = new LocalReplayCatalog(new ClientProperties(), preferencesService, replayFileReader);
+    Tuple<List<CatalogEntry>, Integer> page = instance.getPage(10, 1);
+
+    assertThat(page.getFirst().get(0).getReplayInfo().getTitle(), is("1-replay.tad"));
+    verify(replayFileReader, times(1)).parseMetaData(any());
+  }
+
+  @Test
+  public void testUnreadableReplayHasNoReplayInfo() throws Exception {
+    when(replayFileReader.parseMetaData(any())).thenThrow(new IllegalArgumentException("corrupt"));
+    createReplay("1-corrupt.tad", 1000);
+
+    Tuple<List<CatalogEntry>, Integer> page = instance.getPage(10, 1);
+
+    assertThat(page.getFirst().get(0).getReplayInfo(), nullValue());
+  }
+
+  private void givenReadableReplays() {
+    when(replayFileReader.parseMetaData(any())).thenAnswer(invocation -> {
+      LocalReplayInfo replayInfo = new LocalReplayInfo();
+      replayInfo.setTitle(((Path) invocation.getArgument(0)).getFileName().toString());
+      return replayInfo;
+    });
+  }
+
+  private void createReplay(String fileName, long lastModified) throws Exception {
+    Path replayFile = replaysDirectory.getRoot().toPath().resolve(fileName);
+    Files.writeString(replayFile, "{}\n");
+    Files.setLastModifiedTime(replayFile, FileTime.fromMillis(lastModified));
+  }
+}
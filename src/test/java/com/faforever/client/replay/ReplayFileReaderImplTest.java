@@ -1,20 +1,29 @@
 package com.faforever.client.replay;
 
+import com.faforever.commons.replay.QtCompress;
+import com.google.common.io.BaseEncoding;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertThat;
 
 public class ReplayFileReaderImplTest {
 
+  private static final byte[] REPLAY_DATA = "TA Demo\0 some replay body".repeat(1000).getBytes(StandardCharsets.US_ASCII);
+
   @Rule
   public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
@@ -33,4 +42,51 @@ public class ReplayFileReaderImplTest {
     }
     assertThat(instance.readRawReplayData(tempFile).length, is(197007));
   }
+
+  @Test
+  public void parseMetaDataReadsHeaderOnly() throws Exception {
+    Path replayFile = writeReplay("{\"title\": \"Test game\", \"uid\": 1234}", "this is not base64 and never read");
+
+    LocalReplayInfo replayInfo = instance.parseMetaData(replayFile);
+
+    assertThat(replayInfo.getTitle(), is("Test game"));
+    assertThat(replayInfo.getUid(), is(1234));
+  }
+
+  @Test
+  public void readQtCompressedReplayData() throws Exception {
+    String body = BaseEncoding.base64().encode(QtCompress.qCompress(REPLAY_DATA));
+    Path replayFile = writeReplay("{}", body);
+
+    assertArrayEquals(REPLAY_DATA, instance.readRawReplayData(replayFile));
+  }
+
+  @Test
+  public void readZstdCompressedReplayData() throws Exception {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (ZstdCompressorOutputStream outputStream = new ZstdCompressorOutputStream(compressed)) {
+      outputStream.write(REPLAY_DATA);
+    }
+    Path replayFile = temporaryFolder.getRoot().toPath().resolve("replay.tad");
+    Files.write(replayFile, "{\"compression\": \"zstd\"}\n".getBytes(StandardCharsets.UTF_8));
+    Files.write(replayFile, compressed.toByteArray(), StandardOpenOption.APPEND);
+
+    try (InputStream inputStream = instance.openReplayDataStream(replayFile)) {
+      assertArrayEquals(REPLAY_DATA, inputStream.readAllBytes());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void parseMetaDataWithoutSeparator() throws Exception {
+    Path replayFile = temporaryFolder.getRoot().toPath().resolve("replay.tad");
+    Files.writeString(replayFile, "{\"title\": \"Test game\"}");
+
+    instance.parseMetaData(replayFile);
+  }
+
+  private Path writeReplay(String header, String body) throws Exception {
+    Path replayFile = temporaryFolder.getRoot().toPath().resolve("replay.tad");
+    Files.writeString(replayFile, header + "\n" + body);
+    return replayFile;
+  }
 }
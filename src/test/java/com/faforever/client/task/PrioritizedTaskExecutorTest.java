@@ -0,0 +1,171 @@
+package com.faforever.client.task;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.task.CompletableTask.Lane;
+import com.faforever.client.task.CompletableTask.Priority;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PrioritizedTaskExecutorTest {
+
+  private PrioritizedTaskExecutor instance;
+  private List<String> executedTasks;
+
+  @Before
+  public void setUp() throws Exception {
+    ClientProperties clientProperties = new ClientProperties();
+    clientProperties.getTasks().setCpuThreads(1);
+    clientProperties.getTasks().setNetworkThreads(2);
+    instance = new PrioritizedTaskExecutor(clientProperties);
+    executedTasks = new CopyOnWriteArrayList<>();
+  }
+
+  @After
+  public void tearDown() {
+    instance.destroy();
+  }
+
+  @Test
+  public void testHigherPriorityRunsFirst() throws Exception {
+    CountDownLatch blockerStarted = new CountDownLatch(1);
+    CountDownLatch releaseBlocker = new CountDownLatch(1);
+    CountDownLatch allDone = new CountDownLatch(4);
+
+    instance.execute(task("blocker", Priority.LOW, Lane.CPU, () -> {
+      blockerStarted.countDown();
+      releaseBlocker.await();
+    }, allDone));
+    assertThat(blockerStarted.await(5, TimeUnit.SECONDS), is(true));
+
+    instance.execute(task("low", Priority.LOW, Lane.CPU, () -> {}, allDone));
+    instance.execute(task("high", Priority.HIGH, Lane.CPU, () -> {}, allDone));
+    instance.execute(task("medium", Priority.MEDIUM, Lane.CPU, () -> {}, allDone));
+
+    assertThat(instance.getQueueStatistics().get(Priority.LOW).getQueuedTasks(), is(1));
+    assertThat(instance.getQueueStatistics().get(Priority.HIGH).getQueuedTasks(), is(1));
+
+    releaseBlocker.countDown();
+    assertThat(allDone.await(5, TimeUnit.SECONDS), is(true));
+
+    assertThat(executedTasks, contains("blocker", "high", "medium", "low"));
+    assertThat(instance.getQueueStatistics().get(Priority.LOW).getQueuedTasks(), is(0));
+    assertThat(instance.getQueueStatistics().get(Priority.LOW).getStartedTasks(), is(2L));
+  }
+
+  @Test
+  public void testLanesDoNotBlockEachOther() throws Exception {
+    CountDownLatch releaseBlocker = new CountDownLatch(1);
+    CountDownLatch networkDone = new CountDownLatch(1);
+
+    instance.execute(task("cpu", Priority.HIGH, Lane.CPU, releaseBlocker::await, new CountDownLatch(1)));
+    instance.execute(task("network", Priority.LOW, Lane.NETWORK, () -> {}, networkDone));
+
+    assertThat(networkDone.await(5, TimeUnit.SECONDS), is(true));
+    releaseBlocker.countDown();
+  }
+
+  @Test
+  public void testJobsAreQueuedWithTasksOfTheirLane() throws Exception {
+    CountDownLatch blockerStarted = new CountDownLatch(1);
+    CountDownLatch releaseBlocker = new CountDownLatch(1);
+    CountDownLatch allDone = new CountDownLatch(3);
+
+    instance.execute(task("blocker", Priority.LOW, Lane.CPU, () -> {
+      blockerStarted.countDown();
+      releaseBlocker.await();
+    }, allDone));
+    assertThat(blockerStarted.await(5, TimeUnit.SECONDS), is(true));
+
+    instance.getExecutor(Lane.CPU, Priority.LOW).execute(() -> {
+      executedTasks.add("job");
+      allDone.countDown();
+    });
+    instance.execute(task("high", Priority.HIGH, Lane.CPU, () -> {}, allDone));
+
+    assertThat(instance.getQueueStatistics().get(Priority.LOW).getQueuedTasks(), is(1));
+
+    releaseBlocker.countDown();
+    assertThat(allDone.await(5, TimeUnit.SECONDS), is(true));
+
+    assertThat(executedTasks, contains("blocker", "high", "job"));
+  }
+
+  @Test
+  public void testShortJobStartsWhileBulkTasksAreRunning() throws Exception {
+    CountDownLatch blockerStarted = new CountDownLatch(1);
+    CountDownLatch releaseBlockers = new CountDownLatch(1);
+    CountDownLatch blockersDone = new CountDownLatch(2);
+    CountDownLatch jobDone = new CountDownLatch(1);
+
+    instance.execute(task("first download", Priority.HIGH, Lane.NETWORK, () -> {
+      blockerStarted.countDown();
+      releaseBlockers.await();
+    }, blockersDone));
+    instance.execute(task("second download", Priority.HIGH, Lane.NETWORK, releaseBlockers::await, blockersDone));
+    assertThat(blockerStarted.await(5, TimeUnit.SECONDS), is(true));
+
+    instance.getExecutor(Lane.NETWORK, Priority.HIGH).execute(() -> {
+      executedTasks.add("job");
+      jobDone.countDown();
+    });
+
+    assertThat(jobDone.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(executedTasks, contains("first download", "job"));
+
+    releaseBlockers.countDown();
+    assertThat(blockersDone.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(executedTasks, contains("first download", "job", "second download"));
+  }
+
+  @Test
+  public void testBulkJobsDoNotUseReservedThread() throws Exception {
+    CountDownLatch blockerStarted = new CountDownLatch(1);
+    CountDownLatch releaseBlocker = new CountDownLatch(1);
+    CountDownLatch bulkJobDone = new CountDownLatch(1);
+
+    instance.execute(task("download", Priority.HIGH, Lane.NETWORK, () -> {
+      blockerStarted.countDown();
+      releaseBlocker.await();
+    }, new CountDownLatch(1)));
+    assertThat(blockerStarted.await(5, TimeUnit.SECONDS), is(true));
+
+    instance.getBulkExecutor(Lane.NETWORK, Priority.HIGH).execute(bulkJobDone::countDown);
+
+    assertThat(bulkJobDone.await(200, TimeUnit.MILLISECONDS), is(false));
+    assertThat(instance.getQueueStatistics().get(Priority.HIGH).getQueuedTasks(), is(1));
+
+    releaseBlocker.countDown();
+    assertThat(bulkJobDone.await(5, TimeUnit.SECONDS), is(true));
+  }
+
+  @SuppressWarnings("unchecked")
+  private PrioritizedCompletableTask<Void> task(String name, Priority priority, Lane lane, Work work, CountDownLatch done) {
+    PrioritizedCompletableTask<Void> task = mock(PrioritizedCompletableTask.class);
+    when(task.getPriority()).thenReturn(priority);
+    when(task.getLane()).thenReturn(lane);
+    doAnswer(invocation -> {
+      executedTasks.add(name);
+      work.run();
+      done.countDown();
+      return null;
+    }).when(task).run();
+    return task;
+  }
+
+  private interface Work {
+    void run() throws Exception;
+  }
+}
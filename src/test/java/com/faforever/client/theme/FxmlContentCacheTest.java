@@ -0,0 +1,63 @@
+package com.faforever.client.theme;
+
+import com.faforever.client.theme.FxmlContentCache.FxmlContent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.github.nocatch.NoCatch.noCatch;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class FxmlContentCacheTest {
+
+  @Rule
+  public TemporaryFolder themeDirectory = new TemporaryFolder();
+
+  private Path fxmlFile;
+  private AtomicInteger resolvedLocations;
+  private Function<String, URL> locationResolver;
+  private FxmlContentCache instance;
+
+  @Before
+  public void setUp() throws Exception {
+    fxmlFile = themeDirectory.getRoot().toPath().resolve("card.fxml");
+    Files.writeString(fxmlFile, "<Pane/>");
+    resolvedLocations = new AtomicInteger();
+    locationResolver = relativePath -> {
+      resolvedLocations.incrementAndGet();
+      return noCatch(() -> themeDirectory.getRoot().toPath().resolve(relativePath).toUri().toURL());
+    };
+    instance = new FxmlContentCache();
+  }
+
+  @Test
+  public void testContentIsReadOnce() throws Exception {
+    instance.get("card.fxml", locationResolver);
+    Files.writeString(fxmlFile, "<VBox/>");
+    FxmlContent content = instance.get("card.fxml", locationResolver);
+
+    assertThat(new String(content.getContent(), StandardCharsets.UTF_8), is("<Pane/>"));
+    assertThat(content.getLocation(), is(fxmlFile.toUri().toURL()));
+    assertThat(resolvedLocations.get(), is(1));
+  }
+
+  @Test
+  public void testInvalidateReadsContentAgain() throws Exception {
+    instance.get("card.fxml", locationResolver);
+    Files.writeString(fxmlFile, "<VBox/>");
+    instance.invalidate();
+    FxmlContent content = instance.get("card.fxml", locationResolver);
+
+    assertThat(new String(content.openStream().readAllBytes(), StandardCharsets.UTF_8), is("<VBox/>"));
+    assertThat(resolvedLocations.get(), is(2));
+  }
+}
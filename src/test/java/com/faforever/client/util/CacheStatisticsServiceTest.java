@@ -0,0 +1,85 @@
+package com.faforever.client.util;
+
+import com.faforever.client.config.CacheConfig;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.util.CacheStatisticsService.CacheStatistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.faforever.client.config.CacheNames.MAPS;
+import static com.faforever.client.config.CacheNames.MAP_PREVIEW;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class CacheStatisticsServiceTest {
+
+  private ClientProperties clientProperties;
+  private SimpleCacheManager cacheManager;
+  private TaskScheduler taskScheduler;
+  private CacheStatisticsService instance;
+
+  @Before
+  public void setUp() {
+    clientProperties = new ClientProperties();
+    clientProperties.getCache().getMaxImageWeights().put(MAP_PREVIEW, 100L);
+    clientProperties.getCache().setStatisticsLogInterval(Duration.ZERO);
+    cacheManager = (SimpleCacheManager) new CacheConfig(clientProperties).cacheManager();
+    cacheManager.afterPropertiesSet();
+    taskScheduler = mock(TaskScheduler.class);
+
+    instance = new CacheStatisticsService(cacheManager, taskScheduler, clientProperties);
+    instance.afterPropertiesSet();
+  }
+
+  @Test
+  public void testStatisticsAreRecordedForEveryCache() {
+    Cache maps = cacheManager.getCache(MAPS);
+    maps.get("a");
+    maps.put("a", "map");
+    maps.get("a");
+
+    Map<String, CacheStatistics> statistics = statisticsByName();
+
+    assertThat(statistics.size(), is(cacheManager.getCacheNames().size()));
+    assertThat(statistics.get(MAPS).getHitCount(), is(1L));
+    assertThat(statistics.get(MAPS).getMissCount(), is(1L));
+    assertThat(statistics.get(MAPS).getWeightedSize(), is(nullValue()));
+  }
+
+  @Test
+  public void testConfiguredImageCacheIsLimitedByWeight() {
+    cacheManager.getCache(MAP_PREVIEW).put("a", "not an image");
+
+    assertThat(statisticsByName().get(MAP_PREVIEW).getWeightedSize(), is(1L));
+  }
+
+  @Test
+  public void testDumpContainsEveryCache() {
+    String dump = instance.dump();
+
+    for (String cacheName : cacheManager.getCacheNames()) {
+      assertThat(dump, containsString(cacheName));
+    }
+  }
+
+  @Test
+  public void testLoggingDisabled() {
+    verifyNoInteractions(taskScheduler);
+  }
+
+  private Map<String, CacheStatistics> statisticsByName() {
+    return instance.getCacheStatistics().stream()
+        .collect(Collectors.toMap(CacheStatistics::getName, statistics -> statistics));
+  }
+}
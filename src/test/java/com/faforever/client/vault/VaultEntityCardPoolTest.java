@@ -0,0 +1,52 @@
+package com.faforever.client.vault;
+
+import com.faforever.client.vault.VaultEntityCardPool.Cards;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+public class VaultEntityCardPoolTest {
+
+  private AtomicInteger createdCards;
+  private VaultEntityCardPool<Integer> instance;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    createdCards = new AtomicInteger();
+    instance = new VaultEntityCardPool<>(() -> {
+      createdCards.incrementAndGet();
+      return mock(VaultEntityCardController.class);
+    });
+  }
+
+  @Test
+  public void testAcquireCreatesMissingCards() {
+    Cards<Integer> cards = instance.acquire(5);
+
+    assertThat(cards.getCards(), hasSize(5));
+    assertThat(cards.getCreatedCards(), is(5));
+    assertThat(createdCards.get(), is(5));
+  }
+
+  @Test
+  public void testReleasedCardsAreReused() {
+    Cards<Integer> firstPage = instance.acquire(5);
+    instance.release(firstPage.getCards());
+
+    Cards<Integer> secondPage = instance.acquire(7);
+
+    assertThat(secondPage.getCards(), hasSize(7));
+    assertThat(secondPage.getCreatedCards(), is(2));
+    assertThat(secondPage.getCards().get(0), is(sameInstance(firstPage.getCards().get(0))));
+    assertThat(createdCards.get(), is(7));
+    assertThat(instance.getFreeCardCount(), is(0));
+  }
+}
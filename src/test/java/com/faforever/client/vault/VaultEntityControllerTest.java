@@ -13,6 +13,7 @@ import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.test.AbstractPlainJavaFxTest;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.util.Tuple;
+import com.faforever.client.vault.VaultEntityController.State;
 import com.faforever.client.vault.search.SearchController;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.google.common.eventbus.EventBus;
@@ -31,12 +32,17 @@ import org.testfx.util.WaitForAsyncUtils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static com.faforever.client.vault.VaultEntityController.TOP_ELEMENT_COUNT;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class VaultEntityControllerTest extends AbstractPlainJavaFxTest {
@@ -68,6 +74,7 @@ public class VaultEntityControllerTest extends AbstractPlainJavaFxTest {
   private Label showRoomLabel;
   private Button moreButton;
   private FlowPane showRoomPane;
+  private RuntimeException setEntityFailure;
 
 
   private List<Integer> createMockElements(int numberOfElements) {
@@ -114,10 +121,26 @@ public class VaultEntityControllerTest extends AbstractPlainJavaFxTest {
         //Do Nothing
       }
       @Override
-      protected Node getEntityCard(Integer integer) {
+      protected VaultEntityCardController<Integer> createEntityCard() {
         GridPane card = new GridPane();
-        card.setUserData(integer);
-        return card;
+        return new VaultEntityCardController<>() {
+          @Override
+          public void setEntity(Integer integer) {
+            if (setEntityFailure != null) {
+              throw setEntityFailure;
+            }
+            card.setUserData(integer);
+          }
+
+          @Override
+          public void setOnOpenDetailListener(Consumer<Integer> onOpenDetailListener) {
+          }
+
+          @Override
+          public Node getRoot() {
+            return card;
+          }
+        };
       }
 
       @Override
@@ -228,6 +251,36 @@ public class VaultEntityControllerTest extends AbstractPlainJavaFxTest {
     }
   }
 
+  @Test
+  public void testSearchErrorIfCardCannotBeBound() {
+    JavaFxUtil.runLater(() -> instance.display(new NavigateEvent(NavigationItem.MAP)));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    setEntityFailure = new IllegalStateException("broken entity");
+    moreButton.fire();
+    WaitForAsyncUtils.waitForFxEvents();
+
+    verify(notificationService).addImmediateErrorNotification(any(), eq("vault.searchError"));
+    assertEquals(State.RESULT, instance.state.get());
+    assertTrue(instance.searchResultGroup.isVisible());
+    assertFalse(instance.loadingPane.isVisible());
+  }
+
+  @Test
+  public void testPopulationsOfOnePaneReleaseAllCards() throws Exception {
+    FlowPane pane = new FlowPane();
+
+    CompletableFuture<Void> firstPopulation = instance.populate(createMockElements(7), pane);
+    CompletableFuture<Void> secondPopulation = instance.populate(createMockElements(5), pane);
+    CompletableFuture.allOf(firstPopulation, secondPopulation).get(5, TimeUnit.SECONDS);
+    assertEquals(5, pane.getChildren().size());
+
+    instance.populate(createMockElements(7), pane).get(5, TimeUnit.SECONDS);
+
+    assertEquals(7, pane.getChildren().size());
+    assertEquals(0, instance.getLastPageStatistics().getFxmlLoads());
+  }
+
   @Test
   public void testLastPageButton() {
     List<Integer> elePage3 = getMockPageElements(items, instance.pageSize, 2);